@@ -59,6 +59,7 @@ import sun.misc.Unsafe;
 import sun.reflect.CallerSensitive;
 import sun.reflect.Reflection;
 import sun.reflect.ReflectionFactory;
+import sun.reflect.SerialFieldAccessor;
 import sun.reflect.misc.ReflectUtil;
 
 /**
@@ -1996,13 +1997,27 @@ public class ObjectStreamClass implements Serializable {
 
     /**
      * Class for setting and retrieving serializable field values in batch.
+     * If the "sun.io.serialization.generatedFieldAccessors" property is
+     * true, the values of fields that are bound to local fields are got
+     * and set by an accessor generated for the class, with one field
+     * access per field and no per-field type dispatch; the marshalled
+     * values are the same either way.
      */
-    // REMIND: dynamically generate these?
     private static class FieldReflector {
 
         /** handle for performing unsafe operations */
         private static final Unsafe unsafe = Unsafe.getUnsafe();
 
+        /**
+         * value of "sun.io.serialization.generatedFieldAccessors" property,
+         * as true or false for generating field accessors
+         */
+        private static final boolean generateAccessors =
+            AccessController.doPrivileged(
+                new sun.security.action.GetBooleanAction(
+                    "sun.io.serialization.generatedFieldAccessors"))
+                .booleanValue();
+
         /** fields to operate on */
         private final ObjectStreamField[] fields;
         /** number of primitive fields */
@@ -2017,6 +2032,8 @@ public class ObjectStreamClass implements Serializable {
         private final char[] typeCodes;
         /** field types */
         private final Class<?>[] types;
+        /** generated accessor, or null if field values are accessed here */
+        private final SerialFieldAccessor accessor;
 
         /**
          * Constructs FieldReflector capable of setting/getting values from the
@@ -2053,6 +2070,28 @@ public class ObjectStreamClass implements Serializable {
 
             types = typeList.toArray(new Class<?>[typeList.size()]);
             numPrimFields = nfields - types.length;
+            accessor = generateAccessors ? newAccessor() : null;
+        }
+
+        /**
+         * Returns an accessor generated for the fields with local
+         * bindings, or null if there are none or they cannot be handled
+         * by a generated accessor.  Fields are set only where writeKeys
+         * holds a valid key, as in setPrimFieldValues/setObjFieldValues.
+         */
+        private SerialFieldAccessor newAccessor() {
+            int nfields = fields.length;
+            Field[] rfs = new Field[nfields];
+            boolean[] settable = new boolean[nfields];
+            boolean bound = false;
+            for (int i = 0; i < nfields; i++) {
+                rfs[i] = fields[i].getField();
+                settable[i] = (writeKeys[i] != Unsafe.INVALID_FIELD_OFFSET);
+                bound |= (rfs[i] != null);
+            }
+            return bound ?
+                reflFactory.newSerialFieldAccessor(rfs, settable, offsets) :
+                null;
         }
 
         /**
@@ -2074,6 +2113,10 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            if (accessor != null) {
+                accessor.getPrimFieldValues(obj, buf);
+                return;
+            }
             /* assuming checkDefaultSerialize() has been called on the class
              * descriptor this FieldReflector was obtained from, no field keys
              * in array should be equal to Unsafe.INVALID_FIELD_OFFSET.
@@ -2129,6 +2172,10 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            if (accessor != null) {
+                accessor.setPrimFieldValues(obj, buf);
+                return;
+            }
             for (int i = 0; i < numPrimFields; i++) {
                 long key = writeKeys[i];
                 if (key == Unsafe.INVALID_FIELD_OFFSET) {
@@ -2183,6 +2230,10 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            if (accessor != null) {
+                accessor.getObjFieldValues(obj, vals);
+                return;
+            }
             /* assuming checkDefaultSerialize() has been called on the class
              * descriptor this FieldReflector was obtained from, no field keys
              * in array should be equal to Unsafe.INVALID_FIELD_OFFSET.
@@ -2211,6 +2262,13 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            if (accessor != null) {
+                int i = accessor.setObjFieldValues(obj, vals);
+                if (i >= 0) {
+                    throw fieldTypeMismatch(obj, i, vals[offsets[i]]);
+                }
+                return;
+            }
             for (int i = numPrimFields; i < fields.length; i++) {
                 long key = writeKeys[i];
                 if (key == Unsafe.INVALID_FIELD_OFFSET) {
@@ -2223,14 +2281,7 @@ public class ObjectStreamClass implements Serializable {
                         if (val != null &&
                             !types[i - numPrimFields].isInstance(val))
                         {
-                            Field f = fields[i].getField();
-                            throw new ClassCastException(
-                                "cannot assign instance of " +
-                                val.getClass().getName() + " to field " +
-                                f.getDeclaringClass().getName() + "." +
-                                f.getName() + " of type " +
-                                f.getType().getName() + " in instance of " +
-                                obj.getClass().getName());
+                            throw fieldTypeMismatch(obj, i, val);
                         }
                         unsafe.putObject(obj, key, val);
                         break;
@@ -2240,6 +2291,23 @@ public class ObjectStreamClass implements Serializable {
                 }
             }
         }
+
+        /**
+         * Returns the exception to throw when val cannot be assigned to
+         * the i'th field of obj.
+         */
+        private ClassCastException fieldTypeMismatch(Object obj, int i,
+                                                     Object val)
+        {
+            Field f = fields[i].getField();
+            return new ClassCastException(
+                "cannot assign instance of " +
+                val.getClass().getName() + " to field " +
+                f.getDeclaringClass().getName() + "." +
+                f.getName() + " of type " +
+                f.getType().getName() + " in instance of " +
+                obj.getClass().getName());
+        }
     }
 
     /**
@@ -25,14 +25,22 @@
 
 package java.net;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Random;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.security.AccessController;
 import java.io.ObjectStreamException;
 import java.io.ObjectStreamField;
@@ -43,6 +51,7 @@ import java.io.ObjectOutputStream;
 import java.io.ObjectOutputStream.PutField;
 import sun.security.action.*;
 import sun.net.InetAddressCachePolicy;
+import sun.net.InetAddressCacheMXBean;
 import sun.net.util.IPAddressUtil;
 import sun.net.spi.nameservice.*;
 
@@ -733,13 +742,29 @@ class InetAddress implements java.io.Serializable {
 
     private static Cache negativeCache = new Cache(Cache.Type.Negative);
 
-    private static boolean addressCacheInit = false;
+    private static volatile boolean addressCacheInit = false;
 
     static InetAddress[]    unknown_array; // put THIS in cache
 
     static InetAddressImpl  impl;
 
-    private static final HashMap<String, Void> lookupTable = new HashMap<>();
+    /*
+     * Hosts being looked up, each with the latch its waiters block on.
+     * Threads resolving the same host wait for the thread doing the
+     * lookup, lookups of other hosts are not affected.
+     */
+    private static final ConcurrentHashMap<String, CountDownLatch> lookupTable =
+        new ConcurrentHashMap<>();
+
+    /* cache and lookup statistics */
+    static final CacheStats cacheStats = new CacheStats();
+
+    /*
+     * Number of seconds before expiry at which a hit on a positive cache
+     * entry starts a background refresh of that entry. 0 disables it.
+     */
+    private static final int refreshAhead = AccessController.doPrivileged(
+        new GetIntegerAction("sun.net.inetaddr.refreshAhead", 0)).intValue();
 
     /**
      * Represents a cache entry
@@ -753,14 +778,24 @@ class InetAddress implements java.io.Serializable {
 
         InetAddress[] addresses;
         long expiration;
+        // time of the last hit, used for LRU eviction
+        volatile long lastAccess;
     }
 
     /**
      * A cache that manages entries based on a policy specified
-     * at creation time.
+     * at creation time. Entries are held in a concurrent map, so
+     * lookups never block each other. When the cache grows beyond
+     * its maximum size, expired entries and then the least recently
+     * used ones are evicted.
      */
     static final class Cache {
-        private LinkedHashMap<String, CacheEntry> cache;
+        /* maximum number of entries, set by "sun.net.inetaddr.cacheSize" */
+        private static final int MAX_SIZE = AccessController.doPrivileged(
+            new GetIntegerAction("sun.net.inetaddr.cacheSize", 4096)).intValue();
+
+        private final ConcurrentHashMap<String, CacheEntry> cache;
+        private final AtomicBoolean evicting = new AtomicBoolean();
         private Type type;
 
         enum Type {Positive, Negative};
@@ -770,7 +805,7 @@ class InetAddress implements java.io.Serializable {
          */
         public Cache(Type type) {
             this.type = type;
-            cache = new LinkedHashMap<String, CacheEntry>();
+            cache = new ConcurrentHashMap<String, CacheEntry>();
         }
 
         private int getPolicy() {
@@ -781,6 +816,10 @@ class InetAddress implements java.io.Serializable {
             }
         }
 
+        int size() {
+            return cache.size();
+        }
+
         /**
          * Add an entry to the cache. If there's already an
          * entry then for this host then the entry will be
@@ -792,44 +831,72 @@ class InetAddress implements java.io.Serializable {
                 return this;
             }
 
-            // purge any expired entries
-
-            if (policy != InetAddressCachePolicy.FOREVER) {
-
-                // As we iterate in insertion order we can
-                // terminate when a non-expired entry is found.
-                LinkedList<String> expired = new LinkedList<>();
-                long now = System.currentTimeMillis();
-                for (String key : cache.keySet()) {
-                    CacheEntry entry = cache.get(key);
-
-                    if (entry.expiration >= 0 && entry.expiration < now) {
-                        expired.add(key);
-                    } else {
-                        break;
-                    }
-                }
-
-                for (String key : expired) {
-                    cache.remove(key);
-                }
-            }
-
             // create new entry and add it to the cache
-            // -- as a HashMap replaces existing entries we
+            // -- as a map replaces existing entries we
             //    don't need to explicitly check if there is
             //    already an entry for this host.
+            long now = System.currentTimeMillis();
             long expiration;
             if (policy == InetAddressCachePolicy.FOREVER) {
                 expiration = -1;
             } else {
-                expiration = System.currentTimeMillis() + (policy * 1000);
+                expiration = now + (policy * 1000);
             }
             CacheEntry entry = new CacheEntry(addresses, expiration);
+            entry.lastAccess = now;
             cache.put(host, entry);
+
+            if (MAX_SIZE > 0 && cache.size() > MAX_SIZE) {
+                evict(now);
+            }
             return this;
         }
 
+        /*
+         * Removes expired entries, then the least recently used ones
+         * until the cache is at 90% of its maximum size. Only one
+         * thread evicts at a time, the others carry on.
+         */
+        private void evict(long now) {
+            if (!evicting.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                int evicted = 0;
+                Iterator<CacheEntry> it = cache.values().iterator();
+                while (it.hasNext()) {
+                    CacheEntry e = it.next();
+                    if (e.expiration >= 0 && e.expiration < now) {
+                        it.remove();
+                        evicted++;
+                    }
+                }
+                int target = MAX_SIZE - MAX_SIZE / 10;
+                if (cache.size() > target) {
+                    List<Map.Entry<String, CacheEntry>> entries =
+                        new ArrayList<>(cache.entrySet());
+                    long[] access = new long[entries.size()];
+                    for (int i = 0; i < access.length; i++) {
+                        access[i] = entries.get(i).getValue().lastAccess;
+                    }
+                    Arrays.sort(access);
+                    // evict everything not newer than the cutoff
+                    int n = entries.size() - target;
+                    long cutoff = access[n - 1];
+                    for (Map.Entry<String, CacheEntry> me : entries) {
+                        if (n > 0 && me.getValue().lastAccess <= cutoff
+                                && cache.remove(me.getKey(), me.getValue())) {
+                            n--;
+                            evicted++;
+                        }
+                    }
+                }
+                cacheStats.evictions.add(evicted);
+            } finally {
+                evicting.set(false);
+            }
+        }
+
         /**
          * Query the cache for the specific host. If found then
          * return its CacheEntry, or null if not found.
@@ -840,15 +907,20 @@ class InetAddress implements java.io.Serializable {
                 return null;
             }
             CacheEntry entry = cache.get(host);
+            if (entry == null) {
+                return null;
+            }
 
             // check if entry has expired
-            if (entry != null && policy != InetAddressCachePolicy.FOREVER) {
+            long now = System.currentTimeMillis();
+            if (policy != InetAddressCachePolicy.FOREVER) {
                 if (entry.expiration >= 0 &&
-                    entry.expiration < System.currentTimeMillis()) {
-                    cache.remove(host);
-                    entry = null;
+                    entry.expiration < now) {
+                    cache.remove(host, entry);
+                    return null;
                 }
             }
+            entry.lastAccess = now;
 
             return entry;
         }
@@ -859,17 +931,21 @@ class InetAddress implements java.io.Serializable {
      * unknown array with no expiry.
      */
     private static void cacheInitIfNeeded() {
-        assert Thread.holdsLock(addressCache);
         if (addressCacheInit) {
             return;
         }
-        unknown_array = new InetAddress[1];
-        unknown_array[0] = impl.anyLocalAddress();
+        synchronized (addressCache) {
+            if (addressCacheInit) {
+                return;
+            }
+            unknown_array = new InetAddress[1];
+            unknown_array[0] = impl.anyLocalAddress();
 
-        addressCache.put(impl.anyLocalAddress().getHostName(),
-                         unknown_array);
+            addressCache.put(impl.anyLocalAddress().getHostName(),
+                             unknown_array);
 
-        addressCacheInit = true;
+            addressCacheInit = true;
+        }
     }
 
     /*
@@ -879,13 +955,11 @@ class InetAddress implements java.io.Serializable {
                                        InetAddress[] addresses,
                                        boolean success) {
         hostname = hostname.toLowerCase();
-        synchronized (addressCache) {
-            cacheInitIfNeeded();
-            if (success) {
-                addressCache.put(hostname, addresses);
-            } else {
-                negativeCache.put(hostname, addresses);
-            }
+        cacheInitIfNeeded();
+        if (success) {
+            addressCache.put(hostname, addresses);
+        } else {
+            negativeCache.put(hostname, addresses);
         }
     }
 
@@ -898,23 +972,159 @@ class InetAddress implements java.io.Serializable {
 
         // search both positive & negative caches
 
-        synchronized (addressCache) {
-            cacheInitIfNeeded();
-
-            CacheEntry entry = addressCache.get(hostname);
-            if (entry == null) {
-                entry = negativeCache.get(hostname);
-            }
+        cacheInitIfNeeded();
 
-            if (entry != null) {
-                return entry.addresses;
+        CacheEntry entry = addressCache.get(hostname);
+        if (entry != null) {
+            if (refreshAhead > 0 && entry.expiration >= 0 &&
+                entry.expiration - refreshAhead * 1000L <= entry.lastAccess) {
+                refreshAsync(hostname);
             }
+            return entry.addresses;
+        }
+        entry = negativeCache.get(hostname);
+        if (entry != null) {
+            return entry.addresses;
         }
 
         // not found
         return null;
     }
 
+    /*
+     * Executor for refresh-ahead lookups, created on first use.
+     */
+    private static class RefreshExecutor {
+        static final ThreadPoolExecutor executor;
+        static {
+            executor = new ThreadPoolExecutor(4, 4, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    public Thread newThread(final Runnable r) {
+                        return AccessController.doPrivileged(
+                            new java.security.PrivilegedAction<Thread>() {
+                                public Thread run() {
+                                    Thread t = new Thread(r, "InetAddress-Refresh");
+                                    t.setDaemon(true);
+                                    t.setContextClassLoader(null);
+                                    return t;
+                                }
+                            });
+                    }
+                });
+            executor.allowCoreThreadTimeOut(true);
+        }
+    }
+
+    /*
+     * Looks up the given host again in the background, unless a lookup
+     * of that host is already in progress. The current entry stays in
+     * the cache, and is kept if the lookup fails.
+     */
+    private static void refreshAsync(final String host) {
+        if (lookupTable.putIfAbsent(host, new CountDownLatch(1)) != null) {
+            return;
+        }
+        try {
+            RefreshExecutor.executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        AccessController.doPrivileged(
+                            new java.security.PrivilegedAction<Void>() {
+                                public Void run() {
+                                    refresh(host);
+                                    return null;
+                                }
+                            });
+                    } finally {
+                        updateLookupTable(host);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            updateLookupTable(host);
+        }
+    }
+
+    private static void refresh(String host) {
+        cacheStats.refreshes.increment();
+        long start = System.nanoTime();
+        for (NameService nameService : nameServices) {
+            try {
+                InetAddress[] addresses = nameService.lookupAllHostAddr(host);
+                cacheStats.lookedUp(System.nanoTime() - start, true);
+                cacheAddresses(host, addresses, true);
+                return;
+            } catch (UnknownHostException uhe) {
+                // try the next name service
+            }
+        }
+        cacheStats.lookedUp(System.nanoTime() - start, false);
+    }
+
+    /*
+     * Counters for the address cache, exposed through
+     * InetAddressCacheMXBean.
+     */
+    static final class CacheStats implements InetAddressCacheMXBean {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder lookups = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder lookupNanos = new LongAdder();
+        final LongAdder refreshes = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+
+        void lookedUp(long nanos, boolean success) {
+            lookups.increment();
+            lookupNanos.add(nanos);
+            if (!success) {
+                failures.increment();
+            }
+        }
+
+        public int getCacheSize() {
+            return addressCache.size();
+        }
+
+        public int getNegativeCacheSize() {
+            return negativeCache.size();
+        }
+
+        public long getHitCount() {
+            return hits.sum();
+        }
+
+        public long getMissCount() {
+            return misses.sum();
+        }
+
+        public long getLookupCount() {
+            return lookups.sum();
+        }
+
+        public long getLookupFailureCount() {
+            return failures.sum();
+        }
+
+        public long getTotalLookupTime() {
+            return TimeUnit.NANOSECONDS.toMillis(lookupNanos.sum());
+        }
+
+        public long getRefreshCount() {
+            return refreshes.sum();
+        }
+
+        public long getEvictionCount() {
+            return evictions.sum();
+        }
+
+        public javax.management.ObjectName getObjectName() {
+            return sun.management.Util.newObjectName(
+                "java.net:type=InetAddressCache");
+        }
+    }
+
     private static NameService createNSProvider(String provider) {
         if (provider == null)
             return null;
@@ -1273,7 +1483,10 @@ class InetAddress implements java.io.Serializable {
 
         /* If no entry in cache, then do the host lookup */
         if (addresses == null) {
+            cacheStats.misses.increment();
             addresses = getAddressesFromNameService(host, reqAddr);
+        } else {
+            cacheStats.hits.increment();
         }
 
         if (addresses == unknown_array)
@@ -1312,6 +1525,7 @@ class InetAddress implements java.io.Serializable {
                 // This is the first thread which looks up the addresses
                 // this host or the cache entry for this host has been
                 // expired so this thread should do the lookup.
+                long start = System.nanoTime();
                 for (NameService nameService : nameServices) {
                     try {
                         /*
@@ -1338,6 +1552,8 @@ class InetAddress implements java.io.Serializable {
                     }
                 }
 
+                cacheStats.lookedUp(System.nanoTime() - start, success);
+
                 // More to do?
                 if (reqAddr != null && addresses.length > 1 && !addresses[0].equals(reqAddr)) {
                     // Find it?
@@ -1376,45 +1592,41 @@ class InetAddress implements java.io.Serializable {
 
 
     private static InetAddress[] checkLookupTable(String host) {
-        synchronized (lookupTable) {
+        while (true) {
             // If the host isn't in the lookupTable, add it in the
             // lookuptable and return null. The caller should do
             // the lookup.
-            if (lookupTable.containsKey(host) == false) {
-                lookupTable.put(host, null);
+            CountDownLatch latch = lookupTable.putIfAbsent(host, new CountDownLatch(1));
+            if (latch == null) {
                 return null;
             }
 
             // If the host is in the lookupTable, it means that another
             // thread is trying to look up the addresses of this host.
             // This thread should wait.
-            while (lookupTable.containsKey(host)) {
+            while (true) {
                 try {
-                    lookupTable.wait();
+                    latch.await();
+                    break;
                 } catch (InterruptedException e) {
                 }
             }
-        }
 
-        // The other thread has finished looking up the addresses of
-        // the host. This thread should retry to get the addresses
-        // from the addressCache. If it doesn't get the addresses from
-        // the cache, it will try to look up the addresses itself.
-        InetAddress[] addresses = getCachedAddresses(host);
-        if (addresses == null) {
-            synchronized (lookupTable) {
-                lookupTable.put(host, null);
-                return null;
+            // The other thread has finished looking up the addresses of
+            // the host. This thread should retry to get the addresses
+            // from the addressCache. If it doesn't get the addresses from
+            // the cache, it will try to look up the addresses itself.
+            InetAddress[] addresses = getCachedAddresses(host);
+            if (addresses != null) {
+                return addresses;
             }
         }
-
-        return addresses;
     }
 
     private static void updateLookupTable(String host) {
-        synchronized (lookupTable) {
-            lookupTable.remove(host);
-            lookupTable.notifyAll();
+        CountDownLatch latch = lookupTable.remove(host);
+        if (latch != null) {
+            latch.countDown();
         }
     }
 
@@ -778,6 +778,10 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
                 public String getOriginalHostName(InetAddress ia) {
                     return ia.holder.getOriginalHostName();
                 }
+
+                public sun.net.InetAddressCacheMXBean getInetAddressCacheMXBean() {
+                    return InetAddress.cacheStats;
+                }
             }
         );
         ClassLoader.registerAsParallelCapable();
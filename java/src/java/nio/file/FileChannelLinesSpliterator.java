@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.file;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A file-based lines spliterator, leveraging a shared file channel and
+ * memory mapped regions of the file.
+ *
+ * <p> This spliterator is used when the charset is one of the charsets in
+ * {@link #SUPPORTED_CHARSET_NAMES}. In these charsets the line feed and
+ * carriage return characters are encoded as the bytes {@code '\n'} and
+ * {@code '\r'}, and those bytes do not occur in the encoding of any other
+ * character, so the file can be split at a line terminator without
+ * decoding it.
+ *
+ * <p> Splitting maps a window of the file around the midpoint of the
+ * remaining range and scans it outwards for a line terminator. The
+ * prefix up to and including the line terminator is returned as the new
+ * spliterator. If no line terminator is found within the window the
+ * spliterator does not split.
+ *
+ * <p> Traversal decodes the lines of the remaining range with a
+ * {@link BufferedReader} over a channel that maps the range a window at
+ * a time, so files larger than a single mapping can be traversed. Once
+ * traversal has started the spliterator no longer splits.
+ *
+ * <p> The estimated size is the number of bytes remaining, which is
+ * proportional to the number of lines for the purpose of balancing the
+ * splits of a parallel stream.
+ */
+final class FileChannelLinesSpliterator implements Spliterator<String> {
+
+    static final Set<String> SUPPORTED_CHARSET_NAMES;
+    static {
+        SUPPORTED_CHARSET_NAMES = new HashSet<>(Arrays.asList(
+            StandardCharsets.UTF_8.name(),
+            StandardCharsets.ISO_8859_1.name(),
+            StandardCharsets.US_ASCII.name()));
+    }
+
+    // the window mapped around the midpoint when splitting
+    private static final int SPLIT_WINDOW = 1 << 20;
+
+    // the window mapped at a time when traversing
+    private static final int TRAVERSE_WINDOW = 1 << 26;
+
+    private final FileChannel fc;
+    private final Charset cs;
+    private long index;
+    private final long fence;
+
+    // Non-null when traversing
+    private BufferedReader reader;
+
+    FileChannelLinesSpliterator(FileChannel fc, Charset cs,
+                                long index, long fence) {
+        this.fc = fc;
+        this.cs = cs;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        String line = readLine();
+        if (line != null) {
+            action.accept(line);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        String line;
+        while ((line = readLine()) != null) {
+            action.accept(line);
+        }
+    }
+
+    private BufferedReader getBufferedReader() {
+        /*
+         * A readable byte channel that maps the remaining range of the
+         * file a window at a time and copies from the mapped window.
+         */
+        ReadableByteChannel rrbc = new ReadableByteChannel() {
+            private long pos = index;
+            private MappedByteBuffer window;
+
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                if (window == null || !window.hasRemaining()) {
+                    long rem = fence - pos;
+                    if (rem <= 0) {
+                        return -1;
+                    }
+                    window = fc.map(FileChannel.MapMode.READ_ONLY, pos,
+                                    Math.min(rem, TRAVERSE_WINDOW));
+                    pos += window.capacity();
+                }
+                int n = Math.min(dst.remaining(), window.remaining());
+                int limit = window.limit();
+                window.limit(window.position() + n);
+                dst.put(window);
+                window.limit(limit);
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return fc.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                fc.close();
+            }
+        };
+        return new BufferedReader(Channels.newReader(rrbc, cs.newDecoder(), -1));
+    }
+
+    private String readLine() {
+        if (reader == null) {
+            reader = getBufferedReader();
+        }
+
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        // Cannot split after partial traverse
+        if (reader != null)
+            return null;
+
+        long lo = index, hi = fence;
+        long mid = (lo + hi) >>> 1;
+        if (mid <= lo)
+            return null;
+
+        // Map a window around the mid point, the byte at mid included
+        long wlo = Math.max(lo, mid - SPLIT_WINDOW);
+        long whi = Math.min(hi, mid + SPLIT_WINDOW);
+        ByteBuffer b;
+        try {
+            b = fc.map(FileChannel.MapMode.READ_ONLY, wlo, whi - wlo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int m = (int)(mid - wlo);
+        int wl = 0, wh = b.limit();
+        int c = b.get(m);
+        int split = -1;
+        if (c == '\n') {
+            split = m + 1;
+        } else if (c == '\r') {
+            // Check if a line separator of "\r\n" is present
+            split = m + 1;
+            if (split < wh && b.get(split) == '\n')
+                split++;
+        } else {
+            // Scan to the left and right of the mid point
+            int midL = m - 1;
+            int midR = m + 1;
+            while (midL >= wl || midR < wh) {
+                // Sample to the left
+                if (midL >= wl) {
+                    c = b.get(midL--);
+                    if (c == '\n' || c == '\r') {
+                        // If c is "\r" then no need to check for "\r\n"
+                        // since the subsequent value was previously checked
+                        split = midL + 2;
+                        break;
+                    }
+                }
+                // Sample to the right
+                if (midR < wh) {
+                    c = b.get(midR++);
+                    if (c == '\n' || c == '\r') {
+                        split = midR;
+                        // Check if line-separator is "\r\n"
+                        if (midR < wh && b.get(midR) == '\n')
+                            split++;
+                        break;
+                    }
+                }
+            }
+        }
+
+        // A "\r\n" may straddle the end of the window
+        if (split == wh && whi < hi && b.get(wh - 1) == '\r')
+            return null;
+        long at = wlo + split;
+
+        // The left spliterator will have the line-separator at the end
+        return (split >= 0 && at > lo && at < hi)
+               ? new FileChannelLinesSpliterator(fc, cs, lo, index = at)
+               : null;
+    }
+
+    @Override
+    public long estimateSize() {
+        // Use the number of bytes as an estimate.
+        // We could divide by a constant that is the average number of
+        // characters per-line, but that constant will be factored out.
+        return fence - index;
+    }
+
+    @Override
+    public long getExactSizeIfKnown() {
+        return -1;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+}
@@ -963,6 +963,546 @@ public class Arrays {
                  MIN_ARRAY_SORT_GRAN : g).invoke();
     }
 
+    // Radix sorting
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * @implNote The sorting algorithm is a least significant digit radix sort,
+     * which sorts the values a byte at a time, from the least to the most
+     * significant, with a stable counting sort, and skips the bytes that all
+     * values share. It makes at most five passes over the values, regardless
+     * of their order, and is typically faster than {@link Arrays#sort(int[])
+     * Arrays.sort} on large arrays of random values. If the length of the
+     * array is less than a threshold, it is sorted using {@link
+     * Arrays#sort(int[]) Arrays.sort} instead. The algorithm requires a
+     * working space the size of the array.
+     *
+     * @param a the array to be sorted
+     */
+    public static void radixSort(int[] a) {
+        RadixSort.sort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order, in parallel.
+     *
+     * @implNote The sorting algorithm is a parallel radix sort. The array is
+     * divided into chunks, whose values are counted by their most significant
+     * byte and then distributed into buckets by that byte, all chunks in
+     * parallel. Buckets larger than a minimum granularity are distributed
+     * again by the next byte, in parallel, while smaller ones are sorted
+     * sequentially by their remaining bytes. If the length of the array is
+     * less than the minimum granularity, then it is sorted using the
+     * appropriate {@link Arrays#radixSort(int[]) Arrays.radixSort} method. The
+     * algorithm requires a working space the size of the array. The {@link
+     * ForkJoinPool#commonPool() ForkJoin common pool} is used to execute any
+     * parallel tasks.
+     *
+     * @param a the array to be sorted
+     */
+    public static void parallelRadixSort(int[] a) {
+        int n = a.length, p, g;
+        if (n <= MIN_ARRAY_SORT_GRAN ||
+            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+            RadixSort.sort(a, 0, a.length);
+        else
+            RadixSort.parallelSort(a, 0, a.length,
+                                   ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+                                   MIN_ARRAY_SORT_GRAN : g);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order.
+     * The range to be sorted extends from the index {@code fromIndex},
+     * inclusive, to the index {@code toIndex}, exclusive. If {@code fromIndex
+     * == toIndex}, the range to be sorted is empty.
+     *
+     * @implNote The sorting algorithm is a least significant digit radix sort,
+     * which sorts the values a byte at a time, from the least to the most
+     * significant, with a stable counting sort, and skips the bytes that all
+     * values share. It makes at most five passes over the values, regardless
+     * of their order, and is typically faster than {@link Arrays#sort(int[])
+     * Arrays.sort} on large arrays of random values. If the length of the
+     * range is less than a threshold, it is sorted using {@link
+     * Arrays#sort(int[]) Arrays.sort} instead. The algorithm requires a
+     * working space the size of the range.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     */
+    public static void radixSort(int[] a, int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        RadixSort.sort(a, fromIndex, toIndex);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order,
+     * in parallel. The range to be sorted extends from the index {@code
+     * fromIndex}, inclusive, to the index {@code toIndex}, exclusive. If
+     * {@code fromIndex == toIndex}, the range to be sorted is empty.
+     *
+     * @implNote The sorting algorithm is a parallel radix sort. The range is
+     * divided into chunks, whose values are counted by their most significant
+     * byte and then distributed into buckets by that byte, all chunks in
+     * parallel. Buckets larger than a minimum granularity are distributed
+     * again by the next byte, in parallel, while smaller ones are sorted
+     * sequentially by their remaining bytes. If the length of the range is
+     * less than the minimum granularity, then it is sorted using the
+     * appropriate {@link Arrays#radixSort(int[]) Arrays.radixSort} method. The
+     * algorithm requires a working space the size of the range. The {@link
+     * ForkJoinPool#commonPool() ForkJoin common pool} is used to execute any
+     * parallel tasks.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     */
+    public static void parallelRadixSort(int[] a, int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex, p, g;
+        if (n <= MIN_ARRAY_SORT_GRAN ||
+            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+            RadixSort.sort(a, fromIndex, toIndex);
+        else
+            RadixSort.parallelSort(a, fromIndex, toIndex,
+                                   ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+                                   MIN_ARRAY_SORT_GRAN : g);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * @implNote The sorting algorithm is a least significant digit radix sort,
+     * which sorts the values a byte at a time, from the least to the most
+     * significant, with a stable counting sort, and skips the bytes that all
+     * values share. It makes at most nine passes over the values, regardless
+     * of their order, and is typically faster than {@link Arrays#sort(long[])
+     * Arrays.sort} on large arrays of random values. If the length of the
+     * array is less than a threshold, it is sorted using {@link
+     * Arrays#sort(long[]) Arrays.sort} instead. The algorithm requires a
+     * working space the size of the array.
+     *
+     * @param a the array to be sorted
+     */
+    public static void radixSort(long[] a) {
+        RadixSort.sort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order, in parallel.
+     *
+     * @implNote The sorting algorithm is a parallel radix sort. The array is
+     * divided into chunks, whose values are counted by their most significant
+     * byte and then distributed into buckets by that byte, all chunks in
+     * parallel. Buckets larger than a minimum granularity are distributed
+     * again by the next byte, in parallel, while smaller ones are sorted
+     * sequentially by their remaining bytes. If the length of the array is
+     * less than the minimum granularity, then it is sorted using the
+     * appropriate {@link Arrays#radixSort(long[]) Arrays.radixSort} method.
+     * The algorithm requires a working space the size of the array. The {@link
+     * ForkJoinPool#commonPool() ForkJoin common pool} is used to execute any
+     * parallel tasks.
+     *
+     * @param a the array to be sorted
+     */
+    public static void parallelRadixSort(long[] a) {
+        int n = a.length, p, g;
+        if (n <= MIN_ARRAY_SORT_GRAN ||
+            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+            RadixSort.sort(a, 0, a.length);
+        else
+            RadixSort.parallelSort(a, 0, a.length,
+                                   ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+                                   MIN_ARRAY_SORT_GRAN : g);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order.
+     * The range to be sorted extends from the index {@code fromIndex},
+     * inclusive, to the index {@code toIndex}, exclusive. If {@code fromIndex
+     * == toIndex}, the range to be sorted is empty.
+     *
+     * @implNote The sorting algorithm is a least significant digit radix sort,
+     * which sorts the values a byte at a time, from the least to the most
+     * significant, with a stable counting sort, and skips the bytes that all
+     * values share. It makes at most nine passes over the values, regardless
+     * of their order, and is typically faster than {@link Arrays#sort(long[])
+     * Arrays.sort} on large arrays of random values. If the length of the
+     * range is less than a threshold, it is sorted using {@link
+     * Arrays#sort(long[]) Arrays.sort} instead. The algorithm requires a
+     * working space the size of the range.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     */
+    public static void radixSort(long[] a, int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        RadixSort.sort(a, fromIndex, toIndex);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order,
+     * in parallel. The range to be sorted extends from the index {@code
+     * fromIndex}, inclusive, to the index {@code toIndex}, exclusive. If
+     * {@code fromIndex == toIndex}, the range to be sorted is empty.
+     *
+     * @implNote The sorting algorithm is a parallel radix sort. The range is
+     * divided into chunks, whose values are counted by their most significant
+     * byte and then distributed into buckets by that byte, all chunks in
+     * parallel. Buckets larger than a minimum granularity are distributed
+     * again by the next byte, in parallel, while smaller ones are sorted
+     * sequentially by their remaining bytes. If the length of the range is
+     * less than the minimum granularity, then it is sorted using the
+     * appropriate {@link Arrays#radixSort(long[]) Arrays.radixSort} method.
+     * The algorithm requires a working space the size of the range. The {@link
+     * ForkJoinPool#commonPool() ForkJoin common pool} is used to execute any
+     * parallel tasks.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     */
+    public static void parallelRadixSort(long[] a, int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex, p, g;
+        if (n <= MIN_ARRAY_SORT_GRAN ||
+            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+            RadixSort.sort(a, fromIndex, toIndex);
+        else
+            RadixSort.parallelSort(a, fromIndex, toIndex,
+                                   ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+                                   MIN_ARRAY_SORT_GRAN : g);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * <p>The {@code <} relation does not provide a total order on all float
+     * values: {@code -0.0f == 0.0f} is {@code true} and a {@code Float.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Float#compareTo}: {@code -0.0f} is treated as less than value
+     * {@code 0.0f} and {@code Float.NaN} is considered greater than any
+     * other value and all {@code Float.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a least significant digit radix sort,
+     * which sorts the values a byte at a time, from the least to the most
+     * significant, with a stable counting sort, and skips the bytes that all
+     * values share. It makes at most five passes over the values, regardless
+     * of their order, and is typically faster than {@link Arrays#sort(float[])
+     * Arrays.sort} on large arrays of random values. NaNs are first moved to
+     * the end, and the other values are sorted as integer keys in the order of
+     * {@link Float#compare}. If the length of the array is less than a
+     * threshold, it is sorted using {@link Arrays#sort(float[]) Arrays.sort}
+     * instead. The algorithm requires a working space twice the size of the
+     * array.
+     *
+     * @param a the array to be sorted
+     */
+    public static void radixSort(float[] a) {
+        RadixSort.sort(a, 0, a.length, 0);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order, in parallel.
+     *
+     * <p>The {@code <} relation does not provide a total order on all float
+     * values: {@code -0.0f == 0.0f} is {@code true} and a {@code Float.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Float#compareTo}: {@code -0.0f} is treated as less than value
+     * {@code 0.0f} and {@code Float.NaN} is considered greater than any
+     * other value and all {@code Float.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a parallel radix sort. The array is
+     * divided into chunks, whose values are counted by their most significant
+     * byte and then distributed into buckets by that byte, all chunks in
+     * parallel. Buckets larger than a minimum granularity are distributed
+     * again by the next byte, in parallel, while smaller ones are sorted
+     * sequentially by their remaining bytes. NaNs are first moved to the end,
+     * and the other values are sorted as integer keys in the order of {@link
+     * Float#compare}. If the length of the array is less than the minimum
+     * granularity, then it is sorted using the appropriate {@link
+     * Arrays#radixSort(float[]) Arrays.radixSort} method. The algorithm
+     * requires a working space twice the size of the array. The {@link
+     * ForkJoinPool#commonPool() ForkJoin common pool} is used to execute any
+     * parallel tasks.
+     *
+     * @param a the array to be sorted
+     */
+    public static void parallelRadixSort(float[] a) {
+        int n = a.length, p, g;
+        if (n <= MIN_ARRAY_SORT_GRAN ||
+            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+            RadixSort.sort(a, 0, a.length, 0);
+        else
+            RadixSort.sort(a, 0, a.length,
+                           ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+                           MIN_ARRAY_SORT_GRAN : g);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order.
+     * The range to be sorted extends from the index {@code fromIndex},
+     * inclusive, to the index {@code toIndex}, exclusive. If {@code fromIndex
+     * == toIndex}, the range to be sorted is empty.
+     *
+     * <p>The {@code <} relation does not provide a total order on all float
+     * values: {@code -0.0f == 0.0f} is {@code true} and a {@code Float.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Float#compareTo}: {@code -0.0f} is treated as less than value
+     * {@code 0.0f} and {@code Float.NaN} is considered greater than any
+     * other value and all {@code Float.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a least significant digit radix sort,
+     * which sorts the values a byte at a time, from the least to the most
+     * significant, with a stable counting sort, and skips the bytes that all
+     * values share. It makes at most five passes over the values, regardless
+     * of their order, and is typically faster than {@link Arrays#sort(float[])
+     * Arrays.sort} on large arrays of random values. NaNs are first moved to
+     * the end, and the other values are sorted as integer keys in the order of
+     * {@link Float#compare}. If the length of the range is less than a
+     * threshold, it is sorted using {@link Arrays#sort(float[]) Arrays.sort}
+     * instead. The algorithm requires a working space twice the size of the
+     * range.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     */
+    public static void radixSort(float[] a, int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        RadixSort.sort(a, fromIndex, toIndex, 0);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order,
+     * in parallel. The range to be sorted extends from the index {@code
+     * fromIndex}, inclusive, to the index {@code toIndex}, exclusive. If
+     * {@code fromIndex == toIndex}, the range to be sorted is empty.
+     *
+     * <p>The {@code <} relation does not provide a total order on all float
+     * values: {@code -0.0f == 0.0f} is {@code true} and a {@code Float.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Float#compareTo}: {@code -0.0f} is treated as less than value
+     * {@code 0.0f} and {@code Float.NaN} is considered greater than any
+     * other value and all {@code Float.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a parallel radix sort. The range is
+     * divided into chunks, whose values are counted by their most significant
+     * byte and then distributed into buckets by that byte, all chunks in
+     * parallel. Buckets larger than a minimum granularity are distributed
+     * again by the next byte, in parallel, while smaller ones are sorted
+     * sequentially by their remaining bytes. NaNs are first moved to the end,
+     * and the other values are sorted as integer keys in the order of {@link
+     * Float#compare}. If the length of the range is less than the minimum
+     * granularity, then it is sorted using the appropriate {@link
+     * Arrays#radixSort(float[]) Arrays.radixSort} method. The algorithm
+     * requires a working space twice the size of the range. The {@link
+     * ForkJoinPool#commonPool() ForkJoin common pool} is used to execute any
+     * parallel tasks.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     */
+    public static void parallelRadixSort(float[] a,
+                                         int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex, p, g;
+        if (n <= MIN_ARRAY_SORT_GRAN ||
+            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+            RadixSort.sort(a, fromIndex, toIndex, 0);
+        else
+            RadixSort.sort(a, fromIndex, toIndex,
+                           ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+                           MIN_ARRAY_SORT_GRAN : g);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order.
+     *
+     * <p>The {@code <} relation does not provide a total order on all double
+     * values: {@code -0.0d == 0.0d} is {@code true} and a {@code Double.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Double#compareTo}: {@code -0.0d} is treated as less than value
+     * {@code 0.0d} and {@code Double.NaN} is considered greater than any
+     * other value and all {@code Double.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a least significant digit radix sort,
+     * which sorts the values a byte at a time, from the least to the most
+     * significant, with a stable counting sort, and skips the bytes that all
+     * values share. It makes at most nine passes over the values, regardless
+     * of their order, and is typically faster than {@link
+     * Arrays#sort(double[]) Arrays.sort} on large arrays of random values.
+     * NaNs are first moved to the end, and the other values are sorted as
+     * integer keys in the order of {@link Double#compare}. If the length of
+     * the array is less than a threshold, it is sorted using {@link
+     * Arrays#sort(double[]) Arrays.sort} instead. The algorithm requires a
+     * working space twice the size of the array.
+     *
+     * @param a the array to be sorted
+     */
+    public static void radixSort(double[] a) {
+        RadixSort.sort(a, 0, a.length, 0);
+    }
+
+    /**
+     * Sorts the specified array into ascending numerical order, in parallel.
+     *
+     * <p>The {@code <} relation does not provide a total order on all double
+     * values: {@code -0.0d == 0.0d} is {@code true} and a {@code Double.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Double#compareTo}: {@code -0.0d} is treated as less than value
+     * {@code 0.0d} and {@code Double.NaN} is considered greater than any
+     * other value and all {@code Double.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a parallel radix sort. The array is
+     * divided into chunks, whose values are counted by their most significant
+     * byte and then distributed into buckets by that byte, all chunks in
+     * parallel. Buckets larger than a minimum granularity are distributed
+     * again by the next byte, in parallel, while smaller ones are sorted
+     * sequentially by their remaining bytes. NaNs are first moved to the end,
+     * and the other values are sorted as integer keys in the order of {@link
+     * Double#compare}. If the length of the array is less than the minimum
+     * granularity, then it is sorted using the appropriate {@link
+     * Arrays#radixSort(double[]) Arrays.radixSort} method. The algorithm
+     * requires a working space twice the size of the array. The {@link
+     * ForkJoinPool#commonPool() ForkJoin common pool} is used to execute any
+     * parallel tasks.
+     *
+     * @param a the array to be sorted
+     */
+    public static void parallelRadixSort(double[] a) {
+        int n = a.length, p, g;
+        if (n <= MIN_ARRAY_SORT_GRAN ||
+            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+            RadixSort.sort(a, 0, a.length, 0);
+        else
+            RadixSort.sort(a, 0, a.length,
+                           ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+                           MIN_ARRAY_SORT_GRAN : g);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order.
+     * The range to be sorted extends from the index {@code fromIndex},
+     * inclusive, to the index {@code toIndex}, exclusive. If {@code fromIndex
+     * == toIndex}, the range to be sorted is empty.
+     *
+     * <p>The {@code <} relation does not provide a total order on all double
+     * values: {@code -0.0d == 0.0d} is {@code true} and a {@code Double.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Double#compareTo}: {@code -0.0d} is treated as less than value
+     * {@code 0.0d} and {@code Double.NaN} is considered greater than any
+     * other value and all {@code Double.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a least significant digit radix sort,
+     * which sorts the values a byte at a time, from the least to the most
+     * significant, with a stable counting sort, and skips the bytes that all
+     * values share. It makes at most nine passes over the values, regardless
+     * of their order, and is typically faster than {@link
+     * Arrays#sort(double[]) Arrays.sort} on large arrays of random values.
+     * NaNs are first moved to the end, and the other values are sorted as
+     * integer keys in the order of {@link Double#compare}. If the length of
+     * the range is less than a threshold, it is sorted using {@link
+     * Arrays#sort(double[]) Arrays.sort} instead. The algorithm requires a
+     * working space twice the size of the range.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     */
+    public static void radixSort(double[] a, int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        RadixSort.sort(a, fromIndex, toIndex, 0);
+    }
+
+    /**
+     * Sorts the specified range of the array into ascending numerical order,
+     * in parallel. The range to be sorted extends from the index {@code
+     * fromIndex}, inclusive, to the index {@code toIndex}, exclusive. If
+     * {@code fromIndex == toIndex}, the range to be sorted is empty.
+     *
+     * <p>The {@code <} relation does not provide a total order on all double
+     * values: {@code -0.0d == 0.0d} is {@code true} and a {@code Double.NaN}
+     * value compares neither less than, greater than, nor equal to any value,
+     * even itself. This method uses the total order imposed by the method
+     * {@link Double#compareTo}: {@code -0.0d} is treated as less than value
+     * {@code 0.0d} and {@code Double.NaN} is considered greater than any
+     * other value and all {@code Double.NaN} values are considered equal.
+     *
+     * @implNote The sorting algorithm is a parallel radix sort. The range is
+     * divided into chunks, whose values are counted by their most significant
+     * byte and then distributed into buckets by that byte, all chunks in
+     * parallel. Buckets larger than a minimum granularity are distributed
+     * again by the next byte, in parallel, while smaller ones are sorted
+     * sequentially by their remaining bytes. NaNs are first moved to the end,
+     * and the other values are sorted as integer keys in the order of {@link
+     * Double#compare}. If the length of the range is less than the minimum
+     * granularity, then it is sorted using the appropriate {@link
+     * Arrays#radixSort(double[]) Arrays.radixSort} method. The algorithm
+     * requires a working space twice the size of the range. The {@link
+     * ForkJoinPool#commonPool() ForkJoin common pool} is used to execute any
+     * parallel tasks.
+     *
+     * @param a the array to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex the index of the last element, exclusive, to be sorted
+     *
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > a.length}
+     */
+    public static void parallelRadixSort(double[] a,
+                                         int fromIndex, int toIndex) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        int n = toIndex - fromIndex, p, g;
+        if (n <= MIN_ARRAY_SORT_GRAN ||
+            (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
+            RadixSort.sort(a, fromIndex, toIndex, 0);
+        else
+            RadixSort.sort(a, fromIndex, toIndex,
+                           ((g = n / (p << 2)) <= MIN_ARRAY_SORT_GRAN) ?
+                           MIN_ARRAY_SORT_GRAN : g);
+    }
+
     /**
      * Sorts the specified array of objects into ascending order, according
      * to the {@linkplain Comparable natural ordering} of its elements.
@@ -0,0 +1,2200 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * A B+-tree based {@link NavigableMap} implementation.
+ * The map is sorted according to the {@linkplain Comparable natural
+ * ordering} of its keys, or by a {@link Comparator} provided at map
+ * creation time, depending on which constructor is used.
+ *
+ * <p>Mappings are stored in leaf nodes holding up to 64 keys and values
+ * in a pair of arrays, linked to their neighbors, under inner nodes
+ * holding up to 64 children.  Compared to {@link TreeMap}, which has an
+ * entry object per mapping, this takes less than half the memory per
+ * mapping, and lookups touch a handful of nodes instead of a long chain
+ * of entries scattered across the heap, which matters most for large
+ * maps.  Iteration, over the whole map or over a sub map, walks the
+ * leaves in order, and {@code size()} of a sub map counts whole leaves.
+ * The {@link #BTreeMap(SortedMap)} constructor, {@code putAll} into an
+ * empty map from a {@code SortedMap} with the same ordering, {@code clone}
+ * and deserialization build the tree in linear time, with full leaves.
+ * Insertions at the end of the map, as of increasing keys, also leave
+ * full leaves behind.
+ *
+ * <p>This implementation provides guaranteed log(n) time cost for the
+ * {@code containsKey}, {@code get}, {@code put} and {@code remove}
+ * operations, although {@code put} and {@code remove} move up to 63
+ * mappings within a leaf.
+ *
+ * <p>Note that the ordering maintained by a B-tree map, like any sorted
+ * map, and whether or not an explicit comparator is provided, must be
+ * <em>consistent with {@code equals}</em> if this sorted map is to
+ * correctly implement the {@code Map} interface.  (See {@code Comparable}
+ * or {@code Comparator} for a precise definition of <em>consistent with
+ * equals</em>.)  This is so because the {@code Map} interface is defined
+ * in terms of the {@code equals} operation, but a sorted map performs all
+ * key comparisons using its {@code compareTo} (or {@code compare}) method,
+ * so two keys that are deemed equal by this method are, from the
+ * standpoint of the sorted map, equal.  The behavior of a sorted map
+ * <em>is</em> well-defined even if its ordering is inconsistent with
+ * {@code equals}; it just fails to obey the general contract of the
+ * {@code Map} interface.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access a map concurrently, and at least one of the
+ * threads modifies the map structurally, it <em>must</em> be synchronized
+ * externally.  (A structural modification is any operation that adds or
+ * deletes one or more mappings; merely changing the value associated
+ * with an existing key is not a structural modification.)  This is
+ * typically accomplished by synchronizing on some object that naturally
+ * encapsulates the map.
+ * If no such object exists, the map should be "wrapped" using the
+ * {@link Collections#synchronizedSortedMap Collections.synchronizedSortedMap}
+ * method.  This is best done at creation time, to prevent accidental
+ * unsynchronized access to the map: <pre>
+ *   SortedMap m = Collections.synchronizedSortedMap(new BTreeMap(...));</pre>
+ *
+ * <p>The iterators returned by the {@code iterator} method of the
+ * collections returned by all of this class's "collection view methods"
+ * are <em>fail-fast</em>: if the map is structurally modified at any time
+ * after the iterator is created, in any way except through the iterator's
+ * own {@code remove} method, the iterator will throw a {@link
+ * ConcurrentModificationException}.  Thus, in the face of concurrent
+ * modification, the iterator fails quickly and cleanly, rather than
+ * risking arbitrary, non-deterministic behavior at an undetermined time in
+ * the future.
+ *
+ * <p>Note that the fail-fast behavior of an iterator cannot be guaranteed
+ * as it is, generally speaking, impossible to make any hard guarantees in the
+ * presence of unsynchronized concurrent modification.  Fail-fast iterators
+ * throw {@code ConcurrentModificationException} on a best-effort basis.
+ * Therefore, it would be wrong to write a program that depended on this
+ * exception for its correctness:   <em>the fail-fast behavior of iterators
+ * should be used only to detect bugs.</em>
+ *
+ * <p>All {@code Map.Entry} pairs returned by methods in this class
+ * and its views represent snapshots of mappings at the time they were
+ * produced. Only those returned by the iterators of the entry set views
+ * support the {@code Entry.setValue} method, and only until the map is
+ * next structurally modified.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/../technotes/guides/collections/index.html">
+ * Java Collections Framework</a>.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ *
+ * @see Map
+ * @see TreeMap
+ * @see BTreeSet
+ * @see Comparable
+ * @see Comparator
+ * @see Collection
+ */
+public class BTreeMap<K,V>
+    extends AbstractMap<K,V>
+    implements NavigableMap<K,V>, Cloneable, java.io.Serializable
+{
+    /*
+     * The tree is a classic B+-tree.  Leaves hold between LEAF_MIN and
+     * LEAF_CAPACITY mappings (the root leaf, and leaves split off at the
+     * end of the map, may hold fewer, but never none), in key order, and
+     * are doubly linked.  Inner nodes hold between INNER_MIN and
+     * INNER_CAPACITY children (at least two), and one separator key
+     * fewer: every key in children[i] is less than keys[i], which is
+     * less than or equal to every key in children[i+1].  Separators are
+     * keys that were once in the map, and are not updated when those
+     * keys are removed, as they still separate the children.  All
+     * leaves are at the same depth, height, which is zero when the root
+     * is a leaf.
+     *
+     * Nodes do not point to their parents.  The common cases of put and
+     * remove descend to the leaf without recording the path; only when
+     * a leaf overflows or underflows is the path found again, by a
+     * second descent with the same key, to split or rebalance the nodes
+     * along it.  A full node splits evenly, except when the new key goes
+     * past the end of the last node of its level, as when keys are added
+     * in increasing order; the new node then only takes the new key (or
+     * child, with its left neighbor), so that full nodes stay full.
+     * A node that falls under its minimum takes a mapping (or child)
+     * from a sibling that has more than the minimum, or else merges with
+     * it.
+     *
+     * Positions in the map are (leaf, index) pairs, held by Pos objects,
+     * which the iterators extend.  Iterators stop at a fence, the last
+     * position they may visit, rather than comparing each key against
+     * the bounds of their sub map; removals through an iterator, which
+     * may move mappings among leaves, relocate both by key.
+     *
+     * Sub maps and the descending map are instances of a single SubMap
+     * class, as in ConcurrentSkipListMap, with TreeMap's conventions for
+     * bounds, so that null keys work with comparators that accept them.
+     */
+
+    private static final long serialVersionUID = -6201553925512870396L;
+
+    /** The maximum number of mappings of a leaf */
+    static final int LEAF_CAPACITY = 64;
+
+    /** The minimum number of mappings of a leaf that is not the root */
+    static final int LEAF_MIN = LEAF_CAPACITY / 2;
+
+    /** The maximum number of children of an inner node */
+    static final int INNER_CAPACITY = 64;
+
+    /** The minimum number of children of an inner node that is not the root */
+    static final int INNER_MIN = INNER_CAPACITY / 2;
+
+    /**
+     * The comparator used to maintain order in this map, or
+     * null if it uses the natural ordering of its keys.
+     *
+     * @serial
+     */
+    private final Comparator<? super K> comparator;
+
+    private transient Node root;
+
+    /** The first and last leaves, or null if the map is empty */
+    private transient Leaf head, tail;
+
+    /** The number of inner levels above the leaves */
+    private transient int height;
+
+    /**
+     * The number of mappings in the map
+     */
+    private transient int size;
+
+    /**
+     * The number of structural modifications to the map.
+     */
+    transient int modCount;
+
+    /* ---------------- Nodes -------------- */
+
+    abstract static class Node {
+        /** The number of mappings of a leaf, or of children of an inner node */
+        int size;
+        final Object[] keys;
+        Node(int n) { keys = new Object[n]; }
+    }
+
+    static final class Leaf extends Node {
+        final Object[] vals = new Object[LEAF_CAPACITY];
+        Leaf prev, next;
+        Leaf() { super(LEAF_CAPACITY); }
+    }
+
+    static final class Inner extends Node {
+        final Node[] children = new Node[INNER_CAPACITY];
+        Inner() { super(INNER_CAPACITY - 1); }
+    }
+
+    /**
+     * A position in the leaves: the mapping at index in leaf.
+     */
+    static class Pos {
+        Leaf leaf;
+        int index;
+
+        /**
+         * Moves to index i of leaf l, or to the neighbor leaf if i is
+         * just before or after the mappings of l; returns false if there
+         * is no such neighbor.
+         */
+        final boolean moveTo(Leaf l, int i) {
+            if (i < 0) {
+                if ((l = l.prev) == null)
+                    return false;
+                i = l.size - 1;
+            } else if (i >= l.size) {
+                if ((l = l.next) == null)
+                    return false;
+                i = 0;
+            }
+            leaf = l;
+            index = i;
+            return true;
+        }
+    }
+
+    /* ---------------- Constructors -------------- */
+
+    /**
+     * Constructs a new, empty B-tree map, using the natural ordering of
+     * its keys.  All keys inserted into the map must implement the {@link
+     * Comparable} interface.  Furthermore, all such keys must be
+     * <em>mutually comparable</em>: {@code k1.compareTo(k2)} must not throw
+     * a {@code ClassCastException} for any keys {@code k1} and
+     * {@code k2} in the map.  If the user attempts to put a key into the
+     * map that violates this constraint (for example, the user attempts to
+     * put a string key into a map whose keys are integers), the
+     * {@code put(Object key, Object value)} call will throw a
+     * {@code ClassCastException}.
+     */
+    public BTreeMap() {
+        comparator = null;
+    }
+
+    /**
+     * Constructs a new, empty B-tree map, ordered according to the given
+     * comparator.  All keys inserted into the map must be <em>mutually
+     * comparable</em> by the given comparator: {@code comparator.compare(k1,
+     * k2)} must not throw a {@code ClassCastException} for any keys
+     * {@code k1} and {@code k2} in the map.  If the user attempts to put
+     * a key into the map that violates this constraint, the {@code put(Object
+     * key, Object value)} call will throw a
+     * {@code ClassCastException}.
+     *
+     * @param comparator the comparator that will be used to order this map.
+     *        If {@code null}, the {@linkplain Comparable natural
+     *        ordering} of the keys will be used.
+     */
+    public BTreeMap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Constructs a new B-tree map containing the same mappings as the
+     * given map, ordered according to the <em>natural ordering</em> of
+     * its keys.  All keys inserted into the new map must implement the
+     * {@link Comparable} interface.  Furthermore, all such keys must be
+     * <em>mutually comparable</em>: {@code k1.compareTo(k2)} must not throw
+     * a {@code ClassCastException} for any keys {@code k1} and
+     * {@code k2} in the map.  This method runs in n*log(n) time, or in
+     * linear time if the given map is a {@code SortedMap} using the
+     * natural ordering.
+     *
+     * @param  m the map whose mappings are to be placed in this map
+     * @throws ClassCastException if the keys in m are not {@link Comparable},
+     *         or are not mutually comparable
+     * @throws NullPointerException if the specified map is null
+     */
+    public BTreeMap(Map<? extends K, ? extends V> m) {
+        comparator = null;
+        putAll(m);
+    }
+
+    /**
+     * Constructs a new B-tree map containing the same mappings and
+     * using the same ordering as the specified sorted map.  The tree is
+     * built bottom-up from the mappings in order, with full nodes, in
+     * linear time.
+     *
+     * @param  m the sorted map whose mappings are to be placed in this map,
+     *         and whose comparator is to be used to sort this map
+     * @throws NullPointerException if the specified map is null
+     */
+    public BTreeMap(SortedMap<K, ? extends V> m) {
+        comparator = m.comparator();
+        try {
+            buildFromSorted(m.size(), m.entrySet().iterator(), null, null);
+        } catch (java.io.IOException cannotHappen) {
+        } catch (ClassNotFoundException cannotHappen) {
+        }
+    }
+
+    /* ---------------- Comparisons and searches -------------- */
+
+    /**
+     * Compares two keys using the correct comparison method for this map.
+     */
+    @SuppressWarnings("unchecked")
+    final int compare(Object k1, Object k2) {
+        return comparator==null ? ((Comparable<? super K>)k1).compareTo((K)k2)
+            : comparator.compare((K)k1, (K)k2);
+    }
+
+    /**
+     * Returns the index of key among the first n keys of a, or
+     * (-(insertion point) - 1) if it is not there.
+     */
+    @SuppressWarnings("unchecked")
+    final int search(Object[] a, int n, Object key) {
+        int lo = 0, hi = n - 1;
+        Comparator<? super K> cpr = comparator;
+        if (cpr == null) {
+            Comparable<? super K> k = (Comparable<? super K>) key;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = k.compareTo((K) a[mid]);
+                if (c > 0)
+                    lo = mid + 1;
+                else if (c < 0)
+                    hi = mid - 1;
+                else
+                    return mid;
+            }
+        } else {
+            K k = (K) key;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = cpr.compare(k, (K) a[mid]);
+                if (c > 0)
+                    lo = mid + 1;
+                else if (c < 0)
+                    hi = mid - 1;
+                else
+                    return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * Returns the index of the child of p whose subtree may hold key.
+     */
+    final int childIndex(Inner p, Object key) {
+        int i = search(p.keys, p.size - 1, key);
+        return (i >= 0) ? i + 1 : -i - 1;
+    }
+
+    /**
+     * Returns the leaf that holds key if it is in the map, or null if the
+     * map is empty.
+     */
+    final Leaf leafFor(Object key) {
+        if (key == null && comparator == null)
+            throw new NullPointerException();
+        Node x = root;
+        for (int h = height; h > 0; h--) {
+            Inner p = (Inner) x;
+            x = p.children[childIndex(p, key)];
+        }
+        return (Leaf) x;
+    }
+
+    // Relational operation codes, as in ConcurrentSkipListMap
+    static final int EQ = 1;
+    static final int LT = 2;
+    static final int GT = 0; // Actually checked as !LT
+
+    /**
+     * Moves pos to the mapping with the greatest key less than (LT),
+     * less than or equal to (LT|EQ), the least key greater than (GT), or
+     * greater than or equal to (GT|EQ) the given key, returning false if
+     * there is none.
+     */
+    final boolean findNear(Object key, int rel, Pos pos) {
+        Leaf l = leafFor(key);
+        if (l == null)
+            return false;
+        int i = search(l.keys, l.size, key);
+        if (i >= 0) {
+            if ((rel & EQ) == 0)
+                i += ((rel & LT) != 0) ? -1 : 1;
+        } else {
+            i = -i - 1;
+            if ((rel & LT) != 0)
+                i--;
+        }
+        return pos.moveTo(l, i);
+    }
+
+    /** Moves pos to the first mapping, returning false if there is none */
+    final boolean findFirst(Pos pos) {
+        Leaf l = head;
+        if (l == null)
+            return false;
+        pos.leaf = l;
+        pos.index = 0;
+        return true;
+    }
+
+    /** Moves pos to the last mapping, returning false if there is none */
+    final boolean findLast(Pos pos) {
+        Leaf l = tail;
+        if (l == null)
+            return false;
+        pos.leaf = l;
+        pos.index = l.size - 1;
+        return true;
+    }
+
+    /**
+     * Returns an immutable entry for the mapping at pos.
+     */
+    @SuppressWarnings("unchecked")
+    static <K,V> Map.Entry<K,V> exportEntry(Pos pos) {
+        return new AbstractMap.SimpleImmutableEntry<>(
+            (K) pos.leaf.keys[pos.index], (V) pos.leaf.vals[pos.index]);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K> K key(Pos pos) {
+        return (K) pos.leaf.keys[pos.index];
+    }
+
+    final Map.Entry<K,V> getNearEntry(K key, int rel) {
+        Pos pos = new Pos();
+        return findNear(key, rel, pos) ? exportEntry(pos) : null;
+    }
+
+    final K getNearKey(K key, int rel) {
+        Pos pos = new Pos();
+        return findNear(key, rel, pos) ? key(pos) : null;
+    }
+
+    /* ---------------- Query operations -------------- */
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the
+     *         specified key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    public boolean containsKey(Object key) {
+        Leaf l = leafFor(key);
+        return l != null && search(l.keys, l.size, key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  More formally, returns {@code true} if and only if
+     * this map contains at least one mapping to a value {@code v} such
+     * that {@code (value==null ? v==null : value.equals(v))}.  This
+     * operation requires time linear in the map size.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if a mapping to {@code value} exists;
+     *         {@code false} otherwise
+     */
+    public boolean containsValue(Object value) {
+        for (Leaf l = head; l != null; l = l.next) {
+            Object[] vals = l.vals;
+            for (int i = 0, n = l.size; i < n; i++) {
+                if (valEquals(value, vals[i]))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * <p>More formally, if this map contains a mapping from a key
+     * {@code k} to a value {@code v} such that {@code key} compares
+     * equal to {@code k} according to the map's ordering, then this
+     * method returns {@code v}; otherwise it returns {@code null}.
+     * (There can be at most one such mapping.)
+     *
+     * <p>A return value of {@code null} does not <em>necessarily</em>
+     * indicate that the map contains no mapping for the key; it's also
+     * possible that the map explicitly maps the key to {@code null}.
+     * The {@link #containsKey containsKey} operation may be used to
+     * distinguish these two cases.
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Leaf l = leafFor(key);
+        if (l != null) {
+            int i = search(l.keys, l.size, key);
+            if (i >= 0)
+                return (V) l.vals[i];
+        }
+        return null;
+    }
+
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    @SuppressWarnings("unchecked")
+    public K firstKey() {
+        Leaf l = head;
+        if (l == null)
+            throw new NoSuchElementException();
+        return (K) l.keys[0];
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    @SuppressWarnings("unchecked")
+    public K lastKey() {
+        Leaf l = tail;
+        if (l == null)
+            throw new NoSuchElementException();
+        return (K) l.keys[l.size - 1];
+    }
+
+    /* ---------------- Modification operations -------------- */
+
+    /**
+     * Copies all of the mappings from the specified map to this map.
+     * These mappings replace any mappings that this map had for any
+     * of the keys currently in the specified map.  If this map is empty
+     * and the specified map is a {@code SortedMap} with the same ordering,
+     * the tree is built in linear time.
+     *
+     * @param  map mappings to be stored in this map
+     * @throws ClassCastException if the class of a key or value in
+     *         the specified map prevents it from being stored in this map
+     * @throws NullPointerException if the specified map is null or
+     *         the specified map contains a null key and this map does not
+     *         permit null keys
+     */
+    public void putAll(Map<? extends K, ? extends V> map) {
+        int mapSize = map.size();
+        if (size==0 && mapSize!=0 && map instanceof SortedMap) {
+            Comparator<?> c = ((SortedMap<?,?>)map).comparator();
+            if (c == comparator || (c != null && c.equals(comparator))) {
+                ++modCount;
+                try {
+                    buildFromSorted(mapSize, map.entrySet().iterator(),
+                                    null, null);
+                } catch (java.io.IOException cannotHappen) {
+                } catch (ClassNotFoundException cannotHappen) {
+                }
+                return;
+            }
+        }
+        super.putAll(map);
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     *
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}.
+     *         (A {@code null} return can also indicate that the map
+     *         previously associated {@code null} with {@code key}.)
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Leaf l = leafFor(key);
+        if (l == null) {
+            compare(key, key); // type (and possibly null) check
+            l = new Leaf();
+            l.keys[0] = key;
+            l.vals[0] = value;
+            l.size = 1;
+            root = head = tail = l;
+            size = 1;
+            modCount++;
+            return null;
+        }
+        int i = search(l.keys, l.size, key);
+        if (i >= 0) {
+            Object old = l.vals[i];
+            l.vals[i] = value;
+            return (V) old;
+        }
+        i = -i - 1;
+        if (l.size < LEAF_CAPACITY)
+            insert(l, i, key, value);
+        else
+            splitAndInsert(l, i, key, value);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Inserts a mapping at index i of leaf l, which is not full.
+     */
+    static void insert(Leaf l, int i, Object key, Object value) {
+        int n = l.size - i;
+        System.arraycopy(l.keys, i, l.keys, i + 1, n);
+        System.arraycopy(l.vals, i, l.vals, i + 1, n);
+        l.keys[i] = key;
+        l.vals[i] = value;
+        l.size++;
+    }
+
+    /**
+     * Splits the full leaf l and inserts a mapping at index i of it, then
+     * inserts the new leaf into the parent, splitting it in turn if full.
+     */
+    private void splitAndInsert(Leaf l, int i, Object key, Object value) {
+        Leaf r = new Leaf();
+        if (i == LEAF_CAPACITY && l.next == null) {
+            // appending: keep l full
+            r.keys[0] = key;
+            r.vals[0] = value;
+            r.size = 1;
+        } else {
+            int half = (LEAF_CAPACITY + 1) >>> 1;
+            int from = (i < half) ? half - 1 : half;
+            int n = LEAF_CAPACITY - from;
+            System.arraycopy(l.keys, from, r.keys, 0, n);
+            System.arraycopy(l.vals, from, r.vals, 0, n);
+            Arrays.fill(l.keys, from, LEAF_CAPACITY, null);
+            Arrays.fill(l.vals, from, LEAF_CAPACITY, null);
+            l.size = from;
+            r.size = n;
+            if (i < half)
+                insert(l, i, key, value);
+            else
+                insert(r, i - from, key, value);
+        }
+        if ((r.next = l.next) != null)
+            r.next.prev = r;
+        else
+            tail = r;
+        r.prev = l;
+        l.next = r;
+        addSibling(l, r, r.keys[0]);
+    }
+
+    /**
+     * Inserts leaf r, split from leaf l, with separator key sep, into the
+     * parent of l, splitting the ancestors of l as needed.
+     */
+    private void addSibling(Leaf l, Leaf r, Object sep) {
+        int h = height;
+        if (h == 0) {
+            newRoot(l, r, sep);
+            return;
+        }
+        // Find the path to l again; sep was in l, so it leads there
+        Inner[] path = new Inner[h];
+        int[] slots = new int[h];
+        Node c = r, n = root;
+        for (int k = 0; k < h; k++) {
+            Inner p = (Inner) n;
+            path[k] = p;
+            n = p.children[slots[k] = childIndex(p, sep)];
+        }
+        for (int k = h - 1; k >= 0; k--) {
+            Inner p = path[k];
+            int ci = slots[k] + 1;   // index of the new child
+            if (p.size < INNER_CAPACITY) {
+                insertChild(p, ci, sep, c);
+                return;
+            }
+            // Split p, which is the last node of its level if it is the
+            // last child of each of its ancestors
+            boolean last = true;
+            for (int j = 0; j < k && last; j++)
+                last = slots[j] == path[j].size - 1;
+            Object[] keys = new Object[INNER_CAPACITY];
+            Node[] children = new Node[INNER_CAPACITY + 1];
+            System.arraycopy(p.keys, 0, keys, 0, ci - 1);
+            System.arraycopy(p.children, 0, children, 0, ci);
+            keys[ci - 1] = sep;
+            children[ci] = c;
+            System.arraycopy(p.keys, ci - 1, keys, ci, INNER_CAPACITY - ci);
+            System.arraycopy(p.children, ci, children, ci + 1, INNER_CAPACITY - ci);
+            int left = (last && ci == INNER_CAPACITY) ? INNER_CAPACITY - 1
+                : (INNER_CAPACITY + 1) >>> 1;
+            Inner q = new Inner();
+            int n2 = INNER_CAPACITY + 1 - left;
+            System.arraycopy(children, left, q.children, 0, n2);
+            System.arraycopy(keys, left, q.keys, 0, n2 - 1);
+            q.size = n2;
+            Arrays.fill(p.keys, null);
+            Arrays.fill(p.children, null);
+            System.arraycopy(children, 0, p.children, 0, left);
+            System.arraycopy(keys, 0, p.keys, 0, left - 1);
+            p.size = left;
+            sep = keys[left - 1];
+            c = q;
+            if (k == 0)
+                newRoot(p, q, sep);
+        }
+    }
+
+    /**
+     * Inserts child c with separator sep at index ci of inner node p,
+     * which is not full.
+     */
+    private static void insertChild(Inner p, int ci, Object sep, Node c) {
+        int n = p.size - ci;
+        System.arraycopy(p.children, ci, p.children, ci + 1, n);
+        System.arraycopy(p.keys, ci - 1, p.keys, ci, n);
+        p.children[ci] = c;
+        p.keys[ci - 1] = sep;
+        p.size++;
+    }
+
+    private void newRoot(Node l, Node r, Object sep) {
+        Inner p = new Inner();
+        p.children[0] = l;
+        p.children[1] = r;
+        p.keys[0] = sep;
+        p.size = 2;
+        root = p;
+        height++;
+    }
+
+    /**
+     * Removes the mapping for this key from this map if present.
+     *
+     * @param  key key for which mapping should be removed
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}.
+     *         (A {@code null} return can also indicate that the map
+     *         previously associated {@code null} with {@code key}.)
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        Leaf l = leafFor(key);
+        if (l == null)
+            return null;
+        int i = search(l.keys, l.size, key);
+        if (i < 0)
+            return null;
+        Object old = l.vals[i];
+        deleteAt(l, i);
+        return (V) old;
+    }
+
+    /**
+     * Removes the mapping at index i of leaf l.
+     */
+    final void deleteAt(Leaf l, int i) {
+        Object key = l.keys[i];
+        int n = l.size - i - 1;
+        System.arraycopy(l.keys, i + 1, l.keys, i, n);
+        System.arraycopy(l.vals, i + 1, l.vals, i, n);
+        int s = --l.size;
+        l.keys[s] = null;
+        l.vals[s] = null;
+        size--;
+        modCount++;
+        if (s < LEAF_MIN) {
+            if (height > 0)
+                rebalance(key);
+            else if (s == 0)
+                root = head = tail = null;
+        }
+    }
+
+    /**
+     * Restores the minimum sizes of the nodes on the path to the leaf
+     * that held key, from which a mapping was just removed.
+     */
+    private void rebalance(Object key) {
+        int h = height;
+        Inner[] path = new Inner[h];
+        int[] slots = new int[h];
+        Node x = root;
+        for (int k = 0; k < h; k++) {
+            Inner p = (Inner) x;
+            path[k] = p;
+            x = p.children[slots[k] = childIndex(p, key)];
+        }
+        for (int k = h - 1; k >= 0; k--) {
+            Inner p = path[k];
+            int ci = slots[k];
+            boolean leaves = (k == h - 1);
+            if (p.children[ci].size >= (leaves ? LEAF_MIN : INNER_MIN))
+                break;
+            int j = (ci > 0) ? ci - 1 : 0; // fix children j and j+1
+            boolean merged = leaves ?
+                fixLeaves(p, j, (Leaf) p.children[j], (Leaf) p.children[j + 1]) :
+                fixInners(p, j, (Inner) p.children[j], (Inner) p.children[j + 1]);
+            if (!merged)
+                break;
+        }
+        Node r = root;
+        if (r instanceof Inner && r.size == 1) {
+            root = ((Inner) r).children[0];
+            height--;
+        }
+    }
+
+    /**
+     * Merges adjacent leaves a and b, children j and j+1 of p, if they
+     * fit in one, or else evens out their sizes.  Returns true if they
+     * were merged, so that p lost a child.
+     */
+    private boolean fixLeaves(Inner p, int j, Leaf a, Leaf b) {
+        int na = a.size, nb = b.size;
+        if (na + nb <= LEAF_CAPACITY) {
+            System.arraycopy(b.keys, 0, a.keys, na, nb);
+            System.arraycopy(b.vals, 0, a.vals, na, nb);
+            a.size = na + nb;
+            if ((a.next = b.next) != null)
+                a.next.prev = a;
+            else
+                tail = a;
+            removeChild(p, j + 1);
+            return true;
+        }
+        if (na > nb) {
+            int t = (na - nb) >>> 1;
+            System.arraycopy(b.keys, 0, b.keys, t, nb);
+            System.arraycopy(b.vals, 0, b.vals, t, nb);
+            System.arraycopy(a.keys, na - t, b.keys, 0, t);
+            System.arraycopy(a.vals, na - t, b.vals, 0, t);
+            Arrays.fill(a.keys, na - t, na, null);
+            Arrays.fill(a.vals, na - t, na, null);
+            a.size = na - t;
+            b.size = nb + t;
+        } else {
+            int t = (nb - na) >>> 1;
+            System.arraycopy(b.keys, 0, a.keys, na, t);
+            System.arraycopy(b.vals, 0, a.vals, na, t);
+            System.arraycopy(b.keys, t, b.keys, 0, nb - t);
+            System.arraycopy(b.vals, t, b.vals, 0, nb - t);
+            Arrays.fill(b.keys, nb - t, nb, null);
+            Arrays.fill(b.vals, nb - t, nb, null);
+            a.size = na + t;
+            b.size = nb - t;
+        }
+        p.keys[j] = b.keys[0];
+        return false;
+    }
+
+    /**
+     * Merges adjacent inner nodes a and b, children j and j+1 of p, if
+     * they fit in one, or else evens out their sizes, rotating children
+     * through the separator in p.  Returns true if they were merged.
+     */
+    private static boolean fixInners(Inner p, int j, Inner a, Inner b) {
+        int na = a.size, nb = b.size;
+        if (na + nb <= INNER_CAPACITY) {
+            a.keys[na - 1] = p.keys[j];
+            System.arraycopy(b.keys, 0, a.keys, na, nb - 1);
+            System.arraycopy(b.children, 0, a.children, na, nb);
+            a.size = na + nb;
+            removeChild(p, j + 1);
+            return true;
+        }
+        if (na > nb) {
+            int t = (na - nb) >>> 1;
+            System.arraycopy(b.keys, 0, b.keys, t, nb - 1);
+            System.arraycopy(b.children, 0, b.children, t, nb);
+            b.keys[t - 1] = p.keys[j];
+            System.arraycopy(a.keys, na - t, b.keys, 0, t - 1);
+            System.arraycopy(a.children, na - t, b.children, 0, t);
+            p.keys[j] = a.keys[na - t - 1];
+            Arrays.fill(a.keys, na - t - 1, na - 1, null);
+            Arrays.fill(a.children, na - t, na, null);
+            a.size = na - t;
+            b.size = nb + t;
+        } else {
+            int t = (nb - na) >>> 1;
+            a.keys[na - 1] = p.keys[j];
+            System.arraycopy(b.keys, 0, a.keys, na, t - 1);
+            System.arraycopy(b.children, 0, a.children, na, t);
+            p.keys[j] = b.keys[t - 1];
+            System.arraycopy(b.keys, t, b.keys, 0, nb - 1 - t);
+            System.arraycopy(b.children, t, b.children, 0, nb - t);
+            Arrays.fill(b.keys, nb - 1 - t, nb - 1, null);
+            Arrays.fill(b.children, nb - t, nb, null);
+            a.size = na + t;
+            b.size = nb - t;
+        }
+        return false;
+    }
+
+    /**
+     * Removes child ci, which is not the first, and the separator before
+     * it, from p.
+     */
+    private static void removeChild(Inner p, int ci) {
+        int n = p.size - ci - 1;
+        System.arraycopy(p.children, ci + 1, p.children, ci, n);
+        System.arraycopy(p.keys, ci, p.keys, ci - 1, n);
+        int s = --p.size;
+        p.children[s] = null;
+        p.keys[s - 1] = null;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        modCount++;
+        size = 0;
+        height = 0;
+        root = head = tail = null;
+    }
+
+    /**
+     * Returns a shallow copy of this {@code BTreeMap} instance. (The keys
+     * and values themselves are not cloned.)
+     *
+     * @return a shallow copy of this map
+     */
+    public Object clone() {
+        BTreeMap<?,?> clone;
+        try {
+            clone = (BTreeMap<?,?>) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+
+        // Put clone into "virgin" state (except for comparator)
+        clone.root = clone.head = clone.tail = null;
+        clone.height = 0;
+        clone.size = 0;
+        clone.modCount = 0;
+        clone.entrySet = null;
+        clone.navigableKeySet = null;
+        clone.values = null;
+        clone.descendingMap = null;
+
+        // Initialize clone with our mappings
+        try {
+            clone.buildFromSorted(size, entrySet().iterator(), null, null);
+        } catch (java.io.IOException cannotHappen) {
+        } catch (ClassNotFoundException cannotHappen) {
+        }
+
+        return clone;
+    }
+
+    /* ---------------- NavigableMap API methods -------------- */
+
+    public Map.Entry<K,V> firstEntry() {
+        Pos pos = new Pos();
+        return findFirst(pos) ? exportEntry(pos) : null;
+    }
+
+    public Map.Entry<K,V> lastEntry() {
+        Pos pos = new Pos();
+        return findLast(pos) ? exportEntry(pos) : null;
+    }
+
+    public Map.Entry<K,V> pollFirstEntry() {
+        Pos pos = new Pos();
+        if (!findFirst(pos))
+            return null;
+        Map.Entry<K,V> result = exportEntry(pos);
+        deleteAt(pos.leaf, pos.index);
+        return result;
+    }
+
+    public Map.Entry<K,V> pollLastEntry() {
+        Pos pos = new Pos();
+        if (!findLast(pos))
+            return null;
+        Map.Entry<K,V> result = exportEntry(pos);
+        deleteAt(pos.leaf, pos.index);
+        return result;
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    public Map.Entry<K,V> lowerEntry(K key) {
+        return getNearEntry(key, LT);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    public K lowerKey(K key) {
+        return getNearKey(key, LT);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    public Map.Entry<K,V> floorEntry(K key) {
+        return getNearEntry(key, LT|EQ);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    public K floorKey(K key) {
+        return getNearKey(key, LT|EQ);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    public Map.Entry<K,V> ceilingEntry(K key) {
+        return getNearEntry(key, GT|EQ);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    public K ceilingKey(K key) {
+        return getNearKey(key, GT|EQ);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    public Map.Entry<K,V> higherEntry(K key) {
+        return getNearEntry(key, GT);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     */
+    public K higherKey(K key) {
+        return getNearKey(key, GT);
+    }
+
+    // Views
+
+    /**
+     * Fields initialized to contain an instance of the entry set view
+     * the first time this view is requested.  Views are stateless, so
+     * there's no reason to create more than one.
+     */
+    private transient EntrySet<K,V> entrySet;
+    private transient KeySet<K> navigableKeySet;
+    private transient Values<K,V> values;
+    private transient NavigableMap<K,V> descendingMap;
+
+    /**
+     * Returns a {@link Set} view of the keys contained in this map.
+     *
+     * <p>The set's iterator returns the keys in ascending order.
+     * The set's spliterator is
+     * <em><a href="Spliterator.html#binding">late-binding</a></em>,
+     * <em>fail-fast</em>, and additionally reports {@link Spliterator#SORTED}
+     * and {@link Spliterator#ORDERED} with an encounter order that is ascending
+     * key order.  The spliterator's comparator (see
+     * {@link java.util.Spliterator#getComparator()}) is {@code null} if
+     * the map's comparator (see {@link #comparator()}) is {@code null}.
+     * Otherwise, the spliterator's comparator is the same as or imposes the
+     * same total ordering as the map's comparator.
+     *
+     * <p>The set is backed by the map, so changes to the map are
+     * reflected in the set, and vice-versa.  If the map is modified
+     * while an iteration over the set is in progress (except through
+     * the iterator's own {@code remove} operation), the results of
+     * the iteration are undefined.  The set supports element removal,
+     * which removes the corresponding mapping from the map, via the
+     * {@code Iterator.remove}, {@code Set.remove},
+     * {@code removeAll}, {@code retainAll}, and {@code clear}
+     * operations.  It does not support the {@code add} or {@code addAll}
+     * operations.
+     */
+    public Set<K> keySet() {
+        return navigableKeySet();
+    }
+
+    public NavigableSet<K> navigableKeySet() {
+        KeySet<K> nks = navigableKeySet;
+        return (nks != null) ? nks : (navigableKeySet = new KeySet<>(this));
+    }
+
+    public NavigableSet<K> descendingKeySet() {
+        return descendingMap().navigableKeySet();
+    }
+
+    /**
+     * Returns a {@link Collection} view of the values contained in this map.
+     *
+     * <p>The collection's iterator returns the values in ascending order
+     * of the corresponding keys.
+     *
+     * <p>The collection is backed by the map, so changes to the map are
+     * reflected in the collection, and vice-versa.  If the map is
+     * modified while an iteration over the collection is in progress
+     * (except through the iterator's own {@code remove} operation),
+     * the results of the iteration are undefined.  The collection
+     * supports element removal, which removes the corresponding
+     * mapping from the map, via the {@code Iterator.remove},
+     * {@code Collection.remove}, {@code removeAll},
+     * {@code retainAll} and {@code clear} operations.  It does not
+     * support the {@code add} or {@code addAll} operations.
+     */
+    public Collection<V> values() {
+        Values<K,V> vs = values;
+        return (vs != null) ? vs : (values = new Values<>(this));
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     *
+     * <p>The set's iterator returns the entries in ascending key order.
+     *
+     * <p>The set is backed by the map, so changes to the map are
+     * reflected in the set, and vice-versa.  If the map is modified
+     * while an iteration over the set is in progress (except through
+     * the iterator's own {@code remove} operation, or through the
+     * {@code setValue} operation on a map entry returned by the
+     * iterator) the results of the iteration are undefined.  The set
+     * supports element removal, which removes the corresponding
+     * mapping from the map, via the {@code Iterator.remove},
+     * {@code Set.remove}, {@code removeAll}, {@code retainAll} and
+     * {@code clear} operations.  It does not support the
+     * {@code add} or {@code addAll} operations.
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        EntrySet<K,V> es = entrySet;
+        return (es != null) ? es : (entrySet = new EntrySet<>(this));
+    }
+
+    public NavigableMap<K, V> descendingMap() {
+        NavigableMap<K, V> km = descendingMap;
+        return (km != null) ? km :
+            (descendingMap = new SubMap<>(this,
+                                          true, null, true,
+                                          true, null, true, true));
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is
+     *         null and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public NavigableMap<K,V> subMap(K fromKey, boolean fromInclusive,
+                                    K toKey,   boolean toInclusive) {
+        return new SubMap<>(this,
+                            false, fromKey, fromInclusive,
+                            false, toKey,   toInclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public NavigableMap<K,V> headMap(K toKey, boolean inclusive) {
+        return new SubMap<>(this,
+                            true,  null,  true,
+                            false, toKey, inclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public NavigableMap<K,V> tailMap(K fromKey, boolean inclusive) {
+        return new SubMap<>(this,
+                            false, fromKey, inclusive,
+                            true,  null,    true, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is
+     *         null and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public SortedMap<K,V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public SortedMap<K,V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     *         and this map uses natural ordering, or its comparator
+     *         does not permit null keys
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public SortedMap<K,V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean replace(K key, V oldValue, V newValue) {
+        Leaf l = leafFor(key);
+        if (l != null) {
+            int i = search(l.keys, l.size, key);
+            if (i >= 0 && Objects.equals(oldValue, l.vals[i])) {
+                l.vals[i] = newValue;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V replace(K key, V value) {
+        Leaf l = leafFor(key);
+        if (l != null) {
+            int i = search(l.keys, l.size, key);
+            if (i >= 0) {
+                Object oldValue = l.vals[i];
+                l.vals[i] = value;
+                return (V) oldValue;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (Leaf l = head; l != null; l = l.next) {
+            for (int i = 0; i < l.size; i++) {
+                action.accept((K) l.keys[i], (V) l.vals[i]);
+                if (expectedModCount != modCount)
+                    throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        int expectedModCount = modCount;
+        for (Leaf l = head; l != null; l = l.next) {
+            for (int i = 0; i < l.size; i++) {
+                l.vals[i] = function.apply((K) l.keys[i], (V) l.vals[i]);
+                if (expectedModCount != modCount)
+                    throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    // View class support
+
+    Iterator<K> keyIterator() {
+        return new KeyIterator<>(this, null, false);
+    }
+
+    Iterator<K> descendingKeyIterator() {
+        return new KeyIterator<>(this, null, true);
+    }
+
+    Iterator<V> valueIterator() {
+        return new ValueIterator<>(this, null, false);
+    }
+
+    Iterator<Map.Entry<K,V>> entryIterator() {
+        return new EntryIterator<>(this, null, false);
+    }
+
+    /*
+     * The views are static, delegating to a NavigableMap to allow use
+     * by SubMaps, with type-tests for the iterator methods that are
+     * defined in both.
+     */
+
+    static final class KeySet<E> extends AbstractSet<E> implements NavigableSet<E> {
+        private final NavigableMap<E, ?> m;
+        KeySet(NavigableMap<E,?> map) { m = map; }
+
+        public Iterator<E> iterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<E,?>)m).keyIterator();
+            else
+                return ((BTreeMap.SubMap<E,?>)m).keyIterator();
+        }
+
+        public Iterator<E> descendingIterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<E,?>)m).descendingKeyIterator();
+            else
+                return ((BTreeMap.SubMap<E,?>)m).descendingKeyIterator();
+        }
+
+        public int size() { return m.size(); }
+        public boolean isEmpty() { return m.isEmpty(); }
+        public boolean contains(Object o) { return m.containsKey(o); }
+        public void clear() { m.clear(); }
+        public E lower(E e) { return m.lowerKey(e); }
+        public E floor(E e) { return m.floorKey(e); }
+        public E ceiling(E e) { return m.ceilingKey(e); }
+        public E higher(E e) { return m.higherKey(e); }
+        public E first() { return m.firstKey(); }
+        public E last() { return m.lastKey(); }
+        public Comparator<? super E> comparator() { return m.comparator(); }
+        public E pollFirst() {
+            Map.Entry<E,?> e = m.pollFirstEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        public E pollLast() {
+            Map.Entry<E,?> e = m.pollLastEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        public boolean remove(Object o) {
+            int oldSize = size();
+            m.remove(o);
+            return size() != oldSize;
+        }
+        public NavigableSet<E> subSet(E fromElement, boolean fromInclusive,
+                                      E toElement,   boolean toInclusive) {
+            return new KeySet<>(m.subMap(fromElement, fromInclusive,
+                                          toElement,   toInclusive));
+        }
+        public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+            return new KeySet<>(m.headMap(toElement, inclusive));
+        }
+        public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+            return new KeySet<>(m.tailMap(fromElement, inclusive));
+        }
+        public SortedSet<E> subSet(E fromElement, E toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+        public SortedSet<E> headSet(E toElement) {
+            return headSet(toElement, false);
+        }
+        public SortedSet<E> tailSet(E fromElement) {
+            return tailSet(fromElement, true);
+        }
+        public NavigableSet<E> descendingSet() {
+            return new KeySet<>(m.descendingMap());
+        }
+    }
+
+    static final class Values<K,V> extends AbstractCollection<V> {
+        private final NavigableMap<K,V> m;
+        Values(NavigableMap<K,V> map) { m = map; }
+
+        public Iterator<V> iterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<K,V>)m).valueIterator();
+            else
+                return ((SubMap<K,V>)m).valueIterator();
+        }
+        public int size() { return m.size(); }
+        public boolean isEmpty() { return m.isEmpty(); }
+        public boolean contains(Object o) { return m.containsValue(o); }
+        public void clear() { m.clear(); }
+        public Spliterator<V> spliterator() {
+            return Spliterators.spliterator(this, Spliterator.ORDERED);
+        }
+    }
+
+    static final class EntrySet<K,V> extends AbstractSet<Map.Entry<K,V>> {
+        private final NavigableMap<K,V> m;
+        EntrySet(NavigableMap<K,V> map) { m = map; }
+
+        public Iterator<Map.Entry<K,V>> iterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<K,V>)m).entryIterator();
+            else
+                return ((SubMap<K,V>)m).entryIterator();
+        }
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+            Object key = e.getKey(), value = e.getValue();
+            V v = m.get(key);
+            return valEquals(v, value) && (v != null || m.containsKey(key));
+        }
+        public boolean remove(Object o) {
+            if (!contains(o))
+                return false;
+            m.remove(((Map.Entry<?,?>) o).getKey());
+            return true;
+        }
+        public int size() { return m.size(); }
+        public boolean isEmpty() { return m.isEmpty(); }
+        public void clear() { m.clear(); }
+        public Spliterator<Map.Entry<K,V>> spliterator() {
+            return Spliterators.spliterator(this, Spliterator.ORDERED |
+                                            Spliterator.DISTINCT);
+        }
+    }
+
+    /**
+     * Base class for iterators, which visit the positions from the first
+     * of their range, in their direction, to a fence, the last one.
+     */
+    abstract static class PrivateIterator<K,V,T> extends Pos
+        implements Iterator<T> {
+        final BTreeMap<K,V> m;
+        final SubMap<K,V> range;    // null for the whole map
+        final boolean descending;
+        final Pos fence = new Pos();
+        Leaf lastLeaf;              // position last returned, or null
+        int lastIndex;
+        int expectedModCount;
+
+        PrivateIterator(BTreeMap<K,V> m, SubMap<K,V> range, boolean descending) {
+            this.m = m;
+            this.range = range;
+            this.descending = descending;
+            expectedModCount = m.modCount;
+            if (!(descending ? highest(this) && lowest(fence) :
+                  lowest(this) && highest(fence)))
+                leaf = null;
+        }
+
+        private boolean lowest(Pos p) {
+            return (range == null) ? m.findFirst(p) : range.absLowest(p);
+        }
+
+        private boolean highest(Pos p) {
+            return (range == null) ? m.findLast(p) : range.absHighest(p);
+        }
+
+        public final boolean hasNext() {
+            return leaf != null;
+        }
+
+        /**
+         * Records the next position as the last returned one, and moves
+         * to the one after it.
+         */
+        final void advance() {
+            Leaf l = leaf;
+            if (l == null)
+                throw new NoSuchElementException();
+            if (m.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            int i = index;
+            lastLeaf = l;
+            lastIndex = i;
+            if (l == fence.leaf && i == fence.index)
+                leaf = null;
+            else if (!descending) {
+                if (++i < l.size)
+                    index = i;
+                else {
+                    leaf = l.next;
+                    index = 0;
+                }
+            } else {
+                if (--i >= 0)
+                    index = i;
+                else {
+                    leaf = l = l.prev;
+                    index = l.size - 1;
+                }
+            }
+        }
+
+        public void remove() {
+            Leaf l = lastLeaf;
+            if (l == null)
+                throw new IllegalStateException();
+            if (m.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            Object key = l.keys[lastIndex];
+            lastLeaf = null;
+            m.deleteAt(l, lastIndex);
+            expectedModCount = m.modCount;
+            // Mappings may have moved among leaves: find the next one
+            // and the fence again
+            if (leaf != null &&
+                !(m.findNear(key, descending ? LT : GT, this) &&
+                  (descending ? lowest(fence) : highest(fence))))
+                leaf = null;
+        }
+    }
+
+    static final class KeyIterator<K,V> extends PrivateIterator<K,V,K> {
+        KeyIterator(BTreeMap<K,V> m, SubMap<K,V> range, boolean descending) {
+            super(m, range, descending);
+        }
+        @SuppressWarnings("unchecked")
+        public K next() {
+            advance();
+            return (K) lastLeaf.keys[lastIndex];
+        }
+    }
+
+    static final class ValueIterator<K,V> extends PrivateIterator<K,V,V> {
+        ValueIterator(BTreeMap<K,V> m, SubMap<K,V> range, boolean descending) {
+            super(m, range, descending);
+        }
+        @SuppressWarnings("unchecked")
+        public V next() {
+            advance();
+            return (V) lastLeaf.vals[lastIndex];
+        }
+    }
+
+    static final class EntryIterator<K,V>
+        extends PrivateIterator<K,V,Map.Entry<K,V>> {
+        EntryIterator(BTreeMap<K,V> m, SubMap<K,V> range, boolean descending) {
+            super(m, range, descending);
+        }
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K,V> next() {
+            advance();
+            Leaf l = lastLeaf;
+            int i = lastIndex;
+            return new IteratorEntry<>(m, l, i, (K) l.keys[i], (V) l.vals[i]);
+        }
+    }
+
+    /**
+     * An entry returned by an entry set iterator, whose setValue writes
+     * through to its position until the map is structurally modified.
+     */
+    static final class IteratorEntry<K,V> extends AbstractMap.SimpleEntry<K,V> {
+        private static final long serialVersionUID = 5330658372286582311L;
+        final transient BTreeMap<K,V> m;
+        final transient Leaf leaf;
+        final transient int index, expectedModCount;
+
+        IteratorEntry(BTreeMap<K,V> m, Leaf leaf, int index, K key, V value) {
+            super(key, value);
+            this.m = m;
+            this.leaf = leaf;
+            this.index = index;
+            this.expectedModCount = m.modCount;
+        }
+
+        public V setValue(V value) {
+            if (m.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            leaf.vals[index] = value;
+            return super.setValue(value);
+        }
+    }
+
+    /**
+     * Test two values for equality.  Differs from o1.equals(o2) only in
+     * that it copes with {@code null} o1 properly.
+     */
+    static final boolean valEquals(Object o1, Object o2) {
+        return (o1==null ? o2==null : o1.equals(o2));
+    }
+
+    // SubMaps
+
+    /**
+     * Sub maps, and the descending map, which are views of the ranges of
+     * the backing map between two bounds, in ascending or descending
+     * order.
+     */
+    static final class SubMap<K,V> extends AbstractMap<K,V>
+        implements NavigableMap<K,V>, java.io.Serializable {
+        private static final long serialVersionUID = -7647078645895051609L;
+
+        /** The backing map */
+        final BTreeMap<K,V> m;
+
+        /**
+         * Endpoints are represented as triples (fromStart, lo,
+         * loInclusive) and (toEnd, hi, hiInclusive). If fromStart is
+         * true, then the low (absolute) bound is the start of the
+         * backing map, and the other values are ignored. Otherwise,
+         * if loInclusive is true, lo is the inclusive bound, else lo
+         * is the exclusive bound. Similarly for the upper bound.
+         */
+        final K lo, hi;
+        final boolean fromStart, toEnd;
+        final boolean loInclusive, hiInclusive;
+
+        /** Whether this map is in descending order */
+        final boolean descending;
+
+        // Lazily initialized view holders
+        private transient KeySet<K> keySetView;
+        private transient Set<Map.Entry<K,V>> entrySetView;
+        private transient Collection<V> valuesView;
+
+        SubMap(BTreeMap<K,V> m,
+               boolean fromStart, K lo, boolean loInclusive,
+               boolean toEnd,     K hi, boolean hiInclusive,
+               boolean descending) {
+            if (!fromStart && !toEnd) {
+                if (m.compare(lo, hi) > 0)
+                    throw new IllegalArgumentException("fromKey > toKey");
+            } else {
+                if (!fromStart) // type check
+                    m.compare(lo, lo);
+                if (!toEnd)
+                    m.compare(hi, hi);
+            }
+            this.m = m;
+            this.fromStart = fromStart;
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.toEnd = toEnd;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+        }
+
+        /* ----------------  Utilities -------------- */
+
+        boolean tooLow(Object key) {
+            if (!fromStart) {
+                int c = m.compare(key, lo);
+                if (c < 0 || (c == 0 && !loInclusive))
+                    return true;
+            }
+            return false;
+        }
+
+        boolean tooHigh(Object key) {
+            if (!toEnd) {
+                int c = m.compare(key, hi);
+                if (c > 0 || (c == 0 && !hiInclusive))
+                    return true;
+            }
+            return false;
+        }
+
+        boolean inRange(Object key) {
+            return !tooLow(key) && !tooHigh(key);
+        }
+
+        boolean inClosedRange(Object key) {
+            return (fromStart || m.compare(key, lo) >= 0)
+                && (toEnd || m.compare(hi, key) >= 0);
+        }
+
+        boolean inRange(Object key, boolean inclusive) {
+            return inclusive ? inRange(key) : inClosedRange(key);
+        }
+
+        /*
+         * Absolute versions of relation operations, ignoring
+         * direction, which move a Pos and return false if there is no
+         * such mapping in range.
+         */
+
+        boolean absLowest(Pos p) {
+            return (fromStart ? m.findFirst(p) :
+                    m.findNear(lo, loInclusive ? GT|EQ : GT, p))
+                && !tooHigh(key(p));
+        }
+
+        boolean absHighest(Pos p) {
+            return (toEnd ? m.findLast(p) :
+                    m.findNear(hi, hiInclusive ? LT|EQ : LT, p))
+                && !tooLow(key(p));
+        }
+
+        boolean absNear(Object key, int rel, Pos p) {
+            if ((rel & LT) == 0) {
+                if (tooLow(key))
+                    return absLowest(p);
+                return m.findNear(key, rel, p) && !tooHigh(key(p));
+            } else {
+                if (tooHigh(key))
+                    return absHighest(p);
+                return m.findNear(key, rel, p) && !tooLow(key(p));
+            }
+        }
+
+        /** Returns the relation for the backing map, adjusted for direction */
+        int absRel(int rel) {
+            return descending ? rel ^ LT : rel;
+        }
+
+        Map.Entry<K,V> getNearEntry(K key, int rel) {
+            Pos p = new Pos();
+            return absNear(key, absRel(rel), p) ? exportEntry(p) : null;
+        }
+
+        K getNearKey(K key, int rel) {
+            Pos p = new Pos();
+            return absNear(key, absRel(rel), p) ? key(p) : null;
+        }
+
+        /** Moves p to the first mapping in the order of this map */
+        boolean first(Pos p) {
+            return descending ? absHighest(p) : absLowest(p);
+        }
+
+        /** Moves p to the last mapping in the order of this map */
+        boolean last(Pos p) {
+            return descending ? absLowest(p) : absHighest(p);
+        }
+
+        /* ----------------  Map API methods -------------- */
+
+        public int size() {
+            if (fromStart && toEnd)
+                return m.size();
+            Pos a = new Pos(), b = new Pos();
+            if (!absLowest(a) || !absHighest(b))
+                return 0;
+            if (a.leaf == b.leaf)
+                return b.index - a.index + 1;
+            int n = a.leaf.size - a.index + b.index + 1;
+            for (Leaf l = a.leaf.next; l != b.leaf; l = l.next)
+                n += l.size;
+            return n;
+        }
+
+        public boolean isEmpty() {
+            return (fromStart && toEnd) ? m.isEmpty() : !absLowest(new Pos());
+        }
+
+        public boolean containsKey(Object key) {
+            return inRange(key) && m.containsKey(key);
+        }
+
+        public V put(K key, V value) {
+            if (!inRange(key))
+                throw new IllegalArgumentException("key out of range");
+            return m.put(key, value);
+        }
+
+        public V get(Object key) {
+            return !inRange(key) ? null : m.get(key);
+        }
+
+        public V remove(Object key) {
+            return !inRange(key) ? null : m.remove(key);
+        }
+
+        public boolean containsValue(Object value) {
+            Pos p = new Pos(), end = new Pos();
+            if (absLowest(p) && absHighest(end)) {
+                for (Leaf l = p.leaf; ; l = l.next) {
+                    int from = (l == p.leaf) ? p.index : 0;
+                    int to = (l == end.leaf) ? end.index + 1 : l.size;
+                    for (int i = from; i < to; i++) {
+                        if (valEquals(value, l.vals[i]))
+                            return true;
+                    }
+                    if (l == end.leaf)
+                        break;
+                }
+            }
+            return false;
+        }
+
+        public void clear() {
+            for (Iterator<K> it = keyIterator(); it.hasNext(); ) {
+                it.next();
+                it.remove();
+            }
+        }
+
+        public Comparator<? super K> comparator() {
+            Comparator<? super K> cmp = m.comparator();
+            return descending ? Collections.reverseOrder(cmp) : cmp;
+        }
+
+        /* ----------------  Relational methods -------------- */
+
+        public Map.Entry<K,V> ceilingEntry(K key) {
+            return getNearEntry(key, GT|EQ);
+        }
+
+        public K ceilingKey(K key) {
+            return getNearKey(key, GT|EQ);
+        }
+
+        public Map.Entry<K,V> higherEntry(K key) {
+            return getNearEntry(key, GT);
+        }
+
+        public K higherKey(K key) {
+            return getNearKey(key, GT);
+        }
+
+        public Map.Entry<K,V> floorEntry(K key) {
+            return getNearEntry(key, LT|EQ);
+        }
+
+        public K floorKey(K key) {
+            return getNearKey(key, LT|EQ);
+        }
+
+        public Map.Entry<K,V> lowerEntry(K key) {
+            return getNearEntry(key, LT);
+        }
+
+        public K lowerKey(K key) {
+            return getNearKey(key, LT);
+        }
+
+        public K firstKey() {
+            Pos p = new Pos();
+            if (!first(p))
+                throw new NoSuchElementException();
+            return key(p);
+        }
+
+        public K lastKey() {
+            Pos p = new Pos();
+            if (!last(p))
+                throw new NoSuchElementException();
+            return key(p);
+        }
+
+        public Map.Entry<K,V> firstEntry() {
+            Pos p = new Pos();
+            return first(p) ? exportEntry(p) : null;
+        }
+
+        public Map.Entry<K,V> lastEntry() {
+            Pos p = new Pos();
+            return last(p) ? exportEntry(p) : null;
+        }
+
+        public Map.Entry<K,V> pollFirstEntry() {
+            Pos p = new Pos();
+            if (!first(p))
+                return null;
+            Map.Entry<K,V> result = exportEntry(p);
+            m.deleteAt(p.leaf, p.index);
+            return result;
+        }
+
+        public Map.Entry<K,V> pollLastEntry() {
+            Pos p = new Pos();
+            if (!last(p))
+                return null;
+            Map.Entry<K,V> result = exportEntry(p);
+            m.deleteAt(p.leaf, p.index);
+            return result;
+        }
+
+        /* ----------------  Submap views -------------- */
+
+        public NavigableMap<K,V> subMap(K fromKey, boolean fromInclusive,
+                                        K toKey,   boolean toInclusive) {
+            if (!inRange(fromKey, fromInclusive))
+                throw new IllegalArgumentException("fromKey out of range");
+            if (!inRange(toKey, toInclusive))
+                throw new IllegalArgumentException("toKey out of range");
+            return descending ?
+                new SubMap<>(m, false, toKey, toInclusive,
+                             false, fromKey, fromInclusive, true) :
+                new SubMap<>(m, false, fromKey, fromInclusive,
+                             false, toKey, toInclusive, false);
+        }
+
+        public NavigableMap<K,V> headMap(K toKey, boolean inclusive) {
+            if (!inRange(toKey, inclusive))
+                throw new IllegalArgumentException("toKey out of range");
+            return descending ?
+                new SubMap<>(m, false, toKey, inclusive,
+                             toEnd, hi, hiInclusive, true) :
+                new SubMap<>(m, fromStart, lo, loInclusive,
+                             false, toKey, inclusive, false);
+        }
+
+        public NavigableMap<K,V> tailMap(K fromKey, boolean inclusive) {
+            if (!inRange(fromKey, inclusive))
+                throw new IllegalArgumentException("fromKey out of range");
+            return descending ?
+                new SubMap<>(m, fromStart, lo, loInclusive,
+                             false, fromKey, inclusive, true) :
+                new SubMap<>(m, false, fromKey, inclusive,
+                             toEnd, hi, hiInclusive, false);
+        }
+
+        public SortedMap<K,V> subMap(K fromKey, K toKey) {
+            return subMap(fromKey, true, toKey, false);
+        }
+
+        public SortedMap<K,V> headMap(K toKey) {
+            return headMap(toKey, false);
+        }
+
+        public SortedMap<K,V> tailMap(K fromKey) {
+            return tailMap(fromKey, true);
+        }
+
+        public NavigableMap<K,V> descendingMap() {
+            return new SubMap<>(m, fromStart, lo, loInclusive,
+                                toEnd, hi, hiInclusive, !descending);
+        }
+
+        public Set<K> keySet() {
+            return navigableKeySet();
+        }
+
+        public NavigableSet<K> navigableKeySet() {
+            KeySet<K> ks = keySetView;
+            return (ks != null) ? ks : (keySetView = new KeySet<>(this));
+        }
+
+        public NavigableSet<K> descendingKeySet() {
+            return descendingMap().navigableKeySet();
+        }
+
+        public Collection<V> values() {
+            Collection<V> vs = valuesView;
+            return (vs != null) ? vs : (valuesView = new Values<>(this));
+        }
+
+        public Set<Map.Entry<K,V>> entrySet() {
+            Set<Map.Entry<K,V>> es = entrySetView;
+            return (es != null) ? es : (entrySetView = new EntrySet<>(this));
+        }
+
+        Iterator<K> keyIterator() {
+            return new KeyIterator<>(m, this, descending);
+        }
+
+        Iterator<K> descendingKeyIterator() {
+            return new KeyIterator<>(m, this, !descending);
+        }
+
+        Iterator<V> valueIterator() {
+            return new ValueIterator<>(m, this, descending);
+        }
+
+        Iterator<Map.Entry<K,V>> entryIterator() {
+            return new EntryIterator<>(m, this, descending);
+        }
+    }
+
+    /* ---------------- Serialization and bulk loading -------------- */
+
+    /**
+     * Save the state of the {@code BTreeMap} instance to a stream (i.e.,
+     * serialize it).
+     *
+     * @serialData The <em>size</em> of the BTreeMap (the number of key-value
+     *             mappings) is emitted (int), followed by the key (Object)
+     *             and value (Object) for each key-value mapping represented
+     *             by the BTreeMap. The key-value mappings are emitted in
+     *             key-order (as determined by the BTreeMap's Comparator,
+     *             or by the keys' natural ordering if the BTreeMap has no
+     *             Comparator).
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws java.io.IOException {
+        // Write out the Comparator and any hidden stuff
+        s.defaultWriteObject();
+
+        // Write out size (number of Mappings)
+        s.writeInt(size);
+
+        // Write out keys and values (alternating)
+        for (Leaf l = head; l != null; l = l.next) {
+            for (int i = 0; i < l.size; i++) {
+                s.writeObject(l.keys[i]);
+                s.writeObject(l.vals[i]);
+            }
+        }
+    }
+
+    /**
+     * Reconstitute the {@code BTreeMap} instance from a stream (i.e.,
+     * deserialize it).
+     */
+    private void readObject(final java.io.ObjectInputStream s)
+        throws java.io.IOException, ClassNotFoundException {
+        // Read in the Comparator and any hidden stuff
+        s.defaultReadObject();
+
+        // Read in size
+        int size = s.readInt();
+        if (size < 0)
+            throw new java.io.InvalidObjectException("Illegal size: " + size);
+
+        buildFromSorted(size, null, s, null);
+    }
+
+    /** Intended to be called only from BTreeSet.readObject */
+    void readBTreeSet(int size, java.io.ObjectInputStream s, V defaultVal)
+        throws java.io.IOException, ClassNotFoundException {
+        buildFromSorted(size, null, s, defaultVal);
+    }
+
+    /** Intended to be called only from BTreeSet.addAll */
+    void addAllForBTreeSet(SortedSet<? extends K> set, V defaultVal) {
+        try {
+            buildFromSorted(set.size(), set.iterator(), null, defaultVal);
+        } catch (java.io.IOException cannotHappen) {
+        } catch (ClassNotFoundException cannotHappen) {
+        }
+    }
+
+    /**
+     * Linear time tree building algorithm from sorted data.  Can accept
+     * keys and/or values from iterator or stream, in the four formats
+     * accepted by TreeMap.buildFromSorted:
+     *
+     *    1) An iterator of Map.Entries.  (it != null, defaultVal == null).
+     *    2) An iterator of keys.         (it != null, defaultVal != null).
+     *    3) A stream of alternating serialized keys and values.
+     *                                   (it == null, defaultVal == null).
+     *    4) A stream of serialized keys. (it == null, defaultVal != null).
+     *
+     * The mappings are spread evenly over the fewest leaves that hold
+     * them, which are full or nearly so, and the same is done for each
+     * level of inner nodes, whose separators are the first keys of
+     * their children's subtrees.  It is assumed that the comparator of
+     * the map is already set, and that the map is empty, prior to
+     * calling this method.
+     *
+     * @param size the number of keys (or key-value pairs) to be read from
+     *        the iterator or stream
+     * @param it If non-null, new entries are created from entries
+     *        or keys read from this iterator.
+     * @param str If non-null, new entries are created from keys and
+     *        possibly values read from this stream in serialized form.
+     *        Exactly one of it and str should be non-null.
+     * @param defaultVal if non-null, this default value is used for
+     *        each value in the map.  If null, each value is read from
+     *        iterator or stream, as described above.
+     * @throws java.io.IOException propagated from stream reads. This cannot
+     *         occur if str is null.
+     * @throws ClassNotFoundException propagated from readObject.
+     *         This cannot occur if str is null.
+     */
+    private void buildFromSorted(int size, Iterator<?> it,
+                                 ObjectInputStream str, V defaultVal)
+        throws IOException, ClassNotFoundException {
+        if (size == 0)
+            return;
+        int count = (size + LEAF_CAPACITY - 1) / LEAF_CAPACITY;
+        Node[] level = new Node[count];
+        Object[] lows = new Object[count];  // first key of each subtree
+        int q = size / count, r = size % count;
+        Leaf prev = null;
+        for (int j = 0; j < count; j++) {
+            Leaf l = new Leaf();
+            int n = q + ((j < r) ? 1 : 0);
+            for (int i = 0; i < n; i++) {
+                Object key, value;
+                if (it != null) {
+                    if (defaultVal == null) {
+                        Map.Entry<?,?> entry = (Map.Entry<?,?>)it.next();
+                        key = entry.getKey();
+                        value = entry.getValue();
+                    } else {
+                        key = it.next();
+                        value = defaultVal;
+                    }
+                } else { // use stream
+                    key = str.readObject();
+                    value = (defaultVal != null ? defaultVal : str.readObject());
+                }
+                l.keys[i] = key;
+                l.vals[i] = value;
+            }
+            l.size = n;
+            if ((l.prev = prev) != null)
+                prev.next = l;
+            else
+                head = l;
+            prev = l;
+            level[j] = l;
+            lows[j] = l.keys[0];
+        }
+        tail = prev;
+        int h = 0;
+        for (; count > 1; h++) {
+            int parents = (count + INNER_CAPACITY - 1) / INNER_CAPACITY;
+            Node[] up = new Node[parents];
+            Object[] upLows = new Object[parents];
+            q = count / parents;
+            r = count % parents;
+            for (int j = 0, c = 0; j < parents; j++) {
+                Inner p = new Inner();
+                int n = q + ((j < r) ? 1 : 0);
+                upLows[j] = lows[c];
+                for (int i = 0; i < n; i++, c++) {
+                    p.children[i] = level[c];
+                    if (i > 0)
+                        p.keys[i - 1] = lows[c];
+                }
+                p.size = n;
+                up[j] = p;
+            }
+            level = up;
+            lows = upLows;
+            count = parents;
+        }
+        root = level[0];
+        height = h;
+        this.size = size;
+    }
+}
@@ -0,0 +1,1936 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A set of non-negative {@code int} values, like a {@link BitSet}, that is
+ * compressed so that its size depends on the number and distribution of
+ * the values rather than on the largest of them.
+ *
+ * <p>The range of indices is divided into chunks of 65536 bits, each
+ * identified by the high 16 bits of its indices.  Only the chunks that
+ * hold at least one set bit are stored, in order, each in the smallest of
+ * three representations: a sorted array of the low 16 bits of its set
+ * bits, if there are at most 4096 of them; a bitmap of 1024 {@code long}
+ * words otherwise; or a sorted list of runs of consecutive set bits,
+ * which {@link #runOptimize()} chooses when it is smaller, and which a
+ * chunk gets when {@link #set(int, int)} fills it.  A set holding a single
+ * bit at index 2<sup>31</sup>-1 thus takes a few dozen bytes, and the
+ * operations on two sets only visit the chunks that both, or either,
+ * hold, using merges or lookups for sparse chunks and word-wise logic for
+ * dense ones.
+ *
+ * <p>The operations of {@code BitSet} that the representation supports
+ * efficiently are offered with the same semantics: {@link #get},
+ * {@link #set}, {@link #clear}, {@link #flip}, {@link #nextSetBit},
+ * {@link #nextClearBit}, {@link #previousSetBit}, {@link #length},
+ * {@link #cardinality}, {@link #and}, {@link #or}, {@link #xor},
+ * {@link #andNot} and {@link #intersects}.  In addition,
+ * {@link #union(CompressedBitSet...)} and
+ * {@link #intersection(CompressedBitSet...)} aggregate any number of sets
+ * at once, chunk by chunk and in parallel.
+ *
+ * <p>A set is written in a portable form by {@link #writeTo(ByteBuffer)}
+ * or {@link #toByteArray()}.  {@link #valueOf(ByteBuffer)} reads that form
+ * lazily: only the directory of the chunks is read up front, and each
+ * chunk is read when it is first needed, so that a large set can be used
+ * directly from a memory-mapped file.  The form starts with the
+ * {@code int} {@code 0x3A307862}, followed by the number of chunks, a
+ * directory entry per chunk, holding the high 16 bits of its indices
+ * ({@code char}), its representation ({@code byte}: 0 for an array, 1 for
+ * a bitmap, 2 for runs), a padding byte, its number of set bits
+ * ({@code int}) and the offset of its contents ({@code int}), and then the
+ * contents of the chunks: the low 16 bits of its set bits ({@code char}s),
+ * its 1024 words ({@code long}s), or its number of runs ({@code char})
+ * followed by the first index and the length minus one of each run
+ * ({@code char}s).  All values are little-endian.
+ *
+ * <p>Unless otherwise noted, passing a null parameter to any of the
+ * methods in a {@code CompressedBitSet} will result in a
+ * {@code NullPointerException}.
+ *
+ * <p>A {@code CompressedBitSet} is not safe for multithreaded use without
+ * external synchronization, even if it is only read, as reading a set
+ * created by {@code valueOf(ByteBuffer)} may read in its chunks.  The
+ * aggregation methods and the streams of the sets only read the sets
+ * they are given, and may do so concurrently.
+ *
+ * @see     BitSet
+ */
+public class CompressedBitSet implements Cloneable, java.io.Serializable {
+
+    private static final long serialVersionUID = 4384612307934542791L;
+
+    /*
+     * The chunks are kept in two parallel arrays, sorted by key: the
+     * keys, which are the high 16 bits of the indices of a chunk, and
+     * the containers, which hold the low 16 bits.  Containers are never
+     * empty; the operations that may empty a container return null
+     * instead, and the chunk is removed.  A container is owned by a
+     * single set: binary operations always build new containers.
+     *
+     * A set read by valueOf(ByteBuffer) keeps the buffer and leaves its
+     * containers null until they are first accessed through container(i),
+     * which reads them in and caches them.  Operations that add or remove
+     * chunks first read in all of them (loadAll), so that the slots of
+     * the arrays keep matching the directory entries of the buffer until
+     * the buffer is dropped.  Readers that may run concurrently, such as
+     * aggregation tasks and stream spliterators, use peek(i), which
+     * reads in a container without caching it.
+     */
+
+    /** The number of bits of an index that select its chunk */
+    static final int CHUNK_BITS = 16;
+
+    /** The number of bits of a chunk */
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    static final int LOW_MASK = CHUNK_SIZE - 1;
+
+    /** The number of words of a bitmap container */
+    static final int BITMAP_WORDS = CHUNK_SIZE / Long.SIZE;
+
+    /** The maximum number of values of an array container */
+    static final int ARRAY_MAX = 4096;
+
+    /** The magic number at the start of the serialized form */
+    static final int MAGIC = 0x3A307862;
+
+    static final int HEADER_BYTES = 8;
+    static final int ENTRY_BYTES = 12;
+
+    static final byte ARRAY = 0, BITMAP = 1, RUN = 2;
+
+    /** The high 16 bits of the indices of each chunk, in ascending order */
+    private transient char[] keys;
+
+    /** The container of each chunk, or null if not yet read in */
+    private transient Container[] containers;
+
+    /** The number of chunks */
+    private transient int size;
+
+    /** The buffer the containers not yet read in are read from, or null */
+    private transient ByteBuffer source;
+
+    /**
+     * Creates a new, empty set.
+     */
+    public CompressedBitSet() {
+        keys = new char[4];
+        containers = new Container[4];
+    }
+
+    private CompressedBitSet(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    // Containers
+
+    /**
+     * The low 16 bits of the set bits of a chunk, of which there is at
+     * least one.  Methods that change the contents return the container
+     * holding the result, which may be a new container of another kind,
+     * or null if it is empty.
+     */
+    abstract static class Container {
+        abstract int cardinality();
+        abstract boolean contains(int x);
+        abstract Container add(int x);
+        abstract Container remove(int x);
+        /** Returns the first value at or after x, or -1 */
+        abstract int next(int x);
+        /** Returns the first value at or after x that is absent, or CHUNK_SIZE */
+        abstract int nextAbsent(int x);
+        /** Returns the last value at or before x, or -1 */
+        abstract int previous(int x);
+        /** Sets the bits of the values in the given words */
+        abstract void orInto(long[] words);
+        /** Returns the number of runs of consecutive values */
+        abstract int runCount();
+        abstract Container copy();
+        abstract byte type();
+        abstract int contentBytes();
+        abstract void writeContent(ByteBuffer bb);
+
+        /** Returns a new bitmap of the values */
+        long[] toWords() {
+            long[] words = new long[BITMAP_WORDS];
+            orInto(words);
+            return words;
+        }
+
+        /** Returns the bitmap of the values, which must not be modified */
+        long[] words() {
+            return toWords();
+        }
+
+        void forEach(int base, IntConsumer action) {
+            for (int x = next(0); x >= 0; x = (x == LOW_MASK) ? -1 : next(x + 1))
+                action.accept(base | x);
+        }
+
+        /**
+         * Returns the smallest representation of the values, preferring
+         * runs only when they are strictly smaller.
+         */
+        Container optimize() {
+            int card = cardinality();
+            int runBytes = 2 + 4 * runCount();
+            int otherBytes = (card <= ARRAY_MAX) ? 2 * card : 8 * BITMAP_WORDS;
+            if (runBytes < otherBytes)
+                return (this instanceof RunContainer) ? this : RunContainer.of(this);
+            return (this instanceof RunContainer) ? fromWords(toWords()) : this;
+        }
+    }
+
+    /**
+     * Returns the container of the set bits of the given words, or null if
+     * none is set.
+     */
+    static Container fromWords(long[] words) {
+        int card = 0;
+        for (long w : words)
+            card += Long.bitCount(w);
+        return fromWords(words, card);
+    }
+
+    static Container fromWords(long[] words, int card) {
+        if (card == 0)
+            return null;
+        if (card <= ARRAY_MAX)
+            return ArrayContainer.of(words, card);
+        if (card == CHUNK_SIZE)
+            return RunContainer.range(0, CHUNK_SIZE);
+        return new BitmapContainer(words, card);
+    }
+
+    /**
+     * Sets the bits from {@code from}, inclusive, to {@code to}, exclusive.
+     */
+    static void setRange(long[] words, int from, int to) {
+        if (from >= to)
+            return;
+        int startWord = from >>> 6, endWord = (to - 1) >>> 6;
+        long firstWordMask = -1L << from;
+        long lastWordMask  = -1L >>> -to;
+        if (startWord == endWord) {
+            words[startWord] |= (firstWordMask & lastWordMask);
+        } else {
+            words[startWord] |= firstWordMask;
+            for (int i = startWord + 1; i < endWord; i++)
+                words[i] = -1L;
+            words[endWord] |= lastWordMask;
+        }
+    }
+
+    /**
+     * Flips the bits from {@code from}, inclusive, to {@code to}, exclusive.
+     */
+    static void flipRange(long[] words, int from, int to) {
+        if (from >= to)
+            return;
+        int startWord = from >>> 6, endWord = (to - 1) >>> 6;
+        long firstWordMask = -1L << from;
+        long lastWordMask  = -1L >>> -to;
+        if (startWord == endWord) {
+            words[startWord] ^= (firstWordMask & lastWordMask);
+        } else {
+            words[startWord] ^= firstWordMask;
+            for (int i = startWord + 1; i < endWord; i++)
+                words[i] ^= -1L;
+            words[endWord] ^= lastWordMask;
+        }
+    }
+
+    /**
+     * A sorted array of at most ARRAY_MAX values.
+     */
+    static final class ArrayContainer extends Container {
+        char[] content;
+        int card;
+
+        ArrayContainer(char[] content, int card) {
+            this.content = content;
+            this.card = card;
+        }
+
+        static ArrayContainer of(long[] words, int card) {
+            char[] content = new char[card];
+            int n = 0;
+            for (int i = 0; i < words.length; i++) {
+                for (long w = words[i]; w != 0; w &= w - 1)
+                    content[n++] = (char) ((i << 6) | Long.numberOfTrailingZeros(w));
+            }
+            return new ArrayContainer(content, card);
+        }
+
+        int cardinality() { return card; }
+
+        /** Returns the index of the first value at or after x */
+        private int lowerBound(int x) {
+            int i = Arrays.binarySearch(content, 0, card, (char) x);
+            return (i >= 0) ? i : -i - 1;
+        }
+
+        boolean contains(int x) {
+            return Arrays.binarySearch(content, 0, card, (char) x) >= 0;
+        }
+
+        Container add(int x) {
+            int i = Arrays.binarySearch(content, 0, card, (char) x);
+            if (i >= 0)
+                return this;
+            if (card == ARRAY_MAX) {
+                long[] words = toWords();
+                words[x >>> 6] |= 1L << x;
+                return new BitmapContainer(words, card + 1);
+            }
+            i = -i - 1;
+            if (card == content.length)
+                content = Arrays.copyOf(content, Math.min(ARRAY_MAX,
+                                                          Math.max(4, card << 1)));
+            System.arraycopy(content, i, content, i + 1, card - i);
+            content[i] = (char) x;
+            card++;
+            return this;
+        }
+
+        Container remove(int x) {
+            int i = Arrays.binarySearch(content, 0, card, (char) x);
+            if (i < 0)
+                return this;
+            System.arraycopy(content, i + 1, content, i, card - i - 1);
+            return (--card == 0) ? null : this;
+        }
+
+        int next(int x) {
+            int i = lowerBound(x);
+            return (i < card) ? content[i] : -1;
+        }
+
+        int nextAbsent(int x) {
+            int i = Arrays.binarySearch(content, 0, card, (char) x);
+            if (i < 0)
+                return x;
+            while (i + 1 < card && content[i + 1] == content[i] + 1)
+                i++;
+            return content[i] + 1;
+        }
+
+        int previous(int x) {
+            int i = Arrays.binarySearch(content, 0, card, (char) x);
+            if (i >= 0)
+                return x;
+            i = -i - 2;
+            return (i >= 0) ? content[i] : -1;
+        }
+
+        void orInto(long[] words) {
+            char[] c = content;
+            for (int i = 0, n = card; i < n; i++)
+                words[c[i] >>> 6] |= 1L << c[i];
+        }
+
+        void forEach(int base, IntConsumer action) {
+            char[] c = content;
+            for (int i = 0, n = card; i < n; i++)
+                action.accept(base | c[i]);
+        }
+
+        int runCount() {
+            int runs = (card > 0) ? 1 : 0;
+            for (int i = 1; i < card; i++) {
+                if (content[i] != content[i - 1] + 1)
+                    runs++;
+            }
+            return runs;
+        }
+
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(content, card), card);
+        }
+
+        byte type() { return ARRAY; }
+
+        int contentBytes() { return 2 * card; }
+
+        void writeContent(ByteBuffer bb) {
+            for (int i = 0; i < card; i++)
+                bb.putChar(content[i]);
+        }
+    }
+
+    /**
+     * A bitmap of more than ARRAY_MAX values.
+     */
+    static final class BitmapContainer extends Container {
+        final long[] words;
+        int card;
+
+        BitmapContainer(long[] words, int card) {
+            this.words = words;
+            this.card = card;
+        }
+
+        int cardinality() { return card; }
+
+        boolean contains(int x) {
+            return (words[x >>> 6] & (1L << x)) != 0;
+        }
+
+        Container add(int x) {
+            long w = words[x >>> 6], bit = 1L << x;
+            if ((w & bit) == 0) {
+                words[x >>> 6] = w | bit;
+                if (++card == CHUNK_SIZE)
+                    return RunContainer.range(0, CHUNK_SIZE);
+            }
+            return this;
+        }
+
+        Container remove(int x) {
+            long w = words[x >>> 6], bit = 1L << x;
+            if ((w & bit) == 0)
+                return this;
+            words[x >>> 6] = w & ~bit;
+            return (--card <= ARRAY_MAX) ? ArrayContainer.of(words, card) : this;
+        }
+
+        int next(int x) {
+            int u = x >>> 6;
+            long word = words[u] & (-1L << x);
+            while (true) {
+                if (word != 0)
+                    return (u << 6) + Long.numberOfTrailingZeros(word);
+                if (++u == BITMAP_WORDS)
+                    return -1;
+                word = words[u];
+            }
+        }
+
+        int nextAbsent(int x) {
+            int u = x >>> 6;
+            long word = ~words[u] & (-1L << x);
+            while (true) {
+                if (word != 0)
+                    return (u << 6) + Long.numberOfTrailingZeros(word);
+                if (++u == BITMAP_WORDS)
+                    return CHUNK_SIZE;
+                word = ~words[u];
+            }
+        }
+
+        int previous(int x) {
+            int u = x >>> 6;
+            long word = words[u] & (-1L >>> -(x + 1));
+            while (true) {
+                if (word != 0)
+                    return (u + 1) * 64 - 1 - Long.numberOfLeadingZeros(word);
+                if (u-- == 0)
+                    return -1;
+                word = words[u];
+            }
+        }
+
+        void orInto(long[] w) {
+            for (int i = 0; i < BITMAP_WORDS; i++)
+                w[i] |= words[i];
+        }
+
+        long[] toWords() {
+            return words.clone();
+        }
+
+        long[] words() {
+            return words;
+        }
+
+        int runCount() {
+            int runs = 0;
+            long carry = 0;
+            for (long w : words) {
+                runs += Long.bitCount(w & ~((w << 1) | carry));
+                carry = w >>> 63;
+            }
+            return runs;
+        }
+
+        Container copy() {
+            return new BitmapContainer(words.clone(), card);
+        }
+
+        byte type() { return BITMAP; }
+
+        int contentBytes() { return 8 * BITMAP_WORDS; }
+
+        void writeContent(ByteBuffer bb) {
+            for (long w : words)
+                bb.putLong(w);
+        }
+    }
+
+    /**
+     * A sorted list of maximal runs of consecutive values, each stored as
+     * its first value and its length minus one.  Modifications other than
+     * those that leave the values unchanged convert it to another kind.
+     */
+    static final class RunContainer extends Container {
+        final char[] runs;
+        final int count;
+        final int card;
+
+        RunContainer(char[] runs, int count, int card) {
+            this.runs = runs;
+            this.count = count;
+            this.card = card;
+        }
+
+        /** Returns the container of the values from, inclusive, to to, exclusive */
+        static RunContainer range(int from, int to) {
+            return new RunContainer(new char[] { (char) from, (char) (to - from - 1) },
+                                    1, to - from);
+        }
+
+        static RunContainer of(Container c) {
+            int n = c.runCount();
+            char[] runs = new char[2 * n];
+            int k = 0;
+            for (int start = c.next(0); start >= 0; ) {
+                int end = c.nextAbsent(start);
+                runs[k++] = (char) start;
+                runs[k++] = (char) (end - start - 1);
+                start = (end < CHUNK_SIZE) ? c.next(end) : -1;
+            }
+            return new RunContainer(runs, n, c.cardinality());
+        }
+
+        /** Returns the index of the last run starting at or before x, or -1 */
+        private int runBefore(int x) {
+            int lo = 0, hi = count - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (runs[2 * mid] <= x)
+                    lo = mid + 1;
+                else
+                    hi = mid - 1;
+            }
+            return hi;
+        }
+
+        private int end(int i) { // last value of run i
+            return runs[2 * i] + runs[2 * i + 1];
+        }
+
+        int cardinality() { return card; }
+
+        boolean contains(int x) {
+            int i = runBefore(x);
+            return i >= 0 && x <= end(i);
+        }
+
+        Container add(int x) {
+            if (contains(x))
+                return this;
+            long[] words = toWords();
+            words[x >>> 6] |= 1L << x;
+            return fromWords(words, card + 1);
+        }
+
+        Container remove(int x) {
+            if (!contains(x))
+                return this;
+            long[] words = toWords();
+            words[x >>> 6] &= ~(1L << x);
+            return fromWords(words, card - 1);
+        }
+
+        int next(int x) {
+            int i = runBefore(x);
+            if (i >= 0 && x <= end(i))
+                return x;
+            return (i + 1 < count) ? runs[2 * (i + 1)] : -1;
+        }
+
+        int nextAbsent(int x) {
+            int i = runBefore(x);
+            return (i >= 0 && x <= end(i)) ? end(i) + 1 : x;
+        }
+
+        int previous(int x) {
+            int i = runBefore(x);
+            return (i >= 0) ? Math.min(x, end(i)) : -1;
+        }
+
+        void orInto(long[] words) {
+            for (int i = 0; i < count; i++)
+                setRange(words, runs[2 * i], end(i) + 1);
+        }
+
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < count; i++) {
+                for (int x = runs[2 * i], end = end(i); x <= end; x++)
+                    action.accept(base | x);
+            }
+        }
+
+        int runCount() { return count; }
+
+        Container copy() {
+            return new RunContainer(Arrays.copyOf(runs, 2 * count), count, card);
+        }
+
+        byte type() { return RUN; }
+
+        int contentBytes() { return 2 + 4 * count; }
+
+        void writeContent(ByteBuffer bb) {
+            bb.putChar((char) count);
+            for (int i = 0; i < 2 * count; i++)
+                bb.putChar(runs[i]);
+        }
+    }
+
+    // Binary operations on containers, which return new containers
+
+    static Container and(Container a, Container b) {
+        if (b instanceof ArrayContainer && !(a instanceof ArrayContainer)) {
+            Container t = a; a = b; b = t;
+        }
+        if (a instanceof ArrayContainer) {
+            ArrayContainer x = (ArrayContainer) a;
+            char[] r = new char[x.card];
+            int n = 0;
+            if (b instanceof ArrayContainer) {
+                ArrayContainer y = (ArrayContainer) b;
+                for (int i = 0, j = 0; i < x.card && j < y.card; ) {
+                    char u = x.content[i], v = y.content[j];
+                    if (u < v) {
+                        i++;
+                    } else if (u > v) {
+                        j++;
+                    } else {
+                        r[n++] = u;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < x.card; i++) {
+                    if (b.contains(x.content[i]))
+                        r[n++] = x.content[i];
+                }
+            }
+            return (n == 0) ? null : new ArrayContainer(r, n);
+        }
+        long[] w = a.toWords(), v = b.words();
+        for (int i = 0; i < BITMAP_WORDS; i++)
+            w[i] &= v[i];
+        return fromWords(w);
+    }
+
+    static Container or(Container a, Container b) {
+        if (a instanceof ArrayContainer && b instanceof ArrayContainer &&
+            a.cardinality() + b.cardinality() <= ARRAY_MAX) {
+            ArrayContainer x = (ArrayContainer) a, y = (ArrayContainer) b;
+            char[] r = new char[x.card + y.card];
+            int i = 0, j = 0, n = 0;
+            while (i < x.card && j < y.card) {
+                char u = x.content[i], v = y.content[j];
+                if (u <= v) {
+                    r[n++] = u;
+                    i++;
+                    if (u == v)
+                        j++;
+                } else {
+                    r[n++] = v;
+                    j++;
+                }
+            }
+            while (i < x.card)
+                r[n++] = x.content[i++];
+            while (j < y.card)
+                r[n++] = y.content[j++];
+            return new ArrayContainer(r, n);
+        }
+        long[] w = a.toWords();
+        b.orInto(w);
+        return fromWords(w);
+    }
+
+    static Container xor(Container a, Container b) {
+        if (a instanceof ArrayContainer && b instanceof ArrayContainer &&
+            a.cardinality() + b.cardinality() <= ARRAY_MAX) {
+            ArrayContainer x = (ArrayContainer) a, y = (ArrayContainer) b;
+            char[] r = new char[x.card + y.card];
+            int i = 0, j = 0, n = 0;
+            while (i < x.card && j < y.card) {
+                char u = x.content[i], v = y.content[j];
+                if (u < v) {
+                    r[n++] = u;
+                    i++;
+                } else if (u > v) {
+                    r[n++] = v;
+                    j++;
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+            while (i < x.card)
+                r[n++] = x.content[i++];
+            while (j < y.card)
+                r[n++] = y.content[j++];
+            return (n == 0) ? null : new ArrayContainer(r, n);
+        }
+        long[] w = a.toWords(), v = b.words();
+        for (int i = 0; i < BITMAP_WORDS; i++)
+            w[i] ^= v[i];
+        return fromWords(w);
+    }
+
+    static Container andNot(Container a, Container b) {
+        if (a instanceof ArrayContainer) {
+            ArrayContainer x = (ArrayContainer) a;
+            char[] r = new char[x.card];
+            int n = 0;
+            for (int i = 0; i < x.card; i++) {
+                if (!b.contains(x.content[i]))
+                    r[n++] = x.content[i];
+            }
+            return (n == 0) ? null : new ArrayContainer(r, n);
+        }
+        long[] w = a.toWords(), v = b.words();
+        for (int i = 0; i < BITMAP_WORDS; i++)
+            w[i] &= ~v[i];
+        return fromWords(w);
+    }
+
+    static boolean intersects(Container a, Container b) {
+        if (b instanceof ArrayContainer) {
+            Container t = a; a = b; b = t;
+        }
+        if (a instanceof ArrayContainer) {
+            ArrayContainer x = (ArrayContainer) a;
+            for (int i = 0; i < x.card; i++) {
+                if (b.contains(x.content[i]))
+                    return true;
+            }
+            return false;
+        }
+        long[] w = a.words(), v = b.words();
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            if ((w[i] & v[i]) != 0)
+                return true;
+        }
+        return false;
+    }
+
+    static boolean sameValues(Container a, Container b) {
+        if (a.cardinality() != b.cardinality())
+            return false;
+        if (a instanceof ArrayContainer && b instanceof ArrayContainer) {
+            ArrayContainer x = (ArrayContainer) a, y = (ArrayContainer) b;
+            for (int i = 0; i < x.card; i++) {
+                if (x.content[i] != y.content[i])
+                    return false;
+            }
+            return true;
+        }
+        return Arrays.equals(a.words(), b.words());
+    }
+
+    // Chunk directory
+
+    /**
+     * Returns the slot of the given key, or (-(insertion point) - 1).
+     */
+    private int slotOf(int key) {
+        return Arrays.binarySearch(keys, 0, size, (char) key);
+    }
+
+    /**
+     * Returns the container of slot i, reading it in if needed.
+     */
+    private Container container(int i) {
+        Container c = containers[i];
+        if (c == null)
+            containers[i] = c = load(source, i);
+        return c;
+    }
+
+    /**
+     * Returns the container of slot i, reading it in without caching it
+     * if needed, so that concurrent readers do not race.
+     */
+    Container peek(int i) {
+        Container c = containers[i];
+        return (c != null) ? c : load(source, i);
+    }
+
+    /**
+     * Reads in all the containers, and drops the source buffer.
+     */
+    private void loadAll() {
+        if (source != null) {
+            for (int i = 0; i < size; i++)
+                container(i);
+            source = null;
+        }
+    }
+
+    /**
+     * Returns the cardinality of slot i, without reading in its container.
+     */
+    private int cardinalityOf(int i) {
+        Container c = containers[i];
+        return (c != null) ? c.cardinality()
+                           : source.getInt(HEADER_BYTES + i * ENTRY_BYTES + 4);
+    }
+
+    private void insertAt(int i, int key, Container c) {
+        loadAll();
+        if (size == keys.length) {
+            int n = Math.max(4, size + (size >> 1));
+            keys = Arrays.copyOf(keys, n);
+            containers = Arrays.copyOf(containers, n);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = (char) key;
+        containers[i] = c;
+        size++;
+    }
+
+    private void removeAt(int i) {
+        loadAll();
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+        containers[--size] = null;
+    }
+
+    /**
+     * Stores the container resulting from an update of slot i, removing
+     * the slot if it is empty.
+     */
+    private void update(int i, Container c) {
+        if (c == null)
+            removeAt(i);
+        else
+            containers[i] = c;
+    }
+
+    // Single bits
+
+    /**
+     * Returns the value of the bit with the specified index.
+     *
+     * @param  bitIndex the bit index
+     * @return the value of the bit with the specified index
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public boolean get(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        int i = slotOf(bitIndex >>> CHUNK_BITS);
+        return i >= 0 && container(i).contains(bitIndex & LOW_MASK);
+    }
+
+    /**
+     * Sets the bit at the specified index to {@code true}.
+     *
+     * @param  bitIndex a bit index
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public void set(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        int key = bitIndex >>> CHUNK_BITS, low = bitIndex & LOW_MASK;
+        int i = slotOf(key);
+        if (i >= 0)
+            containers[i] = container(i).add(low);
+        else
+            insertAt(-i - 1, key, new ArrayContainer(new char[] { (char) low }, 1));
+    }
+
+    /**
+     * Sets the bit at the specified index to the specified value.
+     *
+     * @param  bitIndex a bit index
+     * @param  value a boolean value to set
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public void set(int bitIndex, boolean value) {
+        if (value)
+            set(bitIndex);
+        else
+            clear(bitIndex);
+    }
+
+    /**
+     * Sets the bit specified by the index to {@code false}.
+     *
+     * @param  bitIndex the index of the bit to be cleared
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public void clear(int bitIndex) {
+        if (bitIndex < 0)
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        int i = slotOf(bitIndex >>> CHUNK_BITS);
+        if (i >= 0)
+            update(i, container(i).remove(bitIndex & LOW_MASK));
+    }
+
+    /**
+     * Sets the bit at the specified index to the complement of its
+     * current value.
+     *
+     * @param  bitIndex the index of the bit to flip
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public void flip(int bitIndex) {
+        if (get(bitIndex))
+            clear(bitIndex);
+        else
+            set(bitIndex);
+    }
+
+    // Ranges
+
+    /**
+     * Checks that fromIndex ... toIndex is a valid range of bit indices.
+     */
+    private static void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        if (toIndex < 0)
+            throw new IndexOutOfBoundsException("toIndex < 0: " + toIndex);
+        if (fromIndex > toIndex)
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex +
+                                                " > toIndex: " + toIndex);
+    }
+
+    /**
+     * Returns a set of the bits from fromIndex, inclusive, to toIndex,
+     * exclusive, which must not be empty, held in run containers.
+     */
+    private static CompressedBitSet range(int fromIndex, int toIndex) {
+        int first = fromIndex >>> CHUNK_BITS, last = (toIndex - 1) >>> CHUNK_BITS;
+        int n = last - first + 1;
+        char[] keys = new char[n];
+        Container[] containers = new Container[n];
+        for (int k = first; k <= last; k++) {
+            int lo = (k == first) ? fromIndex & LOW_MASK : 0;
+            int hi = (k == last) ? ((toIndex - 1) & LOW_MASK) + 1 : CHUNK_SIZE;
+            keys[k - first] = (char) k;
+            containers[k - first] = RunContainer.range(lo, hi);
+        }
+        return new CompressedBitSet(keys, containers, n);
+    }
+
+    /**
+     * Sets the bits from the specified {@code fromIndex} (inclusive) to the
+     * specified {@code toIndex} (exclusive) to {@code true}.
+     *
+     * @param  fromIndex index of the first bit to be set
+     * @param  toIndex index after the last bit to be set
+     * @throws IndexOutOfBoundsException if {@code fromIndex} is negative,
+     *         or {@code toIndex} is negative, or {@code fromIndex} is
+     *         larger than {@code toIndex}
+     */
+    public void set(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex != toIndex)
+            or(range(fromIndex, toIndex));
+    }
+
+    /**
+     * Sets the bits from the specified {@code fromIndex} (inclusive) to the
+     * specified {@code toIndex} (exclusive) to the specified value.
+     *
+     * @param  fromIndex index of the first bit to be set
+     * @param  toIndex index after the last bit to be set
+     * @param  value value to set the selected bits to
+     * @throws IndexOutOfBoundsException if {@code fromIndex} is negative,
+     *         or {@code toIndex} is negative, or {@code fromIndex} is
+     *         larger than {@code toIndex}
+     */
+    public void set(int fromIndex, int toIndex, boolean value) {
+        if (value)
+            set(fromIndex, toIndex);
+        else
+            clear(fromIndex, toIndex);
+    }
+
+    /**
+     * Sets the bits from the specified {@code fromIndex} (inclusive) to the
+     * specified {@code toIndex} (exclusive) to {@code false}.
+     *
+     * @param  fromIndex index of the first bit to be cleared
+     * @param  toIndex index after the last bit to be cleared
+     * @throws IndexOutOfBoundsException if {@code fromIndex} is negative,
+     *         or {@code toIndex} is negative, or {@code fromIndex} is
+     *         larger than {@code toIndex}
+     */
+    public void clear(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex != toIndex)
+            andNot(range(fromIndex, toIndex));
+    }
+
+    /**
+     * Sets each bit from the specified {@code fromIndex} (inclusive) to the
+     * specified {@code toIndex} (exclusive) to the complement of its current
+     * value.
+     *
+     * @param  fromIndex index of the first bit to flip
+     * @param  toIndex index after the last bit to flip
+     * @throws IndexOutOfBoundsException if {@code fromIndex} is negative,
+     *         or {@code toIndex} is negative, or {@code fromIndex} is
+     *         larger than {@code toIndex}
+     */
+    public void flip(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex != toIndex)
+            xor(range(fromIndex, toIndex));
+    }
+
+    /**
+     * Sets all of the bits in this set to {@code false}.
+     */
+    public void clear() {
+        keys = new char[4];
+        containers = new Container[4];
+        size = 0;
+        source = null;
+    }
+
+    // Queries
+
+    /**
+     * Returns the index of the first bit that is set to {@code true}
+     * that occurs on or after the specified starting index. If no such
+     * bit exists then {@code -1} is returned.
+     *
+     * <p>To iterate over the {@code true} bits in a set,
+     * use the following loop:
+     *
+     *  <pre> {@code
+     * for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i+1)) {
+     *     // operate on index i here
+     *     if (i == Integer.MAX_VALUE) {
+     *         break; // or (i+1) would overflow
+     *     }
+     * }}</pre>
+     *
+     * @param  fromIndex the index to start checking from (inclusive)
+     * @return the index of the next set bit, or {@code -1} if there
+     *         is no such bit
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public int nextSetBit(int fromIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        int key = fromIndex >>> CHUNK_BITS;
+        int i = slotOf(key);
+        if (i >= 0) {
+            int x = container(i).next(fromIndex & LOW_MASK);
+            if (x >= 0)
+                return (key << CHUNK_BITS) | x;
+            i++;
+        } else {
+            i = -i - 1;
+        }
+        return (i < size) ? (keys[i] << CHUNK_BITS) | container(i).next(0) : -1;
+    }
+
+    /**
+     * Returns the index of the first bit that is set to {@code false}
+     * that occurs on or after the specified starting index.
+     *
+     * @param  fromIndex the index to start checking from (inclusive)
+     * @return the index of the next clear bit, or {@code -1} if all the
+     *         bits from {@code fromIndex} to {@code Integer.MAX_VALUE}
+     *         are set
+     * @throws IndexOutOfBoundsException if the specified index is negative
+     */
+    public int nextClearBit(int fromIndex) {
+        if (fromIndex < 0)
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        int key = fromIndex >>> CHUNK_BITS, low = fromIndex & LOW_MASK;
+        for (int i = slotOf(key); i >= 0 && i < size && keys[i] == key; i++, key++) {
+            int x = container(i).nextAbsent(low);
+            if (x < CHUNK_SIZE)
+                return (key << CHUNK_BITS) | x;
+            low = 0;
+        }
+        return (key < (1 << (Integer.SIZE - 1 - CHUNK_BITS))) ?
+            (key << CHUNK_BITS) | low : -1;
+    }
+
+    /**
+     * Returns the index of the nearest bit that is set to {@code true}
+     * that occurs on or before the specified starting index.
+     * If no such bit exists, or if {@code -1} is given as the
+     * starting index, then {@code -1} is returned.
+     *
+     * @param  fromIndex the index to start checking from (inclusive)
+     * @return the index of the previous set bit, or {@code -1} if there
+     *         is no such bit
+     * @throws IndexOutOfBoundsException if the specified index is less
+     *         than {@code -1}
+     */
+    public int previousSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            if (fromIndex == -1)
+                return -1;
+            throw new IndexOutOfBoundsException(
+                "fromIndex < -1: " + fromIndex);
+        }
+        int key = fromIndex >>> CHUNK_BITS;
+        int i = slotOf(key);
+        if (i >= 0) {
+            int x = container(i).previous(fromIndex & LOW_MASK);
+            if (x >= 0)
+                return (key << CHUNK_BITS) | x;
+            i--;
+        } else {
+            i = -i - 2;
+        }
+        return (i >= 0) ? (keys[i] << CHUNK_BITS) | container(i).previous(LOW_MASK)
+                        : -1;
+    }
+
+    /**
+     * Returns the "logical size" of this set: the index of the highest set
+     * bit plus one.  Returns zero if the set contains no set bits.
+     *
+     * @return the logical size of this set
+     */
+    public int length() {
+        if (size == 0)
+            return 0;
+        return ((keys[size - 1] << CHUNK_BITS) |
+                container(size - 1).previous(LOW_MASK)) + 1;
+    }
+
+    /**
+     * Returns true if this set contains no bits that are set
+     * to {@code true}.
+     *
+     * @return boolean indicating whether this set is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of bits set to {@code true} in this set.
+     *
+     * @return the number of bits set to {@code true} in this set
+     */
+    public int cardinality() {
+        int sum = 0;
+        for (int i = 0; i < size; i++)
+            sum += cardinalityOf(i);
+        return sum;
+    }
+
+    // Set operations
+
+    /**
+     * Returns true if the specified set has any bits set to {@code true}
+     * that are also set to {@code true} in this set.
+     *
+     * @param  set the set to intersect with
+     * @return boolean indicating whether this set intersects the specified
+     *         set
+     */
+    public boolean intersects(CompressedBitSet set) {
+        for (int i = 0, j = 0; i < size && j < set.size; ) {
+            char a = keys[i], b = set.keys[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                if (intersects(container(i), set.container(j)))
+                    return true;
+                i++;
+                j++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Performs a logical <b>AND</b> of this target set with the argument
+     * set. This set is modified so that each bit in it has the value
+     * {@code true} if and only if it both initially had the value
+     * {@code true} and the corresponding bit in the set argument also had
+     * the value {@code true}.
+     *
+     * @param set a set
+     */
+    public void and(CompressedBitSet set) {
+        if (set == this)
+            return;
+        loadAll();
+        int n = 0;
+        for (int i = 0, j = 0; i < size && j < set.size; ) {
+            char a = keys[i], b = set.keys[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                Container c = and(containers[i], set.container(j));
+                if (c != null) {
+                    keys[n] = a;
+                    containers[n++] = c;
+                }
+                i++;
+                j++;
+            }
+        }
+        Arrays.fill(containers, n, size, null);
+        size = n;
+    }
+
+    /**
+     * Performs a logical <b>OR</b> of this set with the set argument.
+     * This set is modified so that a bit in it has the value {@code true}
+     * if and only if it either already had the value {@code true} or the
+     * corresponding bit in the set argument has the value {@code true}.
+     *
+     * @param set a set
+     */
+    public void or(CompressedBitSet set) {
+        if (set == this)
+            return;
+        merge(set, OR);
+    }
+
+    /**
+     * Performs a logical <b>XOR</b> of this set with the set argument.
+     * This set is modified so that a bit in it has the value {@code true}
+     * if and only if one of the following statements holds:
+     * <ul>
+     * <li>The bit initially has the value {@code true}, and the
+     *     corresponding bit in the argument has the value {@code false}.
+     * <li>The bit initially has the value {@code false}, and the
+     *     corresponding bit in the argument has the value {@code true}.
+     * </ul>
+     *
+     * @param  set a set
+     */
+    public void xor(CompressedBitSet set) {
+        if (set == this) {
+            clear();
+            return;
+        }
+        merge(set, XOR);
+    }
+
+    /**
+     * Clears all of the bits in this set whose corresponding bit is set in
+     * the specified set.
+     *
+     * @param  set the set with which to mask this set
+     */
+    public void andNot(CompressedBitSet set) {
+        if (set == this) {
+            clear();
+            return;
+        }
+        merge(set, AND_NOT);
+    }
+
+    private static final int OR = 0, XOR = 1, AND_NOT = 2;
+
+    /**
+     * Merges the chunks of the given set into those of this one, with the
+     * given operation, whose result for chunks only this set holds is the
+     * chunk itself.
+     */
+    private void merge(CompressedBitSet set, int op) {
+        loadAll();
+        int n1 = size, n2 = (op == AND_NOT) ? 0 : set.size;
+        char[] k = new char[Math.max(4, n1 + n2)];
+        Container[] c = new Container[k.length];
+        int n = 0, i = 0, j = 0;
+        while (i < size && j < set.size) {
+            char a = keys[i], b = set.keys[j];
+            Container r;
+            if (a < b) {
+                r = containers[i++];
+            } else if (a > b) {
+                r = (op == AND_NOT) ? null : set.container(j).copy();
+                a = b;
+                j++;
+            } else {
+                Container x = containers[i++], y = set.container(j++);
+                r = (op == OR) ? or(x, y) : (op == XOR) ? xor(x, y) : andNot(x, y);
+            }
+            if (r != null) {
+                k[n] = a;
+                c[n++] = r;
+            }
+        }
+        while (i < size) {
+            k[n] = keys[i];
+            c[n++] = containers[i++];
+        }
+        if (op != AND_NOT) {
+            while (j < set.size) {
+                k[n] = set.keys[j];
+                c[n++] = set.container(j++).copy();
+            }
+        }
+        keys = k;
+        containers = c;
+        size = n;
+    }
+
+    /**
+     * Converts each chunk to the smallest of its representations,
+     * choosing runs of consecutive set bits where they take less space
+     * than an array or a bitmap.  This is worthwhile before writing or
+     * aggregating a set that holds long runs.
+     *
+     * @return {@code true} if any chunk changed its representation
+     */
+    public boolean runOptimize() {
+        loadAll();
+        boolean changed = false;
+        for (int i = 0; i < size; i++) {
+            Container c = containers[i], o = c.optimize();
+            if (o != c) {
+                containers[i] = o;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    // Aggregation
+
+    /**
+     * Returns a new set holding the bits that are set in any of the given
+     * sets.  The chunks of the result are computed in parallel, each from
+     * the chunks of the same indices of all the sets at once.
+     *
+     * @param  sets the sets to combine
+     * @return the union of the sets
+     */
+    public static CompressedBitSet union(CompressedBitSet... sets) {
+        return aggregate(sets, true);
+    }
+
+    /**
+     * Returns a new set holding the bits that are set in all of the given
+     * sets, or an empty set if none is given.  The chunks of the result are
+     * computed in parallel, each from the chunks of the same indices of
+     * all the sets at once, starting with the sparsest.
+     *
+     * @param  sets the sets to combine
+     * @return the intersection of the sets
+     */
+    public static CompressedBitSet intersection(CompressedBitSet... sets) {
+        return aggregate(sets, false);
+    }
+
+    /**
+     * The number of keys below which aggregation does not fork.
+     */
+    static final int AGGREGATE_GRAN = 16;
+
+    private static CompressedBitSet aggregate(CompressedBitSet[] sets,
+                                              boolean union) {
+        int m = sets.length;
+        // Bucket the chunks of all sets by key
+        int keySpace = 1 << (Integer.SIZE - 1 - CHUNK_BITS);
+        int[] start = new int[keySpace + 1];
+        for (CompressedBitSet s : sets) {
+            for (int i = 0; i < s.size; i++)
+                start[s.keys[i] + 1]++;
+        }
+        int distinct = 0;
+        for (int k = 0; k < keySpace; k++) {
+            if (start[k + 1] == (union ? start[k + 1] : m) && start[k + 1] > 0)
+                distinct++;
+            start[k + 1] += start[k];
+        }
+        int[] fill = Arrays.copyOf(start, keySpace);
+        int[] refSet = new int[start[keySpace]], refSlot = new int[start[keySpace]];
+        for (int s = 0; s < m; s++) {
+            CompressedBitSet set = sets[s];
+            for (int i = 0; i < set.size; i++) {
+                int p = fill[set.keys[i]]++;
+                refSet[p] = s;
+                refSlot[p] = i;
+            }
+        }
+        char[] keys = new char[Math.max(4, distinct)];
+        for (int k = 0, n = 0; k < keySpace && n < distinct; k++) {
+            int count = start[k + 1] - start[k];
+            if (count > 0 && (union || count == m))
+                keys[n++] = (char) k;
+        }
+        Container[] result = new Container[keys.length];
+        new Aggregate(sets, union, keys, start, refSet, refSlot, result,
+                      0, distinct).invoke();
+        int n = 0;
+        for (int i = 0; i < distinct; i++) {
+            if (result[i] != null) {
+                keys[n] = keys[i];
+                result[n++] = result[i];
+            }
+        }
+        Arrays.fill(result, n, distinct, null);
+        return new CompressedBitSet(keys, result, n);
+    }
+
+    /**
+     * Computes the union or intersection of the chunks of a range of
+     * keys, splitting the range while it is larger than AGGREGATE_GRAN.
+     */
+    static final class Aggregate extends RecursiveAction {
+        private static final long serialVersionUID = -3468021541806418323L;
+        final CompressedBitSet[] sets;
+        final boolean union;
+        final char[] keys;
+        final int[] start, refSet, refSlot;
+        final Container[] result;
+        final int lo, hi;
+
+        Aggregate(CompressedBitSet[] sets, boolean union, char[] keys,
+                  int[] start, int[] refSet, int[] refSlot,
+                  Container[] result, int lo, int hi) {
+            this.sets = sets; this.union = union; this.keys = keys;
+            this.start = start; this.refSet = refSet; this.refSlot = refSlot;
+            this.result = result; this.lo = lo; this.hi = hi;
+        }
+
+        public void compute() {
+            if (hi - lo > AGGREGATE_GRAN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Aggregate(sets, union, keys, start, refSet,
+                                        refSlot, result, lo, mid),
+                          new Aggregate(sets, union, keys, start, refSet,
+                                        refSlot, result, mid, hi));
+                return;
+            }
+            for (int i = lo; i < hi; i++) {
+                int k = keys[i], from = start[k], to = start[k + 1];
+                Container[] cs = new Container[to - from];
+                for (int p = from; p < to; p++)
+                    cs[p - from] = sets[refSet[p]].peek(refSlot[p]);
+                result[i] = union ? unionOf(cs) : intersectionOf(cs);
+            }
+        }
+
+        private static Container unionOf(Container[] cs) {
+            if (cs.length == 1)
+                return cs[0].copy();
+            if (cs.length == 2)
+                return or(cs[0], cs[1]);
+            long[] words = new long[BITMAP_WORDS];
+            for (Container c : cs)
+                c.orInto(words);
+            return fromWords(words);
+        }
+
+        private static Container intersectionOf(Container[] cs) {
+            Arrays.sort(cs, (a, b) -> Integer.compare(a.cardinality(),
+                                                      b.cardinality()));
+            Container r = cs[0];
+            if (cs.length == 1)
+                return r.copy();
+            for (int j = 1; j < cs.length && r != null; j++)
+                r = and(r, cs[j]);
+            return r;
+        }
+    }
+
+    // Streams
+
+    /**
+     * Returns a stream of indices for which this set contains a bit in the
+     * set state. The indices are returned in order, from lowest to highest.
+     * The size of the stream is the number of bits in the set state, equal
+     * to the value returned by the {@link #cardinality()} method.
+     *
+     * <p>The stream is backed by a <em><a
+     * href="Spliterator.html#binding">late-binding</a></em> spliterator that
+     * splits the set by chunks.  The set must remain constant during the
+     * execution of the terminal stream operation.  Otherwise, the result of
+     * the terminal stream operation is undefined.
+     *
+     * @return a stream of integers representing set indices
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(new BitSpliterator(this, 0, -1, 0), false);
+    }
+
+    /**
+     * Traverses the set bits of a range of chunks, from the given low bits
+     * of the first one on.
+     */
+    static final class BitSpliterator implements Spliterator.OfInt {
+        final CompressedBitSet set;
+        int index;          // current chunk
+        int fence;          // one past the last chunk, or -1 until used
+        int low;            // next low bits to visit in the current chunk
+        int est;            // exact number of bits left
+        Container current;
+
+        BitSpliterator(CompressedBitSet set, int origin, int fence, int est) {
+            this.set = set;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+        }
+
+        private int getFence() {
+            int hi;
+            if ((hi = fence) < 0) {
+                hi = fence = set.size;
+                est = 0;
+                for (int i = index; i < hi; i++)
+                    est += set.cardinalityOf(i);
+            }
+            return hi;
+        }
+
+        public OfInt trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            if (mid <= lo)
+                return null;
+            int n = 0;
+            for (int i = mid; i < hi; i++)
+                n += set.cardinalityOf(i);
+            BitSpliterator prefix = new BitSpliterator(set, lo, mid, est - n);
+            prefix.low = low;
+            prefix.current = current;
+            index = mid;
+            low = 0;
+            current = null;
+            est = n;
+            return prefix;
+        }
+
+        public boolean tryAdvance(IntConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence();
+            while (index < hi) {
+                Container c = current;
+                if (c == null)
+                    current = c = set.peek(index);
+                int x = (low < CHUNK_SIZE) ? c.next(low) : -1;
+                if (x >= 0) {
+                    low = x + 1;
+                    est--;
+                    action.accept((set.keys[index] << CHUNK_BITS) | x);
+                    return true;
+                }
+                index++;
+                low = 0;
+                current = null;
+            }
+            return false;
+        }
+
+        public void forEachRemaining(IntConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            int hi = getFence();
+            for (; index < hi; index++, low = 0, current = null) {
+                Container c = current;
+                if (c == null)
+                    c = set.peek(index);
+                int base = set.keys[index] << CHUNK_BITS;
+                if (low == 0) {
+                    c.forEach(base, action);
+                } else {
+                    for (int x = (low < CHUNK_SIZE) ? c.next(low) : -1; x >= 0;
+                         x = (x == LOW_MASK) ? -1 : c.next(x + 1))
+                        action.accept(base | x);
+                }
+            }
+            est = 0;
+        }
+
+        public long estimateSize() {
+            getFence();
+            return est;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.DISTINCT |
+                Spliterator.SORTED | Spliterator.SIZED | Spliterator.SUBSIZED |
+                Spliterator.NONNULL;
+        }
+
+        public Comparator<? super Integer> getComparator() {
+            return null;
+        }
+    }
+
+    // Conversions
+
+    /**
+     * Returns a new set holding the bits set in the given {@code BitSet}.
+     *
+     * @param  bitSet a bit set
+     * @return a {@code CompressedBitSet} holding the same bits
+     */
+    public static CompressedBitSet valueOf(BitSet bitSet) {
+        long[] words = bitSet.toLongArray();
+        int chunks = (words.length + BITMAP_WORDS - 1) / BITMAP_WORDS;
+        char[] keys = new char[Math.max(4, chunks)];
+        Container[] containers = new Container[keys.length];
+        int n = 0;
+        for (int k = 0; k < chunks; k++) {
+            int from = k * BITMAP_WORDS;
+            Container c = fromWords(Arrays.copyOfRange(words, from, from + BITMAP_WORDS));
+            if (c != null) {
+                keys[n] = (char) k;
+                containers[n++] = c;
+            }
+        }
+        return new CompressedBitSet(keys, containers, n);
+    }
+
+    /**
+     * Returns a new {@code BitSet} holding the bits set in this set.
+     *
+     * @return a {@code BitSet} holding the same bits
+     */
+    public BitSet toBitSet() {
+        long[] words = new long[(length() + 63) >>> 6];
+        for (int i = 0; i < size; i++) {
+            long[] w = container(i).words();
+            int from = keys[i] * BITMAP_WORDS;
+            System.arraycopy(w, 0, words, from,
+                             Math.min(BITMAP_WORDS, words.length - from));
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Returns the number of bytes of the serialized form of this set, as
+     * written by {@link #writeTo(ByteBuffer)}.
+     *
+     * @return the number of bytes of the serialized form of this set
+     */
+    public int serializedSize() {
+        long bytes = HEADER_BYTES + (long) size * ENTRY_BYTES;
+        for (int i = 0; i < size; i++)
+            bytes += container(i).contentBytes();
+        return (int) bytes;
+    }
+
+    /**
+     * Writes the serialized form of this set into the given buffer, at its
+     * current position, and advances the position past it.  The form is
+     * described in the {@linkplain CompressedBitSet class description}; it
+     * is little-endian regardless of the order of the buffer.
+     *
+     * @param  bb the buffer to write to
+     * @throws java.nio.BufferOverflowException if the buffer has fewer than
+     *         {@link #serializedSize()} bytes remaining
+     * @throws java.nio.ReadOnlyBufferException if the buffer is read-only
+     */
+    public void writeTo(ByteBuffer bb) {
+        int total = serializedSize();
+        if (bb.remaining() < total)
+            throw new java.nio.BufferOverflowException();
+        ByteBuffer out = bb.slice().order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC);
+        out.putInt(size);
+        int offset = HEADER_BYTES + size * ENTRY_BYTES;
+        for (int i = 0; i < size; i++) {
+            Container c = container(i);
+            out.putChar(keys[i]);
+            out.put(c.type());
+            out.put((byte) 0);
+            out.putInt(c.cardinality());
+            out.putInt(offset);
+            offset += c.contentBytes();
+        }
+        for (int i = 0; i < size; i++)
+            containers[i].writeContent(out);
+        bb.position(bb.position() + total);
+    }
+
+    /**
+     * Returns a new byte array holding the serialized form of this set.
+     *
+     * @return a byte array holding the serialized form of this set
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[serializedSize()];
+        writeTo(ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Returns a set read from the serialized form held in the remaining
+     * bytes of the given buffer, as written by {@link #writeTo(ByteBuffer)}.
+     * Only the directory of the chunks is read by this method; each chunk
+     * is read from the buffer when it is first needed, and the set keeps a
+     * reference to the buffer until it has read all of them.  The buffer
+     * may thus be a {@link java.nio.MappedByteBuffer} much larger than the
+     * part of the set that is used.  The content of the buffer must not be
+     * changed while the set refers to it; the position, limit and byte
+     * order of the buffer are not used after this method returns.
+     *
+     * @param  bb a byte buffer holding the serialized form of a set in its
+     *         remaining bytes
+     * @return the set
+     * @throws IllegalArgumentException if the directory of the serialized
+     *         form is malformed.  A chunk whose contents are malformed is
+     *         detected when it is read, and the method reading it throws
+     *         {@code IllegalArgumentException} instead.
+     */
+    public static CompressedBitSet valueOf(ByteBuffer bb) {
+        ByteBuffer src = bb.slice().order(ByteOrder.LITTLE_ENDIAN);
+        int limit = src.limit();
+        if (limit < HEADER_BYTES || src.getInt(0) != MAGIC)
+            throw new IllegalArgumentException("Not a serialized CompressedBitSet");
+        int n = src.getInt(4);
+        if (n < 0 || n > (limit - HEADER_BYTES) / ENTRY_BYTES)
+            throw new IllegalArgumentException("Illegal number of chunks: " + n);
+        char[] keys = new char[Math.max(4, n)];
+        for (int i = 0; i < n; i++) {
+            int e = HEADER_BYTES + i * ENTRY_BYTES;
+            char key = src.getChar(e);
+            byte type = src.get(e + 2);
+            int card = src.getInt(e + 4), offset = src.getInt(e + 8);
+            int bytes = (type == ARRAY) ? 2 * card :
+                        (type == BITMAP) ? 8 * BITMAP_WORDS :
+                        (type == RUN && offset >= 0 && offset <= limit - 2) ?
+                        2 + 4 * src.getChar(offset) : -1;
+            if ((i > 0 && key <= keys[i - 1]) ||
+                key >= 1 << (Integer.SIZE - 1 - CHUNK_BITS) ||
+                card <= 0 || card > CHUNK_SIZE || bytes < 0 ||
+                (type == ARRAY && card > ARRAY_MAX) ||
+                offset < 0 || offset > limit - bytes)
+                throw new IllegalArgumentException("Malformed chunk " + i);
+            keys[i] = key;
+        }
+        CompressedBitSet set = new CompressedBitSet(keys, new Container[keys.length], n);
+        set.source = (n > 0) ? src : null;
+        return set;
+    }
+
+    /**
+     * Reads the container of slot i from its directory entry in src,
+     * checking that its contents match the cardinality of the entry: the
+     * values of an array and the runs must be in ascending order and must
+     * not overlap.
+     */
+    private static Container load(ByteBuffer src, int i) {
+        int e = HEADER_BYTES + i * ENTRY_BYTES;
+        byte type = src.get(e + 2);
+        int card = src.getInt(e + 4), offset = src.getInt(e + 8);
+        ByteBuffer b = src.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (type == ARRAY) {
+            char[] content = new char[card];
+            b.position(offset);
+            b.asCharBuffer().get(content);
+            for (int j = 1; j < card; j++) {
+                if (content[j] <= content[j - 1])
+                    throw new IllegalArgumentException("Malformed chunk " + i);
+            }
+            return new ArrayContainer(content, card);
+        } else if (type == BITMAP) {
+            long[] words = new long[BITMAP_WORDS];
+            b.position(offset);
+            b.asLongBuffer().get(words);
+            int n = 0;
+            for (long w : words)
+                n += Long.bitCount(w);
+            if (n != card)
+                throw new IllegalArgumentException("Malformed chunk " + i);
+            return new BitmapContainer(words, card);
+        } else {
+            int count = b.getChar(offset);
+            char[] runs = new char[2 * count];
+            b.position(offset + 2);
+            b.asCharBuffer().get(runs);
+            int n = 0;
+            for (int j = 0, last = -1; j < count; j++) {
+                int start = runs[2 * j], end = start + runs[2 * j + 1];
+                if (start <= last || end > LOW_MASK)
+                    throw new IllegalArgumentException("Malformed chunk " + i);
+                n += end - start + 1;
+                last = end;
+            }
+            if (n != card)
+                throw new IllegalArgumentException("Malformed chunk " + i);
+            return new RunContainer(runs, count, card);
+        }
+    }
+
+    // Object methods
+
+    /**
+     * Compares this object against the specified object.
+     * The result is {@code true} if and only if the argument is
+     * not {@code null} and is a {@code CompressedBitSet} object that has
+     * exactly the same set of bits set to {@code true} as this set.
+     *
+     * @param  obj the object to compare with
+     * @return {@code true} if the objects are the same;
+     *         {@code false} otherwise
+     */
+    public boolean equals(Object obj) {
+        if (!(obj instanceof CompressedBitSet))
+            return false;
+        if (this == obj)
+            return true;
+        CompressedBitSet set = (CompressedBitSet) obj;
+        if (size != set.size)
+            return false;
+        for (int i = 0; i < size; i++) {
+            if (keys[i] != set.keys[i] ||
+                cardinalityOf(i) != set.cardinalityOf(i))
+                return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (!sameValues(container(i), set.container(i)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this set, which depends only on the
+     * bits that are set, not on their representation.
+     *
+     * @return the hash code value for this set
+     */
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < size; i++) {
+            Container c = container(i);
+            h = 31 * h + keys[i];
+            h = 31 * h + c.cardinality();
+            h = 31 * h + c.next(0);
+            h = 31 * h + c.previous(LOW_MASK);
+        }
+        return h;
+    }
+
+    /**
+     * Cloning this {@code CompressedBitSet} produces a new
+     * {@code CompressedBitSet} that is equal to it.
+     *
+     * @return a clone of this set
+     */
+    public Object clone() {
+        try {
+            CompressedBitSet result = (CompressedBitSet) super.clone();
+            result.keys = Arrays.copyOf(keys, Math.max(4, size));
+            result.containers = new Container[result.keys.length];
+            for (int i = 0; i < size; i++)
+                result.containers[i] = container(i).copy();
+            result.source = null;
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    /**
+     * Returns a string representation of this set, in the same form as
+     * {@link BitSet#toString()}.
+     *
+     * @return a string representation of this set
+     */
+    public String toString() {
+        StringJoiner sj = new StringJoiner(", ", "{", "}");
+        for (int i = 0; i < size; i++)
+            container(i).forEach(keys[i] << CHUNK_BITS,
+                                 x -> sj.add(String.valueOf(x)));
+        return sj.toString();
+    }
+
+    /**
+     * Save the state of the {@code CompressedBitSet} instance to a stream
+     * (i.e., serialize it).
+     *
+     * @serialData The length of the serialized form described in the
+     *             {@linkplain CompressedBitSet class description}
+     *             ({@code int}), followed by its bytes.
+     */
+    private void writeObject(ObjectOutputStream s) throws IOException {
+        s.defaultWriteObject();
+        byte[] bytes = toByteArray();
+        s.writeInt(bytes.length);
+        s.write(bytes);
+    }
+
+    /**
+     * Reconstitute the {@code CompressedBitSet} instance from a stream
+     * (i.e., deserialize it).
+     */
+    private void readObject(ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        int n = s.readInt();
+        if (n < HEADER_BYTES)
+            throw new InvalidObjectException("Illegal length: " + n);
+        byte[] bytes = new byte[n];
+        s.readFully(bytes);
+        CompressedBitSet set;
+        try {
+            set = valueOf(ByteBuffer.wrap(bytes));
+            set.loadAll();
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidObjectException(e.getMessage());
+        }
+        keys = set.keys;
+        containers = set.containers;
+        size = set.size;
+    }
+}
@@ -47,8 +47,7 @@ import java.text.DateFormatSymbols;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 
 import java.time.DateTimeException;
 import java.time.Instant;
@@ -2505,25 +2504,25 @@ public final class Formatter implements Closeable, Flushable {
             try {
                 switch (index) {
                 case -2:  // fixed string, "%n", or "%%"
-                    fs.print(null, l);
+                    print(fs, null, l);
                     break;
                 case -1:  // relative index
                     if (last < 0 || (args != null && last > args.length - 1))
                         throw new MissingFormatArgumentException(fs.toString());
-                    fs.print((args == null ? null : args[last]), l);
+                    print(fs, (args == null ? null : args[last]), l);
                     break;
                 case 0:  // ordinary index
                     lasto++;
                     last = lasto;
                     if (args != null && lasto > args.length - 1)
                         throw new MissingFormatArgumentException(fs.toString());
-                    fs.print((args == null ? null : args[lasto]), l);
+                    print(fs, (args == null ? null : args[lasto]), l);
                     break;
                 default:  // explicit index
                     last = index - 1;
                     if (args != null && last > args.length - 1)
                         throw new MissingFormatArgumentException(fs.toString());
-                    fs.print((args == null ? null : args[last]), l);
+                    print(fs, (args == null ? null : args[last]), l);
                     break;
                 }
             } catch (IOException x) {
@@ -2533,52 +2532,227 @@ public final class Formatter implements Closeable, Flushable {
         return this;
     }
 
+    /*
+     * Prints one element of a parsed format string.  The elements of a
+     * cached template are shared by all formatters, so fixed text and the
+     * common conversions are written here directly, and a FormatSpecifier
+     * bound to this formatter is only created for the general case.
+     */
+    private void print(FormatString fs, Object arg, Locale l) throws IOException {
+        if (fs instanceof FixedString) {
+            a.append(fs.toString());
+            return;
+        }
+        FormatSpecifier spec = (FormatSpecifier) fs;
+        if (spec.simple && printSimple(spec.c, arg, l)) {
+            return;
+        }
+        if (!spec.isBoundTo(this)) {
+            spec = new FormatSpecifier(spec);
+        }
+        spec.print(arg, l);
+    }
+
+    /*
+     * Fast paths for %d, %s and %x without flags, width or precision.
+     * Returns false if the argument needs the general print machinery.
+     */
+    private boolean printSimple(char c, Object arg, Locale l) throws IOException {
+        switch (c) {
+        case Conversion.DECIMAL_INTEGER:
+            if (arg instanceof Integer || arg instanceof Long
+                || arg instanceof Short || arg instanceof Byte) {
+                char z = (l == this.l) ? zero : getZero(l);
+                if (z != '0')
+                    return false;
+                a.append(Long.toString(((Number)arg).longValue()));
+                return true;
+            }
+            return false;
+        case Conversion.HEXADECIMAL_INTEGER:
+            if (arg instanceof Integer) {
+                a.append(Integer.toHexString((Integer)arg));
+                return true;
+            } else if (arg instanceof Long) {
+                a.append(Long.toHexString((Long)arg));
+                return true;
+            }
+            return false;
+        case Conversion.STRING:
+            if (arg instanceof Formattable)
+                return false;
+            a.append(String.valueOf(arg));
+            return true;
+        default:
+            return false;
+        }
+    }
+
     // %[argument_index$][flags][width][.precision][t]conversion
-    private static final String formatSpecifier
-        = "%(\\d+\\$)?([-#+ 0,(\\<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])";
+    //
+    // The format string is scanned by parse() below rather than with a
+    // regular expression; it accepts exactly what the pattern above
+    // describes.
+
+    // Formatter which owns the FormatSpecifiers of cached templates.
+    // It is never used to print.
+    private static final Formatter templateOwner = new Formatter((Locale) null, new StringBuilder(0));
+
+    // Parsed format strings, keyed by the format string.  Least recently
+    // used templates are evicted once the cache grows beyond
+    // MAX_TEMPLATES.  Use counts are updated without synchronization,
+    // so the eviction order is only approximate.
+    private static final int MAX_TEMPLATES = 512;
+    private static final int MAX_TEMPLATE_LENGTH = 1024;
+    private static final ConcurrentHashMap<String, Template> templates
+        = new ConcurrentHashMap<>();
+    private static long templateClock;
+
+    /*
+     * An immutable, pre-parsed format string.  Its FormatSpecifiers belong
+     * to templateOwner and are never modified once created, so a template
+     * may be shared by any number of threads.
+     */
+    private static final class Template {
+        final FormatString[] fsa;
+        volatile long lastUsed;
 
-    private static Pattern fsPattern = Pattern.compile(formatSpecifier);
+        Template(FormatString[] fsa) {
+            this.fsa = fsa;
+        }
+    }
 
     /**
      * Finds format specifiers in the format string.
      */
     private FormatString[] parse(String s) {
-        ArrayList<FormatString> al = new ArrayList<>();
-        Matcher m = fsPattern.matcher(s);
-        for (int i = 0, len = s.length(); i < len; ) {
-            if (m.find(i)) {
-                // Anything between the start of the string and the beginning
-                // of the format specifier is either fixed text or contains
-                // an invalid format string.
-                if (m.start() != i) {
-                    // Make sure we didn't miss any invalid format specifiers
-                    checkText(s, i, m.start());
-                    // Assume previous characters were fixed text
-                    al.add(new FixedString(s.substring(i, m.start())));
-                }
+        if (s.length() > MAX_TEMPLATE_LENGTH)
+            return parse(this, s);
+        Template t = templates.get(s);
+        if (t == null) {
+            t = new Template(parse(templateOwner, s));
+            if (templates.size() >= MAX_TEMPLATES)
+                evictTemplates();
+            templates.put(s, t);
+        }
+        t.lastUsed = ++templateClock;
+        return t.fsa;
+    }
 
-                al.add(new FormatSpecifier(m));
-                i = m.end();
-            } else {
-                // No more valid format specifiers.  Check for possible invalid
-                // format specifiers.
-                checkText(s, i, len);
+    // Removes the least recently used tenth of the cached templates.
+    private static synchronized void evictTemplates() {
+        int size = templates.size();
+        if (size < MAX_TEMPLATES)
+            return;
+        long[] uses = new long[size];
+        int n = 0;
+        for (Template t : templates.values()) {
+            if (n == uses.length)
+                break;
+            uses[n++] = t.lastUsed;
+        }
+        Arrays.sort(uses, 0, n);
+        long cutoff = uses[Math.max(0, n / 10 - 1)];
+        for (Iterator<Template> it = templates.values().iterator(); it.hasNext(); ) {
+            if (it.next().lastUsed <= cutoff)
+                it.remove();
+        }
+    }
+
+    private static FormatString[] parse(Formatter owner, String s) {
+        ArrayList<FormatString> al = new ArrayList<>();
+        int i = 0;
+        int len = s.length();
+        while (i < len) {
+            int pct = s.indexOf('%', i);
+            if (pct < 0) {
                 // The rest of the string is fixed text
-                al.add(new FixedString(s.substring(i)));
+                al.add(owner.new FixedString(s.substring(i)));
                 break;
             }
+            if (pct != i)
+                al.add(owner.new FixedString(s.substring(i, pct)));
+            int end = parseSpecifier(owner, s, pct, al);
+            if (end < 0) {
+                // Not a valid format specifier.
+                char c = (pct == len - 1) ? '%' : s.charAt(pct + 1);
+                throw new UnknownFormatConversionException(String.valueOf(c));
+            }
+            i = end;
         }
         return al.toArray(new FormatString[al.size()]);
     }
 
-    private static void checkText(String s, int start, int end) {
-        for (int i = start; i < end; i++) {
-            // Any '%' found in the region starts an invalid format specifier.
-            if (s.charAt(i) == '%') {
-                char c = (i == end - 1) ? '%' : s.charAt(i + 1);
-                throw new UnknownFormatConversionException(String.valueOf(c));
+    /*
+     * Parses the format specifier starting with the '%' at start and adds
+     * it to al.  Returns the index just past the specifier, or -1 if the
+     * text does not form a valid specifier.
+     */
+    private static int parseSpecifier(Formatter owner, String s, int start,
+                                      List<FormatString> al) {
+        int len = s.length();
+        int i = start + 1;
+
+        // argument_index$
+        String index = null;
+        int j = skipDigits(s, i);
+        if (j > i && j < len && s.charAt(j) == '$') {
+            index = s.substring(i, j + 1);
+            i = j + 1;
+        }
+
+        // flags
+        j = i;
+        while (j < len && "-#+ 0,(<".indexOf(s.charAt(j)) >= 0)
+            j++;
+        String flags = s.substring(i, j);
+        i = j;
+
+        // width
+        String width = null;
+        j = skipDigits(s, i);
+        if (j > i) {
+            width = s.substring(i, j);
+            i = j;
+        }
+
+        // .precision
+        String precision = null;
+        if (i < len && s.charAt(i) == '.') {
+            j = skipDigits(s, i + 1);
+            if (j > i + 1) {
+                precision = s.substring(i, j);
+                i = j;
             }
         }
+
+        // t, unless it is the conversion itself
+        String tT = null;
+        if (i + 1 < len && (s.charAt(i) == 't' || s.charAt(i) == 'T')
+            && isConversionChar(s.charAt(i + 1))) {
+            tT = s.substring(i, i + 1);
+            i++;
+        }
+
+        // conversion
+        if (i >= len || !isConversionChar(s.charAt(i)))
+            return -1;
+        String conversion = s.substring(i, i + 1);
+
+        al.add(owner.new FormatSpecifier(index, flags, width, precision,
+                                         tT, conversion));
+        return i + 1;
+    }
+
+    private static int skipDigits(String s, int i) {
+        int len = s.length();
+        while (i < len && s.charAt(i) >= '0' && s.charAt(i) <= '9')
+            i++;
+        return i;
+    }
+
+    private static boolean isConversionChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '%';
     }
 
     private interface FormatString {
@@ -2618,6 +2792,8 @@ public final class Formatter implements Closeable, Flushable {
         private int precision;
         private boolean dt = false;
         private char c;
+        // true for %d, %s and %x without flags, width or precision
+        boolean simple;
 
         private int index(String s) {
             if (s != null) {
@@ -2702,22 +2878,20 @@ public final class Formatter implements Closeable, Flushable {
             return c;
         }
 
-        FormatSpecifier(Matcher m) {
-            int idx = 1;
+        FormatSpecifier(String index, String flags, String width,
+                        String precision, String tT, String conversion) {
+            index(index);
+            flags(flags);
+            width(width);
+            precision(precision);
 
-            index(m.group(idx++));
-            flags(m.group(idx++));
-            width(m.group(idx++));
-            precision(m.group(idx++));
-
-            String tT = m.group(idx++);
             if (tT != null) {
                 dt = true;
                 if (tT.equals("T"))
                     f.add(Flags.UPPERCASE);
             }
 
-            conversion(m.group(idx));
+            conversion(conversion);
 
             if (dt)
                 checkDateTime();
@@ -2733,6 +2907,27 @@ public final class Formatter implements Closeable, Flushable {
                 checkText();
             else
                 throw new UnknownFormatConversionException(String.valueOf(c));
+
+            simple = !dt && f.valueOf() == 0 && this.width == -1
+                && this.precision == -1
+                && (c == Conversion.DECIMAL_INTEGER
+                    || c == Conversion.HEXADECIMAL_INTEGER
+                    || c == Conversion.STRING);
+        }
+
+        // Copies a parsed specifier, binding the copy to this formatter.
+        FormatSpecifier(FormatSpecifier fs) {
+            index = fs.index;
+            f = fs.f;
+            width = fs.width;
+            precision = fs.precision;
+            dt = fs.dt;
+            c = fs.c;
+            simple = fs.simple;
+        }
+
+        boolean isBoundTo(Formatter fmt) {
+            return Formatter.this == fmt;
         }
 
         public void print(Object arg, Locale l) throws IOException {
@@ -0,0 +1,915 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.function.IntConsumer;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A map from {@code int} keys to {@code int} values, implemented as an
+ * open-addressing hash table.  Unlike a {@code HashMap<Integer, Integer>}, a
+ * {@code IntIntMap} keeps its keys in a single {@code int} array and its values
+ * in a parallel array, so that neither the keys nor the entries of the
+ * map are objects.
+ *
+ * <p>The table is probed linearly.  Removing a mapping shifts the
+ * following mappings of its probe sequence back instead of leaving a
+ * deleted marker behind, so lookups do not degrade as mappings are added
+ * and removed.  The table doubles in size when it becomes three quarters
+ * full.  The key zero marks a free slot, and its mapping is recorded
+ * separately.
+ *
+ * <p>As there is no {@code null} value, the methods that return a value
+ * return {@code 0} when the key is not mapped, which is indistinguishable
+ * from a mapping to {@code 0}; {@link #containsKey containsKey} tells the
+ * two cases apart.
+ *
+ * <p>This class does not implement {@link Map}, as its methods take and
+ * return primitive keys.  The keys are traversed without boxing by
+ * {@link #keyIterator()} and {@link #keys()}, the mappings by
+ * {@link #forEach(EntryConsumer)}.  Other streams are collected into a map
+ * with {@link java.util.stream.Collectors#toIntIntMap(java.util.function.ToIntFunction,
+ * java.util.function.ToIntFunction) Collectors.toIntIntMap}.
+ *
+ * <p>This class offers constant time performance for the basic operations
+ * ({@code get}, {@code put}, {@code remove} and {@code containsKey}),
+ * assuming the hash function disperses the keys properly among the slots.
+ * Iteration requires time proportional to the capacity of the table.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access a map concurrently, and at least one of the
+ * threads modifies the map structurally, it <i>must</i> be synchronized
+ * externally.  (A structural modification is any operation that adds or
+ * deletes one or more mappings; merely changing the value associated with
+ * a key that the map already contains is not a structural modification.)
+ *
+ * <p>The iterators returned by {@link #keyIterator()} are <i>fail-fast</i>:
+ * if the map is structurally modified at any time after the iterator is
+ * created, in any way except through the iterator's own {@code remove}
+ * method, the iterator throws a {@link ConcurrentModificationException} on
+ * a best-effort basis.
+ *
+ * @see     HashMap
+ * @see     IntSet
+ */
+public class IntIntMap implements Cloneable, java.io.Serializable {
+
+    private static final long serialVersionUID = 4237610894532164837L;
+
+    /**
+     * A consumer of the mappings of an {@code IntIntMap}.
+     *
+     * @see #forEach(EntryConsumer)
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        /**
+         * Performs this operation on the given mapping.
+         *
+         * @param key the key
+         * @param value the value mapped to the key
+         */
+        void accept(int key, int value);
+    }
+
+    /**
+     * The default initial capacity of the table, a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * The keys in the table, with zero marking a free slot.
+     */
+    transient int[] keys;
+
+    /**
+     * The values in the table, in the slots of their keys.
+     */
+    transient int[] vals;
+
+    /**
+     * True if the key zero is mapped.
+     */
+    transient boolean containsZero;
+
+    /**
+     * The value mapped to the key zero.
+     */
+    transient int zeroValue;
+
+    /**
+     * The number of mappings in the map, including the key zero.
+     */
+    transient int size;
+
+    /**
+     * The number of mappings the table, excluding the key zero, holds
+     * before it is resized.
+     */
+    transient int threshold;
+
+    /**
+     * The number of times this map has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * Constructs an empty map with the default initial capacity.
+     */
+    public IntIntMap() {
+        keys = new int[DEFAULT_INITIAL_CAPACITY];
+        vals = new int[DEFAULT_INITIAL_CAPACITY];
+        threshold = OpenHashTables.thresholdFor(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty map that can hold the specified number of
+     * mappings without being resized.
+     *
+     * @param  expectedSize the expected number of mappings
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    public IntIntMap(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Illegal expected size: " +
+                                               expectedSize);
+        int n = OpenHashTables.tableSizeFor(expectedSize);
+        keys = new int[n];
+        vals = new int[n];
+        threshold = OpenHashTables.thresholdFor(n);
+    }
+
+    /**
+     * Constructs a new map with the same mappings as the specified map.
+     *
+     * @param m the map whose mappings are to be placed in this map
+     * @throws NullPointerException if the specified map is null
+     */
+    public IntIntMap(IntIntMap m) {
+        keys = m.keys.clone();
+        vals = m.vals.clone();
+        containsZero = m.containsZero;
+        zeroValue = m.zeroValue;
+        size = m.size;
+        threshold = m.threshold;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the slot of the key, which is not zero, or -1 if the key is
+     * not in the table.
+     */
+    private int indexOf(int key) {
+        int[] tab = keys;
+        int mask = tab.length - 1;
+        int k;
+        for (int i = OpenHashTables.hash(key) & mask; (k = tab[i]) != 0; i = (i + 1) & mask) {
+            if (k == key)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the
+     * specified key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     * key
+     */
+    public boolean containsKey(int key) {
+        return (key == 0) ? containsZero : indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the
+     *         specified value
+     */
+    public boolean containsValue(int value) {
+        if (containsZero && zeroValue == value)
+            return true;
+        int[] tab = keys;
+        int[] vs = vals;
+        for (int i = 0; i < tab.length; i++) {
+            if (tab[i] != 0 && vs[i] == value)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code 0} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code 0} if this map contains no mapping for the key
+     */
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     *         {@code defaultValue} if this map contains no mapping for the key
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == 0)
+            return containsZero ? zeroValue : defaultValue;
+        int[] tab = keys;
+        int mask = tab.length - 1;
+        int k;
+        for (int i = OpenHashTables.hash(key) & mask; (k = tab[i]) != 0; i = (i + 1) & mask) {
+            if (k == key)
+                return vals[i];
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old value
+     * is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code 0} if there was no mapping for {@code key}.
+     *         (A {@code 0} return can also indicate that the map
+     *         previously associated {@code 0} with {@code key}.)
+     */
+    public int put(int key, int value) {
+        if (key == 0) {
+            int old = zeroValue;
+            zeroValue = value;
+            if (!containsZero) {
+                containsZero = true;
+                ++modCount;
+                ++size;
+            }
+            return old;
+        }
+        int[] tab = keys;
+        int mask = tab.length - 1;
+        int i = OpenHashTables.hash(key) & mask;
+        int k;
+        while ((k = tab[i]) != 0) {
+            if (k == key) {
+                int old = vals[i];
+                vals[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        if (size - (containsZero ? 1 : 0) >= threshold) {
+            resize();
+            return put(key, value);
+        }
+        tab[i] = key;
+        vals[i] = value;
+        ++modCount;
+        ++size;
+        return 0;
+    }
+
+    /**
+     * Copies all of the mappings from the specified map to this map.  These
+     * mappings replace any mappings that this map had for any of the keys
+     * currently in the specified map.
+     *
+     * @param m mappings to be stored in this map
+     * @throws NullPointerException if the specified map is null
+     */
+    public void putAll(IntIntMap m) {
+        if (m.containsZero)
+            put(0, m.zeroValue);
+        int[] tab = m.keys;
+        int[] vs = m.vals;
+        for (int i = 0; i < tab.length; i++) {
+            if (tab[i] != 0)
+                put(tab[i], vs[i]);
+        }
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.  Otherwise, replaces the
+     * associated value with the result of the given remapping function.
+     * For example, {@code map.merge(key, 1, Integer::sum)} counts the
+     * occurrences of {@code key}.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be merged with the existing value
+     *        associated with the key or, if no value is associated with
+     *        the key, to be associated with the key
+     * @param remappingFunction the function to recompute a value if
+     *        present
+     * @return the new value associated with the specified key
+     * @throws NullPointerException if the remapping function is null
+     */
+    public int merge(int key, int value, IntBinaryOperator remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        if (key == 0) {
+            if (containsZero)
+                value = remappingFunction.applyAsInt(zeroValue, value);
+            put(0, value);
+            return value;
+        }
+        int i = indexOf(key);
+        if (i >= 0) {
+            value = remappingFunction.applyAsInt(vals[i], value);
+            vals[i] = value;
+        } else {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with {@code key}, or
+     *         {@code 0} if there was no mapping for {@code key}.
+     *         (A {@code 0} return can also indicate that the map
+     *         previously associated {@code 0} with {@code key}.)
+     */
+    public int remove(int key) {
+        int old;
+        if (key == 0) {
+            if (!containsZero)
+                return 0;
+            old = zeroValue;
+            containsZero = false;
+            zeroValue = 0;
+        } else {
+            int i = indexOf(key);
+            if (i < 0)
+                return 0;
+            old = vals[i];
+            removeAt(i);
+        }
+        ++modCount;
+        --size;
+        return old;
+    }
+
+    /**
+     * Removes the mapping in slot i, and shifts the following mappings of
+     * its probe sequence back so that none of them is separated from the
+     * home slot of its key by a free slot.
+     */
+    private void removeAt(int i) {
+        int[] tab = keys;
+        int[] vs = vals;
+        int mask = tab.length - 1;
+        for (int j = (i + 1) & mask; ; j = (j + 1) & mask) {
+            int k = tab[j];
+            if (k == 0)
+                break;
+            int h = OpenHashTables.hash(k) & mask;
+            // move k to i unless its home slot h lies cyclically in (i, j]
+            if (i <= j ? (h <= i || h > j) : (h <= i && h > j)) {
+                tab[i] = k;
+                vs[i] = vs[j];
+                i = j;
+            }
+        }
+        tab[i] = 0;
+        vs[i] = 0;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     */
+    public void clear() {
+        ++modCount;
+        if (size > 0) {
+            Arrays.fill(keys, 0);
+            Arrays.fill(vals, 0);
+            containsZero = false;
+            zeroValue = 0;
+            size = 0;
+        }
+    }
+
+    private void resize() {
+        int[] oldTab = keys;
+        int[] oldVals = vals;
+        int oldCap = oldTab.length;
+        if (oldCap >= OpenHashTables.MAXIMUM_CAPACITY)
+            throw new IllegalStateException("Map too large");
+        int newCap = oldCap << 1;
+        int mask = newCap - 1;
+        int[] newTab = new int[newCap];
+        int[] newVals = new int[newCap];
+        for (int j = 0; j < oldCap; j++) {
+            int k = oldTab[j];
+            if (k != 0) {
+                int i = OpenHashTables.hash(k) & mask;
+                while (newTab[i] != 0)
+                    i = (i + 1) & mask;
+                newTab[i] = k;
+                newVals[i] = oldVals[j];
+            }
+        }
+        keys = newTab;
+        vals = newVals;
+        threshold = OpenHashTables.thresholdFor(newCap);
+    }
+
+    /**
+     * Performs the given action for each mapping in this map until all
+     * mappings have been processed or the action throws an exception.
+     *
+     * @param action the action to be performed for each mapping
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if the map is structurally
+     *         modified by the action
+     */
+    public void forEach(EntryConsumer action) {
+        Objects.requireNonNull(action);
+        int mc = modCount;
+        if (containsZero)
+            action.accept(0, zeroValue);
+        int[] tab = keys;
+        int[] vs = vals;
+        for (int i = 0; i < tab.length; i++) {
+            if (tab[i] != 0)
+                action.accept(tab[i], vs[i]);
+        }
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns an iterator over the keys in this map.  The keys are
+     * returned in no particular order.  The iterator supports
+     * {@code remove}, which removes the mapping of the last key returned.
+     *
+     * @return an iterator over the keys in this map
+     */
+    public PrimitiveIterator.OfInt keyIterator() {
+        return new KeyIterator();
+    }
+
+    /**
+     * Returns a sequential {@code IntStream} of the keys in this map.
+     *
+     * <p>The stream is backed by a <em><a
+     * href="Spliterator.html#binding">late-binding</a></em> and
+     * <em>fail-fast</em> {@link Spliterator} that reports
+     * {@link Spliterator#SIZED} and {@link Spliterator#DISTINCT}.
+     *
+     * @return a sequential {@code IntStream} of the keys in this map
+     */
+    public IntStream keys() {
+        return StreamSupport.intStream(new KeySpliterator(this, 0, -1, 0, 0), false);
+    }
+
+    /**
+     * Returns a sequential {@code IntStream} of the values in this map, in the
+     * order of {@link #keys()}.
+     *
+     * <p>The stream is backed by a <em><a
+     * href="Spliterator.html#binding">late-binding</a></em> and
+     * <em>fail-fast</em> {@link Spliterator} that reports
+     * {@link Spliterator#SIZED}.
+     *
+     * @return a sequential {@code IntStream} of the values in this map
+     */
+    public IntStream values() {
+        return StreamSupport.intStream(new ValueSpliterator(this, 0, -1, 0, 0), false);
+    }
+
+    /**
+     * Iterates over the slots of the table, starting after a free slot so
+     * that removing the current mapping only moves mappings the iterator
+     * has not reached yet into the slots behind the cursor; the cursor
+     * then revisits the current slot.  The key zero is returned first.
+     */
+    final class KeyIterator implements PrimitiveIterator.OfInt {
+        final int[] tab = keys;
+        final int mask = tab.length - 1;
+        final int start;        // slot after a free slot
+        int next;               // number of slots visited
+        int current = -2;       // slot of the last key, -1 for zero
+        boolean zeroPending = containsZero;
+        int expectedModCount = modCount;
+
+        KeyIterator() {
+            int s = 0;
+            while (tab[s] != 0)
+                s++;
+            start = s + 1;
+            advance();
+        }
+
+        private void advance() {
+            while (next <= mask && tab[(start + next) & mask] == 0)
+                next++;
+        }
+
+        public boolean hasNext() {
+            return zeroPending || next <= mask;
+        }
+
+        public int nextInt() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (zeroPending) {
+                zeroPending = false;
+                current = -1;
+                return 0;
+            }
+            if (next > mask)
+                throw new NoSuchElementException();
+            current = (start + next) & mask;
+            next++;
+            advance();
+            return tab[current];
+        }
+
+        public void remove() {
+            if (current == -2)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (current == -1) {
+                containsZero = false;
+                zeroValue = 0;
+            } else {
+                removeAt(current);
+                if (tab[current] != 0) {
+                    // an unvisited mapping moved into the current slot
+                    next--;
+                }
+            }
+            current = -2;
+            size--;
+            expectedModCount = ++modCount;
+        }
+    }
+
+    /**
+     * Base of the key and value spliterators, which split the slots of the
+     * table between them.  The top-level spliterator also covers the key
+     * zero.
+     */
+    static class TableSpliterator {
+        final IntIntMap map;
+        int index;                  // current index, modified on advance/split
+        int fence;                  // one past last index, or -1 until used
+        boolean zeroPending;        // true if the key zero is still to be visited
+        int est;                    // size estimate
+        int expectedModCount;       // for comodification checks
+
+        TableSpliterator(IntIntMap map, int origin, int fence, int est,
+                         int expectedModCount) {
+            this.map = map;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        final int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                IntIntMap m = map;
+                est = m.size;
+                expectedModCount = m.modCount;
+                zeroPending = m.containsZero;
+                hi = fence = m.keys.length;
+            }
+            return hi;
+        }
+
+        public final long estimateSize() {
+            getFence(); // force init
+            return (long) est;
+        }
+    }
+
+    static final class KeySpliterator
+        extends TableSpliterator
+        implements Spliterator.OfInt {
+        KeySpliterator(IntIntMap map, int origin, int fence, int est,
+                       int expectedModCount) {
+            super(map, origin, fence, est, expectedModCount);
+        }
+
+        public KeySpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new KeySpliterator(map, lo, index = mid, est >>>= 1,
+                                       expectedModCount);
+        }
+
+        public void forEachRemaining(IntConsumer action) {
+            int i, hi, mc;
+            if (action == null)
+                throw new NullPointerException();
+            IntIntMap m = map;
+            int[] tab = m.keys;
+            hi = getFence();
+            mc = expectedModCount;
+            if (zeroPending) {
+                zeroPending = false;
+                action.accept(0);
+            }
+            if ((i = index) >= 0 && (index = hi) <= tab.length) {
+                for (; i < hi; ++i) {
+                    int k = tab[i];
+                    if (k != 0)
+                        action.accept(k);
+                }
+                if (m.modCount != mc)
+                    throw new ConcurrentModificationException();
+            }
+        }
+
+        public boolean tryAdvance(IntConsumer action) {
+            int hi = getFence(); // force init
+            if (action == null)
+                throw new NullPointerException();
+            if (zeroPending) {
+                zeroPending = false;
+                action.accept(0);
+                if (map.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            int[] tab = map.keys;
+            while (index < hi) {
+                int k = tab[index++];
+                if (k != 0) {
+                    action.accept(k);
+                    if (map.modCount != expectedModCount)
+                        throw new ConcurrentModificationException();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == map.size ? Spliterator.SIZED : 0) |
+                Spliterator.DISTINCT;
+        }
+    }
+
+    static final class ValueSpliterator
+        extends TableSpliterator
+        implements Spliterator.OfInt {
+        ValueSpliterator(IntIntMap map, int origin, int fence, int est,
+                         int expectedModCount) {
+            super(map, origin, fence, est, expectedModCount);
+        }
+
+        public ValueSpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new ValueSpliterator(map, lo, index = mid, est >>>= 1,
+                                         expectedModCount);
+        }
+
+        public void forEachRemaining(IntConsumer action) {
+            int i, hi, mc;
+            if (action == null)
+                throw new NullPointerException();
+            IntIntMap m = map;
+            int[] tab = m.keys;
+            int[] vs = m.vals;
+            hi = getFence();
+            mc = expectedModCount;
+            if (zeroPending) {
+                zeroPending = false;
+                action.accept(m.zeroValue);
+            }
+            if ((i = index) >= 0 && (index = hi) <= tab.length) {
+                for (; i < hi; ++i) {
+                    if (tab[i] != 0)
+                        action.accept(vs[i]);
+                }
+                if (m.modCount != mc)
+                    throw new ConcurrentModificationException();
+            }
+        }
+
+        public boolean tryAdvance(IntConsumer action) {
+            int hi = getFence(); // force init
+            if (action == null)
+                throw new NullPointerException();
+            if (zeroPending) {
+                zeroPending = false;
+                action.accept(map.zeroValue);
+                if (map.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            int[] tab = map.keys;
+            while (index < hi) {
+                int i = index++;
+                if (tab[i] != 0) {
+                    action.accept(map.vals[i]);
+                    if (map.modCount != expectedModCount)
+                        throw new ConcurrentModificationException();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == map.size ? Spliterator.SIZED : 0);
+        }
+    }
+
+    /**
+     * Compares the specified object with this map for equality.  Returns
+     * {@code true} if the given object is also an {@code IntIntMap} and the two
+     * maps represent the same mappings.
+     *
+     * @param o object to be compared for equality with this map
+     * @return {@code true} if the specified object is equal to this map
+     */
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof IntIntMap))
+            return false;
+        IntIntMap m = (IntIntMap) o;
+        if (m.size != size || m.containsZero != containsZero)
+            return false;
+        if (containsZero && zeroValue != m.zeroValue)
+            return false;
+        int[] tab = m.keys;
+        for (int j = 0; j < tab.length; j++) {
+            int k = tab[j];
+            if (k != 0) {
+                int i = indexOf(k);
+                if (i < 0 || vals[i] != m.vals[j])
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this map, which is the sum of the
+     * hash codes of its mappings.  The hash code of a mapping is
+     * {@code Integer.hashCode(key) ^ Integer.hashCode(value)}, as it would be for the entry
+     * of a {@code Map<Integer, Integer>}.
+     *
+     * @return the hash code value for this map
+     */
+    public int hashCode() {
+        int h = 0;
+        if (containsZero)
+            h += Integer.hashCode(zeroValue);
+        int[] tab = keys;
+        int[] vs = vals;
+        for (int i = 0; i < tab.length; i++) {
+            if (tab[i] != 0)
+                h += Integer.hashCode(tab[i]) ^ Integer.hashCode(vs[i]);
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this map, the mappings in no
+     * particular order enclosed in braces ({@code "{}"}) and separated by
+     * {@code ", "}.  Each mapping is rendered as the key followed by an
+     * equals sign ({@code "="}) followed by the value.
+     *
+     * @return a string representation of this map
+     */
+    public String toString() {
+        StringJoiner sj = new StringJoiner(", ", "{", "}");
+        forEach((k, v) -> sj.add(k + "=" + v));
+        return sj.toString();
+    }
+
+    /**
+     * Returns a shallow copy of this {@code IntIntMap} instance: the keys and
+     * values themselves are not cloned.
+     *
+     * @return a shallow copy of this map
+     */
+    public Object clone() {
+        try {
+            IntIntMap m = (IntIntMap) super.clone();
+            m.keys = keys.clone();
+            m.vals = vals.clone();
+            m.modCount = 0;
+            return m;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    /**
+     * Save the state of this {@code IntIntMap} instance to a stream (that is,
+     * serialize it).
+     *
+     * @serialData The capacity of the table ({@code int}), the number of
+     *             mappings in the map ({@code int}), followed by the key
+     *             ({@code int}) and value ({@code int}) of each mapping, in no
+     *             particular order.
+     */
+    private void writeObject(ObjectOutputStream s) throws IOException {
+        s.defaultWriteObject();
+        s.writeInt(keys.length);
+        s.writeInt(size);
+        if (containsZero) {
+            s.writeInt(0);
+            s.writeInt(zeroValue);
+        }
+        int[] tab = keys;
+        int[] vs = vals;
+        for (int i = 0; i < tab.length; i++) {
+            if (tab[i] != 0) {
+                s.writeInt(tab[i]);
+                s.writeInt(vs[i]);
+            }
+        }
+    }
+
+    /**
+     * Reconstitute the {@code IntIntMap} instance from a stream (that is,
+     * deserialize it).
+     */
+    private void readObject(ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        s.readInt(); // ignore the capacity, size the table for the mappings
+        int n = s.readInt();
+        if (n < 0)
+            throw new InvalidObjectException("Illegal size: " + n);
+        int cap = OpenHashTables.tableSizeFor(
+            Math.min(n, OpenHashTables.MAX_READ_SIZE));
+        keys = new int[cap];
+        vals = new int[cap];
+        threshold = OpenHashTables.thresholdFor(cap);
+        for (int i = 0; i < n; i++) {
+            int k = s.readInt();
+            put(k, s.readInt());
+        }
+    }
+}
@@ -0,0 +1,689 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A set of {@code int} values, implemented as an open-addressing hash
+ * table.  Unlike a {@code HashSet<Integer>}, an {@code IntSet} keeps its
+ * elements in a single {@code int} array, so that neither the elements
+ * nor the entries of the set are objects.
+ *
+ * <p>The table is probed linearly.  Removing an element shifts the
+ * following elements of its probe sequence back instead of leaving a
+ * deleted marker behind, so lookups do not degrade as elements are added
+ * and removed.  The table doubles in size when it becomes three quarters
+ * full.  The value zero marks a free slot, and is recorded separately when
+ * it is an element of the set.
+ *
+ * <p>This class does not implement {@link Set}, as its methods take and
+ * return primitive values.  The elements are traversed without boxing by
+ * {@link #iterator()}, {@link #spliterator()}, {@link #stream()} and
+ * {@link #forEach(IntConsumer)}.  A {@code IntStream} is collected into a
+ * set with
+ * <pre>{@code
+ *     IntSet set = stream.collect(IntSet::new, IntSet::add, IntSet::addAll);
+ * }</pre>
+ * and other streams with
+ * {@link java.util.stream.Collectors#toIntSet(java.util.function.ToIntFunction)
+ * Collectors.toIntSet}.
+ *
+ * <p>This class offers constant time performance for the basic operations
+ * ({@code add}, {@code remove}, {@code contains} and {@code size}),
+ * assuming the hash function disperses the elements properly among the
+ * slots.  Iteration requires time proportional to the capacity of the
+ * table.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access a set concurrently, and at least one of the
+ * threads modifies the set, it <i>must</i> be synchronized externally.
+ *
+ * <p>The iterators returned by this class's {@code iterator} method are
+ * <i>fail-fast</i>: if the set is modified at any time after the iterator
+ * is created, in any way except through the iterator's own {@code remove}
+ * method, the iterator throws a {@link ConcurrentModificationException}
+ * on a best-effort basis.
+ *
+ * @see     HashSet
+ * @see     IntIntMap
+ */
+public class IntSet implements Cloneable, java.io.Serializable {
+
+    private static final long serialVersionUID = -2740912186305326581L;
+
+    /**
+     * The default initial capacity of the table, a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * The elements in the table, with zero marking a free slot.
+     */
+    transient int[] table;
+
+    /**
+     * True if zero is an element of the set.
+     */
+    transient boolean containsZero;
+
+    /**
+     * The number of elements in the set, including zero.
+     */
+    transient int size;
+
+    /**
+     * The number of elements the table, excluding zero, holds before it
+     * is resized.
+     */
+    transient int threshold;
+
+    /**
+     * The number of times this set has been structurally modified.
+     */
+    transient int modCount;
+
+    /**
+     * Constructs an empty set with the default initial capacity.
+     */
+    public IntSet() {
+        table = new int[DEFAULT_INITIAL_CAPACITY];
+        threshold = OpenHashTables.thresholdFor(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty set that can hold the specified number of
+     * elements without being resized.
+     *
+     * @param  expectedSize the expected number of elements
+     * @throws IllegalArgumentException if the expected size is negative
+     */
+    public IntSet(int expectedSize) {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Illegal expected size: " +
+                                               expectedSize);
+        int n = OpenHashTables.tableSizeFor(expectedSize);
+        table = new int[n];
+        threshold = OpenHashTables.thresholdFor(n);
+    }
+
+    /**
+     * Constructs a new set containing the elements of the specified set.
+     *
+     * @param s the set whose elements are to be placed into this set
+     * @throws NullPointerException if the specified set is null
+     */
+    public IntSet(IntSet s) {
+        table = s.table.clone();
+        containsZero = s.containsZero;
+        size = s.size;
+        threshold = s.threshold;
+    }
+
+    /**
+     * Returns the number of elements in this set.
+     *
+     * @return the number of elements in this set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this set contains no elements.
+     *
+     * @return {@code true} if this set contains no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns {@code true} if this set contains the specified element.
+     *
+     * @param v element whose presence in this set is to be tested
+     * @return {@code true} if this set contains the specified element
+     */
+    public boolean contains(int v) {
+        if (v == 0)
+            return containsZero;
+        int[] tab = table;
+        int mask = tab.length - 1;
+        int k;
+        for (int i = OpenHashTables.hash(v) & mask; (k = tab[i]) != 0; i = (i + 1) & mask) {
+            if (k == v)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the specified element to this set if it is not already present.
+     *
+     * @param v element to be added to this set
+     * @return {@code true} if this set did not already contain the specified
+     * element
+     */
+    public boolean add(int v) {
+        if (v == 0) {
+            if (containsZero)
+                return false;
+            containsZero = true;
+        } else {
+            int[] tab = table;
+            int mask = tab.length - 1;
+            int i = OpenHashTables.hash(v) & mask;
+            int k;
+            while ((k = tab[i]) != 0) {
+                if (k == v)
+                    return false;
+                i = (i + 1) & mask;
+            }
+            if (size - (containsZero ? 1 : 0) >= threshold) {
+                resize();
+                return add(v);
+            }
+            tab[i] = v;
+        }
+        ++modCount;
+        ++size;
+        return true;
+    }
+
+    /**
+     * Adds all of the elements of the specified set to this set.
+     *
+     * @param s set containing elements to be added to this set
+     * @return {@code true} if this set changed as a result of the call
+     * @throws NullPointerException if the specified set is null
+     */
+    public boolean addAll(IntSet s) {
+        boolean modified = false;
+        if (s.containsZero)
+            modified = add(0);
+        for (int k : s.table) {
+            if (k != 0 && add(k))
+                modified = true;
+        }
+        return modified;
+    }
+
+    /**
+     * Removes the specified element from this set if it is present.
+     *
+     * @param v element to be removed from this set, if present
+     * @return {@code true} if this set contained the specified element
+     */
+    public boolean remove(int v) {
+        if (v == 0) {
+            if (!containsZero)
+                return false;
+            containsZero = false;
+        } else {
+            int[] tab = table;
+            int mask = tab.length - 1;
+            int i = OpenHashTables.hash(v) & mask;
+            int k;
+            while ((k = tab[i]) != v) {
+                if (k == 0)
+                    return false;
+                i = (i + 1) & mask;
+            }
+            removeAt(i);
+        }
+        ++modCount;
+        --size;
+        return true;
+    }
+
+    /**
+     * Removes the element in slot i, and shifts the following elements of
+     * its probe sequence back so that none of them is separated from its
+     * home slot by a free slot.
+     */
+    private void removeAt(int i) {
+        int[] tab = table;
+        int mask = tab.length - 1;
+        for (int j = (i + 1) & mask; ; j = (j + 1) & mask) {
+            int k = tab[j];
+            if (k == 0)
+                break;
+            int h = OpenHashTables.hash(k) & mask;
+            // move k to i unless its home slot h lies cyclically in (i, j]
+            if (i <= j ? (h <= i || h > j) : (h <= i && h > j)) {
+                tab[i] = k;
+                i = j;
+            }
+        }
+        tab[i] = 0;
+    }
+
+    /**
+     * Removes all of the elements of this set that satisfy the given
+     * predicate.
+     *
+     * @param filter a predicate which returns {@code true} for elements to
+     *        be removed
+     * @return {@code true} if any elements were removed
+     * @throws NullPointerException if the specified filter is null
+     */
+    public boolean removeIf(IntPredicate filter) {
+        Objects.requireNonNull(filter);
+        boolean removed = false;
+        PrimitiveIterator.OfInt it = iterator();
+        while (it.hasNext()) {
+            if (filter.test(it.nextInt())) {
+                it.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes all of the elements from this set.
+     */
+    public void clear() {
+        ++modCount;
+        if (size > 0) {
+            Arrays.fill(table, 0);
+            containsZero = false;
+            size = 0;
+        }
+    }
+
+    private void resize() {
+        int[] oldTab = table;
+        int oldCap = oldTab.length;
+        if (oldCap >= OpenHashTables.MAXIMUM_CAPACITY)
+            throw new IllegalStateException("Set too large");
+        int newCap = oldCap << 1;
+        int mask = newCap - 1;
+        int[] newTab = new int[newCap];
+        for (int k : oldTab) {
+            if (k != 0) {
+                int i = OpenHashTables.hash(k) & mask;
+                while (newTab[i] != 0)
+                    i = (i + 1) & mask;
+                newTab[i] = k;
+            }
+        }
+        table = newTab;
+        threshold = OpenHashTables.thresholdFor(newCap);
+    }
+
+    /**
+     * Returns an array containing all of the elements in this set.
+     *
+     * @return an array containing all of the elements in this set
+     */
+    public int[] toArray() {
+        int[] a = new int[size];
+        int n = 0;
+        if (containsZero)
+            n++;
+        for (int k : table) {
+            if (k != 0)
+                a[n++] = k;
+        }
+        return a;
+    }
+
+    /**
+     * Performs the given action for each element of this set until all
+     * elements have been processed or the action throws an exception.
+     *
+     * @param action the action to be performed for each element
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if the set is modified by the
+     *         action
+     */
+    public void forEach(IntConsumer action) {
+        Objects.requireNonNull(action);
+        int mc = modCount;
+        if (containsZero)
+            action.accept(0);
+        for (int k : table) {
+            if (k != 0)
+                action.accept(k);
+        }
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns an iterator over the elements in this set.  The elements are
+     * returned in no particular order.  The iterator supports
+     * {@code remove}.
+     *
+     * @return an iterator over the elements in this set
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new IntIterator();
+    }
+
+    /**
+     * Creates a <em><a href="Spliterator.html#binding">late-binding</a></em>
+     * and <em>fail-fast</em> {@link Spliterator} over the elements in this
+     * set.
+     *
+     * <p>The {@code Spliterator} reports {@link Spliterator#SIZED} and
+     * {@link Spliterator#DISTINCT}.  The spliterators it splits into divide
+     * the slots of the table between them, and report neither.
+     *
+     * @return a {@code Spliterator} over the elements in this set
+     */
+    public Spliterator.OfInt spliterator() {
+        return new IntSpliterator(this, 0, -1, 0, 0);
+    }
+
+    /**
+     * Returns a sequential {@code IntStream} with this set as its source.
+     *
+     * @return a sequential {@code IntStream} over the elements in this set
+     */
+    public IntStream stream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    /**
+     * Iterates over the slots of the table, starting after a free slot so
+     * that removing the current element only moves elements the iterator
+     * has not reached yet into the slots behind the cursor; the cursor
+     * then revisits the current slot.  Zero is returned first.
+     */
+    final class IntIterator implements PrimitiveIterator.OfInt {
+        final int[] tab = table;
+        final int mask = tab.length - 1;
+        final int start;        // slot after a free slot
+        int next;               // number of slots visited
+        int current = -2;       // slot of the last element, -1 for zero
+        boolean zeroPending = containsZero;
+        int expectedModCount = modCount;
+
+        IntIterator() {
+            int s = 0;
+            while (tab[s] != 0)
+                s++;
+            start = s + 1;
+            advance();
+        }
+
+        private void advance() {
+            while (next <= mask && tab[(start + next) & mask] == 0)
+                next++;
+        }
+
+        public boolean hasNext() {
+            return zeroPending || next <= mask;
+        }
+
+        public int nextInt() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (zeroPending) {
+                zeroPending = false;
+                current = -1;
+                return 0;
+            }
+            if (next > mask)
+                throw new NoSuchElementException();
+            current = (start + next) & mask;
+            next++;
+            advance();
+            return tab[current];
+        }
+
+        public void remove() {
+            if (current == -2)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (current == -1) {
+                containsZero = false;
+            } else {
+                removeAt(current);
+                if (tab[current] != 0) {
+                    // an unvisited element moved into the current slot
+                    next--;
+                }
+            }
+            current = -2;
+            size--;
+            expectedModCount = ++modCount;
+        }
+    }
+
+    static final class IntSpliterator implements Spliterator.OfInt {
+        final IntSet set;
+        int index;                  // current index, modified on advance/split
+        int fence;                  // one past last index, or -1 until used
+        boolean zeroPending;        // true if zero is still to be returned
+        int est;                    // size estimate
+        int expectedModCount;       // for comodification checks
+
+        IntSpliterator(IntSet set, int origin, int fence, int est,
+                       int expectedModCount) {
+            this.set = set;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        final int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                IntSet s = set;
+                est = s.size;
+                expectedModCount = s.modCount;
+                zeroPending = s.containsZero;
+                hi = fence = s.table.length;
+            }
+            return hi;
+        }
+
+        public IntSpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new IntSpliterator(set, lo, index = mid, est >>>= 1,
+                                   expectedModCount);
+        }
+
+        public void forEachRemaining(IntConsumer action) {
+            int i, hi, mc;
+            if (action == null)
+                throw new NullPointerException();
+            IntSet s = set;
+            int[] tab = s.table;
+            hi = getFence();
+            mc = expectedModCount;
+            if (zeroPending) {
+                zeroPending = false;
+                action.accept(0);
+            }
+            if ((i = index) >= 0 && (index = hi) <= tab.length) {
+                for (; i < hi; ++i) {
+                    int k = tab[i];
+                    if (k != 0)
+                        action.accept(k);
+                }
+                if (s.modCount != mc)
+                    throw new ConcurrentModificationException();
+            }
+        }
+
+        public boolean tryAdvance(IntConsumer action) {
+            int hi = getFence(); // force init
+            if (action == null)
+                throw new NullPointerException();
+            if (zeroPending) {
+                zeroPending = false;
+                action.accept(0);
+                if (set.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            int[] tab = set.table;
+            while (index < hi) {
+                int k = tab[index++];
+                if (k != 0) {
+                    action.accept(k);
+                    if (set.modCount != expectedModCount)
+                        throw new ConcurrentModificationException();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public long estimateSize() {
+            getFence(); // force init
+            return (long) est;
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == set.size ? Spliterator.SIZED : 0) |
+                Spliterator.DISTINCT;
+        }
+    }
+
+    /**
+     * Compares the specified object with this set for equality.  Returns
+     * {@code true} if the given object is also an {@code IntSet}, the two
+     * sets have the same size, and every element of the given set is
+     * contained in this set.
+     *
+     * @param o object to be compared for equality with this set
+     * @return {@code true} if the specified object is equal to this set
+     */
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof IntSet))
+            return false;
+        IntSet s = (IntSet) o;
+        if (s.size != size || s.containsZero != containsZero)
+            return false;
+        for (int k : s.table) {
+            if (k != 0 && !contains(k))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this set, which is the sum of the
+     * hash codes of its elements as defined by {@link Integer#hashCode(int)},
+     * and so equal to the hash code of a {@code Set<Integer>} with the same
+     * elements.
+     *
+     * @return the hash code value for this set
+     */
+    public int hashCode() {
+        int h = 0;
+        for (int k : table) {
+            if (k != 0)
+                h += Integer.hashCode(k);
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this set, the elements in the
+     * order returned by its iterator enclosed in square brackets
+     * ({@code "[]"}) and separated by {@code ", "}.
+     *
+     * @return a string representation of this set
+     */
+    public String toString() {
+        StringJoiner sj = new StringJoiner(", ", "[", "]");
+        forEach((int k) -> sj.add(String.valueOf(k)));
+        return sj.toString();
+    }
+
+    /**
+     * Returns a shallow copy of this {@code IntSet} instance.
+     *
+     * @return a shallow copy of this set
+     */
+    public Object clone() {
+        try {
+            IntSet s = (IntSet) super.clone();
+            s.table = table.clone();
+            s.modCount = 0;
+            return s;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    /**
+     * Save the state of this {@code IntSet} instance to a stream (that is,
+     * serialize it).
+     *
+     * @serialData The capacity of the table ({@code int}), the number of
+     *             elements in the set ({@code int}), followed by all of its
+     *             elements (each a {@code int}) in no particular order.
+     */
+    private void writeObject(ObjectOutputStream s) throws IOException {
+        s.defaultWriteObject();
+        s.writeInt(table.length);
+        s.writeInt(size);
+        if (containsZero)
+            s.writeInt(0);
+        for (int k : table) {
+            if (k != 0)
+                s.writeInt(k);
+        }
+    }
+
+    /**
+     * Reconstitute the {@code IntSet} instance from a stream (that is,
+     * deserialize it).
+     */
+    private void readObject(ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        s.readInt(); // ignore the capacity, size the table for the elements
+        int n = s.readInt();
+        if (n < 0)
+            throw new InvalidObjectException("Illegal size: " + n);
+        int cap = OpenHashTables.tableSizeFor(
+            Math.min(n, OpenHashTables.MAX_READ_SIZE));
+        table = new int[cap];
+        threshold = OpenHashTables.thresholdFor(cap);
+        for (int i = 0; i < n; i++)
+            add(s.readInt());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util;
+
+/**
+ * Hashing and sizing shared by the open-addressing hash tables of
+ * primitive keys, such as {@link IntSet} and {@link IntIntMap}.
+ *
+ * <p>The tables are power-of-two sized arrays probed linearly from the
+ * slot given by the low bits of {@code hash(key)}.  They are resized when
+ * three quarters full, except at the maximum capacity, where they may fill
+ * up to all but one slot so that a probe always ends at a free slot.
+ */
+final class OpenHashTables {
+
+    private OpenHashTables() { }
+
+    /**
+     * The maximum capacity of a table, a power of two.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The largest number of keys that readObject sizes a table for
+     * before reading them.  Tables for more keys are grown as the keys
+     * are read, so that a stream claiming a huge size cannot force a
+     * huge allocation.
+     */
+    static final int MAX_READ_SIZE = 1 << 16;
+
+    /**
+     * The fraction of the slots of a table in use at which it is resized.
+     */
+    static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * Spreads the bits of the key.  Consecutive keys are multiplied by the
+     * golden ratio into well separated values, and the higher bits of the
+     * product are folded into the lower bits that select the slot.
+     */
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Spreads the bits of the key as {@link #hash(int)} does.
+     */
+    static int hash(long key) {
+        long p = key * 0x9E3779B97F4A7C15L;
+        int h = (int) (p ^ (p >>> 32));
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the capacity of a table that holds the expected number of
+     * keys without being resized.
+     */
+    static int tableSizeFor(int expectedSize) {
+        long n = (long) Math.ceil(expectedSize / (double) LOAD_FACTOR);
+        if (n >= MAXIMUM_CAPACITY)
+            return MAXIMUM_CAPACITY;
+        return Math.max(2, Integer.highestOneBit((int) n - 1) << 1);
+    }
+
+    /**
+     * Returns the number of keys a table of the given capacity holds
+     * before it is resized.
+     */
+    static int thresholdFor(int capacity) {
+        return (capacity >= MAXIMUM_CAPACITY)
+               ? capacity - 1
+               : (int) (capacity * LOAD_FACTOR);
+    }
+}
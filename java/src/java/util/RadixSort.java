@@ -0,0 +1,672 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class implements least significant digit radix sorts of the
+ * primitive integral and floating-point types, and parallel versions of
+ * them which first partition the values by their most significant digits.
+ *
+ * The values are sorted one byte at a time, from the least significant
+ * to the most significant, by a stable counting sort into a workspace
+ * array; the workspace and the array swap roles on each pass.  The
+ * histograms of all digits are built in a single read of the values,
+ * which also detects values that are already sorted, and a pass is
+ * skipped when all values share its digit.  The most significant digit
+ * is biased by its sign bit, so that negative values sort first.
+ *
+ * Floating-point values are sorted as integer keys: the raw bits of a
+ * value with its sign bit set have their other bits inverted, so that the
+ * signed order of the keys is the order of {@link Float#compare} and
+ * {@link Double#compare}, with -0.0 before 0.0.  NaNs are moved to the
+ * end of the range beforehand, as in DualPivotQuicksort.  The keys are
+ * held in an array of their own and sorted with a workspace like any
+ * other, so these sorts use working space twice the size of the range.
+ *
+ * The parallel sorts distribute the values into buckets by their most
+ * significant digit: the range is divided into chunks, each counted by a
+ * subtask, and the per-chunk counts give each chunk its own, stable
+ * region of each bucket to scatter its values into.  Buckets larger than
+ * the granularity are partitioned again by the next digit, in parallel;
+ * smaller ones are sorted sequentially by their remaining digits.
+ *
+ * Ranges shorter than RADIX_SORT_THRESHOLD are sorted by
+ * DualPivotQuicksort, which is faster than building histograms for them.
+ * The parallel entry points in Arrays sort ranges no longer than
+ * Arrays.MIN_ARRAY_SORT_GRAN with the sequential radix sort.
+ *
+ * All exposed methods are package-private, designed to be invoked
+ * from public methods (in class Arrays) after performing any
+ * necessary array bounds checks and expanding parameters into the
+ * required forms.
+ */
+final class RadixSort {
+
+    /**
+     * Prevents instantiation.
+     */
+    private RadixSort() {}
+
+    /**
+     * If the length of a range to be sorted is less than this
+     * constant, DualPivotQuicksort is used in preference to radix sort.
+     */
+    static final int RADIX_SORT_THRESHOLD = 1 << 10;
+
+    /**
+     * The number of values of a digit.
+     */
+    private static final int RADIX = 1 << 8;
+
+    private static final int DIGIT_MASK = RADIX - 1;
+
+    /*
+     * int
+     */
+
+    /**
+     * Sorts the specified range of the array.
+     *
+     * @param a the array to be sorted
+     * @param from the index of the first element, inclusive, to be sorted
+     * @param to the index of the last element, exclusive, to be sorted
+     */
+    static void sort(int[] a, int from, int to) {
+        int n = to - from;
+        if (n < RADIX_SORT_THRESHOLD) {
+            DualPivotQuicksort.sort(a, from, to - 1, null, 0, 0);
+            return;
+        }
+        int[] w = new int[n];
+        if (lsd(a, from, w, 0, n, Integer.BYTES - 1))
+            System.arraycopy(w, 0, a, from, n);
+    }
+
+    /**
+     * Sorts the specified range of the array in parallel.
+     *
+     * @param a the array to be sorted
+     * @param from the index of the first element, inclusive, to be sorted
+     * @param to the index of the last element, exclusive, to be sorted
+     * @param gran the size of the buckets below which they are sorted
+     *        sequentially
+     */
+    static void parallelSort(int[] a, int from, int to, int gran) {
+        int n = to - from;
+        new IntSorter(a, new int[n], from, 0, n, Integer.BYTES - 1, true,
+                      Math.max(gran, RADIX_SORT_THRESHOLD)).invoke();
+    }
+
+    /**
+     * Sorts a range by its digits up to and including the given digit,
+     * which must be the only digits in which its values differ.
+     *
+     * @param a the array holding the values
+     * @param ao the index of the first value in a
+     * @param b the workspace array
+     * @param bo the index of the first element of the workspace in b
+     * @param n the number of values
+     * @param top the index of the most significant digit to sort by
+     * @return true if the sorted values ended up in b, false if in a
+     */
+    private static boolean lsd(int[] a, int ao, int[] b, int bo, int n, int top) {
+        int[] count = new int[Integer.BYTES << 8];
+        boolean sorted = true;
+        int prev = a[ao];
+        for (int i = ao, end = ao + n; i < end; i++) {
+            int v = a[i];
+            if (v < prev)
+                sorted = false;
+            prev = v;
+            for (int d = 0; d < 3; d++)
+                count[(d << 8) | ((v >>> (d << 3)) & DIGIT_MASK)]++;
+            count[(3 << 8) | ((v >>> 24) ^ 0x80)]++;
+        }
+        if (sorted)
+            return false;
+        boolean swapped = false;
+        for (int d = 0; d <= top; d++) {
+            int base = d << 8, shift = d << 3;
+            if (count[base | digit(a[ao], d)] == n)
+                continue; // all values share this digit
+            for (int i = base, end = base + RADIX, sum = 0; i < end; i++) {
+                int c = count[i];
+                count[i] = sum;
+                sum += c;
+            }
+            int end = ao + n;
+            if (d == 3) {
+                for (int i = ao; i < end; i++) {
+                    int v = a[i];
+                    b[bo + count[base | ((v >>> 24) ^ 0x80)]++] = v;
+                }
+            } else {
+                for (int i = ao; i < end; i++) {
+                    int v = a[i];
+                    b[bo + count[base | ((v >>> shift) & DIGIT_MASK)]++] = v;
+                }
+            }
+            int[] t = a; a = b; b = t;
+            int to = ao; ao = bo; bo = to;
+            swapped = !swapped;
+        }
+        return swapped;
+    }
+
+    /**
+     * Returns the given digit of a value, the most significant one
+     * biased by the sign bit.
+     */
+    private static int digit(int v, int d) {
+        return (d == 3) ? (v >>> 24) ^ 0x80 :
+            (v >>> (d << 3)) & DIGIT_MASK;
+    }
+
+    /**
+     * Sorts a range of the array, whose values differ only in their
+     * digits up to and including the given digit, with a workspace of
+     * the same length.  The values are either in the array or in the
+     * workspace, and end up in the array.
+     */
+    static final class IntSorter extends RecursiveAction {
+        static final long serialVersionUID = 2254360470683593513L;
+        final int[] a, w;
+        final int ao, wo, n, digit, gran;
+        final boolean inA;
+
+        IntSorter(int[] a, int[] w, int ao, int wo, int n, int digit,
+                  boolean inA, int gran) {
+            this.a = a; this.w = w; this.ao = ao; this.wo = wo;
+            this.n = n; this.digit = digit; this.inA = inA; this.gran = gran;
+        }
+
+        public final void compute() {
+            int[] a = this.a, w = this.w;
+            int ao = this.ao, wo = this.wo, n = this.n, digit = this.digit;
+            if (digit < 0 || n < RADIX_SORT_THRESHOLD) {
+                if (!inA)
+                    System.arraycopy(w, wo, a, ao, n);
+                if (digit >= 0)
+                    DualPivotQuicksort.sort(a, ao, ao + n - 1, null, 0, 0);
+                return;
+            }
+            if (n <= gran) {
+                boolean swapped = inA ? lsd(a, ao, w, wo, n, digit)
+                                      : !lsd(w, wo, a, ao, n, digit);
+                if (swapped)
+                    System.arraycopy(w, wo, a, ao, n);
+                return;
+            }
+            int[] src = inA ? a : w, dst = inA ? w : a;
+            int so = inA ? ao : wo, dOff = inA ? wo : ao;
+            int k = (n + gran - 1) / gran, size = (n + k - 1) / k;
+            IntPartition[] parts = new IntPartition[k];
+            for (int i = 0; i < k; i++) {
+                int lo = so + i * size;
+                parts[i] = new IntPartition(src, lo, Math.min(lo + size, so + n),
+                                            digit);
+            }
+            ForkJoinTask.invokeAll(parts);
+            // Stable offsets: bucket by bucket, chunk by chunk
+            int[] bucket = new int[RADIX + 1];
+            for (int d = 0, sum = 0; d < RADIX; d++) {
+                bucket[d] = sum;
+                for (IntPartition p : parts) {
+                    int c = p.count[d];
+                    p.count[d] = dOff + sum;
+                    sum += c;
+                }
+            }
+            bucket[RADIX] = n;
+            for (IntPartition p : parts) {
+                p.dst = dst;
+                p.reinitialize();
+            }
+            ForkJoinTask.invokeAll(parts);
+            List<IntSorter> subs = new ArrayList<>();
+            for (int d = 0; d < RADIX; d++) {
+                int lo = bucket[d], len = bucket[d + 1] - lo;
+                if (len > 0)
+                    subs.add(new IntSorter(a, w, ao + lo, wo + lo, len, digit - 1,
+                                           !inA, gran));
+            }
+            ForkJoinTask.invokeAll(subs);
+        }
+    }
+
+    /**
+     * Counts the values of a chunk by the given digit, then, once its
+     * counts have been turned into offsets and its destination set,
+     * scatters them.
+     */
+    static final class IntPartition extends RecursiveAction {
+        static final long serialVersionUID = -7209931498271386428L;
+        final int[] src;
+        final int lo, hi, digit;
+        final int[] count = new int[RADIX];
+        int[] dst;
+
+        IntPartition(int[] src, int lo, int hi, int digit) {
+            this.src = src; this.lo = lo; this.hi = hi; this.digit = digit;
+        }
+
+        public final void compute() {
+            int[] src = this.src, dst = this.dst;
+            int[] count = this.count;
+            int d = digit;
+            if (dst == null) {
+                for (int i = lo; i < hi; i++)
+                    count[digit(src[i], d)]++;
+            } else {
+                for (int i = lo; i < hi; i++) {
+                    int v = src[i];
+                    dst[count[digit(v, d)]++] = v;
+                }
+            }
+        }
+    }
+
+    /*
+     * long
+     */
+
+    /**
+     * Sorts the specified range of the array.
+     *
+     * @param a the array to be sorted
+     * @param from the index of the first element, inclusive, to be sorted
+     * @param to the index of the last element, exclusive, to be sorted
+     */
+    static void sort(long[] a, int from, int to) {
+        int n = to - from;
+        if (n < RADIX_SORT_THRESHOLD) {
+            DualPivotQuicksort.sort(a, from, to - 1, null, 0, 0);
+            return;
+        }
+        long[] w = new long[n];
+        if (lsd(a, from, w, 0, n, Long.BYTES - 1))
+            System.arraycopy(w, 0, a, from, n);
+    }
+
+    /**
+     * Sorts the specified range of the array in parallel.
+     *
+     * @param a the array to be sorted
+     * @param from the index of the first element, inclusive, to be sorted
+     * @param to the index of the last element, exclusive, to be sorted
+     * @param gran the size of the buckets below which they are sorted
+     *        sequentially
+     */
+    static void parallelSort(long[] a, int from, int to, int gran) {
+        int n = to - from;
+        new LongSorter(a, new long[n], from, 0, n, Long.BYTES - 1, true,
+                      Math.max(gran, RADIX_SORT_THRESHOLD)).invoke();
+    }
+
+    /**
+     * Sorts a range by its digits up to and including the given digit,
+     * which must be the only digits in which its values differ.
+     *
+     * @param a the array holding the values
+     * @param ao the index of the first value in a
+     * @param b the workspace array
+     * @param bo the index of the first element of the workspace in b
+     * @param n the number of values
+     * @param top the index of the most significant digit to sort by
+     * @return true if the sorted values ended up in b, false if in a
+     */
+    private static boolean lsd(long[] a, int ao, long[] b, int bo, int n, int top) {
+        int[] count = new int[Long.BYTES << 8];
+        boolean sorted = true;
+        long prev = a[ao];
+        for (int i = ao, end = ao + n; i < end; i++) {
+            long v = a[i];
+            if (v < prev)
+                sorted = false;
+            prev = v;
+            for (int d = 0; d < 7; d++)
+                count[(d << 8) | ((int) (v >>> (d << 3)) & DIGIT_MASK)]++;
+            count[(7 << 8) | ((int) (v >>> 56) ^ 0x80)]++;
+        }
+        if (sorted)
+            return false;
+        boolean swapped = false;
+        for (int d = 0; d <= top; d++) {
+            int base = d << 8, shift = d << 3;
+            if (count[base | digit(a[ao], d)] == n)
+                continue; // all values share this digit
+            for (int i = base, end = base + RADIX, sum = 0; i < end; i++) {
+                int c = count[i];
+                count[i] = sum;
+                sum += c;
+            }
+            int end = ao + n;
+            if (d == 7) {
+                for (int i = ao; i < end; i++) {
+                    long v = a[i];
+                    b[bo + count[base | ((int) (v >>> 56) ^ 0x80)]++] = v;
+                }
+            } else {
+                for (int i = ao; i < end; i++) {
+                    long v = a[i];
+                    b[bo + count[base | ((int) (v >>> shift) & DIGIT_MASK)]++] = v;
+                }
+            }
+            long[] t = a; a = b; b = t;
+            int to = ao; ao = bo; bo = to;
+            swapped = !swapped;
+        }
+        return swapped;
+    }
+
+    /**
+     * Returns the given digit of a value, the most significant one
+     * biased by the sign bit.
+     */
+    private static int digit(long v, int d) {
+        return (d == 7) ? (int) (v >>> 56) ^ 0x80 :
+            (int) (v >>> (d << 3)) & DIGIT_MASK;
+    }
+
+    /**
+     * Sorts a range of the array, whose values differ only in their
+     * digits up to and including the given digit, with a workspace of
+     * the same length.  The values are either in the array or in the
+     * workspace, and end up in the array.
+     */
+    static final class LongSorter extends RecursiveAction {
+        static final long serialVersionUID = -5150286357125453547L;
+        final long[] a, w;
+        final int ao, wo, n, digit, gran;
+        final boolean inA;
+
+        LongSorter(long[] a, long[] w, int ao, int wo, int n, int digit,
+                  boolean inA, int gran) {
+            this.a = a; this.w = w; this.ao = ao; this.wo = wo;
+            this.n = n; this.digit = digit; this.inA = inA; this.gran = gran;
+        }
+
+        public final void compute() {
+            long[] a = this.a, w = this.w;
+            int ao = this.ao, wo = this.wo, n = this.n, digit = this.digit;
+            if (digit < 0 || n < RADIX_SORT_THRESHOLD) {
+                if (!inA)
+                    System.arraycopy(w, wo, a, ao, n);
+                if (digit >= 0)
+                    DualPivotQuicksort.sort(a, ao, ao + n - 1, null, 0, 0);
+                return;
+            }
+            if (n <= gran) {
+                boolean swapped = inA ? lsd(a, ao, w, wo, n, digit)
+                                      : !lsd(w, wo, a, ao, n, digit);
+                if (swapped)
+                    System.arraycopy(w, wo, a, ao, n);
+                return;
+            }
+            long[] src = inA ? a : w, dst = inA ? w : a;
+            int so = inA ? ao : wo, dOff = inA ? wo : ao;
+            int k = (n + gran - 1) / gran, size = (n + k - 1) / k;
+            LongPartition[] parts = new LongPartition[k];
+            for (int i = 0; i < k; i++) {
+                int lo = so + i * size;
+                parts[i] = new LongPartition(src, lo, Math.min(lo + size, so + n),
+                                            digit);
+            }
+            ForkJoinTask.invokeAll(parts);
+            // Stable offsets: bucket by bucket, chunk by chunk
+            int[] bucket = new int[RADIX + 1];
+            for (int d = 0, sum = 0; d < RADIX; d++) {
+                bucket[d] = sum;
+                for (LongPartition p : parts) {
+                    int c = p.count[d];
+                    p.count[d] = dOff + sum;
+                    sum += c;
+                }
+            }
+            bucket[RADIX] = n;
+            for (LongPartition p : parts) {
+                p.dst = dst;
+                p.reinitialize();
+            }
+            ForkJoinTask.invokeAll(parts);
+            List<LongSorter> subs = new ArrayList<>();
+            for (int d = 0; d < RADIX; d++) {
+                int lo = bucket[d], len = bucket[d + 1] - lo;
+                if (len > 0)
+                    subs.add(new LongSorter(a, w, ao + lo, wo + lo, len, digit - 1,
+                                           !inA, gran));
+            }
+            ForkJoinTask.invokeAll(subs);
+        }
+    }
+
+    /**
+     * Counts the values of a chunk by the given digit, then, once its
+     * counts have been turned into offsets and its destination set,
+     * scatters them.
+     */
+    static final class LongPartition extends RecursiveAction {
+        static final long serialVersionUID = 4633937860174526290L;
+        final long[] src;
+        final int lo, hi, digit;
+        final int[] count = new int[RADIX];
+        long[] dst;
+
+        LongPartition(long[] src, int lo, int hi, int digit) {
+            this.src = src; this.lo = lo; this.hi = hi; this.digit = digit;
+        }
+
+        public final void compute() {
+            long[] src = this.src, dst = this.dst;
+            int[] count = this.count;
+            int d = digit;
+            if (dst == null) {
+                for (int i = lo; i < hi; i++)
+                    count[digit(src[i], d)]++;
+            } else {
+                for (int i = lo; i < hi; i++) {
+                    long v = src[i];
+                    dst[count[digit(v, d)]++] = v;
+                }
+            }
+        }
+    }
+
+    /*
+     * float
+     */
+
+    /**
+     * Sorts the specified range of the array, sequentially or in parallel.
+     * The keys and the workspace used to sort them each take an array the
+     * size of the range.
+     *
+     * @param a the array to be sorted
+     * @param from the index of the first element, inclusive, to be sorted
+     * @param to the index of the last element, exclusive, to be sorted
+     * @param gran the size of the buckets below which they are sorted
+     *        sequentially, or 0 to sort sequentially
+     */
+    static void sort(float[] a, int from, int to, int gran) {
+        // Phase 1: Move NaNs to the end of the range
+        int hi = to;
+        for (int k = to - 1; k >= from; k--) {
+            float ak = a[k];
+            if (ak != ak) { // a[k] is NaN
+                a[k] = a[--hi];
+                a[hi] = ak;
+            }
+        }
+        int n = hi - from;
+        if (n < RADIX_SORT_THRESHOLD) {
+            DualPivotQuicksort.sort(a, from, hi - 1, null, 0, 0);
+            return;
+        }
+
+        // Phase 2: Sort the keys of everything except NaNs
+        int[] keys = new int[n];
+        if (gran == 0) {
+            for (int i = 0; i < n; i++)
+                keys[i] = key(Float.floatToRawIntBits(a[from + i]));
+            sort(keys, 0, n);
+            for (int i = 0; i < n; i++)
+                a[from + i] = Float.intBitsToFloat(key(keys[i]));
+        } else {
+            new FloatKeys(a, keys, from, 0, n, true, gran).invoke();
+            parallelSort(keys, 0, n, gran);
+            new FloatKeys(a, keys, from, 0, n, false, gran).invoke();
+        }
+    }
+
+    /**
+     * Converts between the raw bits of a float and a key in the same
+     * order, and back.
+     */
+    private static int key(int bits) {
+        return bits ^ ((bits >> 31) & 0x7fffffff);
+    }
+
+    /**
+     * Converts the values of a range to keys, or the keys back to values.
+     */
+    static final class FloatKeys extends RecursiveAction {
+        static final long serialVersionUID = 6417003582136925380L;
+        final float[] a;
+        final int[] keys;
+        final int from, lo, hi, gran;
+        final boolean toKeys;
+
+        FloatKeys(float[] a, int[] keys, int from, int lo, int hi,
+                  boolean toKeys, int gran) {
+            this.a = a; this.keys = keys; this.from = from; this.lo = lo;
+            this.hi = hi; this.toKeys = toKeys; this.gran = gran;
+        }
+
+        public final void compute() {
+            int lo = this.lo, hi = this.hi;
+            if (hi - lo > gran) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new FloatKeys(a, keys, from, lo, mid, toKeys, gran),
+                          new FloatKeys(a, keys, from, mid, hi, toKeys, gran));
+            } else if (toKeys) {
+                for (int i = lo; i < hi; i++)
+                    keys[i] = key(Float.floatToRawIntBits(a[from + i]));
+            } else {
+                for (int i = lo; i < hi; i++)
+                    a[from + i] = Float.intBitsToFloat(key(keys[i]));
+            }
+        }
+    }
+
+    /*
+     * double
+     */
+
+    /**
+     * Sorts the specified range of the array, sequentially or in parallel.
+     * The keys and the workspace used to sort them each take an array the
+     * size of the range.
+     *
+     * @param a the array to be sorted
+     * @param from the index of the first element, inclusive, to be sorted
+     * @param to the index of the last element, exclusive, to be sorted
+     * @param gran the size of the buckets below which they are sorted
+     *        sequentially, or 0 to sort sequentially
+     */
+    static void sort(double[] a, int from, int to, int gran) {
+        // Phase 1: Move NaNs to the end of the range
+        int hi = to;
+        for (int k = to - 1; k >= from; k--) {
+            double ak = a[k];
+            if (ak != ak) { // a[k] is NaN
+                a[k] = a[--hi];
+                a[hi] = ak;
+            }
+        }
+        int n = hi - from;
+        if (n < RADIX_SORT_THRESHOLD) {
+            DualPivotQuicksort.sort(a, from, hi - 1, null, 0, 0);
+            return;
+        }
+
+        // Phase 2: Sort the keys of everything except NaNs
+        long[] keys = new long[n];
+        if (gran == 0) {
+            for (int i = 0; i < n; i++)
+                keys[i] = key(Double.doubleToRawLongBits(a[from + i]));
+            sort(keys, 0, n);
+            for (int i = 0; i < n; i++)
+                a[from + i] = Double.longBitsToDouble(key(keys[i]));
+        } else {
+            new DoubleKeys(a, keys, from, 0, n, true, gran).invoke();
+            parallelSort(keys, 0, n, gran);
+            new DoubleKeys(a, keys, from, 0, n, false, gran).invoke();
+        }
+    }
+
+    /**
+     * Converts between the raw bits of a double and a key in the same
+     * order, and back.
+     */
+    private static long key(long bits) {
+        return bits ^ ((bits >> 63) & 0x7fffffffffffffffL);
+    }
+
+    /**
+     * Converts the values of a range to keys, or the keys back to values.
+     */
+    static final class DoubleKeys extends RecursiveAction {
+        static final long serialVersionUID = -1380432657728734461L;
+        final double[] a;
+        final long[] keys;
+        final int from, lo, hi, gran;
+        final boolean toKeys;
+
+        DoubleKeys(double[] a, long[] keys, int from, int lo, int hi,
+                  boolean toKeys, int gran) {
+            this.a = a; this.keys = keys; this.from = from; this.lo = lo;
+            this.hi = hi; this.toKeys = toKeys; this.gran = gran;
+        }
+
+        public final void compute() {
+            int lo = this.lo, hi = this.hi;
+            if (hi - lo > gran) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new DoubleKeys(a, keys, from, lo, mid, toKeys, gran),
+                          new DoubleKeys(a, keys, from, mid, hi, toKeys, gran));
+            } else if (toKeys) {
+                for (int i = lo; i < hi; i++)
+                    keys[i] = key(Double.doubleToRawLongBits(a[from + i]));
+            } else {
+                for (int i = lo; i < hi; i++)
+                    a[from + i] = Double.longBitsToDouble(key(keys[i]));
+            }
+        }
+    }
+}
@@ -40,10 +40,12 @@ import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.BiFunction;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
@@ -2196,6 +2198,136 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         return uniExceptionallyStage(fn);
     }
 
+    /**
+     * Exceptionally completes this CompletableFuture with a
+     * {@link TimeoutException} if not otherwise completed before the
+     * given timeout.
+     *
+     * <p>The timeout is tracked by a single timer shared by all
+     * CompletableFutures, so no thread is held per pending timeout,
+     * and the timer entry is discarded in constant time if this
+     * CompletableFuture completes first. Expirations are detected
+     * once per millisecond tick, and each is completed in a task of its
+     * own in the {@link ForkJoinPool#commonPool()} (unless it does not
+     * support a parallelism level of at least two, in which case a new
+     * Thread is used), so dependent actions neither run in the timer
+     * thread nor delay other timeouts.
+     *
+     * @param timeout how long to wait before completing exceptionally
+     *        with a TimeoutException, in units of {@code unit}
+     * @param unit a {@code TimeUnit} determining how to interpret the
+     *        {@code timeout} parameter
+     * @return this CompletableFuture
+     * @throws NullPointerException if {@code unit} is null
+     */
+    public CompletableFuture<T> orTimeout(long timeout, TimeUnit unit) {
+        if (unit == null)
+            throw new NullPointerException();
+        if (result == null)
+            whenComplete(new Canceller(Delayer.delay(new Timeout(this),
+                                                     timeout, unit)));
+        return this;
+    }
+
+    /**
+     * Completes this CompletableFuture with the given value if not
+     * otherwise completed before the given timeout. The timeout is
+     * tracked as described for {@link #orTimeout}.
+     *
+     * @param value the value to use upon timeout
+     * @param timeout how long to wait before completing normally
+     *        with the given value, in units of {@code unit}
+     * @param unit a {@code TimeUnit} determining how to interpret the
+     *        {@code timeout} parameter
+     * @return this CompletableFuture
+     * @throws NullPointerException if {@code unit} is null
+     */
+    public CompletableFuture<T> completeOnTimeout(T value, long timeout,
+                                                  TimeUnit unit) {
+        if (unit == null)
+            throw new NullPointerException();
+        if (result == null)
+            whenComplete(new Canceller(Delayer.delay(
+                                           new DelayedCompleter<T>(this, value),
+                                           timeout, unit)));
+        return this;
+    }
+
+    /* ------------- Timeouts -------------- */
+
+    /**
+     * Singleton holder for the timer shared by orTimeout and
+     * completeOnTimeout, created on first use. A timing wheel makes
+     * scheduling and cancellation constant-time, so hundreds of
+     * thousands of pending timeouts cost one queue node each rather
+     * than a heap sift, and a future that completes first just marks
+     * its entry cancelled. The wheel hands due entries to asyncPool in
+     * batches, and each entry only submits its action to asyncPool as a
+     * separate task: running the actions in the batch would let one
+     * slow or blocking dependent delay, or deadlock with, the timeouts
+     * after it in the same batch.
+     */
+    static final class Delayer {
+        static ScheduledFuture<?> delay(Runnable command, long delay,
+                                        TimeUnit unit) {
+            return delayer.schedule(new TaskSubmitter(command), delay, unit);
+        }
+
+        static final class DaemonThreadFactory implements ThreadFactory {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r);
+                t.setDaemon(true);
+                t.setName("CompletableFutureDelayScheduler");
+                return t;
+            }
+        }
+
+        static final TimingWheelScheduledExecutor delayer =
+            new TimingWheelScheduledExecutor(1L, TimeUnit.MILLISECONDS,
+                                             asyncPool,
+                                             new DaemonThreadFactory());
+    }
+
+    /** Action to submit a due timeout action to asyncPool */
+    static final class TaskSubmitter implements Runnable {
+        final Runnable action;
+        TaskSubmitter(Runnable action) { this.action = action; }
+        public void run() { asyncPool.execute(action); }
+    }
+
+    /** Action to completeExceptionally on timeout */
+    static final class Timeout implements Runnable {
+        final CompletableFuture<?> f;
+        Timeout(CompletableFuture<?> f) { this.f = f; }
+        public void run() {
+            if (f != null && !f.isDone())
+                f.completeExceptionally(new TimeoutException());
+        }
+    }
+
+    /** Action to complete on timeout */
+    static final class DelayedCompleter<U> implements Runnable {
+        final CompletableFuture<U> f;
+        final U u;
+        DelayedCompleter(CompletableFuture<U> f, U u) {
+            this.f = f; this.u = u;
+        }
+        public void run() {
+            if (f != null)
+                f.complete(u);
+        }
+    }
+
+    /** Action to cancel unneeded timeouts */
+    static final class Canceller implements BiConsumer<Object, Throwable> {
+        final Future<?> f;
+        Canceller(Future<?> f) { this.f = f; }
+        public void accept(Object ignore, Throwable ex) {
+            if (f != null && !f.isDone())
+                f.cancel(false);
+        }
+    }
+
     /* ------------- Arbitrary-arity constructions -------------- */
 
     /**
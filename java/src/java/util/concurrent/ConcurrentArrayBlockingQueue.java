@@ -0,0 +1,938 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded, lock-free {@linkplain BlockingQueue blocking queue} backed
+ * by an array, for any number of producers and consumers.  This queue
+ * orders elements FIFO (first-in-first-out).  The <em>head</em> of the
+ * queue is that element that has been on the queue the longest time.
+ * The <em>tail</em> of the queue is that element that has been on the
+ * queue the shortest time.  New elements are inserted at the tail of the
+ * queue, and the queue retrieval operations obtain elements at the head
+ * of the queue.
+ *
+ * <p>Like an {@link ArrayBlockingQueue}, this queue is a fixed-size ring
+ * of slots, but producers and consumers claim slots with a single
+ * compare-and-set on separate, padded counters rather than under a
+ * common lock, and insertions do not allocate, unlike those of a
+ * {@link LinkedBlockingQueue}.  Producers therefore only contend with
+ * each other, and consumers with each other, which makes this queue
+ * suitable for high rates of hand-offs, such as the work queue of a
+ * {@link ThreadPoolExecutor}.  Threads that must wait to {@code put} or
+ * {@code take} spin briefly, then yield, and then block, so as not to
+ * park and unpark threads on transiently full or empty queues; only
+ * blocking threads, and threads that wake them, take a lock.
+ *
+ * <p>Removing an element other than the head, by {@link #remove(Object)}
+ * or an iterator, clears its slot, which still holds capacity until
+ * consumers reach it: the element is no longer counted by {@link #size},
+ * but its slot is not counted by {@link #remainingCapacity} either.
+ *
+ * <p>Iterators and spliterators are <a
+ * href="package-summary.html#Weakly"><i>weakly consistent</i></a>: they
+ * traverse the elements in the queue when they were created.  Bulk
+ * operations, and {@code size}, are not atomic with respect to
+ * concurrent insertions and removals.
+ *
+ * <p>This class and its iterator implement all of the
+ * <em>optional</em> methods of the {@link Collection} and {@link
+ * Iterator} interfaces.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/../technotes/guides/collections/index.html">
+ * Java Collections Framework</a>.
+ *
+ * @param <E> the type of elements held in this collection
+ */
+public class ConcurrentArrayBlockingQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E>, java.io.Serializable {
+    private static final long serialVersionUID = 7143958281346274016L;
+
+    /*
+     * The queue is the bounded MPMC ring buffer of D. Vyukov.  Slot i
+     * of items has a sequence number in sequences.  Producers take
+     * positions from tail, and consumers from head, both of which only
+     * increase; position p maps to slot p % capacity.  Slot i starts
+     * with sequence 2 * i.  A producer at position p waits for the slot
+     * to have sequence 2 * p, meaning it has been emptied for this
+     * round, claims p by CASing tail from p to p + 1, stores the
+     * element, and publishes it by setting the sequence to 2 * p + 1.
+     * A consumer at p waits for sequence 2 * p + 1, claims p by CASing
+     * head, takes the element, and frees the slot for the next round
+     * by setting the sequence to 2 * (p + capacity).  A producer
+     * finding a lower sequence sees a full queue, and so does a
+     * consumer see an empty queue.  (Vyukov's sequences p and p + 1
+     * are doubled, so that a slot freed for the next round differs
+     * from a published slot even when the capacity is one.)
+     *
+     * Consumers take elements by swapping the slot with null, so that
+     * remove(Object) can clear a published slot by CASing its element
+     * to null without racing the consumer; a consumer that finds null
+     * frees the slot and moves on.  The number of slots cleared but not
+     * yet reached by consumers is kept in "cleared", which is
+     * incremented by removers after clearing a slot, and decremented by
+     * consumers finding null, so it may be transiently negative.
+     *
+     * Threads blocking in put or take spin and yield on offer or poll,
+     * and then wait on a condition of "lock", after incrementing the
+     * count of waiters, putters or takers.  The count and the sequence
+     * numbers are written with volatile stores, so that a producer
+     * publishing an element after a taker has been counted sees the
+     * taker, and signals notEmpty, while a taker counted after the
+     * publication sees the element; likewise for consumers and
+     * putters.  Waiting threads take the lock only to wait, and other
+     * threads only to signal waiting threads.
+     *
+     * The fields set at construction are not final, so that readObject
+     * can set them.
+     */
+
+    /** The number of CPUs, for spin control */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** The number of times to retry before yielding, when blocking */
+    static final int SPINS = (NCPU > 1) ? 1 << 7 : 0;
+
+    /** The number of times to yield before parking, when blocking */
+    static final int YIELDS = 1 << 3;
+
+    /** The maximum number of slots claimed at once by drainTo */
+    static final int DRAIN_BATCH = 1 << 6;
+
+    /** The capacity of the queue */
+    final int capacity;
+
+    /** capacity - 1 if a power of two, else -1 */
+    transient int mask;
+
+    /** The queued items */
+    transient Object[] items;
+
+    /** The sequence numbers of the slots */
+    transient long[] sequences;
+
+    /** The position of the next take, poll or remove */
+    @sun.misc.Contended transient volatile long head;
+
+    /** The position of the next put, offer or add */
+    @sun.misc.Contended transient volatile long tail;
+
+    /** Lock for waiting threads */
+    transient ReentrantLock lock;
+
+    /** Condition for waiting takes */
+    transient Condition notEmpty;
+
+    /** Condition for waiting puts */
+    transient Condition notFull;
+
+    /** The numbers of waiting takes and puts, written under lock */
+    transient volatile int takers, putters;
+
+    /** The number of cleared slots not yet reached by consumers */
+    transient volatile int cleared;
+
+    /**
+     * Creates a {@code ConcurrentArrayBlockingQueue} with the given
+     * (fixed) capacity.
+     *
+     * @param capacity the capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity < 1}
+     */
+    public ConcurrentArrayBlockingQueue(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException();
+        this.capacity = capacity;
+        initialize();
+    }
+
+    /**
+     * Creates a {@code ConcurrentArrayBlockingQueue} with the given
+     * (fixed) capacity, initially containing the elements of the given
+     * collection, added in traversal order of the collection's iterator.
+     *
+     * @param capacity the capacity of this queue
+     * @param c the collection of elements to initially contain
+     * @throws IllegalArgumentException if {@code capacity} is less than
+     *         {@code c.size()}, or less than 1.
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements are null
+     */
+    public ConcurrentArrayBlockingQueue(int capacity,
+                                        Collection<? extends E> c) {
+        this(capacity);
+        for (E e : c) {
+            if (!offer(e))
+                throw new IllegalArgumentException();
+        }
+    }
+
+    private void initialize() {
+        int n = capacity;
+        mask = ((n & (n - 1)) == 0) ? n - 1 : -1;
+        items = new Object[n];
+        long[] seqs = new long[n];
+        for (int i = 0; i < n; i++)
+            seqs[i] = 2L * i;
+        sequences = seqs;
+        lock = new ReentrantLock();
+        notEmpty = lock.newCondition();
+        notFull = lock.newCondition();
+        U.storeFence(); // publish sequences
+    }
+
+    /* ---------------- Slot access -------------- */
+
+    final int slotOf(long p) {
+        int m = mask;
+        return (m >= 0) ? (int) p & m : (int) (p % capacity);
+    }
+
+    static long sequenceAt(long[] seqs, int i) {
+        return U.getLongVolatile(seqs, ((long) i << LSHIFT) + LBASE);
+    }
+
+    static void setSequenceAt(long[] seqs, int i, long s) {
+        U.putLongVolatile(seqs, ((long) i << LSHIFT) + LBASE, s);
+    }
+
+    static Object swapItemAt(Object[] items, int i) {
+        return U.getAndSetObject(items, ((long) i << ASHIFT) + ABASE, null);
+    }
+
+    static boolean casItemAt(Object[] items, int i, Object c, Object v) {
+        return U.compareAndSwapObject(items, ((long) i << ASHIFT) + ABASE, c, v);
+    }
+
+    static Object itemAt(Object[] items, int i) {
+        return U.getObjectVolatile(items, ((long) i << ASHIFT) + ABASE);
+    }
+
+    final boolean casHead(long cmp, long val) {
+        return U.compareAndSwapLong(this, HEAD, cmp, val);
+    }
+
+    final boolean casTail(long cmp, long val) {
+        return U.compareAndSwapLong(this, TAIL, cmp, val);
+    }
+
+    /**
+     * Inserts e if there is a free slot, returning false if full.
+     */
+    final boolean enqueue(Object e) {
+        final Object[] items = this.items;
+        final long[] seqs = this.sequences;
+        long p = tail;
+        for (;;) {
+            int i = slotOf(p);
+            long d = sequenceAt(seqs, i) - 2L * p;
+            if (d == 0L) {
+                if (casTail(p, p + 1L)) {
+                    U.putOrderedObject(items, ((long) i << ASHIFT) + ABASE, e);
+                    setSequenceAt(seqs, i, 2L * p + 1L);
+                    if (takers != 0)
+                        signalNotEmpty();
+                    return true;
+                }
+                p = tail;
+            }
+            else if (d < 0L && tail == p)
+                return false;
+            else
+                p = tail;
+        }
+    }
+
+    /**
+     * Removes and returns the head element, or null if empty.
+     */
+    final Object dequeue() {
+        final Object[] items = this.items;
+        final long[] seqs = this.sequences;
+        final int n = capacity;
+        long p = head;
+        for (;;) {
+            int i = slotOf(p);
+            long d = sequenceAt(seqs, i) - (2L * p + 1L);
+            if (d == 0L) {
+                if (casHead(p, p + 1L)) {
+                    Object x = swapItemAt(items, i);
+                    setSequenceAt(seqs, i, 2L * (p + n));
+                    if (putters != 0)
+                        signalNotFull();
+                    if (x != null)
+                        return x;
+                    U.getAndAddInt(this, CLEARED, -1); // removed; skip it
+                }
+                p = head;
+            }
+            else if (d < 0L && head == p)
+                return null;
+            else
+                p = head;
+        }
+    }
+
+    private void signalNotEmpty() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signalNotFull() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Throws NullPointerException if argument is null.
+     *
+     * @param v the element
+     */
+    private static void checkNotNull(Object v) {
+        if (v == null)
+            throw new NullPointerException();
+    }
+
+    /* ---------------- Insertion -------------- */
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * possible to do so immediately without exceeding the queue's capacity,
+     * returning {@code true} upon success and throwing an
+     * {@code IllegalStateException} if this queue is full.
+     *
+     * @param e the element to add
+     * @return {@code true} (as specified by {@link Collection#add})
+     * @throws IllegalStateException if this queue is full
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean add(E e) {
+        return super.add(e);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it is
+     * possible to do so immediately without exceeding the queue's capacity,
+     * returning {@code true} upon success and {@code false} if this queue
+     * is full.  This method is generally preferable to method {@link #add},
+     * which can fail to insert an element only by throwing an exception.
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        checkNotNull(e);
+        return enqueue(e);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue, waiting
+     * for space to become available if the queue is full.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void put(E e) throws InterruptedException {
+        checkNotNull(e);
+        if (!enqueue(e))
+            awaitPut(e, false, 0L);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue, waiting
+     * up to the specified wait time for space to become available if
+     * the queue is full.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        checkNotNull(e);
+        return enqueue(e) || awaitPut(e, true, unit.toNanos(timeout));
+    }
+
+    /**
+     * Spins, yields and then waits to insert e; returns false on timeout.
+     */
+    private boolean awaitPut(Object e, boolean timed, long nanos)
+        throws InterruptedException {
+        long deadline = timed ? System.nanoTime() + nanos : 0L;
+        for (int k = 0; k < SPINS + YIELDS; k++) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (k >= SPINS)
+                Thread.yield();
+            if (enqueue(e))
+                return true;
+            if (timed && deadline - System.nanoTime() <= 0L)
+                return false;
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            putters++;
+            try {
+                while (!enqueue(e)) {
+                    if (!timed)
+                        notFull.await();
+                    else if ((nanos = deadline - System.nanoTime()) <= 0L)
+                        return false;
+                    else
+                        notFull.awaitNanos(nanos);
+                }
+                return true;
+            } catch (InterruptedException ie) {
+                notFull.signal(); // propagate to a non-interrupted thread
+                throw ie;
+            } finally {
+                putters--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* ---------------- Removal -------------- */
+
+    public E poll() {
+        @SuppressWarnings("unchecked") E x = (E) dequeue();
+        return x;
+    }
+
+    public E take() throws InterruptedException {
+        @SuppressWarnings("unchecked") E x = (E) dequeue();
+        return (x != null) ? x : awaitTake(false, 0L);
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        @SuppressWarnings("unchecked") E x = (E) dequeue();
+        return (x != null) ? x : awaitTake(true, unit.toNanos(timeout));
+    }
+
+    /**
+     * Spins, yields and then waits to remove an element; returns null
+     * on timeout.
+     */
+    @SuppressWarnings("unchecked")
+    private E awaitTake(boolean timed, long nanos)
+        throws InterruptedException {
+        long deadline = timed ? System.nanoTime() + nanos : 0L;
+        Object x;
+        for (int k = 0; k < SPINS + YIELDS; k++) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (k >= SPINS)
+                Thread.yield();
+            if ((x = dequeue()) != null)
+                return (E) x;
+            if (timed && deadline - System.nanoTime() <= 0L)
+                return null;
+        }
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            takers++;
+            try {
+                while ((x = dequeue()) == null) {
+                    if (!timed)
+                        notEmpty.await();
+                    else if ((nanos = deadline - System.nanoTime()) <= 0L)
+                        return null;
+                    else
+                        notEmpty.awaitNanos(nanos);
+                }
+                return (E) x;
+            } catch (InterruptedException ie) {
+                notEmpty.signal(); // propagate to a non-interrupted thread
+                throw ie;
+            } finally {
+                takers--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Calls action on each published, uncleared element between head
+     * and tail, in order, stopping if it returns true; returns whether
+     * it did so.
+     */
+    private boolean traverse(SlotAction action) {
+        final Object[] items = this.items;
+        final long[] seqs = this.sequences;
+        for (long p = head, t = tail; p < t; p++) {
+            int i = slotOf(p);
+            if (sequenceAt(seqs, i) != 2L * p + 1L)
+                continue; // not yet published, or already taken
+            Object x = itemAt(items, i);
+            if (x != null && action.apply(i, p, x))
+                return true;
+        }
+        return false;
+    }
+
+    /** A visitor of slots, for traverse */
+    interface SlotAction {
+        boolean apply(int slot, long position, Object item);
+    }
+
+    public E peek() {
+        final Object[] items = this.items;
+        final long[] seqs = this.sequences;
+        for (long p = head; ; p++) {
+            int i = slotOf(p);
+            if (sequenceAt(seqs, i) != 2L * p + 1L) {
+                long h = head;
+                if (h <= p)
+                    return null; // unpublished or empty
+                p = h - 1L;      // fell behind consumers
+                continue;
+            }
+            @SuppressWarnings("unchecked") E x = (E) itemAt(items, i);
+            if (x != null)
+                return x;
+        }
+    }
+
+    // this doc comment is overridden to remove the reference to collections
+    // greater in size than Integer.MAX_VALUE
+    /**
+     * Returns the number of elements in this queue.
+     *
+     * @return the number of elements in this queue
+     */
+    public int size() {
+        for (;;) {
+            long h = head, t = tail;
+            int r = cleared;
+            if (h == head)
+                return (int) Math.max(0L, Math.min(t - h - r, (long) capacity));
+        }
+    }
+
+    public boolean isEmpty() {
+        return peek() == null;
+    }
+
+    // this doc comment is a modified copy of the inherited doc comment,
+    // without the reference to unlimited queues.
+    /**
+     * Returns the number of additional elements that this queue can ideally
+     * (in the absence of memory or resource constraints) accept without
+     * blocking. This is always equal to the initial capacity of this queue
+     * less the current {@code size} of this queue and the number of slots
+     * of removed elements that consumers have not yet reached.
+     *
+     * <p>Note that you <em>cannot</em> always tell if an attempt to insert
+     * an element will succeed by inspecting {@code remainingCapacity}
+     * because it may be the case that another thread is about to
+     * insert or remove an element.
+     */
+    public int remainingCapacity() {
+        for (;;) {
+            long h = head, t = tail;
+            if (h == head)
+                return (int) Math.max(0L, capacity - Math.max(0L, t - h));
+        }
+    }
+
+    /**
+     * Removes a single instance of the specified element from this queue,
+     * if it is present.  More formally, removes an element {@code e} such
+     * that {@code o.equals(e)}, if this queue contains one or more such
+     * elements.
+     * Returns {@code true} if this queue contained the specified element
+     * (or equivalently, if this queue changed as a result of the call).
+     *
+     * <p>The slot of the element remains in use until consumers reach
+     * it.
+     *
+     * @param o element to be removed from this queue, if present
+     * @return {@code true} if this queue changed as a result of the call
+     */
+    public boolean remove(Object o) {
+        if (o == null)
+            return false;
+        final Object[] items = this.items;
+        return traverse((i, p, x) -> o.equals(x) && clearItemAt(items, i, x));
+    }
+
+    /**
+     * Clears slot i if it holds x, counting it as cleared.
+     */
+    private boolean clearItemAt(Object[] items, int i, Object x) {
+        if (!casItemAt(items, i, x, null))
+            return false;
+        U.getAndAddInt(this, CLEARED, 1);
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if this queue contains the specified element.
+     * More formally, returns {@code true} if and only if this queue contains
+     * at least one element {@code e} such that {@code o.equals(e)}.
+     *
+     * @param o object to be checked for containment in this queue
+     * @return {@code true} if this queue contains the specified element
+     */
+    public boolean contains(Object o) {
+        return o != null && traverse((i, p, x) -> o.equals(x));
+    }
+
+    /**
+     * Returns an array containing all of the elements in this queue, in
+     * proper sequence.
+     *
+     * <p>The returned array will be "safe" in that no references to it are
+     * maintained by this queue.  (In other words, this method must allocate
+     * a new array).  The caller is thus free to modify the returned array.
+     *
+     * <p>This method acts as bridge between array-based and collection-based
+     * APIs.
+     *
+     * @return an array containing all of the elements in this queue
+     */
+    public Object[] toArray() {
+        final ArrayList<Object> al = new ArrayList<Object>();
+        traverse((i, p, x) -> { al.add(x); return false; });
+        return al.toArray();
+    }
+
+    /**
+     * Returns an array containing all of the elements in this queue, in
+     * proper sequence; the runtime type of the returned array is that of
+     * the specified array.  If the queue fits in the specified array, it
+     * is returned therein.  Otherwise, a new array is allocated with the
+     * runtime type of the specified array and the size of this queue.
+     *
+     * <p>If this queue fits in the specified array with room to spare
+     * (i.e., the array has more elements than this queue), the element in
+     * the array immediately following the end of the queue is set to
+     * {@code null}.
+     *
+     * @param a the array into which the elements of the queue are to
+     *          be stored, if it is big enough; otherwise, a new array of the
+     *          same runtime type is allocated for this purpose
+     * @return an array containing all of the elements in this queue
+     * @throws ArrayStoreException if the runtime type of the specified array
+     *         is not a supertype of the runtime type of every element in
+     *         this queue
+     * @throws NullPointerException if the specified array is null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T[] toArray(T[] a) {
+        Object[] es = toArray();
+        int n = es.length;
+        if (a.length < n)
+            return (T[]) Arrays.copyOf(es, n, a.getClass());
+        System.arraycopy(es, 0, a, 0, n);
+        if (a.length > n)
+            a[n] = null;
+        return a;
+    }
+
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    /**
+     * Removes all of the elements from this queue, one at a time.
+     * This method is not atomic: elements inserted concurrently by
+     * other threads may be removed, or may remain in the queue after
+     * this call returns.
+     */
+    public void clear() {
+        while (dequeue() != null)
+            ;
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes up to {@code maxElements} elements from the head of this
+     * queue and adds them to the given collection, claiming runs of
+     * available elements with one compare-and-set each.  If adding an
+     * element throws an exception, that element and the rest of its run
+     * are left at the head of the queue, unless other consumers have
+     * taken elements since the run was claimed, in which case they are
+     * inserted again at the tail of the queue, space permitting.
+     *
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        checkNotNull(c);
+        if (c == this)
+            throw new IllegalArgumentException();
+        final Object[] items = this.items;
+        final long[] seqs = this.sequences;
+        final int n = capacity;
+        int drained = 0;
+        while (drained < maxElements) {
+            // Count the published slots from head, and claim them at once
+            long p = head;
+            int k = 0, max = Math.min(DRAIN_BATCH, maxElements - drained);
+            while (k < max &&
+                   sequenceAt(seqs, slotOf(p + k)) == 2L * (p + k) + 1L)
+                k++;
+            if (k == 0) {
+                if (sequenceAt(seqs, slotOf(p)) < 2L * p + 1L && head == p)
+                    break; // empty
+                continue;  // raced with another consumer
+            }
+            if (!casHead(p, p + k))
+                continue;
+            int j = 0;
+            Object x = null;
+            try {
+                for (; j < k; j++) {
+                    int i = slotOf(p + j);
+                    if ((x = swapItemAt(items, i)) != null) {
+                        @SuppressWarnings("unchecked") E e = (E) x;
+                        c.add(e);
+                        drained++;
+                        x = null;
+                    }
+                    else
+                        U.getAndAddInt(this, CLEARED, -1);
+                    setSequenceAt(seqs, i, 2L * (p + j + n));
+                }
+            } finally {
+                if (j < k) // c.add threw
+                    unclaim(p, j, k, x);
+                if (putters != 0) {
+                    final ReentrantLock lock = this.lock;
+                    lock.lock();
+                    try {
+                        notFull.signalAll();
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Returns the slots from positions p + j to p + k, claimed by drainTo
+     * but not consumed, to the queue, after putting x back in the first
+     * one.  If other consumers have moved head since, the slots cannot
+     * be given back; they are freed instead, and their elements inserted
+     * again at the tail, if there is room.
+     */
+    private void unclaim(long p, int j, int k, Object x) {
+        final Object[] items = this.items;
+        final long[] seqs = this.sequences;
+        final int n = capacity;
+        if (x != null)
+            U.putObjectVolatile(items, ((long) slotOf(p + j) << ASHIFT) + ABASE, x);
+        if (casHead(p + k, p + j))
+            return;
+        for (; j < k; j++) {
+            int i = slotOf(p + j);
+            Object y = swapItemAt(items, i);
+            setSequenceAt(seqs, i, 2L * (p + j + n));
+            if (y == null)
+                U.getAndAddInt(this, CLEARED, -1);
+            else
+                enqueue(y);
+        }
+    }
+
+    /**
+     * Returns an iterator over the elements in this queue in proper sequence.
+     * The elements will be returned in order from first (head) to last (tail).
+     *
+     * <p>The returned iterator is
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>,
+     * and traverses the elements present when it was created.
+     *
+     * @return an iterator over the elements in this queue in proper sequence
+     */
+    public Iterator<E> iterator() {
+        return new Itr(toArray());
+    }
+
+    /**
+     * Iterator over a snapshot of the queue, removing elements from the
+     * queue by identity.
+     */
+    final class Itr implements Iterator<E> {
+        final Object[] snapshot;
+        int cursor;
+        int lastRet = -1;
+
+        Itr(Object[] snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        public boolean hasNext() {
+            return cursor < snapshot.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (cursor >= snapshot.length)
+                throw new NoSuchElementException();
+            return (E) snapshot[lastRet = cursor++];
+        }
+
+        public void remove() {
+            if (lastRet < 0)
+                throw new IllegalStateException();
+            final Object o = snapshot[lastRet];
+            final Object[] items = ConcurrentArrayBlockingQueue.this.items;
+            lastRet = -1;
+            traverse((i, p, x) -> x == o && clearItemAt(items, i, x));
+        }
+    }
+
+    /**
+     * Returns a {@link Spliterator} over the elements in this queue.
+     *
+     * <p>The returned spliterator is
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     *
+     * <p>The {@code Spliterator} reports {@link Spliterator#CONCURRENT},
+     * {@link Spliterator#ORDERED}, and {@link Spliterator#NONNULL}.
+     *
+     * @implNote
+     * The {@code Spliterator} implements {@code trySplit} to permit limited
+     * parallelism.
+     *
+     * @return a {@code Spliterator} over the elements in this queue
+     */
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator
+            (this, Spliterator.ORDERED | Spliterator.NONNULL |
+             Spliterator.CONCURRENT);
+    }
+
+    /**
+     * Saves this queue to a stream (that is, serializes it).
+     *
+     * @param s the stream
+     * @throws java.io.IOException if an I/O error occurs
+     * @serialData The capacity is emitted (int), followed by all of
+     * its elements (each an {@code Object}) in the proper order,
+     * followed by a null
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws java.io.IOException {
+        s.defaultWriteObject();
+        for (Object x : toArray())
+            s.writeObject(x);
+        s.writeObject(null);
+    }
+
+    /**
+     * Reconstitutes this queue from a stream (that is, deserializes it).
+     * @param s the stream
+     * @throws ClassNotFoundException if the class of a serialized object
+     *         could not be found
+     * @throws java.io.InvalidObjectException if the capacity is not
+     *         positive, or the elements do not fit
+     * @throws java.io.IOException if an I/O error occurs
+     */
+    private void readObject(java.io.ObjectInputStream s)
+        throws java.io.IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        if (capacity <= 0)
+            throw new java.io.InvalidObjectException("Bad capacity");
+        initialize();
+        for (Object x; (x = s.readObject()) != null; ) {
+            if (!enqueue(x))
+                throw new java.io.InvalidObjectException("Too many elements");
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long HEAD;
+    private static final long TAIL;
+    private static final long CLEARED;
+    private static final long ABASE;
+    private static final int ASHIFT;
+    private static final long LBASE;
+    private static final int LSHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = ConcurrentArrayBlockingQueue.class;
+            HEAD = U.objectFieldOffset
+                (k.getDeclaredField("head"));
+            TAIL = U.objectFieldOffset
+                (k.getDeclaredField("tail"));
+            CLEARED = U.objectFieldOffset
+                (k.getDeclaredField("cleared"));
+            ABASE = U.arrayBaseOffset(Object[].class);
+            int scale = U.arrayIndexScale(Object[].class);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+            LBASE = U.arrayBaseOffset(long[].class);
+            scale = U.arrayIndexScale(long[].class);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            LSHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
@@ -0,0 +1,1482 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.concurrent;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A {@link ConcurrentMap} that holds a bounded number, or total weight,
+ * of mappings, evicting those least likely to be used again, and that may
+ * also expire mappings a fixed time after they were written or last read.
+ * Like a {@link ConcurrentHashMap}, on which it is built, it does not
+ * allow {@code null} to be used as a key or value, and reads never block.
+ *
+ * <p>Caches are created by a {@link Builder}, as in
+ * <pre> {@code
+ * ConcurrentBoundedCache<String, Image> images =
+ *     new ConcurrentBoundedCache.Builder<String, Image>()
+ *         .maximumWeight(64 << 20)
+ *         .weigher((name, image) -> image.getSizeInBytes())
+ *         .expireAfterAccess(10, TimeUnit.MINUTES)
+ *         .build();
+ * Image logo = images.computeIfAbsent("logo", this::loadImage);}</pre>
+ *
+ * <p><b>Eviction.</b> Mappings are evicted according to the W-TinyLFU
+ * policy, which combines recency and frequency of use.  New mappings enter
+ * a small window, ordered by recency of use, that takes one percent of the
+ * bound.  Mappings that leave the window are admitted to the main space
+ * only if they have been used more often than the mapping that the main
+ * space would evict for them, as estimated by a compact, aging frequency
+ * sketch of the keys used recently, which covers keys that are not in the
+ * cache.  The main space is a segmented LRU, in which mappings used again
+ * move from a probationary segment to a protected one, holding up to 80
+ * percent of it.  This keeps frequently used mappings through scans of
+ * rarely used ones and adapts to changing patterns, with hit rates that
+ * are usually close to optimal, while costing only a few operations per
+ * access.
+ *
+ * <p><b>Concurrency.</b> The eviction policy is not updated by every
+ * operation.  Reads record the mapping they found in one of several
+ * small, lossy buffers, selected by thread, and writes record their
+ * change in a queue; the policy replays both under a lock, which is
+ * acquired only when it is free, by whichever thread fills a read buffer
+ * or writes.  Reads therefore never block, and writes only contend on
+ * the underlying map.  Some reads may go unrecorded under contention,
+ * which slightly degrades the policy but not the map, and the bound may
+ * be briefly exceeded while other threads write.
+ *
+ * <p><b>Expiration.</b> A mapping that has expired is treated as absent
+ * by all methods, and removed by a later maintenance pass.  Expiration
+ * times are measured with {@link System#nanoTime}, which is not read at
+ * all if no expiration is configured.
+ *
+ * <p><b>Loading.</b> {@link #computeIfAbsent computeIfAbsent} computes a
+ * missing value at most once, blocking other threads that ask for the
+ * same key meanwhile, as in a {@code ConcurrentHashMap}.
+ * {@link #getAsync getAsync} instead returns a {@link CompletableFuture}
+ * of the value, computing it with the cache's executor if it is missing;
+ * concurrent requests for the same key share the same future.
+ *
+ * <p><b>Statistics.</b> Hits, misses, loads and evictions are counted
+ * with {@link LongAdder}s, and reported by {@link #stats}.
+ *
+ * <p>The {@link #size} of the cache may include expired mappings that
+ * have not been removed yet.  The iterators of the views of the cache
+ * are weakly consistent, as for a {@code ConcurrentHashMap}, and skip
+ * expired mappings.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public class ConcurrentBoundedCache<K,V> extends AbstractMap<K,V>
+    implements ConcurrentMap<K,V> {
+
+    /*
+     * Overview:
+     *
+     * The mappings are nodes in a ConcurrentHashMap, which is always
+     * the source of truth: methods of the Map interface operate on it
+     * directly, and then record what they did for the policy.  A node
+     * is alive while it is in the map, and retired when it has been
+     * removed from it, under the node's monitor, which also guards
+     * updates of its value and weight.
+     *
+     * The policy is confined to the holder of evictionLock.  It orders
+     * the nodes in three access-ordered deques, window, probation and
+     * protected, linked through the nodes, plus a write-ordered deque
+     * if entries expire after write, and sums their weights as it last
+     * saw them.  It learns of reads through the read buffers, which are
+     * lossy rings of node references, one per stripe of threads as in
+     * LongAdder; offers that find a ring full or contended are dropped.
+     * It learns of writes through writeBuffer, a queue of tasks that add,
+     * update or remove nodes, which are never dropped.  A node read or
+     * updated before its addition is replayed is not in any deque: the
+     * read is ignored, and the weight difference of the update is kept
+     * in the node's policyWeight, to which the addition adds the initial
+     * weight.  A node removed before its addition is replayed is never
+     * added.
+     *
+     * Maintenance, run by scheduleDrain, replays the buffers, removes
+     * expired nodes from the heads of the deques, and evicts until the
+     * total weight is within the bound.  Each write, and each read that
+     * fills a ring, calls scheduleDrain, which runs maintenance if it
+     * can get the lock without waiting, and repeats while the write
+     * buffer is not empty, so that writes queued by threads that found
+     * the lock held are not left behind when it is released.
+     *
+     * Eviction compares the least recently used node of the window,
+     * when the window is over its share of the bound, against the least
+     * recently used node of probation (or else of protected), evicting
+     * whichever the sketch estimates to be less frequently used; the
+     * window's node wins ties only if it is strictly more frequent, so
+     * that a stream of one-time keys does not flush the main space.
+     *
+     * The frequency sketch is a count-min sketch with four 4-bit
+     * counters per key, packed sixteen to a long, halved when the
+     * number of increments reaches ten times its number of counters,
+     * so that old popularity fades.  It starts at the initial capacity,
+     * and maintenance grows it with the number of mappings, up to the
+     * bound; the sketch of an unbounded cache, which never evicts, is
+     * not grown.
+     */
+
+    /** The number of CPUs, for sizing the read buffers */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** The maximum number of read buffers */
+    static final int MAX_READ_BUFFERS = 4 * Integer.highestOneBit(NCPU * 2 - 1);
+
+    /** The percentage of the bound given to the window */
+    static final int WINDOW_PERCENT = 1;
+
+    /** The percentage of the main space given to the protected segment */
+    static final int PROTECTED_PERCENT = 80;
+
+    // Queue codes of nodes
+    static final byte NONE = 0, WINDOW = 1, PROBATION = 2, PROTECTED = 3;
+
+    /** The mappings */
+    final ConcurrentHashMap<K,Node<K,V>> data;
+
+    final long maximum;
+    final ToIntBiFunction<? super K, ? super V> weigher;
+    final long expireAfterWriteNanos;   // 0 if none
+    final long expireAfterAccessNanos;  // 0 if none
+    final Executor executor;
+
+    final ReentrantLock evictionLock = new ReentrantLock();
+    final ReadBuffer[] readBuffers;
+    final ConcurrentLinkedQueue<Runnable> writeBuffer =
+        new ConcurrentLinkedQueue<Runnable>();
+
+    /** The values being computed by getAsync */
+    final ConcurrentHashMap<K,CompletableFuture<V>> loads =
+        new ConcurrentHashMap<K,CompletableFuture<V>>();
+
+    // Statistics
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder loadSuccesses = new LongAdder();
+    final LongAdder loadFailures = new LongAdder();
+    final LongAdder loadNanos = new LongAdder();
+    final LongAdder evictions = new LongAdder();
+
+    // Policy state, guarded by evictionLock
+    final AccessOrderDeque<K,V> window = new AccessOrderDeque<K,V>();
+    final AccessOrderDeque<K,V> probation = new AccessOrderDeque<K,V>();
+    final AccessOrderDeque<K,V> protectedSegment = new AccessOrderDeque<K,V>();
+    final WriteOrderDeque<K,V> writeOrder = new WriteOrderDeque<K,V>();
+    final FrequencySketch sketch;
+    final long windowMaximum, protectedMaximum;
+    long weightedSize, windowWeight, protectedWeight;
+
+    /**
+     * Creates a cache holding up to the given number of mappings, with no
+     * expiration.
+     *
+     * @param maximumSize the maximum number of mappings
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     */
+    public ConcurrentBoundedCache(long maximumSize) {
+        this(new Builder<K,V>().maximumSize(maximumSize));
+    }
+
+    ConcurrentBoundedCache(Builder<K,V> builder) {
+        this.maximum = builder.maximum;
+        this.weigher = builder.weigher;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.expireAfterAccessNanos = builder.expireAfterAccessNanos;
+        this.executor = (builder.executor != null) ?
+            builder.executor : ForkJoinPool.commonPool();
+        this.data = new ConcurrentHashMap<K,Node<K,V>>(builder.initialCapacity);
+        this.windowMaximum = Math.max(1L, maximum / 100 * WINDOW_PERCENT);
+        this.protectedMaximum =
+            (maximum - windowMaximum) / 100 * PROTECTED_PERCENT;
+        this.sketch = new FrequencySketch(
+            Math.min(maximum, builder.initialCapacity));
+        ReadBuffer[] rbs = new ReadBuffer[MAX_READ_BUFFERS];
+        for (int i = 0; i < rbs.length; i++)
+            rbs[i] = new ReadBuffer();
+        this.readBuffers = rbs;
+    }
+
+    /**
+     * A builder of {@link ConcurrentBoundedCache} instances.  By default,
+     * a cache is unbounded, does not expire mappings, and computes values
+     * for {@code getAsync} in the {@link ForkJoinPool#commonPool()}.
+     *
+     * @param <K> the type of keys of the caches
+     * @param <V> the type of values of the caches
+     */
+    public static final class Builder<K,V> {
+        long maximum = Long.MAX_VALUE;
+        ToIntBiFunction<? super K, ? super V> weigher;
+        long expireAfterWriteNanos, expireAfterAccessNanos;
+        Executor executor;
+        int initialCapacity = 16;
+
+        /**
+         * Creates a builder with the default settings.
+         */
+        public Builder() {}
+
+        /**
+         * Sets the maximum number of mappings of the caches.
+         *
+         * @param maximumSize the maximum number of mappings
+         * @return this builder
+         * @throws IllegalArgumentException if {@code maximumSize} is negative
+         */
+        public Builder<K,V> maximumSize(long maximumSize) {
+            if (maximumSize < 0)
+                throw new IllegalArgumentException();
+            this.maximum = maximumSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum total weight of the mappings of the caches, as
+         * given by the {@linkplain #weigher weigher}.
+         *
+         * @param maximumWeight the maximum total weight
+         * @return this builder
+         * @throws IllegalArgumentException if {@code maximumWeight} is
+         *         negative
+         */
+        public Builder<K,V> maximumWeight(long maximumWeight) {
+            if (maximumWeight < 0)
+                throw new IllegalArgumentException();
+            this.maximum = maximumWeight;
+            return this;
+        }
+
+        /**
+         * Sets the function giving the weight of each mapping, which is
+         * computed when the mapping is written, and must not be negative.
+         * Without a weigher, each mapping weighs one.
+         *
+         * @param weigher the weigher
+         * @return this builder
+         * @throws NullPointerException if {@code weigher} is null
+         */
+        public Builder<K,V> weigher(ToIntBiFunction<? super K, ? super V> weigher) {
+            this.weigher = Objects.requireNonNull(weigher);
+            return this;
+        }
+
+        /**
+         * Sets the time after which a mapping expires once its value was
+         * last written.
+         *
+         * @param duration the time, or zero for no expiration
+         * @param unit the time unit of {@code duration}
+         * @return this builder
+         * @throws IllegalArgumentException if {@code duration} is negative
+         */
+        public Builder<K,V> expireAfterWrite(long duration, TimeUnit unit) {
+            if (duration < 0)
+                throw new IllegalArgumentException();
+            this.expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Sets the time after which a mapping expires once it was last
+         * read or written.
+         *
+         * @param duration the time, or zero for no expiration
+         * @param unit the time unit of {@code duration}
+         * @return this builder
+         * @throws IllegalArgumentException if {@code duration} is negative
+         */
+        public Builder<K,V> expireAfterAccess(long duration, TimeUnit unit) {
+            if (duration < 0)
+                throw new IllegalArgumentException();
+            this.expireAfterAccessNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Sets the executor that computes the values requested by
+         * {@link ConcurrentBoundedCache#getAsync getAsync}.
+         *
+         * @param executor the executor
+         * @return this builder
+         * @throws NullPointerException if {@code executor} is null
+         */
+        public Builder<K,V> executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        /**
+         * Sets the initial capacity of the underlying map.
+         *
+         * @param initialCapacity the initial capacity
+         * @return this builder
+         * @throws IllegalArgumentException if {@code initialCapacity} is
+         *         negative
+         */
+        public Builder<K,V> initialCapacity(int initialCapacity) {
+            if (initialCapacity < 0)
+                throw new IllegalArgumentException();
+            this.initialCapacity = initialCapacity;
+            return this;
+        }
+
+        /**
+         * Returns a new cache with the settings of this builder.
+         *
+         * @return a new cache
+         */
+        public ConcurrentBoundedCache<K,V> build() {
+            return new ConcurrentBoundedCache<K,V>(this);
+        }
+    }
+
+    /* ---------------- Nodes and deques -------------- */
+
+    static final class Node<K,V> {
+        final K key;
+        volatile V value;
+        volatile long writeTime;
+        volatile long accessTime;
+        int weight;                  // guarded by this
+        boolean retired;             // guarded by this
+        // Guarded by evictionLock
+        int policyWeight;
+        byte queue;
+        Node<K,V> prevInAccess, nextInAccess, prevInWrite, nextInWrite;
+
+        Node(K key, V value, int weight, long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = this.accessTime = now;
+        }
+
+        synchronized boolean isAlive() {
+            return !retired;
+        }
+
+        /** Marks this node as removed from the map */
+        synchronized void retire() {
+            retired = true;
+        }
+    }
+
+    /** A deque of nodes linked through their access order links */
+    static final class AccessOrderDeque<K,V> {
+        Node<K,V> first, last;
+
+        Node<K,V> peekFirst() {
+            return first;
+        }
+
+        void linkLast(Node<K,V> n) {
+            Node<K,V> l = last;
+            n.prevInAccess = l;
+            n.nextInAccess = null;
+            last = n;
+            if (l == null)
+                first = n;
+            else
+                l.nextInAccess = n;
+        }
+
+        void unlink(Node<K,V> n) {
+            Node<K,V> p = n.prevInAccess, s = n.nextInAccess;
+            if (p == null)
+                first = s;
+            else
+                p.nextInAccess = s;
+            if (s == null)
+                last = p;
+            else
+                s.prevInAccess = p;
+            n.prevInAccess = n.nextInAccess = null;
+        }
+
+        void moveToBack(Node<K,V> n) {
+            if (n != last) {
+                unlink(n);
+                linkLast(n);
+            }
+        }
+    }
+
+    /** A deque of nodes linked through their write order links */
+    static final class WriteOrderDeque<K,V> {
+        Node<K,V> first, last;
+
+        Node<K,V> peekFirst() {
+            return first;
+        }
+
+        void linkLast(Node<K,V> n) {
+            Node<K,V> l = last;
+            n.prevInWrite = l;
+            n.nextInWrite = null;
+            last = n;
+            if (l == null)
+                first = n;
+            else
+                l.nextInWrite = n;
+        }
+
+        void unlink(Node<K,V> n) {
+            Node<K,V> p = n.prevInWrite, s = n.nextInWrite;
+            if (p == null)
+                first = s;
+            else
+                p.nextInWrite = s;
+            if (s == null)
+                last = p;
+            else
+                s.prevInWrite = p;
+            n.prevInWrite = n.nextInWrite = null;
+        }
+
+        void moveToBack(Node<K,V> n) {
+            if (n != last) {
+                unlink(n);
+                linkLast(n);
+            }
+        }
+    }
+
+    /* ---------------- Read buffers -------------- */
+
+    /**
+     * A lossy ring of nodes read by a stripe of threads, drained under
+     * evictionLock.
+     */
+    static final class ReadBuffer {
+        static final int SIZE = 16;
+        static final int MASK = SIZE - 1;
+        final AtomicReferenceArray<Node<?,?>> ring =
+            new AtomicReferenceArray<Node<?,?>>(SIZE);
+        final AtomicLong writeCounter = new AtomicLong();
+        volatile long readCounter;  // written only under evictionLock
+
+        /**
+         * Records a read, unless the ring is full or contended; returns
+         * true if the ring is full.
+         */
+        boolean offer(Node<?,?> n) {
+            long head = readCounter, tail = writeCounter.get();
+            if (tail - head >= SIZE)
+                return true;
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                ring.lazySet((int) tail & MASK, n);
+                return tail + 1 - head >= SIZE;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Returns the read buffer of the current thread.
+     */
+    final ReadBuffer readBuffer() {
+        int h;
+        if ((h = ThreadLocalRandom.getProbe()) == 0) {
+            ThreadLocalRandom.localInit();
+            h = ThreadLocalRandom.getProbe();
+        }
+        return readBuffers[h & (readBuffers.length - 1)];
+    }
+
+    /* ---------------- Frequency sketch -------------- */
+
+    /**
+     * A count-min sketch of the popularity of keys, with 4-bit counters
+     * that are periodically halved.
+     */
+    static final class FrequencySketch {
+        static final long[] SEED = { // A mixture of seeds from FNV-1a, CityHash, and Murmur3
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+        static final long RESET_MASK = 0x7777777777777777L;
+        static final int MAX_TABLE = 1 << 24;
+
+        long[] table;
+        int tableMask;
+        int sampleSize;
+        int size;
+
+        FrequencySketch(long expectedSize) {
+            int n = tableSizeFor(expectedSize);
+            table = new long[n];
+            tableMask = n - 1;
+            sampleSize = 10 * n;
+        }
+
+        static int tableSizeFor(long expectedSize) {
+            int n = (int) Math.min(Math.max(expectedSize, 16L), MAX_TABLE);
+            return Integer.highestOneBit(n - 1) << 1;
+        }
+
+        /**
+         * Grows the table for the given number of keys, if it is too
+         * small, forgetting all counts.
+         */
+        void ensureCapacity(long expectedSize) {
+            int n = tableSizeFor(expectedSize);
+            if (n <= table.length)
+                return;
+            table = new long[n];
+            tableMask = n - 1;
+            sampleSize = 10 * n;
+            size = 0;
+        }
+
+        static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+
+        int indexOf(int item, int i) {
+            long hash = (item + SEED[i]) * SEED[i];
+            hash += (hash >>> 32);
+            return ((int) hash) & tableMask;
+        }
+
+        /** Returns the estimated number of occurrences of e, up to 15 */
+        int frequency(Object e) {
+            int hash = spread(e.hashCode());
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        /** Increments the popularity of e, aging all counts periodically */
+        void increment(Object e) {
+            int hash = spread(e.hashCode());
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int offset = (start + i) << 2;
+                long mask = 0xfL << offset;
+                if ((table[index] & mask) != mask) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++size == sampleSize) {
+                for (int i = 0; i < table.length; i++)
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                size >>>= 1;
+            }
+        }
+    }
+
+    /* ---------------- Recording and maintenance -------------- */
+
+    final int weigh(K key, V value) {
+        if (weigher == null)
+            return 1;
+        int w = weigher.applyAsInt(key, value);
+        if (w < 0)
+            throw new IllegalArgumentException("negative weight");
+        return w;
+    }
+
+    final boolean expires() {
+        return (expireAfterWriteNanos | expireAfterAccessNanos) != 0L;
+    }
+
+    final long now() {
+        return expires() ? System.nanoTime() : 0L;
+    }
+
+    final boolean hasExpired(Node<K,V> n, long now) {
+        return (expireAfterWriteNanos != 0L &&
+                now - n.writeTime >= expireAfterWriteNanos) ||
+            (expireAfterAccessNanos != 0L &&
+             now - n.accessTime >= expireAfterAccessNanos);
+    }
+
+    /**
+     * Records a hit on node n.
+     */
+    final void afterRead(Node<K,V> n, long now) {
+        if (expireAfterAccessNanos != 0L)
+            n.accessTime = now;
+        hits.increment();
+        if (readBuffer().offer(n))
+            scheduleDrain();
+    }
+
+    /**
+     * Queues a change for the policy, and tries to apply it.
+     */
+    final void afterWrite(Runnable task) {
+        writeBuffer.add(task);
+        scheduleDrain();
+    }
+
+    /**
+     * Runs maintenance if evictionLock is free, repeating while writes
+     * were queued meanwhile.
+     */
+    final void scheduleDrain() {
+        final ReentrantLock lock = evictionLock;
+        do {
+            if (!lock.tryLock())
+                return;
+            try {
+                maintenance();
+            } finally {
+                lock.unlock();
+            }
+        } while (!writeBuffer.isEmpty());
+    }
+
+    /**
+     * Performs any pending maintenance: replays the reads and writes,
+     * removes expired mappings, and evicts down to the bound.  This is
+     * done as a side effect of other operations, so calling this method
+     * is only useful to release the mappings of an idle cache.
+     */
+    public void cleanUp() {
+        final ReentrantLock lock = evictionLock;
+        lock.lock();
+        try {
+            maintenance();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Runs under evictionLock */
+    final void maintenance() {
+        drainReadBuffers();
+        Runnable task;
+        while ((task = writeBuffer.poll()) != null)
+            task.run();
+        if (maximum != Long.MAX_VALUE) {
+            long expected = (weigher == null) ?
+                weightedSize : data.mappingCount();
+            sketch.ensureCapacity(Math.min(expected, maximum));
+        }
+        if (expires())
+            expireEntries(System.nanoTime());
+        evictEntries();
+    }
+
+    @SuppressWarnings("unchecked")
+    final void drainReadBuffers() {
+        for (ReadBuffer rb : readBuffers) {
+            long head = rb.readCounter, tail = rb.writeCounter.get();
+            AtomicReferenceArray<Node<?,?>> ring = rb.ring;
+            for (; head != tail; head++) {
+                int i = (int) head & ReadBuffer.MASK;
+                Node<?,?> n = ring.get(i);
+                if (n == null)
+                    break;  // not yet published
+                ring.lazySet(i, null);
+                onAccess((Node<K,V>) n);
+            }
+            rb.readCounter = head;
+        }
+    }
+
+    /** Runs under evictionLock: applies a read or update of n */
+    final void onAccess(Node<K,V> n) {
+        byte q = n.queue;
+        if (q == NONE)
+            return;
+        sketch.increment(n.key);
+        if (q == WINDOW)
+            window.moveToBack(n);
+        else if (q == PROBATION) {
+            probation.unlink(n);
+            n.queue = PROTECTED;
+            protectedSegment.linkLast(n);
+            protectedWeight += n.policyWeight;
+            // Demote the least recently used of protected while it is full
+            Node<K,V> d;
+            while (protectedWeight > protectedMaximum &&
+                   (d = protectedSegment.peekFirst()) != null && d != n) {
+                protectedSegment.unlink(d);
+                protectedWeight -= d.policyWeight;
+                d.queue = PROBATION;
+                probation.linkLast(d);
+            }
+        }
+        else
+            protectedSegment.moveToBack(n);
+    }
+
+    final class AddTask implements Runnable {
+        final Node<K,V> node;
+        final int weight;
+        AddTask(Node<K,V> node, int weight) {
+            this.node = node;
+            this.weight = weight;
+        }
+        public void run() {
+            Node<K,V> n = node;
+            if (!n.isAlive())
+                return;
+            // plus the differences of updates replayed before this task
+            int w = n.policyWeight += weight;
+            weightedSize += w;
+            windowWeight += w;
+            n.queue = WINDOW;
+            window.linkLast(n);
+            if (expireAfterWriteNanos != 0L)
+                writeOrder.linkLast(n);
+            sketch.increment(n.key);
+        }
+    }
+
+    final class UpdateTask implements Runnable {
+        final Node<K,V> node;
+        final int weightDifference;
+        UpdateTask(Node<K,V> node, int weightDifference) {
+            this.node = node;
+            this.weightDifference = weightDifference;
+        }
+        public void run() {
+            Node<K,V> n = node;
+            int d = weightDifference;
+            n.policyWeight += d;
+            byte q = n.queue;
+            if (q == NONE)
+                return;  // not added yet, or already removed
+            weightedSize += d;
+            if (q == WINDOW)
+                windowWeight += d;
+            else if (q == PROTECTED)
+                protectedWeight += d;
+            if (expireAfterWriteNanos != 0L)
+                writeOrder.moveToBack(n);
+            onAccess(n);
+        }
+    }
+
+    final class RemovalTask implements Runnable {
+        final Node<K,V> node;
+        RemovalTask(Node<K,V> node) {
+            this.node = node;
+        }
+        public void run() {
+            unlink(node);
+        }
+    }
+
+    /** Runs under evictionLock: removes n from the policy */
+    final void unlink(Node<K,V> n) {
+        byte q = n.queue;
+        if (q == NONE)
+            return;
+        int w = n.policyWeight;
+        if (q == WINDOW) {
+            window.unlink(n);
+            windowWeight -= w;
+        } else if (q == PROBATION) {
+            probation.unlink(n);
+        } else {
+            protectedSegment.unlink(n);
+            protectedWeight -= w;
+        }
+        if (expireAfterWriteNanos != 0L)
+            writeOrder.unlink(n);
+        weightedSize -= w;
+        n.queue = NONE;
+    }
+
+    /**
+     * Runs under evictionLock: removes n from the map, if it is still
+     * there, and from the policy.
+     */
+    final void evict(Node<K,V> n) {
+        if (data.remove(n.key, n))
+            n.retire();
+        unlink(n);
+    }
+
+    /** Runs under evictionLock */
+    final void expireEntries(long now) {
+        if (expireAfterAccessNanos != 0L) {
+            expireEntries(window, now);
+            expireEntries(probation, now);
+            expireEntries(protectedSegment, now);
+        }
+        if (expireAfterWriteNanos != 0L) {
+            Node<K,V> n;
+            while ((n = writeOrder.peekFirst()) != null && hasExpired(n, now))
+                evict(n);
+        }
+    }
+
+    private void expireEntries(AccessOrderDeque<K,V> q, long now) {
+        Node<K,V> n;
+        while ((n = q.peekFirst()) != null && hasExpired(n, now))
+            evict(n);
+    }
+
+    /** Runs under evictionLock */
+    final void evictEntries() {
+        while (weightedSize > maximum) {
+            Node<K,V> candidate = (windowWeight > windowMaximum) ?
+                window.peekFirst() : null;
+            Node<K,V> victim = probation.peekFirst();
+            if (victim == null && (victim = protectedSegment.peekFirst()) == null)
+                victim = window.peekFirst();
+            if (victim == null)
+                break;
+            Node<K,V> evicted;
+            if (candidate == null || candidate == victim)
+                evicted = victim;
+            else if (sketch.frequency(candidate.key) >
+                     sketch.frequency(victim.key)) {
+                evicted = victim;
+                window.unlink(candidate);
+                windowWeight -= candidate.policyWeight;
+                candidate.queue = PROBATION;
+                probation.linkLast(candidate);
+            } else
+                evicted = candidate;
+            evict(evicted);
+            evictions.increment();
+        }
+        // Move what overflows the window to probation
+        Node<K,V> n;
+        while (windowWeight > windowMaximum && (n = window.peekFirst()) != null) {
+            window.unlink(n);
+            windowWeight -= n.policyWeight;
+            n.queue = PROBATION;
+            probation.linkLast(n);
+        }
+    }
+
+    /* ---------------- Map operations -------------- */
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this cache contains no unexpired mapping for it.
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public V get(Object key) {
+        Node<K,V> n = data.get(key);
+        long now;
+        if (n == null || hasExpired(n, now = now())) {
+            misses.increment();
+            return null;
+        }
+        V v = n.value;
+        afterRead(n, now);
+        return v;
+    }
+
+    /**
+     * Returns {@code true} if this cache contains an unexpired mapping
+     * for the specified key.  This does not count as a use of the mapping.
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(Object key) {
+        Node<K,V> n = data.get(key);
+        return n != null && !hasExpired(n, now());
+    }
+
+    /**
+     * Returns {@code true} if this cache maps one or more keys to the
+     * specified value, without expiring.  This method requires a full
+     * traversal of the map.
+     *
+     * @throws NullPointerException if the specified value is null
+     */
+    public boolean containsValue(Object value) {
+        Objects.requireNonNull(value);
+        long now = now();
+        for (Node<K,V> n : data.values()) {
+            if (value.equals(n.value) && !hasExpired(n, now))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Maps the specified key to the specified value in this cache, which
+     * may evict other mappings.
+     *
+     * @return the previous unexpired value associated with {@code key},
+     *         or {@code null} if there was none
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the weight of the mapping is
+     *         negative
+     */
+    public V put(K key, V value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous unexpired value associated with {@code key},
+     *         or {@code null} if there was none
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the weight of the mapping is
+     *         negative
+     */
+    public V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    final V put(K key, V value, boolean onlyIfAbsent) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        int weight = weigh(key, value);
+        long now = now();
+        for (;;) {
+            Node<K,V> prior = data.get(key);
+            if (prior == null) {
+                Node<K,V> node = new Node<K,V>(key, value, weight, now);
+                if ((prior = data.putIfAbsent(key, node)) == null) {
+                    afterWrite(new AddTask(node, weight));
+                    return null;
+                }
+            }
+            if (hasExpired(prior, now)) {
+                if (data.remove(key, prior)) {
+                    prior.retire();
+                    afterWrite(new RemovalTask(prior));
+                }
+                continue;
+            }
+            if (onlyIfAbsent) {
+                V v = prior.value;
+                afterRead(prior, now);
+                return v;
+            }
+            V oldValue;
+            int oldWeight;
+            synchronized (prior) {
+                if (prior.retired)
+                    continue;
+                oldValue = prior.value;
+                oldWeight = prior.weight;
+                prior.value = value;
+                prior.weight = weight;
+                prior.writeTime = prior.accessTime = now;
+            }
+            afterWrite(new UpdateTask(prior, weight - oldWeight));
+            return oldValue;
+        }
+    }
+
+    /**
+     * Removes the mapping for a key from this cache if it is present.
+     *
+     * @return the previous unexpired value associated with {@code key},
+     *         or {@code null} if there was none
+     * @throws NullPointerException if the specified key is null
+     */
+    public V remove(Object key) {
+        Node<K,V> n = data.remove(key);
+        if (n == null)
+            return null;
+        V v;
+        synchronized (n) {
+            v = n.value;
+            n.retired = true;
+        }
+        afterWrite(new RemovalTask(n));
+        return hasExpired(n, now()) ? null : v;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean remove(Object key, Object value) {
+        Objects.requireNonNull(key);
+        if (value == null)
+            return false;
+        Node<K,V> n = data.get(key);
+        if (n == null || !value.equals(n.value) || hasExpired(n, now()))
+            return false;
+        // Remove the node only if its value is unchanged
+        boolean[] removed = new boolean[1];
+        data.computeIfPresent(n.key, (k, x) -> {
+            if (x == n) {
+                synchronized (n) {
+                    if (value.equals(n.value)) {
+                        n.retired = true;
+                        removed[0] = true;
+                        return null;
+                    }
+                }
+            }
+            return x;
+        });
+        if (removed[0])
+            afterWrite(new RemovalTask(n));
+        return removed[0];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous unexpired value associated with {@code key},
+     *         or {@code null} if there was none
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the weight of the mapping is
+     *         negative
+     */
+    public V replace(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        int weight = weigh(key, value);
+        long now = now();
+        Node<K,V> n = data.get(key);
+        if (n == null || hasExpired(n, now))
+            return null;
+        V oldValue;
+        int oldWeight;
+        synchronized (n) {
+            if (n.retired)
+                return null;
+            oldValue = n.value;
+            oldWeight = n.weight;
+            n.value = value;
+            n.weight = weight;
+            n.writeTime = n.accessTime = now;
+        }
+        afterWrite(new UpdateTask(n, weight - oldWeight));
+        return oldValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if any of the arguments are null
+     * @throws IllegalArgumentException if the weight of the mapping is
+     *         negative
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+        int weight = weigh(key, newValue);
+        long now = now();
+        Node<K,V> n = data.get(key);
+        if (n == null || hasExpired(n, now))
+            return false;
+        int oldWeight;
+        synchronized (n) {
+            if (n.retired || !oldValue.equals(n.value))
+                return false;
+            oldWeight = n.weight;
+            n.value = newValue;
+            n.weight = weight;
+            n.writeTime = n.accessTime = now;
+        }
+        afterWrite(new UpdateTask(n, weight - oldWeight));
+        return true;
+    }
+
+    /**
+     * If the specified key is not associated with an unexpired value,
+     * attempts to compute its value using the given mapping function and
+     * enters it into this cache unless {@code null}.  The entire method
+     * invocation is performed atomically, so the function is applied at
+     * most once per key.  Some attempted update operations on this cache
+     * by other threads may be blocked while computation is in progress,
+     * so the computation should be short and simple, and must not
+     * attempt to update any other mappings of this cache.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws NullPointerException if the specified key or mappingFunction
+     *         is null
+     * @throws IllegalStateException if the computation detectably
+     *         attempts a recursive update to this cache that would
+     *         otherwise never complete
+     * @throws RuntimeException or Error if the mappingFunction does so,
+     *         in which case the mapping is left unestablished
+     */
+    public V computeIfAbsent(K key,
+                             Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(mappingFunction);
+        long now = now();
+        Node<K,V> n = data.get(key);
+        if (n != null && !hasExpired(n, now)) {
+            V v = n.value;
+            afterRead(n, now);
+            return v;
+        }
+        @SuppressWarnings("unchecked")
+        Node<K,V>[] changed = (Node<K,V>[]) new Node<?,?>[2]; // removed, added
+        Node<K,V> result = data.compute(key, (k, prior) -> {
+            if (prior != null && !hasExpired(prior, now))
+                return prior;
+            V v = load(k, mappingFunction);
+            // weigh first, so that prior stays alive if the weigher throws
+            Node<K,V> node = (v == null) ? null :
+                new Node<K,V>(k, v, weigh(k, v), now);
+            if (prior != null) {
+                prior.retire();
+                changed[0] = prior;
+            }
+            return changed[1] = node;
+        });
+        if (changed[0] != null)
+            afterWrite(new RemovalTask(changed[0]));
+        if (changed[1] != null)
+            afterWrite(new AddTask(changed[1], changed[1].weight));
+        else if (result != null) {
+            V v = result.value;
+            afterRead(result, now);
+            return v;
+        }
+        return (result == null) ? null : result.value;
+    }
+
+    /**
+     * Applies the mapping function, recording statistics.
+     */
+    final V load(K key, Function<? super K, ? extends V> mappingFunction) {
+        misses.increment();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            V v = mappingFunction.apply(key);
+            success = (v != null);
+            return v;
+        } finally {
+            loadNanos.add(System.nanoTime() - start);
+            (success ? loadSuccesses : loadFailures).increment();
+        }
+    }
+
+    /**
+     * Returns a future of the value of the specified key.  If this cache
+     * contains an unexpired mapping for the key, the future is already
+     * completed with its value.  Otherwise, unless the value is already
+     * being computed by a previous call, the given mapping function is
+     * applied to the key in the cache's executor, and the value, unless
+     * {@code null}, is entered into the cache before the future is
+     * completed with it.  If the function throws an exception, or the
+     * executor rejects it, the future is completed exceptionally with
+     * that exception.
+     *
+     * @param key key with which the value is associated
+     * @param mappingFunction the function to compute a value
+     * @return a future of the current or computed value associated with
+     *         the specified key, or of null if the computed value is null
+     * @throws NullPointerException if the specified key or mappingFunction
+     *         is null
+     */
+    public CompletableFuture<V> getAsync(K key,
+                                         Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        V v = get(key);
+        if (v != null)
+            return CompletableFuture.completedFuture(v);
+        CompletableFuture<V> f = new CompletableFuture<V>(), prior;
+        if ((prior = loads.putIfAbsent(key, f)) != null)
+            return prior;
+        // Recheck now that loads of this key go through f
+        if ((v = get(key)) != null) {
+            loads.remove(key, f);
+            f.complete(v);
+            return f;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    V value = load(key, mappingFunction);
+                    if (value != null)
+                        put(key, value);
+                    loads.remove(key, f);
+                    f.complete(value);
+                } catch (Throwable ex) {
+                    loads.remove(key, f);
+                    f.completeExceptionally(ex);
+                }
+            });
+        } catch (Throwable ex) {
+            loads.remove(key, f);
+            f.completeExceptionally(ex);
+        }
+        return f;
+    }
+
+    /**
+     * Returns the number of mappings in this cache, which may include
+     * expired mappings that have not yet been removed.
+     *
+     * @return the number of mappings in this cache
+     */
+    public int size() {
+        return data.size();
+    }
+
+    public boolean isEmpty() {
+        return data.isEmpty();
+    }
+
+    /**
+     * Removes all of the mappings from this cache.
+     */
+    public void clear() {
+        for (K key : data.keySet())
+            remove(key);
+    }
+
+    /**
+     * Returns the maximum number of mappings, or total weight of the
+     * mappings, of this cache.
+     *
+     * @return the bound of this cache
+     */
+    public long maximum() {
+        return maximum;
+    }
+
+    /**
+     * Returns the total weight of the mappings in this cache, as of the
+     * last maintenance, which counts each mapping as one if the cache has
+     * no weigher.
+     *
+     * @return the total weight of the mappings
+     */
+    public long weightedSize() {
+        final ReentrantLock lock = evictionLock;
+        lock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this cache.
+     *
+     * @return a snapshot of the statistics of this cache
+     */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), loadSuccesses.sum(),
+                         loadFailures.sum(), loadNanos.sum(), evictions.sum());
+    }
+
+    /**
+     * Statistics of a {@link ConcurrentBoundedCache}, as counted since
+     * it was created.  A lookup is a hit if it finds an unexpired mapping,
+     * and a miss otherwise; a load is an application of a mapping
+     * function, which succeeds if it returns a non-null value.
+     */
+    public static final class Stats {
+        private final long hitCount, missCount, loadSuccessCount,
+            loadFailureCount, totalLoadTime, evictionCount;
+
+        Stats(long hitCount, long missCount, long loadSuccessCount,
+              long loadFailureCount, long totalLoadTime, long evictionCount) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.loadSuccessCount = loadSuccessCount;
+            this.loadFailureCount = loadFailureCount;
+            this.totalLoadTime = totalLoadTime;
+            this.evictionCount = evictionCount;
+        }
+
+        /** @return the number of lookups that found a mapping */
+        public long hitCount() { return hitCount; }
+
+        /** @return the number of lookups that found no mapping */
+        public long missCount() { return missCount; }
+
+        /** @return the number of loads that returned a value */
+        public long loadSuccessCount() { return loadSuccessCount; }
+
+        /** @return the number of loads that returned null or threw */
+        public long loadFailureCount() { return loadFailureCount; }
+
+        /** @return the total time spent loading, in nanoseconds */
+        public long totalLoadTime() { return totalLoadTime; }
+
+        /** @return the number of mappings evicted to keep within the bound */
+        public long evictionCount() { return evictionCount; }
+
+        /**
+         * @return the ratio of hits to lookups, or 1.0 if there were no
+         *         lookups
+         */
+        public double hitRate() {
+            long requests = hitCount + missCount;
+            return (requests == 0) ? 1.0 : (double) hitCount / requests;
+        }
+
+        public String toString() {
+            return "Stats[hitCount=" + hitCount + ", missCount=" + missCount +
+                ", loadSuccessCount=" + loadSuccessCount +
+                ", loadFailureCount=" + loadFailureCount +
+                ", totalLoadTime=" + totalLoadTime +
+                ", evictionCount=" + evictionCount + "]";
+        }
+    }
+
+    /* ---------------- Views -------------- */
+
+    private transient EntrySetView entrySet;
+
+    /**
+     * Returns a {@link Set} view of the unexpired mappings contained in
+     * this cache.  The set is backed by the cache, so changes to the
+     * cache are reflected in the set, and vice-versa.  The set supports
+     * element removal, and the {@code setValue} method of its entries
+     * writes through to the cache, but it does not support the
+     * {@code add} or {@code addAll} operations.  Iterating over the set
+     * does not count as using its mappings.
+     *
+     * @return the set view
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        EntrySetView es = entrySet;
+        return (es != null) ? es : (entrySet = new EntrySetView());
+    }
+
+    final class EntrySetView extends AbstractSet<Map.Entry<K,V>> {
+        public Iterator<Map.Entry<K,V>> iterator() {
+            return new EntryIterator();
+        }
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+            Object k = e.getKey(), v = e.getValue();
+            Node<K,V> n;
+            return k != null && v != null && (n = data.get(k)) != null &&
+                v.equals(n.value) && !hasExpired(n, now());
+        }
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+            Object k = e.getKey(), v = e.getValue();
+            return k != null && ConcurrentBoundedCache.this.remove(k, v);
+        }
+        public int size() {
+            return ConcurrentBoundedCache.this.size();
+        }
+        public boolean isEmpty() {
+            return ConcurrentBoundedCache.this.isEmpty();
+        }
+        public void clear() {
+            ConcurrentBoundedCache.this.clear();
+        }
+    }
+
+    final class EntryIterator implements Iterator<Map.Entry<K,V>> {
+        final Iterator<Node<K,V>> it = data.values().iterator();
+        final long now = now();
+        Map.Entry<K,V> next, lastReturned;
+
+        EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (it.hasNext()) {
+                Node<K,V> n = it.next();
+                V v = n.value;
+                if (!hasExpired(n, now)) {
+                    next = new WriteThroughEntry(n.key, v);
+                    return;
+                }
+            }
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public Map.Entry<K,V> next() {
+            Map.Entry<K,V> e = next;
+            if (e == null)
+                throw new NoSuchElementException();
+            lastReturned = e;
+            advance();
+            return e;
+        }
+
+        public void remove() {
+            Map.Entry<K,V> e = lastReturned;
+            if (e == null)
+                throw new IllegalStateException();
+            lastReturned = null;
+            ConcurrentBoundedCache.this.remove(e.getKey());
+        }
+    }
+
+    /**
+     * An entry whose setValue writes through to the cache.
+     */
+    final class WriteThroughEntry extends AbstractMap.SimpleEntry<K,V> {
+        private static final long serialVersionUID = -4069367582862418613L;
+
+        WriteThroughEntry(K key, V value) {
+            super(key, value);
+        }
+
+        public V setValue(V value) {
+            Objects.requireNonNull(value);
+            V v = super.setValue(value);
+            ConcurrentBoundedCache.this.put(getKey(), value);
+            return v;
+        }
+    }
+}
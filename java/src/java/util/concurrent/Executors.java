@@ -353,6 +353,19 @@ public class Executors {
         return new DefaultThreadFactory();
     }
 
+    /**
+     * Returns a thread factory that creates {@link
+     * IndexedThreadLocalThread}s, so that {@link IndexedThreadLocal}
+     * values are looked up by index in the threads it creates.  Other
+     * than the class of its threads, this factory is the same as
+     * {@link Executors#defaultThreadFactory}.
+     *
+     * @return a thread factory
+     */
+    public static ThreadFactory indexedThreadFactory() {
+        return new DefaultThreadFactory(true);
+    }
+
     /**
      * Returns a thread factory used to create new threads that
      * have the same permissions as the current thread.
@@ -598,8 +611,14 @@ public class Executors {
         private final ThreadGroup group;
         private final AtomicInteger threadNumber = new AtomicInteger(1);
         private final String namePrefix;
+        private final boolean indexed;
 
         DefaultThreadFactory() {
+            this(false);
+        }
+
+        DefaultThreadFactory(boolean indexed) {
+            this.indexed = indexed;
             SecurityManager s = System.getSecurityManager();
             group = (s != null) ? s.getThreadGroup() :
                                   Thread.currentThread().getThreadGroup();
@@ -609,9 +628,10 @@ public class Executors {
         }
 
         public Thread newThread(Runnable r) {
-            Thread t = new Thread(group, r,
-                                  namePrefix + threadNumber.getAndIncrement(),
-                                  0);
+            String name = namePrefix + threadNumber.getAndIncrement();
+            Thread t = indexed ?
+                new IndexedThreadLocalThread(group, r, name, 0) :
+                new Thread(group, r, name, 0);
             if (t.isDaemon())
                 t.setDaemon(false);
             if (t.getPriority() != Thread.NORM_PRIORITY)
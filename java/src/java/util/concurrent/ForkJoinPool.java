@@ -53,6 +53,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.security.AccessControlContext;
 import java.security.ProtectionDomain;
 import java.security.Permissions;
+import sun.util.concurrent.TaskStatistics;
 
 /**
  * An {@link ExecutorService} for running {@link ForkJoinTask}s.
@@ -880,8 +881,12 @@ public class ForkJoinPool extends AbstractExecutorService {
         final ForkJoinTask<?>[] growArray() {
             ForkJoinTask<?>[] oldA = array;
             int size = oldA != null ? oldA.length << 1 : INITIAL_QUEUE_CAPACITY;
-            if (size > MAXIMUM_QUEUE_CAPACITY)
+            if (size > MAXIMUM_QUEUE_CAPACITY) {
+                ForkJoinPool p; TaskStatistics stats;
+                if ((p = pool) != null && (stats = p.statistics) != null)
+                    stats.recordRejection(false);
                 throw new RejectedExecutionException("Queue capacity exceeded");
+            }
             int oldMask, t, b;
             ForkJoinTask<?>[] a = array = new ForkJoinTask<?>[size];
             if (oldA != null && (oldMask = oldA.length - 1) >= 0 &&
@@ -1053,7 +1058,14 @@ public class ForkJoinPool extends AbstractExecutorService {
         final void runTask(ForkJoinTask<?> task) {
             if (task != null) {
                 scanState &= ~SCANNING; // mark as busy
-                (currentSteal = task).doExec();
+                ForkJoinPool p; TaskStatistics stats;
+                if ((p = pool) != null && (stats = p.statistics) != null) {
+                    long start = System.nanoTime();
+                    (currentSteal = task).doExec();
+                    stats.recordRunTime(System.nanoTime() - start);
+                }
+                else
+                    (currentSteal = task).doExec();
                 U.putOrderedObject(this, QCURRENTSTEAL, null); // release for GC
                 execLocalTasks();
                 ForkJoinWorkerThread thread = owner;
@@ -1396,6 +1408,7 @@ public class ForkJoinPool extends AbstractExecutorService {
     final UncaughtExceptionHandler ueh;  // per-worker UEH
     final String workerNamePrefix;       // to create worker name string
     volatile AtomicLong stealCounter;    // also used as sync monitor
+    volatile TaskStatistics statistics;  // null unless recording
 
     /**
      * Acquires the runState lock; returns current (locked) runState.
@@ -2007,9 +2020,13 @@ public class ForkJoinPool extends AbstractExecutorService {
                 canBlock = U.compareAndSwapLong(this, CTL, c, nc);
             }
             else if (tc >= MAX_CAP ||
-                     (this == common && tc >= pc + commonMaxSpares))
+                     (this == common && tc >= pc + commonMaxSpares)) {
+                TaskStatistics stats = statistics;
+                if (stats != null)
+                    stats.recordRejection(false);
                 throw new RejectedExecutionException(
                     "Thread limit exceeded replacing blocked worker");
+            }
             else {                                // similar to tryAddWorker
                 boolean add = false; int rs;      // CAS within lock
                 long nc = ((AC_MASK & c) |
@@ -2325,6 +2342,9 @@ public class ForkJoinPool extends AbstractExecutorService {
             boolean move = false;
             if ((rs = runState) < 0) {
                 tryTerminate(false, false);     // help terminate
+                TaskStatistics stats = statistics;
+                if (stats != null)
+                    stats.recordRejection(true);
                 throw new RejectedExecutionException();
             }
             else if ((rs & STARTED) == 0 ||     // initialize
@@ -2570,6 +2590,8 @@ public class ForkJoinPool extends AbstractExecutorService {
         this.config = (parallelism & SMASK) | mode;
         long np = (long)(-parallelism); // offset ctl counts
         this.ctl = ((np << AC_SHIFT) & AC_MASK) | ((np << TC_SHIFT) & TC_MASK);
+        if (TaskStatistics.ENABLED_BY_DEFAULT)
+            setStatisticsEnabled(true);
     }
 
     /**
@@ -2864,6 +2886,42 @@ public class ForkJoinPool extends AbstractExecutorService {
         return count;
     }
 
+    /**
+     * Sets whether this pool records statistics of its tasks, which are
+     * published by the platform MXBean named
+     * {@code java.util.concurrent:type=Executors}: a histogram of the
+     * time each task taken from a queue by a worker runs, including the
+     * time the worker spends running the subtasks it joins, and counts
+     * of rejected tasks by cause.  As tasks do not record when they were
+     * submitted, queue waits are not recorded.  Enabling statistics
+     * discards any recorded previously.  Statistics are initially
+     * enabled if the system property {@code
+     * java.util.concurrent.taskStatistics} is {@code true}.
+     *
+     * @param enabled whether to record statistics
+     * @see #isStatisticsEnabled
+     */
+    public void setStatisticsEnabled(boolean enabled) {
+        if (enabled) {
+            TaskStatistics stats = new TaskStatistics();
+            TaskStatistics.register(this, stats);
+            statistics = stats;
+        } else {
+            statistics = null;
+            TaskStatistics.unregister(this);
+        }
+    }
+
+    /**
+     * Returns {@code true} if this pool records statistics of its tasks.
+     *
+     * @return {@code true} if this pool records statistics of its tasks
+     * @see #setStatisticsEnabled
+     */
+    public boolean isStatisticsEnabled() {
+        return statistics != null;
+    }
+
     /**
      * Returns an estimate of the total number of tasks currently held
      * in queues by worker threads (but not including tasks submitted
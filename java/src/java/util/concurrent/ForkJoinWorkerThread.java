@@ -40,7 +40,8 @@ import java.security.ProtectionDomain;
 
 /**
  * A thread managed by a {@link ForkJoinPool}, which executes
- * {@link ForkJoinTask}s.
+ * {@link ForkJoinTask}s.  Being an {@link IndexedThreadLocalThread},
+ * it holds the values of {@link IndexedThreadLocal}s in an array.
  * This class is subclassable solely for the sake of adding
  * functionality -- there are no overridable methods dealing with
  * scheduling or execution.  However, you can override initialization
@@ -52,7 +53,7 @@ import java.security.ProtectionDomain;
  * @since 1.7
  * @author Doug Lea
  */
-public class ForkJoinWorkerThread extends Thread {
+public class ForkJoinWorkerThread extends IndexedThreadLocalThread {
     /*
      * ForkJoinWorkerThreads are managed by ForkJoinPools and perform
      * ForkJoinTasks. For explanation, see the internal documentation
@@ -164,6 +165,7 @@ public class ForkJoinWorkerThread extends Thread {
                     if (exception == null)
                         exception = ex;
                 } finally {
+                    indexedValues = null;
                     pool.deregisterWorker(this, exception);
                 }
             }
@@ -171,11 +173,13 @@ public class ForkJoinWorkerThread extends Thread {
     }
 
     /**
-     * Erases ThreadLocals by nulling out Thread maps.
+     * Erases ThreadLocals by nulling out Thread maps, and
+     * IndexedThreadLocals by nulling out their array.
      */
     final void eraseThreadLocals() {
         U.putObject(this, THREADLOCALS, null);
         U.putObject(this, INHERITABLETHREADLOCALS, null);
+        indexedValues = null;
     }
 
     /**
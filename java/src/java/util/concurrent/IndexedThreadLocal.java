@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.concurrent;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A {@link ThreadLocal} whose values are held in an array slot fixed
+ * when the thread-local is created.  On an {@link
+ * IndexedThreadLocalThread}, including every {@link ForkJoinWorkerThread},
+ * {@link #get} is then a load from a per-thread array at a constant
+ * index, with no hashing, probing, or clean-up of stale entries.  On
+ * other threads, the values are held in an array that is itself the
+ * value of an ordinary {@code ThreadLocal}, so that each lookup costs
+ * about as much as that of a {@code ThreadLocal}.
+ *
+ * <p>Apart from its performance, an {@code IndexedThreadLocal} behaves
+ * as a {@code ThreadLocal}, with the following differences:
+ *
+ * <ul>
+ * <li>Each instance permanently takes a slot index, which is never
+ * reused, and the arrays of threads that use it span that index.
+ * Instances should therefore be long-lived, typically held in {@code
+ * static final} fields, rather than created per use.
+ *
+ * <li>A thread holds its values strongly, so they remain reachable
+ * after the thread-local itself becomes unreachable, until they are
+ * {@linkplain #remove removed} or the thread terminates.
+ *
+ * <li>All the values of the current thread can be released at once by
+ * {@link #removeAll}, for example when a pooled thread is returned to
+ * its pool, or in {@link ThreadPoolExecutor#afterExecute}.
+ * </ul>
+ *
+ * @param <T> the type of the thread-local's values
+ */
+public class IndexedThreadLocal<T> extends ThreadLocal<T> {
+    /*
+     * Values are stored in Object arrays that are only accessed by
+     * their thread, so need no synchronization.  Slots that hold no
+     * value contain UNSET, so that null is a valid value; arrays are
+     * grown to a power of two covering the index being set and filled
+     * with UNSET.  Threads other than IndexedThreadLocalThreads hold
+     * their array in the fallbackValues ThreadLocal, so that the same
+     * code handles both cases and removeAll is a single store in
+     * either.
+     */
+
+    /** Marks slots that hold no value */
+    static final Object UNSET = new Object();
+
+    /** The initial length of value arrays */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The maximum number of indexed thread-locals; some VMs reserve
+     * header words in arrays, so larger ones may fail to allocate.
+     */
+    private static final int MAX_INDEX = Integer.MAX_VALUE - 8;
+
+    /** The index of the next indexed thread-local to be created */
+    private static final AtomicInteger nextIndex = new AtomicInteger();
+
+    /** Holds the value arrays of threads that have no field for them */
+    private static final ThreadLocal<Object[]> fallbackValues =
+        new ThreadLocal<Object[]>();
+
+    /** The index of the values of this thread-local */
+    private final int index;
+
+    /**
+     * Creates an indexed thread-local variable.
+     *
+     * @throws IllegalStateException if the maximum number of indexed
+     *         thread-locals has already been created
+     * @see #withInitial(java.util.function.Supplier)
+     */
+    public IndexedThreadLocal() {
+        for (int i;;) {
+            if ((i = nextIndex.get()) >= MAX_INDEX)
+                throw new IllegalStateException
+                    ("Too many indexed thread-locals");
+            if (nextIndex.compareAndSet(i, i + 1)) {
+                index = i;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Creates an indexed thread-local variable. The initial value of
+     * the variable is determined by invoking the {@code get} method on
+     * the {@code Supplier}.
+     *
+     * @param <S> the type of the thread-local's value
+     * @param supplier the supplier to be used to determine the initial
+     *        value
+     * @return a new indexed thread-local variable
+     * @throws NullPointerException if the specified supplier is null
+     * @throws IllegalStateException if the maximum number of indexed
+     *         thread-locals has already been created
+     */
+    public static <S> IndexedThreadLocal<S> withInitial(
+        Supplier<? extends S> supplier) {
+        if (supplier == null)
+            throw new NullPointerException();
+        return new SuppliedIndexedThreadLocal<S>(supplier);
+    }
+
+    /**
+     * Returns the value in the current thread's copy of this
+     * thread-local variable.  If the variable has no value for the
+     * current thread, it is first initialized to the value returned by
+     * an invocation of the {@link #initialValue} method.
+     *
+     * @return the current thread's value of this thread-local
+     */
+    @SuppressWarnings("unchecked")
+    public T get() {
+        Object[] vs = valuesOf(Thread.currentThread());
+        int i = index;
+        Object v;
+        if (vs != null && i < vs.length && (v = vs[i]) != UNSET)
+            return (T)v;
+        return setInitialValue();
+    }
+
+    /**
+     * Sets the current thread's copy of this thread-local variable to
+     * the specified value.
+     *
+     * @param value the value to be stored in the current thread's copy
+     *        of this thread-local
+     */
+    public void set(T value) {
+        Thread t = Thread.currentThread();
+        Object[] vs = valuesOf(t);
+        int i = index;
+        if (vs == null || i >= vs.length)
+            vs = expand(t, vs, i);
+        vs[i] = value;
+    }
+
+    /**
+     * Removes the current thread's value for this thread-local
+     * variable.  If it is subsequently {@linkplain #get read} by the
+     * current thread, its value will be reinitialized by invoking its
+     * {@link #initialValue} method, unless its value is {@linkplain
+     * #set set} by the current thread in the interim.
+     */
+    public void remove() {
+        Object[] vs = valuesOf(Thread.currentThread());
+        int i = index;
+        if (vs != null && i < vs.length)
+            vs[i] = UNSET;
+    }
+
+    /**
+     * Removes the current thread's values of all indexed thread-local
+     * variables, as if by invoking {@link #remove} on each of them.
+     * Values of other {@code ThreadLocal}s are not affected.
+     */
+    public static void removeAll() {
+        Thread t = Thread.currentThread();
+        if (t instanceof IndexedThreadLocalThread)
+            ((IndexedThreadLocalThread)t).indexedValues = null;
+        else
+            fallbackValues.remove();
+    }
+
+    /**
+     * Variant of set() to establish initialValue.
+     */
+    private T setInitialValue() {
+        T value = initialValue();
+        set(value);
+        return value;
+    }
+
+    /**
+     * Returns the value array of the given thread, which must be the
+     * current thread, or null if it has none.
+     */
+    static Object[] valuesOf(Thread t) {
+        return (t instanceof IndexedThreadLocalThread) ?
+            ((IndexedThreadLocalThread)t).indexedValues :
+            fallbackValues.get();
+    }
+
+    /**
+     * Replaces the value array of the given thread, which must be the
+     * current thread, with one that covers the given index.
+     *
+     * @param t the current thread
+     * @param vs the current value array, or null if none
+     * @param index the index to cover
+     * @return the new value array
+     */
+    private static Object[] expand(Thread t, Object[] vs, int index) {
+        int n = (vs == null) ? 0 : vs.length;
+        int cap = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(index) << 1);
+        if (cap <= index)   // overflow
+            cap = MAX_INDEX;
+        Object[] a = (vs == null) ? new Object[cap] : Arrays.copyOf(vs, cap);
+        Arrays.fill(a, n, cap, UNSET);
+        if (t instanceof IndexedThreadLocalThread)
+            ((IndexedThreadLocalThread)t).indexedValues = a;
+        else
+            fallbackValues.set(a);
+        return a;
+    }
+
+    /**
+     * An extension of IndexedThreadLocal that obtains its initial value
+     * from the specified {@code Supplier}.
+     */
+    static final class SuppliedIndexedThreadLocal<T>
+        extends IndexedThreadLocal<T> {
+
+        private final Supplier<? extends T> supplier;
+
+        SuppliedIndexedThreadLocal(Supplier<? extends T> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        protected T initialValue() {
+            return supplier.get();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.concurrent;
+
+/**
+ * A thread that holds the values of {@link IndexedThreadLocal}s in an
+ * array indexed by each thread-local, so that looking one up is a single
+ * array load rather than a probe of the hash table used by {@link
+ * ThreadLocal}.  On other threads, indexed thread-locals fall back to
+ * an ordinary {@code ThreadLocal} map.
+ *
+ * <p>This class is intended for the threads of pools that make heavy use
+ * of thread-locals, such as cached formatters, buffers or cipher
+ * contexts.  {@link Executors#indexedThreadFactory} creates threads of
+ * this class for a {@link ThreadPoolExecutor}, and every {@link
+ * ForkJoinWorkerThread} is one.  The values held by a thread are
+ * released when it terminates, or by {@link IndexedThreadLocal#removeAll}.
+ */
+public class IndexedThreadLocalThread extends Thread {
+    /**
+     * The values of the indexed thread-locals of this thread, or null
+     * if none has been set.  Only accessed by this thread, by
+     * IndexedThreadLocal, except when cleared on termination.
+     */
+    Object[] indexedValues;
+
+    /**
+     * Allocates a new {@code IndexedThreadLocalThread}, as by {@link
+     * Thread#Thread()}.
+     */
+    public IndexedThreadLocalThread() {
+        super();
+    }
+
+    /**
+     * Allocates a new {@code IndexedThreadLocalThread}, as by {@link
+     * Thread#Thread(Runnable)}.
+     *
+     * @param target the object whose {@code run} method is invoked when
+     *        this thread is started
+     */
+    public IndexedThreadLocalThread(Runnable target) {
+        super(target);
+    }
+
+    /**
+     * Allocates a new {@code IndexedThreadLocalThread}, as by {@link
+     * Thread#Thread(String)}.
+     *
+     * @param name the name of the new thread
+     */
+    public IndexedThreadLocalThread(String name) {
+        super(name);
+    }
+
+    /**
+     * Allocates a new {@code IndexedThreadLocalThread}, as by {@link
+     * Thread#Thread(Runnable, String)}.
+     *
+     * @param target the object whose {@code run} method is invoked when
+     *        this thread is started
+     * @param name the name of the new thread
+     */
+    public IndexedThreadLocalThread(Runnable target, String name) {
+        super(target, name);
+    }
+
+    /**
+     * Allocates a new {@code IndexedThreadLocalThread}, as by {@link
+     * Thread#Thread(ThreadGroup, Runnable, String)}.
+     *
+     * @param group the thread group, or null to use the group of the
+     *        security manager or of the current thread
+     * @param target the object whose {@code run} method is invoked when
+     *        this thread is started
+     * @param name the name of the new thread
+     * @throws SecurityException if the current thread cannot create a
+     *         thread in the specified thread group
+     */
+    public IndexedThreadLocalThread(ThreadGroup group, Runnable target,
+                                    String name) {
+        super(group, target, name);
+    }
+
+    /**
+     * Allocates a new {@code IndexedThreadLocalThread}, as by {@link
+     * Thread#Thread(ThreadGroup, Runnable, String, long)}.
+     *
+     * @param group the thread group, or null to use the group of the
+     *        security manager or of the current thread
+     * @param target the object whose {@code run} method is invoked when
+     *        this thread is started
+     * @param name the name of the new thread
+     * @param stackSize the desired stack size for the new thread, or
+     *        zero to indicate that this parameter is to be ignored
+     * @throws SecurityException if the current thread cannot create a
+     *         thread in the specified thread group
+     */
+    public IndexedThreadLocalThread(ThreadGroup group, Runnable target,
+                                    String name, long stackSize) {
+        super(group, target, name, stackSize);
+    }
+
+    /**
+     * Runs the target as by {@link Thread#run}, and then releases the
+     * values of the indexed thread-locals of this thread.
+     */
+    public void run() {
+        try {
+            super.run();
+        } finally {
+            indexedValues = null;
+        }
+    }
+}
@@ -384,6 +384,15 @@ public class ScheduledThreadPoolExecutor
         tryTerminate();
     }
 
+    /**
+     * Returns the time a scheduled task was due, from which statistics
+     * measure its queue wait.
+     */
+    @Override long readySince(Runnable task) {
+        return (task instanceof ScheduledFutureTask) ?
+            ((ScheduledFutureTask<?>) task).time : super.readySince(task);
+    }
+
     /**
      * Modifies or replaces the task used to execute a runnable.
      * This method can be used to override the concrete
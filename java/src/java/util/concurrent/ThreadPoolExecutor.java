@@ -43,6 +43,7 @@ import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.*;
+import sun.util.concurrent.TaskStatistics;
 
 /**
  * An {@link ExecutorService} that executes each submitted task using
@@ -544,6 +545,13 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      */
     private volatile int maximumPoolSize;
 
+    /**
+     * Statistics of tasks, or null if they are not recorded.  Set by
+     * setStatisticsEnabled, and read once per task by workers, and by
+     * reject.
+     */
+    private volatile TaskStatistics statistics;
+
     /**
      * The default rejected execution handler
      */
@@ -827,9 +835,33 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      * Package-protected for use by ScheduledThreadPoolExecutor.
      */
     final void reject(Runnable command) {
+        TaskStatistics stats = statistics;
+        if (stats != null)
+            stats.recordRejection(runStateAtLeast(ctl.get(), SHUTDOWN));
         handler.rejectedExecution(command, this);
     }
 
+    /**
+     * Returns the System.nanoTime at which the given task became ready
+     * to run, or Long.MIN_VALUE if unknown.  Overridden by
+     * ScheduledThreadPoolExecutor to report the time scheduled tasks
+     * were due.
+     */
+    long readySince(Runnable task) {
+        return (task instanceof TimedFutureTask) ?
+            ((TimedFutureTask<?>) task).submitTime : Long.MIN_VALUE;
+    }
+
+    /**
+     * A FutureTask recording its submission time, created by
+     * newTaskFor while statistics are enabled.
+     */
+    static final class TimedFutureTask<V> extends FutureTask<V> {
+        final long submitTime = System.nanoTime();
+        TimedFutureTask(Callable<V> callable) { super(callable); }
+        TimedFutureTask(Runnable runnable, V result) { super(runnable, result); }
+    }
+
     /**
      * Performs any further cleanup following run state transition on
      * invocation of shutdown.  A no-op here, but used by
@@ -1145,6 +1177,14 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                 try {
                     beforeExecute(wt, task);
                     Throwable thrown = null;
+                    TaskStatistics stats = statistics;
+                    long start = 0L;
+                    if (stats != null) {
+                        long ready = readySince(task);
+                        start = System.nanoTime();
+                        if (ready != Long.MIN_VALUE)
+                            stats.recordQueueWait(start - ready);
+                    }
                     try {
                         task.run();
                     } catch (RuntimeException x) {
@@ -1154,6 +1194,8 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                     } catch (Throwable x) {
                         thrown = x; throw new Error(x);
                     } finally {
+                        if (stats != null)
+                            stats.recordRunTime(System.nanoTime() - start);
                         afterExecute(task, thrown);
                     }
                 } finally {
@@ -1323,6 +1365,8 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         this.keepAliveTime = unit.toNanos(keepAliveTime);
         this.threadFactory = threadFactory;
         this.handler = handler;
+        if (TaskStatistics.ENABLED_BY_DEFAULT)
+            setStatisticsEnabled(true);
     }
 
     /**
@@ -1901,6 +1945,85 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         }
     }
 
+    /**
+     * Sets whether this pool records statistics of its tasks, which are
+     * published by the platform MXBean named
+     * {@code java.util.concurrent:type=Executors}: histograms of the
+     * time each task waits between its submission and the start of its
+     * execution, and of the time it runs, and counts of rejected tasks
+     * by cause.  Enabling statistics discards any recorded previously.
+     * Statistics are initially enabled if the system property
+     * {@code java.util.concurrent.taskStatistics} is {@code true}.
+     *
+     * <p>Recording takes two reads of {@link System#nanoTime} per task,
+     * and updates counters that do not contend across threads.  The
+     * waiting time is only known for tasks created by {@link
+     * #newTaskFor newTaskFor}, as by the {@code submit}, {@code
+     * invokeAll} and {@code invokeAny} methods, and for the tasks of a
+     * {@link ScheduledThreadPoolExecutor}, for which it is measured from
+     * the time they were due to run; it is not recorded for tasks passed
+     * directly to {@link #execute execute}.  The run time includes
+     * neither {@link #beforeExecute beforeExecute} nor {@link
+     * #afterExecute afterExecute}.
+     *
+     * @param enabled whether to record statistics
+     * @see #isStatisticsEnabled
+     */
+    public void setStatisticsEnabled(boolean enabled) {
+        if (enabled) {
+            TaskStatistics stats = new TaskStatistics();
+            TaskStatistics.register(this, stats);
+            statistics = stats;
+        } else {
+            statistics = null;
+            TaskStatistics.unregister(this);
+        }
+    }
+
+    /**
+     * Returns {@code true} if this pool records statistics of its tasks.
+     *
+     * @return {@code true} if this pool records statistics of its tasks
+     * @see #setStatisticsEnabled
+     */
+    public boolean isStatisticsEnabled() {
+        return statistics != null;
+    }
+
+    /**
+     * Returns a {@code RunnableFuture} for the given runnable and
+     * default value, which records its submission time if statistics
+     * are enabled.
+     *
+     * @param runnable the runnable task being wrapped
+     * @param value the default value for the returned future
+     * @param <T> the type of the given value
+     * @return a {@code RunnableFuture} which, when run, will run the
+     * underlying runnable and which, as a {@code Future}, will yield
+     * the given value as its result and provide for cancellation of
+     * the underlying task
+     */
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return (statistics == null) ? super.newTaskFor(runnable, value) :
+            new TimedFutureTask<T>(runnable, value);
+    }
+
+    /**
+     * Returns a {@code RunnableFuture} for the given callable task,
+     * which records its submission time if statistics are enabled.
+     *
+     * @param callable the callable task being wrapped
+     * @param <T> the type of the callable's result
+     * @return a {@code RunnableFuture} which, when run, will call the
+     * underlying callable and which, as a {@code Future}, will yield
+     * the callable's result as its result and provide for
+     * cancellation of the underlying task
+     */
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return (statistics == null) ? super.newTaskFor(callable) :
+            new TimedFutureTask<T>(callable);
+    }
+
     /**
      * Returns a string identifying this pool, as well as its state,
      * including indications of run state and estimated worker and
@@ -0,0 +1,996 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link ScheduledExecutorService} that keeps its delayed tasks in a
+ * hashed hierarchical timing wheel, and hands the tasks that become due
+ * to another {@link Executor} to be run.
+ *
+ * <p>Time advances in ticks of a fixed, configurable duration.  A task is
+ * due at the first tick at or after its trigger time, so it runs up to one
+ * tick later than requested, never earlier; the tick duration trades
+ * precision for the work done per unit of time.  The wheel has eleven
+ * levels of 64 slots: the slots of the first level are one tick wide, and
+ * those of each further level span a whole turn of the level below it.
+ * A task is placed in the level that its delay falls into, and is moved
+ * down a level each time the wheel turns onto its slot, until it expires
+ * in the first level.
+ *
+ * <p>Unlike a {@link ScheduledThreadPoolExecutor}, whose delay queue is a
+ * binary heap guarded by a single lock, scheduling a task here only
+ * appends it to a lock-free queue, and cancelling it only marks it
+ * cancelled and appends it to another.  A single timer thread drains both
+ * queues, links and unlinks the tasks in the wheel, and advances the
+ * wheel, so that scheduling and cancellation take constant time and
+ * cancelled tasks are released within one turn of the first level.  This
+ * suits large numbers of timeouts that are mostly cancelled before they
+ * expire.
+ *
+ * <p>The tasks that expire in a tick are handed to the executor in
+ * batches of up to 64, each run by a single call to {@code execute}.  The
+ * tasks of a batch run one after another, so they should be short; tasks
+ * that may block should themselves hand their work to another executor.
+ * The executor must not run the batches in the calling thread, as that
+ * stops the wheel while they run.  If the executor rejects a batch, its
+ * tasks are cancelled.
+ *
+ * <p>After {@link #shutdown}, delayed tasks that were already scheduled
+ * still run, while periodic tasks are cancelled, as with the default
+ * policies of a {@code ScheduledThreadPoolExecutor}.  The executor that
+ * runs the tasks is not owned by this executor, and is neither shut down
+ * nor interrupted by it; this executor terminates when no more tasks are
+ * scheduled and the last batch it handed off has completed.
+ *
+ * <p>Successive executions of a periodic task scheduled via
+ * {@link #scheduleAtFixedRate scheduleAtFixedRate} or
+ * {@link #scheduleWithFixedDelay scheduleWithFixedDelay} do not overlap.
+ * Tasks that become due in the same tick are run in no particular order.
+ *
+ * @see ScheduledThreadPoolExecutor
+ */
+public class TimingWheelScheduledExecutor extends AbstractExecutorService
+        implements ScheduledExecutorService {
+
+    /*
+     * All of the wheel is confined to the timer thread: the tasks to
+     * schedule and to unlink reach it through the pending and
+     * cancellations queues.  The timer thread sleeps until the next tick
+     * at which a non-empty slot expires or cascades, but for at most one
+     * turn of the first level so that cancelled tasks are unlinked
+     * promptly, and parks indefinitely when the wheel is empty.  The ticks
+     * in between are skipped rather than walked.  While it sleeps, it
+     * advertises when it wakes up, so that scheduling a task that is due
+     * earlier wakes it up.
+     *
+     * The run state moves from RUNNING to SHUTDOWN or STOP, and to
+     * TERMINATED once the timer thread has exited and no batch is in
+     * flight.  As in ScheduledThreadPoolExecutor, a task scheduled while
+     * the executor shuts down is rechecked after it is enqueued, and is
+     * taken back out if the timer thread might already have exited.
+     * If the timer thread dies of an exception or error, the run state
+     * moves to STOP, so that later tasks are rejected rather than
+     * accepted and never run, and the tasks it held are cancelled.
+     */
+
+    /** The number of bits of a tick number consumed by each level */
+    static final int WHEEL_BITS = 6;
+
+    /** The number of slots in each level */
+    static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+    static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    /** The number of levels, enough to hold any tick number */
+    static final int LEVELS = (Long.SIZE + WHEEL_BITS - 1) / WHEEL_BITS;
+
+    /** The maximum number of tasks handed to the executor at once */
+    static final int MAX_BATCH = 64;
+
+    private static final int RUNNING    = 0;
+    private static final int SHUTDOWN   = 1;
+    private static final int STOP       = 2;
+    private static final int TERMINATED = 3;
+
+    /** The duration of a tick in nanoseconds */
+    private final long tickNanos;
+
+    /** The nanoTime at which tick zero started */
+    private final long origin;
+
+    /** The executor that runs the tasks that are due */
+    private final Executor executor;
+
+    /** The thread that advances the wheel */
+    private final Thread timer;
+
+    /** Tasks to be placed in the wheel by the timer thread */
+    private final ConcurrentLinkedQueue<ScheduledFutureTask<?>> pending =
+        new ConcurrentLinkedQueue<>();
+
+    /** Cancelled tasks to be unlinked from the wheel by the timer thread */
+    private final ConcurrentLinkedQueue<ScheduledFutureTask<?>> cancellations =
+        new ConcurrentLinkedQueue<>();
+
+    /** Sequence number to break scheduling ties, and in turn to
+     * guarantee FIFO order among tied entries of compareTo. */
+    private final AtomicLong sequencer = new AtomicLong();
+
+    /** The number of batches handed to the executor and not yet run */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final ReentrantLock mainLock = new ReentrantLock();
+
+    /** Wait condition to support awaitTermination */
+    private final Condition termination = mainLock.newCondition();
+
+    private volatile int runState;
+
+    /** True while the timer thread is parked */
+    private volatile boolean idle;
+
+    /** The nanoTime at which the parked timer thread wakes up */
+    private volatile long wakeTime;
+
+    /** True once the timer thread has exited */
+    private volatile boolean timerExited;
+
+    /** The tasks the timer thread removed from the wheel on shutdownNow */
+    private volatile List<Runnable> drained;
+
+    // The following fields are accessed only by the timer thread
+
+    /** The slots of each level, each the head of a doubly-linked list */
+    private final ScheduledFutureTask<?>[][] wheels =
+        new ScheduledFutureTask<?>[LEVELS][WHEEL_SIZE];
+
+    /** The number of the last tick processed */
+    private long tick;
+
+    /** The number of tasks in the wheel */
+    private int count;
+
+    /** True once periodic tasks have been cancelled on shutdown */
+    private boolean shutdownSeen;
+
+    /** The expired tasks not yet handed to the executor */
+    private ScheduledFutureTask<?>[] batch = new ScheduledFutureTask<?>[MAX_BATCH];
+    private int batchSize;
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with the given
+     * tick duration, which hands the tasks that are due to the given
+     * executor.  The timer thread is created by
+     * {@link Executors#defaultThreadFactory}.
+     *
+     * @param tickDuration the duration of a tick
+     * @param unit the time unit of the tickDuration argument
+     * @param executor the executor that runs the tasks
+     * @throws IllegalArgumentException if {@code tickDuration <= 0}
+     * @throws NullPointerException if {@code unit} or {@code executor}
+     *         is null
+     */
+    public TimingWheelScheduledExecutor(long tickDuration, TimeUnit unit,
+                                        Executor executor) {
+        this(tickDuration, unit, executor, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with the given
+     * tick duration, which hands the tasks that are due to the given
+     * executor.
+     *
+     * @param tickDuration the duration of a tick
+     * @param unit the time unit of the tickDuration argument
+     * @param executor the executor that runs the tasks
+     * @param threadFactory the factory to use to create the timer thread
+     * @throws IllegalArgumentException if {@code tickDuration <= 0}
+     * @throws NullPointerException if {@code unit}, {@code executor} or
+     *         {@code threadFactory} is null, or if {@code threadFactory}
+     *         fails to create a thread
+     */
+    public TimingWheelScheduledExecutor(long tickDuration, TimeUnit unit,
+                                        Executor executor,
+                                        ThreadFactory threadFactory) {
+        if (tickDuration <= 0)
+            throw new IllegalArgumentException();
+        if (unit == null || executor == null || threadFactory == null)
+            throw new NullPointerException();
+        this.tickNanos = Math.max(1L, unit.toNanos(tickDuration));
+        this.executor = executor;
+        this.origin = now();
+        Thread t = threadFactory.newThread(new Timer());
+        if (t == null)
+            throw new NullPointerException();
+        this.timer = t;
+        t.start();
+    }
+
+    /**
+     * Returns current nanosecond time.
+     */
+    final long now() {
+        return System.nanoTime();
+    }
+
+    private class ScheduledFutureTask<V>
+            extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+        /** Sequence number to break ties FIFO */
+        private final long sequenceNumber;
+
+        /** The time the task is enabled to execute in nanoTime units */
+        private long time;
+
+        /**
+         * Period in nanoseconds for repeating tasks.  A positive
+         * value indicates fixed-rate execution.  A negative value
+         * indicates fixed-delay execution.  A value of 0 indicates a
+         * non-repeating task.
+         */
+        private final long period;
+
+        // Fields accessed only by the timer thread
+
+        /** The tick at which the task is due */
+        long deadline;
+
+        /** The level and slot of the task, or -1 if it is not in the wheel */
+        int level = -1;
+        int slot;
+
+        /** Links of the list of the slot */
+        ScheduledFutureTask<?> prev, next;
+
+        /**
+         * Creates a one-shot action with given nanoTime-based trigger time.
+         */
+        ScheduledFutureTask(Runnable r, V result, long ns) {
+            super(r, result);
+            this.time = ns;
+            this.period = 0;
+            this.sequenceNumber = sequencer.getAndIncrement();
+        }
+
+        /**
+         * Creates a periodic action with given nano time and period.
+         */
+        ScheduledFutureTask(Runnable r, V result, long ns, long period) {
+            super(r, result);
+            this.time = ns;
+            this.period = period;
+            this.sequenceNumber = sequencer.getAndIncrement();
+        }
+
+        /**
+         * Creates a one-shot action with given nanoTime-based trigger time.
+         */
+        ScheduledFutureTask(Callable<V> callable, long ns) {
+            super(callable);
+            this.time = ns;
+            this.period = 0;
+            this.sequenceNumber = sequencer.getAndIncrement();
+        }
+
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - now(), NANOSECONDS);
+        }
+
+        public int compareTo(Delayed other) {
+            if (other == this) // compare zero if same object
+                return 0;
+            if (other instanceof ScheduledFutureTask) {
+                ScheduledFutureTask<?> x = (ScheduledFutureTask<?>)other;
+                long diff = time - x.time;
+                if (diff < 0)
+                    return -1;
+                else if (diff > 0)
+                    return 1;
+                else if (sequenceNumber < x.sequenceNumber)
+                    return -1;
+                else
+                    return 1;
+            }
+            long diff = getDelay(NANOSECONDS) - other.getDelay(NANOSECONDS);
+            return (diff < 0) ? -1 : (diff > 0) ? 1 : 0;
+        }
+
+        /**
+         * Returns {@code true} if this is a periodic (not a one-shot) action.
+         *
+         * @return {@code true} if periodic
+         */
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+
+        /**
+         * Sets the next time to run for a periodic task.
+         */
+        private void setNextRunTime() {
+            long p = period;
+            if (p > 0)
+                time += p;
+            else
+                time = triggerTime(-p);
+        }
+
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && !timerExited)
+                cancellations.offer(this);
+            return cancelled;
+        }
+
+        /**
+         * Overrides FutureTask version so as to reset/requeue if periodic.
+         */
+        public void run() {
+            boolean periodic = isPeriodic();
+            if (!canRunInCurrentRunState(periodic))
+                cancel(false);
+            else if (!periodic)
+                ScheduledFutureTask.super.run();
+            else if (ScheduledFutureTask.super.runAndReset()) {
+                setNextRunTime();
+                reExecutePeriodic(this);
+            }
+        }
+    }
+
+    /**
+     * Returns true if can run a task given current run state: delayed
+     * tasks run until shutdownNow, periodic tasks until shutdown.
+     *
+     * @param periodic true if this task periodic, false if delayed
+     */
+    boolean canRunInCurrentRunState(boolean periodic) {
+        int rs = runState;
+        return rs == RUNNING || (rs == SHUTDOWN && !periodic);
+    }
+
+    /**
+     * Main execution method for delayed or periodic tasks.  If the
+     * executor is shut down, rejects the task.  Otherwise adds the task
+     * to the pending queue and wakes up the timer thread if it is idle.
+     * If the executor is shut down while the task is being added, takes
+     * the task back out and rejects it.
+     *
+     * @param task the task
+     */
+    private void delayedExecute(ScheduledFutureTask<?> task) {
+        if (isShutdown())
+            reject(task);
+        pending.offer(task);
+        if (isShutdown() && pending.remove(task))
+            reject(task);
+        signalTimer(task);
+    }
+
+    /**
+     * Wakes up the timer thread if it is parked past the trigger time of
+     * the given newly pending task.
+     */
+    private void signalTimer(ScheduledFutureTask<?> task) {
+        if (idle && task.time - wakeTime < 0)
+            LockSupport.unpark(timer);
+    }
+
+    /**
+     * Requeues a periodic task unless current run state precludes it.
+     *
+     * @param task the task
+     */
+    void reExecutePeriodic(ScheduledFutureTask<?> task) {
+        if (canRunInCurrentRunState(true)) {
+            pending.offer(task);
+            if (!canRunInCurrentRunState(true) && pending.remove(task))
+                task.cancel(false);
+            else
+                signalTimer(task);
+        } else
+            task.cancel(false);
+    }
+
+    private void reject(Runnable task) {
+        throw new RejectedExecutionException("Task " + task.toString() +
+                                             " rejected from " +
+                                             toString());
+    }
+
+    /**
+     * Returns the trigger time of a delayed action.
+     */
+    private long triggerTime(long delay, TimeUnit unit) {
+        return triggerTime(unit.toNanos((delay < 0) ? 0 : delay));
+    }
+
+    /**
+     * Returns the trigger time of a delayed action.  Delays are capped
+     * so that tick numbers cannot overflow.
+     */
+    long triggerTime(long delay) {
+        return now() + Math.min(delay, Long.MAX_VALUE >> 1);
+    }
+
+    /**
+     * Returns the number of the first tick at or after the given time.
+     */
+    private long tickFor(long time) {
+        long d = time - origin;
+        return (d <= 0) ? 0 : (d - 1) / tickNanos + 1;
+    }
+
+    // Timer thread
+
+    private final class Timer implements Runnable {
+        public void run() {
+            boolean completedAbruptly = true;
+            try {
+                runTimer();
+                completedAbruptly = false;
+            } finally {
+                if (completedAbruptly)
+                    timerFailed();
+                timerExited = true;
+                tryTerminate();
+            }
+        }
+    }
+
+    /**
+     * Called by the timer thread when it dies of an exception or error.
+     * Stops this executor, since no thread is left to run the tasks, and
+     * cancels the tasks that were not handed to the executor.
+     */
+    private void timerFailed() {
+        advanceRunState(STOP);
+        timerExited = true;
+        for (int i = 0; i < batchSize; i++)
+            batch[i].cancel(false);
+        batchSize = 0;
+        for (Runnable t : drainAll())
+            ((ScheduledFutureTask<?>) t).cancel(false);
+    }
+
+    /**
+     * Main timer loop.  Unlinks the cancelled tasks, places the pending
+     * tasks in the wheel, advances the wheel to the current tick and
+     * hands off the tasks that expired, then sleeps until the next tick.
+     */
+    private void runTimer() {
+        for (;;) {
+            Thread.interrupted(); // interrupts only cut the sleep short
+            int rs = runState;
+            if (rs >= STOP) {
+                drained = drainAll();
+                return;
+            }
+            if (rs == SHUTDOWN && !shutdownSeen) {
+                shutdownSeen = true;
+                cancelPeriodicTasks();
+            }
+            for (ScheduledFutureTask<?> t; (t = cancellations.poll()) != null; ) {
+                if (t.level >= 0)
+                    unlink(t);
+            }
+            if (count == 0) // skip the ticks that elapsed while empty
+                tick = Math.max(tick, (now() - origin) / tickNanos);
+            for (ScheduledFutureTask<?> t; (t = pending.poll()) != null; ) {
+                if (t.isCancelled())
+                    continue;
+                if (rs == SHUTDOWN && t.isPeriodic()) {
+                    t.cancel(false);
+                    continue;
+                }
+                t.deadline = tickFor(t.time);
+                place(t);
+            }
+            advance();
+            if (count == 0 && rs == SHUTDOWN && pending.isEmpty())
+                return;
+            long wake = (count == 0) ? now() + (Long.MAX_VALUE >> 1) :
+                origin + Math.min(nextEventTick(), tick + WHEEL_SIZE) * tickNanos;
+            wakeTime = wake;
+            idle = true;
+            if (pending.isEmpty() && runState == rs) {
+                long wait = wake - now();
+                if (wait > 0)
+                    LockSupport.parkNanos(this, wait);
+            }
+            idle = false;
+        }
+    }
+
+    /**
+     * Returns the next tick at which a non-empty slot expires or is
+     * cascaded.  The non-empty slots of a level all lie ahead of the
+     * position of the current tick in that level, and those of a lower
+     * level come before those of any higher level.
+     */
+    private long nextEventTick() {
+        long t = tick;
+        for (int l = 0; l < LEVELS; l++) {
+            int shift = l * WHEEL_BITS;
+            long turn = (t >>> shift) & ~(long)WHEEL_MASK;
+            ScheduledFutureTask<?>[] wheel = wheels[l];
+            for (int s = ((int)(t >>> shift) & WHEEL_MASK) + 1; s < WHEEL_SIZE; s++) {
+                if (wheel[s] != null)
+                    return (turn | s) << shift;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Places a task in the level and slot of its deadline, or expires it
+     * if its deadline has passed.  The level is that of the highest group
+     * of bits in which the deadline differs from the current tick, so the
+     * task is moved down a level when the wheel turns onto its slot.
+     */
+    private void place(ScheduledFutureTask<?> t) {
+        long e = t.deadline;
+        if (e <= tick) {
+            expire(t);
+            return;
+        }
+        int level = (63 - Long.numberOfLeadingZeros(e ^ tick)) / WHEEL_BITS;
+        int slot = (int)(e >>> (level * WHEEL_BITS)) & WHEEL_MASK;
+        ScheduledFutureTask<?>[] wheel = wheels[level];
+        ScheduledFutureTask<?> head = wheel[slot];
+        t.level = level;
+        t.slot = slot;
+        t.prev = null;
+        t.next = head;
+        if (head != null)
+            head.prev = t;
+        wheel[slot] = t;
+        count++;
+    }
+
+    /**
+     * Removes a task from the slot it is linked into.
+     */
+    private void unlink(ScheduledFutureTask<?> t) {
+        ScheduledFutureTask<?> p = t.prev, n = t.next;
+        if (p == null)
+            wheels[t.level][t.slot] = n;
+        else
+            p.next = n;
+        if (n != null)
+            n.prev = p;
+        t.prev = t.next = null;
+        t.level = -1;
+        count--;
+    }
+
+    /**
+     * Detaches the list of a slot, and returns its head.
+     */
+    private ScheduledFutureTask<?> takeSlot(int level, int slot) {
+        ScheduledFutureTask<?>[] wheel = wheels[level];
+        ScheduledFutureTask<?> head = wheel[slot];
+        wheel[slot] = null;
+        for (ScheduledFutureTask<?> t = head; t != null; t = t.next) {
+            t.level = -1;
+            count--;
+        }
+        return head;
+    }
+
+    /**
+     * Advances the wheel up to the current tick, visiting only the ticks
+     * at which a non-empty slot expires or cascades.  On each such tick,
+     * first the slots that the upper levels turned onto are cascaded down,
+     * from the highest level, then the tasks of the slot of the first
+     * level expire.
+     */
+    private void advance() {
+        long target = (now() - origin) / tickNanos;
+        while (tick < target && count > 0) {
+            long t = nextEventTick();
+            if (t > target)
+                break;
+            tick = t;
+            int top = Math.min(Long.numberOfTrailingZeros(t) / WHEEL_BITS,
+                               LEVELS - 1);
+            for (int l = top; l > 0; l--) {
+                ScheduledFutureTask<?> x =
+                    takeSlot(l, (int)(t >>> (l * WHEEL_BITS)) & WHEEL_MASK);
+                while (x != null) {
+                    ScheduledFutureTask<?> next = x.next;
+                    x.prev = x.next = null;
+                    place(x);
+                    x = next;
+                }
+            }
+            ScheduledFutureTask<?> x = takeSlot(0, (int)t & WHEEL_MASK);
+            while (x != null) {
+                ScheduledFutureTask<?> next = x.next;
+                x.prev = x.next = null;
+                expire(x);
+                x = next;
+            }
+        }
+        if (tick < target)
+            tick = target;
+        flush();
+    }
+
+    private void expire(ScheduledFutureTask<?> t) {
+        batch[batchSize++] = t;
+        if (batchSize == MAX_BATCH)
+            flush();
+    }
+
+    /**
+     * Hands the expired tasks to the executor, or cancels them if the
+     * executor rejects them.
+     */
+    private void flush() {
+        int n = batchSize;
+        if (n == 0)
+            return;
+        Batch b = new Batch(batch, n);
+        batch = new ScheduledFutureTask<?>[MAX_BATCH];
+        batchSize = 0;
+        inFlight.incrementAndGet();
+        try {
+            executor.execute(b);
+        } catch (RuntimeException | Error ex) {
+            inFlight.decrementAndGet();
+            for (int i = 0; i < n; i++)
+                b.tasks[i].cancel(false);
+            if (ex instanceof Error)
+                throw (Error) ex;  // the timer thread dies, see timerFailed
+        }
+    }
+
+    /**
+     * A batch of expired tasks, run one after another.
+     */
+    private final class Batch implements Runnable {
+        final ScheduledFutureTask<?>[] tasks;
+        final int size;
+
+        Batch(ScheduledFutureTask<?>[] tasks, int size) {
+            this.tasks = tasks;
+            this.size = size;
+        }
+
+        public void run() {
+            try {
+                for (int i = 0; i < size; i++)
+                    tasks[i].run();
+            } finally {
+                if (inFlight.decrementAndGet() == 0 && timerExited)
+                    tryTerminate();
+            }
+        }
+    }
+
+    /**
+     * Cancels and unlinks the periodic tasks in the wheel.
+     */
+    private void cancelPeriodicTasks() {
+        for (ScheduledFutureTask<?>[] wheel : wheels) {
+            for (ScheduledFutureTask<?> t : wheel) {
+                while (t != null) {
+                    ScheduledFutureTask<?> next = t.next;
+                    if (t.isPeriodic()) {
+                        unlink(t);
+                        t.cancel(false);
+                    }
+                    t = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all the tasks from the wheel and the pending queue, and
+     * returns those that are not cancelled.
+     */
+    private List<Runnable> drainAll() {
+        List<Runnable> tasks = new ArrayList<>();
+        for (int l = 0; l < LEVELS; l++) {
+            for (int s = 0; s < WHEEL_SIZE; s++) {
+                for (ScheduledFutureTask<?> t = takeSlot(l, s), next;
+                     t != null; t = next) {
+                    next = t.next;
+                    t.prev = t.next = null;
+                    if (!t.isCancelled())
+                        tasks.add(t);
+                }
+            }
+        }
+        for (ScheduledFutureTask<?> t; (t = pending.poll()) != null; ) {
+            if (!t.isCancelled())
+                tasks.add(t);
+        }
+        cancellations.clear();
+        return tasks;
+    }
+
+    /**
+     * Transitions to TERMINATED state once the timer thread has exited
+     * and no batch is in flight.
+     */
+    final void tryTerminate() {
+        if (!timerExited || inFlight.get() != 0)
+            return;
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            if (runState != TERMINATED) {
+                runState = TERMINATED;
+                termination.signalAll();
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public ScheduledFuture<?> schedule(Runnable command,
+                                       long delay,
+                                       TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        ScheduledFutureTask<Void> t =
+            new ScheduledFutureTask<Void>(command, null,
+                                          triggerTime(delay, unit));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable,
+                                           long delay,
+                                           TimeUnit unit) {
+        if (callable == null || unit == null)
+            throw new NullPointerException();
+        ScheduledFutureTask<V> t =
+            new ScheduledFutureTask<V>(callable, triggerTime(delay, unit));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+                                                  long initialDelay,
+                                                  long period,
+                                                  TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (period <= 0)
+            throw new IllegalArgumentException();
+        ScheduledFutureTask<Void> t =
+            new ScheduledFutureTask<Void>(command,
+                                          null,
+                                          triggerTime(initialDelay, unit),
+                                          unit.toNanos(period));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+                                                     long initialDelay,
+                                                     long delay,
+                                                     TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (delay <= 0)
+            throw new IllegalArgumentException();
+        ScheduledFutureTask<Void> t =
+            new ScheduledFutureTask<Void>(command,
+                                          null,
+                                          triggerTime(initialDelay, unit),
+                                          unit.toNanos(-delay));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * Executes {@code command} with zero required delay, that is, at the
+     * next tick.  This has effect equivalent to
+     * {@link #schedule(Runnable,long,TimeUnit) schedule(command, 0, anyUnit)}.
+     *
+     * @throws RejectedExecutionException if the task cannot be accepted
+     *         for execution because the executor has been shut down
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void execute(Runnable command) {
+        schedule(command, 0, NANOSECONDS);
+    }
+
+    // Override AbstractExecutorService methods
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public Future<?> submit(Runnable task) {
+        return schedule(task, 0, NANOSECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <T> Future<T> submit(Runnable task, T result) {
+        return schedule(Executors.callable(task, result), 0, NANOSECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return schedule(task, 0, NANOSECONDS);
+    }
+
+    /**
+     * Initiates an orderly shutdown in which previously submitted
+     * delayed tasks are still executed, while periodic tasks are
+     * cancelled.  No new tasks will be accepted.  Invocation has no
+     * additional effect if already shut down.
+     *
+     * <p>This method does not wait for previously submitted tasks to
+     * complete execution.  Use {@link #awaitTermination awaitTermination}
+     * to do that.
+     *
+     * @throws SecurityException {@inheritDoc}
+     */
+    public void shutdown() {
+        advanceRunState(SHUTDOWN);
+        LockSupport.unpark(timer);
+    }
+
+    /**
+     * Attempts to stop all actively executing tasks, halts the
+     * processing of waiting tasks, and returns a list of the tasks
+     * that were awaiting execution.  The tasks of batches already handed
+     * to the executor are cancelled when the executor runs them.
+     *
+     * <p>This method does not wait for actively executing tasks to
+     * terminate.  Use {@link #awaitTermination awaitTermination} to
+     * do that.
+     *
+     * <p>There are no guarantees beyond best-effort attempts to stop
+     * processing actively executing tasks.  This implementation does not
+     * interrupt the threads of the executor.
+     *
+     * @return list of tasks that never commenced execution.
+     *         Each element of this list is a {@link ScheduledFuture}.
+     * @throws SecurityException {@inheritDoc}
+     */
+    public List<Runnable> shutdownNow() {
+        advanceRunState(STOP);
+        Thread t = timer;
+        if (t == Thread.currentThread())
+            return new ArrayList<>(); // the timer drains the wheel on return
+        LockSupport.unpark(t);
+        boolean interrupted = false;
+        while (t.isAlive()) {
+            try {
+                t.join();
+            } catch (InterruptedException ie) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        List<Runnable> tasks = drained;
+        drained = null;
+        return (tasks == null) ? new ArrayList<>() : tasks;
+    }
+
+    private void advanceRunState(int targetState) {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            if (runState < targetState)
+                runState = targetState;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    public boolean isShutdown() {
+        return runState != RUNNING;
+    }
+
+    public boolean isTerminated() {
+        return runState == TERMINATED;
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            for (;;) {
+                if (runState == TERMINATED)
+                    return true;
+                if (nanos <= 0)
+                    return false;
+                nanos = termination.awaitNanos(nanos);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the duration of a tick.
+     *
+     * @param unit the desired time unit
+     * @return the duration of a tick
+     */
+    public long getTickDuration(TimeUnit unit) {
+        return unit.convert(tickNanos, NANOSECONDS);
+    }
+
+    /**
+     * Returns a string identifying this executor, as well as its state.
+     *
+     * @return a string identifying this executor, as well as its state
+     */
+    public String toString() {
+        int rs = runState;
+        String state = (rs == RUNNING ? "Running" :
+                        rs == TERMINATED ? "Terminated" :
+                        "Shutting down");
+        return super.toString() + "[" + state + ", tick = " + tickNanos +
+            " ns, batches in flight = " + inFlight.get() + "]";
+    }
+}
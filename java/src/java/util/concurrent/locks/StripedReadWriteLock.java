@@ -0,0 +1,923 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.concurrent.locks;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ReadWriteLock} biased towards readers, which scales on
+ * read-mostly workloads with many processors.  In a
+ * {@link ReentrantReadWriteLock}, or a {@link StampedLock}, every reader
+ * updates the same word of lock state, so that the cache line holding it
+ * moves between processors on every read acquisition, which limits
+ * throughput even when there are no writers at all.  Here, a reader
+ * registers in one of an array of padded indicators, selected by thread,
+ * with about as many indicators as processors, so that readers on
+ * different processors usually do not share a cache line.  A writer
+ * raises a flag that diverts new readers to a slower path, and then waits
+ * for the indicators to drain.  Acquiring the write lock is therefore
+ * more expensive than for a {@code ReentrantReadWriteLock}, in
+ * proportion to the number of processors, as is the memory used by each
+ * lock.  This class is intended for locks that are read very much more
+ * often than written, and that are held by many threads at once.
+ *
+ * <p>This class has the following properties:
+ *
+ * <ul>
+ * <li><b>Acquisition order</b>
+ *
+ * <p>Writers acquire the lock in the order given by the fairness policy
+ * chosen at construction, as for a {@link ReentrantLock}.  While a writer
+ * holds or waits for the lock, readers that arrive are queued behind it,
+ * in the same order, so writers are not starved by a continuous stream
+ * of readers.
+ *
+ * <li><b>Reentrancy</b>
+ *
+ * <p>The write lock is reentrant, and its holder may also acquire the
+ * read lock, which permits downgrading the write lock to a read lock as
+ * for a {@code ReentrantReadWriteLock}.  Upgrading from a read lock to
+ * the write lock is not possible.  Unlike a
+ * {@code ReentrantReadWriteLock}, this class does not track which
+ * threads hold the read lock, so the read lock is not reentrant: a thread
+ * holding it that tries to acquire it again may deadlock if a writer is
+ * waiting.
+ *
+ * <li><b>Ownership</b>
+ *
+ * <p>The read lock must be released by the thread that acquired it,
+ * as its indicator is selected by thread.  An attempt to release a read
+ * lock that is not held may throw {@link IllegalMonitorStateException},
+ * but is not always detected.
+ *
+ * <li><b>Condition support</b>
+ *
+ * <p>The write lock provides a {@link Condition} implementation that
+ * behaves in the same way, with respect to the write lock, as the
+ * {@link Condition} implementation provided by
+ * {@link ReentrantLock#newCondition} does for {@link ReentrantLock}.
+ * The read lock does not support a {@link Condition} and
+ * {@code readLock().newCondition()} throws
+ * {@code UnsupportedOperationException}.
+ *
+ * <li><b>Instrumentation</b>
+ *
+ * <p>This class supports methods to determine whether locks are held or
+ * contended.  These methods are designed for monitoring system state,
+ * not for synchronization control.
+ * </ul>
+ *
+ * <p>Serialization of this class behaves in the same way as built-in
+ * locks: a deserialized lock is in the unlocked state, regardless of its
+ * state when serialized.
+ *
+ * <p><b>Sample usage</b>.  A table of settings, read by every request
+ * and rarely changed:
+ * <pre> {@code
+ * class Settings {
+ *   private final Map<String, String> m = new HashMap<String, String>();
+ *   private final StripedReadWriteLock rwl = new StripedReadWriteLock();
+ *   private final Lock r = rwl.readLock();
+ *   private final Lock w = rwl.writeLock();
+ *
+ *   public String get(String key) {
+ *     r.lock();
+ *     try { return m.get(key); }
+ *     finally { r.unlock(); }
+ *   }
+ *   public String put(String key, String value) {
+ *     w.lock();
+ *     try { return m.put(key, value); }
+ *     finally { w.unlock(); }
+ *   }
+ * }}</pre>
+ */
+public class StripedReadWriteLock implements ReadWriteLock, java.io.Serializable {
+    private static final long serialVersionUID = 2871637260415742530L;
+
+    /*
+     * Overview:
+     *
+     * The write lock is a ReentrantLock, "writers", which provides
+     * ordering, fairness, reentrancy and conditions for writers, plus
+     * a volatile flag, writerActive, raised by its holder.  Readers
+     * are counted in the slots, each a padded counter as in Striped64,
+     * indexed by thread id, which is stable, so that a reader releases
+     * the slot that it acquired without recording it.
+     *
+     * A reader increments its slot and then reads the flag; a writer
+     * raises the flag and then reads the slots.  As both are volatile,
+     * either the writer sees the reader, or the reader sees the flag.
+     * A reader seeing the flag (unless it holds the write lock, in
+     * which case it is downgrading) backs out, acquires and releases
+     * "writers", incrementing its slot while holding it, and so waits
+     * its turn behind the writers queued before it.  A writer, once it
+     * has raised the flag, spins briefly and then parks until the
+     * slots sum to zero; readers decrementing a slot while the flag is
+     * up unpark it.  It need not worry about new readers, which either
+     * back out or are seen by the scan, and the sum of the slots only
+     * falls while the flag is up, so a scan reading zero means that
+     * there are no readers.
+     *
+     * The flag is raised only by the holder of "writers", when it
+     * first acquires it, and lowered when it finally releases it, or
+     * gives it up to wait on a condition, and raised again afterwards.
+     */
+
+    /** Number of CPUs, to size the slots */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** Number of times a writer scans the slots before parking */
+    static final int SPINS = (NCPU > 1) ? 1 << 6 : 0;
+
+    /** The lock of writers */
+    final ReentrantLock writers;
+    /** Inner class providing readlock */
+    private final ReadLock readerLock;
+    /** Inner class providing writelock */
+    private final WriteLock writerLock;
+
+    /** The reader indicators; a power of two in length */
+    transient Slot[] slots;
+    /** Whether the holder of writers excludes readers */
+    transient volatile boolean writerActive;
+    /** The writer waiting for readers to drain, if any */
+    transient volatile Thread waitingWriter;
+
+    /**
+     * Creates a new {@code StripedReadWriteLock} with
+     * default (nonfair) ordering properties.
+     */
+    public StripedReadWriteLock() {
+        this(false);
+    }
+
+    /**
+     * Creates a new {@code StripedReadWriteLock} with
+     * the given fairness policy.
+     *
+     * @param fair {@code true} if this lock should use a fair ordering policy
+     */
+    public StripedReadWriteLock(boolean fair) {
+        writers = new ReentrantLock(fair);
+        readerLock = new ReadLock(this);
+        writerLock = new WriteLock(this);
+        slots = newSlots();
+    }
+
+    public StripedReadWriteLock.WriteLock writeLock() { return writerLock; }
+    public StripedReadWriteLock.ReadLock  readLock()  { return readerLock; }
+
+    static Slot[] newSlots() {
+        int n = 1;
+        while (n < NCPU)
+            n <<= 1;
+        Slot[] ss = new Slot[n];
+        for (int i = 0; i < n; i++)
+            ss[i] = new Slot();
+        return ss;
+    }
+
+    /**
+     * A reader indicator, padded to avoid sharing its cache line.
+     */
+    @sun.misc.Contended static final class Slot {
+        volatile long readers;
+
+        /** Adds x to the count of readers, returning the new count */
+        final long add(long x) {
+            return UNSAFE.getAndAddLong(this, readersOffset, x) + x;
+        }
+
+        // Unsafe mechanics
+        private static final sun.misc.Unsafe UNSAFE;
+        private static final long readersOffset;
+        static {
+            try {
+                UNSAFE = sun.misc.Unsafe.getUnsafe();
+                Class<?> k = Slot.class;
+                readersOffset = UNSAFE.objectFieldOffset
+                    (k.getDeclaredField("readers"));
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+    }
+
+    /** Returns the slot of the current thread */
+    final Slot slot() {
+        Slot[] ss = slots;
+        return ss[(int) Thread.currentThread().getId() & (ss.length - 1)];
+    }
+
+    /** Returns the number of readers */
+    final long readerCount() {
+        long sum = 0L;
+        for (Slot s : slots)
+            sum += s.readers;
+        return sum;
+    }
+
+    /**
+     * Registers a reader in slot s, returning true if no writer
+     * excludes it; otherwise deregisters it.
+     */
+    final boolean tryFastRead(Slot s) {
+        s.add(1L);
+        if (!writerActive || writers.isHeldByCurrentThread())
+            return true;
+        leaveSlot(s);
+        return false;
+    }
+
+    /** Deregisters a reader from slot s, waking any waiting writer */
+    final void leaveSlot(Slot s) {
+        if (s.add(-1L) < 0L) {
+            s.add(1L);
+            throw new IllegalMonitorStateException();
+        }
+        Thread w;
+        if (writerActive && (w = waitingWriter) != null)
+            LockSupport.unpark(w);
+    }
+
+    /**
+     * Raises the flag and waits for readers to drain; called by a
+     * thread that has just acquired writers.
+     */
+    final void awaitReaders() {
+        Thread current = Thread.currentThread();
+        waitingWriter = current;
+        writerActive = true;
+        boolean interrupted = false;
+        for (int spins = SPINS; readerCount() != 0L; ) {
+            if (spins > 0)
+                --spins;
+            else {
+                LockSupport.park(this);
+                if (Thread.interrupted())
+                    interrupted = true;
+            }
+        }
+        waitingWriter = null;
+        if (interrupted)
+            current.interrupt();
+    }
+
+    /**
+     * Interruptible and optionally timed form of awaitReaders.  Returns
+     * false, with the flag lowered and writers released, on timeout.
+     */
+    final boolean awaitReadersInterruptibly(boolean timed, long deadline)
+        throws InterruptedException {
+        waitingWriter = Thread.currentThread();
+        writerActive = true;
+        for (int spins = SPINS; readerCount() != 0L; ) {
+            if (spins > 0)
+                --spins;
+            else {
+                if (!timed)
+                    LockSupport.park(this);
+                else {
+                    long nanos = deadline - System.nanoTime();
+                    if (nanos <= 0L) {
+                        abortWrite();
+                        return false;
+                    }
+                    LockSupport.parkNanos(this, nanos);
+                }
+                if (Thread.interrupted()) {
+                    abortWrite();
+                    throw new InterruptedException();
+                }
+            }
+        }
+        waitingWriter = null;
+        return true;
+    }
+
+    /** Lowers the flag and releases writers, admitting queued readers */
+    final void abortWrite() {
+        waitingWriter = null;
+        writerActive = false;
+        writers.unlock();
+    }
+
+    /**
+     * The lock returned by method {@link StripedReadWriteLock#readLock}.
+     */
+    public static class ReadLock implements Lock, java.io.Serializable {
+        private static final long serialVersionUID = -3547319062711356153L;
+        private final StripedReadWriteLock lock;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected ReadLock(StripedReadWriteLock lock) {
+            if (lock == null)
+                throw new NullPointerException();
+            this.lock = lock;
+        }
+
+        /**
+         * Acquires the read lock.
+         *
+         * <p>Acquires the read lock if the write lock is not held by
+         * another thread, and no writer is waiting for readers to
+         * release the lock, and returns immediately.
+         *
+         * <p>Otherwise the current thread becomes disabled for thread
+         * scheduling purposes and lies dormant until the writers queued
+         * before it have released the write lock.
+         */
+        public void lock() {
+            StripedReadWriteLock l = lock;
+            Slot s = l.slot();
+            if (!l.tryFastRead(s)) {
+                l.writers.lock();
+                try {
+                    s.add(1L);
+                } finally {
+                    l.writers.unlock();
+                }
+            }
+        }
+
+        /**
+         * Acquires the read lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * <p>Acquires the read lock if the write lock is not held by
+         * another thread, and no writer is waiting for readers to
+         * release the lock, and returns immediately.
+         *
+         * <p>Otherwise the current thread becomes disabled for thread
+         * scheduling purposes and lies dormant until the writers queued
+         * before it have released the write lock, or some other thread
+         * interrupts the current thread.
+         *
+         * <p>If the current thread is interrupted while waiting to
+         * acquire the read lock, then {@link InterruptedException} is
+         * thrown and the current thread's interrupted status is cleared.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            StripedReadWriteLock l = lock;
+            Slot s = l.slot();
+            if (!l.tryFastRead(s)) {
+                l.writers.lockInterruptibly();
+                try {
+                    s.add(1L);
+                } finally {
+                    l.writers.unlock();
+                }
+            }
+        }
+
+        /**
+         * Acquires the read lock only if the write lock is not held by
+         * another thread at the time of invocation, and no writer is
+         * waiting for readers to release the lock.
+         *
+         * @return {@code true} if the read lock was acquired
+         */
+        public boolean tryLock() {
+            StripedReadWriteLock l = lock;
+            Slot s = l.slot();
+            if (l.tryFastRead(s))
+                return true;
+            if (!l.writers.tryLock())
+                return false;
+            try {
+                s.add(1L);
+            } finally {
+                l.writers.unlock();
+            }
+            return true;
+        }
+
+        /**
+         * Acquires the read lock if the write lock is not held by
+         * another thread within the given waiting time and the current
+         * thread has not been {@linkplain Thread#interrupt interrupted}.
+         *
+         * <p>If the current thread is interrupted while waiting to
+         * acquire the read lock, then {@link InterruptedException} is
+         * thrown and the current thread's interrupted status is cleared.
+         *
+         * @param timeout the time to wait for the read lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the read lock was acquired
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            StripedReadWriteLock l = lock;
+            Slot s = l.slot();
+            if (l.tryFastRead(s))
+                return true;
+            if (!l.writers.tryLock(timeout, unit))
+                return false;
+            try {
+                s.add(1L);
+            } finally {
+                l.writers.unlock();
+            }
+            return true;
+        }
+
+        /**
+         * Attempts to release this lock.
+         *
+         * <p>If the number of readers is now zero then the lock is made
+         * available for write lock attempts.
+         *
+         * @throws IllegalMonitorStateException if it is detected that
+         *         the current thread does not hold this lock
+         */
+        public void unlock() {
+            StripedReadWriteLock l = lock;
+            l.leaveSlot(l.slot());
+        }
+
+        /**
+         * Throws {@code UnsupportedOperationException} because
+         * {@code ReadLocks} do not support conditions.
+         *
+         * @throws UnsupportedOperationException always
+         */
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock state.
+         * The state, in brackets, includes the String {@code "Read locks ="}
+         * followed by the number of held read locks.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            return super.toString() +
+                "[Read locks = " + lock.getReadLockCount() + "]";
+        }
+    }
+
+    /**
+     * The lock returned by method {@link StripedReadWriteLock#writeLock}.
+     */
+    public static class WriteLock implements Lock, java.io.Serializable {
+        private static final long serialVersionUID = 5624728203415781603L;
+        private final StripedReadWriteLock lock;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected WriteLock(StripedReadWriteLock lock) {
+            if (lock == null)
+                throw new NullPointerException();
+            this.lock = lock;
+        }
+
+        /**
+         * Acquires the write lock.
+         *
+         * <p>Acquires the write lock if neither the read nor write lock
+         * are held by another thread
+         * and returns immediately, setting the write lock hold count to
+         * one.
+         *
+         * <p>If the current thread already holds the write lock then the
+         * hold count is incremented by one and the method returns
+         * immediately.
+         *
+         * <p>If the lock is held by another thread then the current
+         * thread becomes disabled for thread scheduling purposes and
+         * lies dormant until the write lock has been acquired, at which
+         * time the write lock hold count is set to one.
+         */
+        public void lock() {
+            StripedReadWriteLock l = lock;
+            l.writers.lock();
+            if (l.writers.getHoldCount() == 1)
+                l.awaitReaders();
+        }
+
+        /**
+         * Acquires the write lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * <p>Acquires the write lock if neither the read nor write lock
+         * are held by another thread
+         * and returns immediately, setting the write lock hold count to
+         * one.
+         *
+         * <p>If the current thread already holds this lock then the
+         * hold count is incremented by one and the method returns
+         * immediately.
+         *
+         * <p>If the lock is held by another thread then the current
+         * thread becomes disabled for thread scheduling purposes and
+         * lies dormant until the write lock has been acquired, or some
+         * other thread interrupts the current thread.
+         *
+         * <p>If the current thread is interrupted while waiting to
+         * acquire the write lock, then {@link InterruptedException} is
+         * thrown and the current thread's interrupted status is cleared.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            StripedReadWriteLock l = lock;
+            l.writers.lockInterruptibly();
+            if (l.writers.getHoldCount() == 1)
+                l.awaitReadersInterruptibly(false, 0L);
+        }
+
+        /**
+         * Acquires the write lock only if it is not held by another
+         * thread, and the read lock is not held, at the time of
+         * invocation.
+         *
+         * <p>If the current thread already holds this lock then the
+         * hold count is incremented by one and the method returns
+         * {@code true}.
+         *
+         * @return {@code true} if the lock was free and was acquired
+         * by the current thread, or the write lock was already held
+         * by the current thread; and {@code false} otherwise.
+         */
+        public boolean tryLock() {
+            StripedReadWriteLock l = lock;
+            if (!l.writers.tryLock())
+                return false;
+            if (l.writers.getHoldCount() == 1) {
+                l.writerActive = true;
+                if (l.readerCount() != 0L) {
+                    l.abortWrite();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Acquires the write lock if it is not held by another thread,
+         * and the read lock is released by all readers, within the
+         * given waiting time and the current thread has not been
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * <p>If the current thread already holds this lock then the
+         * hold count is incremented by one and the method returns
+         * {@code true}.
+         *
+         * <p>If the current thread is interrupted while waiting to
+         * acquire the write lock, then {@link InterruptedException} is
+         * thrown and the current thread's interrupted status is cleared.
+         *
+         * @param timeout the time to wait for the write lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the lock was free and was acquired
+         * by the current thread, or the write lock was already held by the
+         * current thread; and {@code false} if the waiting time
+         * elapsed before the lock could be acquired.
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            StripedReadWriteLock l = lock;
+            if (!l.writers.tryLock(timeout, unit))
+                return false;
+            return l.writers.getHoldCount() > 1 ||
+                l.awaitReadersInterruptibly(true, deadline);
+        }
+
+        /**
+         * Attempts to release this lock.
+         *
+         * <p>If the current thread is the holder of this lock then
+         * the hold count is decremented. If the hold count is now
+         * zero then the lock is released.  If the current thread is
+         * not the holder of this lock then {@link
+         * IllegalMonitorStateException} is thrown.
+         *
+         * @throws IllegalMonitorStateException if the current thread does not
+         * hold this lock
+         */
+        public void unlock() {
+            StripedReadWriteLock l = lock;
+            if (l.writers.getHoldCount() == 1)
+                l.writerActive = false;
+            l.writers.unlock();
+        }
+
+        /**
+         * Returns a {@link Condition} instance for use with this
+         * {@link Lock} instance.
+         * The returned {@link Condition} instance supports the same
+         * usages as do the {@link Object} monitor methods ({@link
+         * Object#wait() wait}, {@link Object#notify notify}, and {@link
+         * Object#notifyAll notifyAll}) when used with the built-in
+         * monitor lock.
+         *
+         * <ul>
+         *
+         * <li>If this write lock is not held when any {@link
+         * Condition} method is called then an {@link
+         * IllegalMonitorStateException} is thrown.  (Read locks are
+         * held independently of write locks, so are not checked or
+         * affected. However it is essentially always an error to
+         * invoke a condition waiting method when the current thread
+         * has also acquired read locks, since other threads that
+         * could unblock it will not be able to acquire the write
+         * lock.)
+         *
+         * <li>When the condition {@linkplain Condition#await() waiting}
+         * methods are called the write lock is released and, before
+         * they return, the write lock is reacquired and the lock hold
+         * count restored to what it was when the method was called.
+         *
+         * <li>If a thread is {@linkplain Thread#interrupt interrupted} while
+         * waiting then the wait will terminate, an {@link
+         * InterruptedException} will be thrown, and the thread's
+         * interrupted status will be cleared.
+         *
+         * <li>Waiting threads are signalled in FIFO order.
+         *
+         * </ul>
+         *
+         * @return the Condition object
+         */
+        public Condition newCondition() {
+            return new WriterCondition(lock, lock.writers.newCondition());
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock
+         * state.  The state, in brackets includes either the String
+         * {@code "Unlocked"} or the String {@code "Locked"}.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            return super.toString() + (lock.isWriteLocked() ?
+                                       "[Locked]" : "[Unlocked]");
+        }
+
+        /**
+         * Queries if this write lock is held by the current thread.
+         * Identical in effect to {@link
+         * StripedReadWriteLock#isWriteLockedByCurrentThread}.
+         *
+         * @return {@code true} if the current thread holds this lock and
+         *         {@code false} otherwise
+         */
+        public boolean isHeldByCurrentThread() {
+            return lock.writers.isHeldByCurrentThread();
+        }
+
+        /**
+         * Queries the number of holds on this write lock by the current
+         * thread.  Identical in effect to {@link
+         * StripedReadWriteLock#getWriteHoldCount}.
+         *
+         * @return the number of holds on this lock by the current thread,
+         *         or zero if this lock is not held by the current thread
+         */
+        public int getHoldCount() {
+            return lock.writers.getHoldCount();
+        }
+    }
+
+    /**
+     * A condition of the write lock, which lowers the flag while
+     * waiting, and raises it again, waiting for readers to drain, once
+     * the underlying condition has reacquired writers.
+     */
+    static final class WriterCondition implements Condition, java.io.Serializable {
+        private static final long serialVersionUID = -1810436398206153624L;
+        final StripedReadWriteLock lock;
+        final Condition condition;
+
+        WriterCondition(StripedReadWriteLock lock, Condition condition) {
+            this.lock = lock;
+            this.condition = condition;
+        }
+
+        /** Lowers the flag before the underlying condition releases writers */
+        private void beforeWait() {
+            if (!lock.writers.isHeldByCurrentThread())
+                throw new IllegalMonitorStateException();
+            lock.writerActive = false;
+        }
+
+        /** Restores exclusion after the underlying condition reacquires writers */
+        private void afterWait() {
+            lock.awaitReaders();
+        }
+
+        public void await() throws InterruptedException {
+            beforeWait();
+            try {
+                condition.await();
+            } finally {
+                afterWait();
+            }
+        }
+
+        public void awaitUninterruptibly() {
+            beforeWait();
+            try {
+                condition.awaitUninterruptibly();
+            } finally {
+                afterWait();
+            }
+        }
+
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            beforeWait();
+            try {
+                return condition.awaitNanos(nanosTimeout);
+            } finally {
+                afterWait();
+            }
+        }
+
+        public boolean await(long time, TimeUnit unit)
+                throws InterruptedException {
+            beforeWait();
+            try {
+                return condition.await(time, unit);
+            } finally {
+                afterWait();
+            }
+        }
+
+        public boolean awaitUntil(java.util.Date deadline)
+                throws InterruptedException {
+            beforeWait();
+            try {
+                return condition.awaitUntil(deadline);
+            } finally {
+                afterWait();
+            }
+        }
+
+        public void signal() {
+            condition.signal();
+        }
+
+        public void signalAll() {
+            condition.signalAll();
+        }
+    }
+
+    // Instrumentation and status
+
+    /**
+     * Returns {@code true} if this lock has fairness set true.
+     *
+     * @return {@code true} if this lock has fairness set true
+     */
+    public final boolean isFair() {
+        return writers.isFair();
+    }
+
+    /**
+     * Queries the number of read locks held for this lock. This
+     * method is designed for use in monitoring system state, not for
+     * synchronization control.  The count is the sum of the reader
+     * indicators, which are read one at a time, so it is only an
+     * estimate while the lock is in use.
+     *
+     * @return the number of read locks held
+     */
+    public int getReadLockCount() {
+        return (int) Math.max(0L, Math.min(readerCount(), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Queries if the write lock is held by any thread. This method is
+     * designed for use in monitoring system state, not for
+     * synchronization control.
+     *
+     * @return {@code true} if any thread holds the write lock and
+     *         {@code false} otherwise
+     */
+    public boolean isWriteLocked() {
+        return writerActive && waitingWriter == null;
+    }
+
+    /**
+     * Queries if the write lock is held by the current thread.
+     *
+     * @return {@code true} if the current thread holds the write lock and
+     *         {@code false} otherwise
+     */
+    public boolean isWriteLockedByCurrentThread() {
+        return writers.isHeldByCurrentThread();
+    }
+
+    /**
+     * Queries the number of reentrant write holds on this lock by the
+     * current thread.  A writer thread has a hold on a lock for
+     * each lock action that is not matched by an unlock action.
+     *
+     * @return the number of holds on the write lock by the current thread,
+     *         or zero if the write lock is not held by the current thread
+     */
+    public int getWriteHoldCount() {
+        return writers.getHoldCount();
+    }
+
+    /**
+     * Queries whether any threads are waiting to acquire the write
+     * lock, or are readers queued behind a writer.  Note that because
+     * cancellations may occur at any time, a {@code true} return does
+     * not guarantee that any other thread will ever acquire a lock.
+     * This method is designed primarily for use in monitoring of the
+     * system state.
+     *
+     * @return {@code true} if there may be other threads waiting to
+     *         acquire the lock
+     */
+    public final boolean hasQueuedThreads() {
+        return writers.hasQueuedThreads();
+    }
+
+    /**
+     * Returns an estimate of the number of threads waiting to acquire
+     * the write lock, or queued as readers behind a writer.  The value
+     * is only an estimate because the number of threads may change
+     * dynamically while this method traverses internal data
+     * structures.  This method is designed for use in monitoring of
+     * the system state, not for synchronization control.
+     *
+     * @return the estimated number of threads waiting for this lock
+     */
+    public final int getQueueLength() {
+        return writers.getQueueLength();
+    }
+
+    /**
+     * Returns a string identifying this lock, as well as its lock state.
+     * The state, in brackets, includes the String {@code "Unlocked"},
+     * the String {@code "Write-locked"}, or the String
+     * {@code "Read-locks:"} followed by the number of held read locks.
+     *
+     * @return a string identifying this lock, as well as its lock state
+     */
+    public String toString() {
+        int r;
+        return super.toString() +
+            (isWriteLocked() ? "[Write-locked]" :
+             (r = getReadLockCount()) == 0 ? "[Unlocked]" :
+             "[Read-locks:" + r + "]");
+    }
+
+    /**
+     * Reconstitutes this lock from a stream, in the unlocked state.
+     *
+     * @param s the stream
+     * @throws ClassNotFoundException if the class of a serialized object
+     *         could not be found
+     * @throws java.io.IOException if an I/O error occurs
+     */
+    private void readObject(java.io.ObjectInputStream s)
+        throws java.io.IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        slots = newSlots();
+    }
+}
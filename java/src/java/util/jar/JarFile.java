@@ -204,7 +204,9 @@ class JarFile extends ZipFile {
         return man;
     }
 
-    private native String[] getMetaInfEntryNames();
+    private String[] getMetaInfEntryNames() {
+        return SharedSecrets.getJavaUtilZipFileAccess().getMetaInfEntryNames(this);
+    }
 
     /**
      * Returns the <code>JarEntry</code> for the given entry name or
@@ -0,0 +1,487 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.logging;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <tt>Handler</tt> that hands records over to a target <tt>Handler</tt>
+ * running on a background thread.
+ * <p>
+ * <tt>publish</tt> only places the <tt>LogRecord</tt> into a bounded,
+ * lock-free ring buffer, so logging threads neither contend on the lock
+ * of the target <tt>Handler</tt> nor wait for formatting or I/O. A single
+ * writer thread takes records from the buffer in batches, publishes each
+ * batch to the target and then flushes the target once. For the
+ * <tt>StreamHandler</tt>s of this package, a batch is written under one
+ * acquisition of the handler lock and with one flush.
+ * <p>
+ * When the buffer is full the {@link OverflowPolicy} decides whether the
+ * publishing thread waits for room or the record is dropped. Dropped
+ * records are counted, see {@link #getDroppedCount()}.
+ * <p>
+ * Since records are formatted on the writer thread, <tt>publish</tt>
+ * infers the caller of each record before queueing it, unless this is
+ * disabled with the <tt>inferCaller</tt> property.
+ * <p>
+ * <b>Configuration:</b>
+ * By default each <tt>AsyncHandler</tt> is initialized using the following
+ * <tt>LogManager</tt> configuration properties where <tt>&lt;handler-name&gt;</tt>
+ * refers to the fully-qualified class name of the handler.
+ * If properties are not defined
+ * (or have invalid values) then the specified default values are used.
+ * If no default value is defined then a RuntimeException is thrown.
+ * <ul>
+ * <li>   &lt;handler-name&gt;.level
+ *        specifies the level for the <tt>Handler</tt>
+ *        (defaults to <tt>Level.ALL</tt>). </li>
+ * <li>   &lt;handler-name&gt;.filter
+ *        specifies the name of a <tt>Filter</tt> class to use
+ *        (defaults to no <tt>Filter</tt>). </li>
+ * <li>   &lt;handler-name&gt;.size
+ *        defines the buffer size, rounded up to a power of two
+ *        (defaults to 8192). </li>
+ * <li>   &lt;handler-name&gt;.batchSize
+ *        defines the maximum number of records written per flush
+ *        (defaults to 512). </li>
+ * <li>   &lt;handler-name&gt;.overflow
+ *        specifies the {@link OverflowPolicy} by name
+ *        (defaults to <tt>BLOCK</tt>). </li>
+ * <li>   &lt;handler-name&gt;.dropLevel
+ *        defines the level below which records are dropped under the
+ *        <tt>DROP_BELOW_LEVEL</tt> policy (defaults to <tt>Level.WARNING</tt>). </li>
+ * <li>   &lt;handler-name&gt;.inferCaller
+ *        specifies whether the caller is inferred before queueing
+ *        (defaults to <tt>true</tt>). </li>
+ * <li>   &lt;handler-name&gt;.target
+ *        specifies the name of the target <tt>Handler </tt> class.
+ *        (no default). </li>
+ * </ul>
+ * <p>
+ * For example, the properties for {@code AsyncHandler} would be:
+ * <ul>
+ * <li>   java.util.logging.AsyncHandler.target=java.util.logging.FileHandler </li>
+ * <li>   java.util.logging.AsyncHandler.overflow=DROP_BELOW_LEVEL </li>
+ * </ul>
+ */
+
+public class AsyncHandler extends Handler {
+    private final static int DEFAULT_SIZE = 8192;
+    private final static int DEFAULT_BATCH_SIZE = 512;
+    // how long the writer sleeps when there is nothing to write
+    private final static long IDLE_PARK_NANOS = 100L * 1000 * 1000;
+
+    /**
+     * What {@code publish} does when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** The publishing thread waits until there is room. */
+        BLOCK,
+        /** The record is dropped. */
+        DROP,
+        /**
+         * Records below the drop level are dropped, the publishing
+         * thread waits for room for the others.
+         */
+        DROP_BELOW_LEVEL
+    }
+
+    private Handler target;
+    private volatile OverflowPolicy overflow;
+    private volatile Level dropLevel;
+    private boolean inferCaller;
+    private int batchSize;
+
+    /* the ring buffer. A slot may be written by the producer which
+     * claimed tail == its sequence, and read once its sequence is one
+     * greater than the position. Only the writer thread advances head.
+     */
+    private LogRecord[] ring;
+    private AtomicLongArray sequences;
+    private int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final LongAdder dropped = new LongAdder();
+    private Thread writer;
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+
+    // Private method to configure an AsyncHandler from LogManager
+    // properties and/or default values as specified in the class
+    // javadoc.
+    private void configure() {
+        LogManager manager = LogManager.getLogManager();
+        String cname = getClass().getName();
+
+        int size = manager.getIntProperty(cname + ".size", DEFAULT_SIZE);
+        if (size <= 0) {
+            size = DEFAULT_SIZE;
+        }
+        setBufferSize(size);
+        batchSize = manager.getIntProperty(cname + ".batchSize", DEFAULT_BATCH_SIZE);
+        if (batchSize <= 0) {
+            batchSize = DEFAULT_BATCH_SIZE;
+        }
+        String policy = manager.getStringProperty(cname + ".overflow", null);
+        overflow = OverflowPolicy.BLOCK;
+        if (policy != null) {
+            try {
+                overflow = OverflowPolicy.valueOf(policy.trim().toUpperCase(java.util.Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                // we got an invalid value, use the default
+            }
+        }
+        dropLevel = manager.getLevelProperty(cname + ".dropLevel", Level.WARNING);
+        inferCaller = manager.getBooleanProperty(cname + ".inferCaller", true);
+        setLevel(manager.getLevelProperty(cname +".level", Level.ALL));
+        setFilter(manager.getFilterProperty(cname +".filter", null));
+    }
+
+    private void setBufferSize(int size) {
+        int capacity = 1;
+        while (capacity < size && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        ring = new LogRecord[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * Create an <tt>AsyncHandler</tt> and configure it based on
+     * <tt>LogManager</tt> configuration properties.
+     */
+    public AsyncHandler() {
+        sealed = false;
+        configure();
+        sealed = true;
+
+        LogManager manager = LogManager.getLogManager();
+        String handlerName = getClass().getName();
+        String targetName = manager.getProperty(handlerName+".target");
+        if (targetName == null) {
+            throw new RuntimeException("The handler " + handlerName
+                    + " does not specify a target");
+        }
+        Class<?> clz;
+        try {
+            clz = ClassLoader.getSystemClassLoader().loadClass(targetName);
+            target = (Handler) clz.newInstance();
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException("AsyncHandler can't load handler target \"" + targetName + "\"" , e);
+        }
+        start();
+    }
+
+    /**
+     * Create an <tt>AsyncHandler</tt>.
+     * <p>
+     * The <tt>AsyncHandler</tt> is configured based on <tt>LogManager</tt>
+     * properties (or their default values) except that the given buffer
+     * size and overflow policy are used.
+     *
+     * @param target  the Handler to which to publish output.
+     * @param size    the number of log records to buffer (must be greater than zero)
+     * @param overflow  what to do when the buffer is full
+     *
+     * @throws IllegalArgumentException if {@code size is <= 0}
+     */
+    public AsyncHandler(Handler target, int size, OverflowPolicy overflow) {
+        if (target == null || overflow == null) {
+            throw new NullPointerException();
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException();
+        }
+        sealed = false;
+        configure();
+        sealed = true;
+        this.target = target;
+        this.overflow = overflow;
+        setBufferSize(size);
+        start();
+    }
+
+    private void start() {
+        final Runnable task = new Runnable() {
+            public void run() {
+                writeLoop();
+            }
+        };
+        writer = AccessController.doPrivileged(new PrivilegedAction<Thread>() {
+            public Thread run() {
+                Thread t = new Thread(task, "AsyncHandler-Writer");
+                t.setDaemon(true);
+                t.setContextClassLoader(null);
+                return t;
+            }
+        });
+        writer.start();
+    }
+
+    /**
+     * Queue a <tt>LogRecord</tt> for publication by the target
+     * <tt>Handler</tt>.
+     * <p>
+     * If there is a <tt>Filter</tt>, its <tt>isLoggable</tt>
+     * method is called to check if the given log record is loggable.
+     * If not we return. Otherwise the record is placed into the buffer,
+     * subject to the overflow policy if the buffer is full.
+     *
+     * @param  record  description of the log event. A null record is
+     *                 silently ignored and is not published
+     */
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        if (inferCaller) {
+            // forces the stack walk while we are on the caller's thread
+            record.getSourceClassName();
+        }
+        if (offer(record)) {
+            return;
+        }
+        OverflowPolicy policy = overflow;
+        if (policy == OverflowPolicy.DROP ||
+            (policy == OverflowPolicy.DROP_BELOW_LEVEL &&
+             record.getLevel().intValue() < dropLevel.intValue())) {
+            dropped.increment();
+            return;
+        }
+        int spins = 0;
+        while (!offer(record)) {
+            if (closed) {
+                dropped.increment();
+                return;
+            }
+            wakeWriter();
+            if (++spins < 64) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(this, 100L * 1000);
+            }
+        }
+    }
+
+    /* places a record into the ring, returns false if it is full */
+    private boolean offer(LogRecord record) {
+        long t;
+        int i;
+        while (true) {
+            t = tail.get();
+            i = (int) t & mask;
+            long seq = sequences.get(i);
+            if (seq == t) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    break;
+                }
+            } else if (seq < t) {
+                return false;
+            }
+            // else another producer claimed this slot, retry
+        }
+        ring[i] = record;
+        sequences.lazySet(i, t + 1);
+        if (writerParked) {
+            wakeWriter();
+        }
+        return true;
+    }
+
+    /* takes the next record, only called by the writer thread */
+    private LogRecord poll() {
+        long h = head;
+        int i = (int) h & mask;
+        if (sequences.get(i) != h + 1) {
+            return null;
+        }
+        LogRecord record = ring[i];
+        ring[i] = null;
+        sequences.lazySet(i, h + ring.length);
+        head = h + 1;
+        return record;
+    }
+
+    private void wakeWriter() {
+        writerParked = false;
+        LockSupport.unpark(writer);
+    }
+
+    private void writeLoop() {
+        LogRecord[] batch = new LogRecord[batchSize];
+        while (true) {
+            int n = 0;
+            LogRecord record;
+            while (n < batch.length && (record = poll()) != null) {
+                batch[n++] = record;
+            }
+            if (n > 0) {
+                try {
+                    if (target instanceof StreamHandler) {
+                        ((StreamHandler) target).publishBatch(batch, n);
+                    } else {
+                        for (int i = 0; i < n; i++) {
+                            target.publish(batch[i]);
+                        }
+                        target.flush();
+                    }
+                } catch (RuntimeException ex) {
+                    reportError(null, ex, ErrorManager.WRITE_FAILURE);
+                }
+                java.util.Arrays.fill(batch, 0, n, null);
+                continue;
+            }
+            if (closed && head == tail.get()) {
+                return;
+            }
+            writerParked = true;
+            if (head == tail.get() && !closed) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+    }
+
+    /**
+     * Waits until the records queued so far have been published,
+     * then flushes the target <tt>Handler</tt>.
+     */
+    @Override
+    public void flush() {
+        long t = tail.get();
+        while (head < t && writer.isAlive()) {
+            wakeWriter();
+            LockSupport.parkNanos(this, 100L * 1000);
+        }
+        target.flush();
+    }
+
+    /**
+     * Close the <tt>Handler</tt> and free all associated resources.
+     * The records already queued are published first. This will also
+     * close the target <tt>Handler</tt>.
+     *
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    @Override
+    public void close() throws SecurityException {
+        checkPermission();
+        closed = true;
+        wakeWriter();
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        target.close();
+        setLevel(Level.OFF);
+    }
+
+    /**
+     * Set the overflow policy.
+     *
+     * @param policy the new overflow policy
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    public void setOverflowPolicy(OverflowPolicy policy) throws SecurityException {
+        if (policy == null) {
+            throw new NullPointerException();
+        }
+        checkPermission();
+        overflow = policy;
+    }
+
+    /**
+     * Get the overflow policy.
+     *
+     * @return the overflow policy
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflow;
+    }
+
+    /**
+     * Set the level below which records are dropped when the buffer is
+     * full and the overflow policy is <tt>DROP_BELOW_LEVEL</tt>.
+     *
+     * @param newLevel the new drop level
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    public void setDropLevel(Level newLevel) throws SecurityException {
+        if (newLevel == null) {
+            throw new NullPointerException();
+        }
+        checkPermission();
+        dropLevel = newLevel;
+    }
+
+    /**
+     * Get the drop level.
+     *
+     * @return the level below which records may be dropped
+     */
+    public Level getDropLevel() {
+        return dropLevel;
+    }
+
+    /**
+     * Returns the number of records waiting to be published.
+     *
+     * @return the current queue depth
+     */
+    public int getQueueDepth() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * Returns the number of records dropped because the buffer was full.
+     *
+     * @return the number of dropped records
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
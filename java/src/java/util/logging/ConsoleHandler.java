@@ -117,6 +117,15 @@ public class ConsoleHandler extends StreamHandler {
         flush();
     }
 
+    // Publish a batch with one flush instead of one flush per record.
+    @Override
+    synchronized void publishBatch(LogRecord[] records, int count) {
+        for (int i = 0; i < count; i++) {
+            super.publish(records[i]);
+        }
+        flush();
+    }
+
     /**
      * Override <tt>StreamHandler.close</tt> to do a flush but not
      * to close the output stream.  That is, we do <b>not</b>
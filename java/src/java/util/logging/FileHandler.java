@@ -716,6 +716,28 @@ public class FileHandler extends StreamHandler {
         }
     }
 
+    /*
+     * Publish a batch of records with a single flush. The size limit is
+     * checked once the batch has been written, so a file may exceed its
+     * limit by up to one batch before it is rotated.
+     */
+    @Override
+    synchronized void publishBatch(LogRecord[] records, int count) {
+        for (int i = 0; i < count; i++) {
+            super.publish(records[i]);
+        }
+        flush();
+        if (limit > 0 && meter.written >= limit) {
+            AccessController.doPrivileged(new PrivilegedAction<Object>() {
+                @Override
+                public Object run() {
+                    rotate();
+                    return null;
+                }
+            });
+        }
+    }
+
     /**
      * Close all the files.
      *
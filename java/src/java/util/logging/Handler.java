@@ -301,6 +301,16 @@ public abstract class Handler {
         return filter.isLoggable(record);
     }
 
+    // Package-private support method for LogRecord reuse.
+    // Returns true if this Handler does not keep any reference to a
+    // LogRecord once publish has returned, so that the Logger may reuse
+    // the record for the next call on the same thread. Handlers that
+    // may hold on to records, directly or through a user supplied
+    // Filter or Formatter, must return false.
+    boolean releasesRecords() {
+        return false;
+    }
+
     // Package-private support method for security checks.
     // If "sealed" is true, we check that the caller has
     // appropriate security privileges to update Handler
@@ -1650,6 +1650,11 @@ public class LogManager {
             super.log(record);
         }
 
+        @Override
+        boolean recyclesRecords() {
+            return true;
+        }
+
         @Override
         public void addHandler(Handler h) {
             initializeGlobalHandlers();
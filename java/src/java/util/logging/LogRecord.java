@@ -138,6 +138,8 @@ public class LogRecord implements java.io.Serializable {
     private String resourceBundleName;
 
     private transient boolean needToInferCaller;
+    // set by the Logger while this record may still be reused
+    transient boolean reusable;
     private transient Object parameters[];
     private transient ResourceBundle resourceBundle;
 
@@ -186,6 +188,37 @@ public class LogRecord implements java.io.Serializable {
         needToInferCaller = true;
    }
 
+    /*
+     * Drops the references held by this record, so that a spare record
+     * kept by Logger does not retain the arguments, exception or resource
+     * bundle of the last call until it is reused.
+     */
+    void clear() {
+        message = null;
+        sourceClassName = null;
+        sourceMethodName = null;
+        thrown = null;
+        loggerName = null;
+        resourceBundleName = null;
+        parameters = null;
+        resourceBundle = null;
+    }
+
+    /*
+     * Reinitializes a cleared record as if it had been constructed with
+     * the given level and message. Only used by Logger to reuse records
+     * that no Handler has kept a reference to.
+     */
+    void reset(Level level, String msg) {
+        level.getClass();
+        this.level = level;
+        message = msg;
+        sequenceNumber = globalSequenceNumber.getAndIncrement();
+        threadID = defaultThreadID();
+        millis = System.currentTimeMillis();
+        needToInferCaller = true;
+    }
+
     /**
      * Get the source Logger's name.
      *
@@ -721,8 +721,12 @@ public class Logger {
             return;
         }
         Filter theFilter = filter;
-        if (theFilter != null && !theFilter.isLoggable(record)) {
-            return;
+        if (theFilter != null) {
+            // the filter may keep a reference to the record
+            record.reusable = false;
+            if (!theFilter.isLoggable(record)) {
+                return;
+            }
         }
 
         // Post the LogRecord to all our Handlers, and then to
@@ -735,6 +739,9 @@ public class Logger {
                 : logger.getHandlers();
 
             for (Handler handler : loggerHandlers) {
+                if (record.reusable && !handler.releasesRecords()) {
+                    record.reusable = false;
+                }
                 handler.publish(record);
             }
 
@@ -763,6 +770,48 @@ public class Logger {
             lr.setResourceBundle(bundle);
         }
         log(lr);
+        if (lr.reusable) {
+            // no Handler kept the record, keep it for the next call
+            lr.clear();
+            spareRecords.get()[0] = lr;
+        }
+    }
+
+    // One spare LogRecord per thread. A record is only put back once it
+    // has been published to handlers that release it (see
+    // Handler.releasesRecords), so the common case of logging to the
+    // console or to a file does not allocate a new record per call.
+    private static final ThreadLocal<LogRecord[]> spareRecords =
+        new ThreadLocal<LogRecord[]>() {
+            @Override
+            protected LogRecord[] initialValue() {
+                return new LogRecord[1];
+            }
+        };
+
+    // private support method to get a LogRecord for the convenience
+    // methods, reusing the spare record of the current thread if any.
+    private LogRecord newRecord(Level level, String msg) {
+        if (!recyclesRecords()) {
+            return new LogRecord(level, msg);
+        }
+        LogRecord[] spare = spareRecords.get();
+        LogRecord lr = spare[0];
+        if (lr == null) {
+            lr = new LogRecord(level, msg);
+        } else {
+            // taken out so that a nested call gets a record of its own
+            spare[0] = null;
+            lr.reset(level, msg);
+        }
+        lr.reusable = true;
+        return lr;
+    }
+
+    // Records may only be reused by loggers whose log(LogRecord) method
+    // is known not to keep them. Overridden by LogManager.RootLogger.
+    boolean recyclesRecords() {
+        return getClass() == Logger.class;
     }
 
 
@@ -784,7 +833,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         doLog(lr);
     }
 
@@ -806,7 +855,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msgSupplier.get());
+        LogRecord lr = newRecord(level, msgSupplier.get());
         doLog(lr);
     }
 
@@ -825,7 +874,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         Object params[] = { param1 };
         lr.setParameters(params);
         doLog(lr);
@@ -846,7 +895,57 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
+        lr.setParameters(params);
+        doLog(lr);
+    }
+
+    /**
+     * Log a message, with two object parameters.
+     * <p>
+     * If the logger is currently enabled for the given message
+     * level then a corresponding LogRecord is created and forwarded
+     * to all the registered output Handler objects.  Unlike
+     * {@link #log(Level, String, Object[])} no parameter array is
+     * allocated if the logger is not enabled for the level.
+     * <p>
+     * @param   level   One of the message level identifiers, e.g., SEVERE
+     * @param   msg     The string message (or a key in the message catalog)
+     * @param   param1  first parameter to the message
+     * @param   param2  second parameter to the message
+     */
+    public void log(Level level, String msg, Object param1, Object param2) {
+        if (!isLoggable(level)) {
+            return;
+        }
+        LogRecord lr = newRecord(level, msg);
+        Object params[] = { param1, param2 };
+        lr.setParameters(params);
+        doLog(lr);
+    }
+
+    /**
+     * Log a message, with three object parameters.
+     * <p>
+     * If the logger is currently enabled for the given message
+     * level then a corresponding LogRecord is created and forwarded
+     * to all the registered output Handler objects.  Unlike
+     * {@link #log(Level, String, Object[])} no parameter array is
+     * allocated if the logger is not enabled for the level.
+     * <p>
+     * @param   level   One of the message level identifiers, e.g., SEVERE
+     * @param   msg     The string message (or a key in the message catalog)
+     * @param   param1  first parameter to the message
+     * @param   param2  second parameter to the message
+     * @param   param3  third parameter to the message
+     */
+    public void log(Level level, String msg, Object param1, Object param2,
+                    Object param3) {
+        if (!isLoggable(level)) {
+            return;
+        }
+        LogRecord lr = newRecord(level, msg);
+        Object params[] = { param1, param2, param3 };
         lr.setParameters(params);
         doLog(lr);
     }
@@ -871,7 +970,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setThrown(thrown);
         doLog(lr);
     }
@@ -899,7 +998,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msgSupplier.get());
+        LogRecord lr = newRecord(level, msgSupplier.get());
         lr.setThrown(thrown);
         doLog(lr);
     }
@@ -925,7 +1024,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         doLog(lr);
@@ -952,7 +1051,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msgSupplier.get());
+        LogRecord lr = newRecord(level, msgSupplier.get());
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         doLog(lr);
@@ -977,7 +1076,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         Object params[] = { param1 };
@@ -1004,7 +1103,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         lr.setParameters(params);
@@ -1035,7 +1134,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msg);
+        LogRecord lr = newRecord(level, msg);
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         lr.setThrown(thrown);
@@ -1069,7 +1168,7 @@ public class Logger {
         if (!isLoggable(level)) {
             return;
         }
-        LogRecord lr = new LogRecord(level, msgSupplier.get());
+        LogRecord lr = newRecord(level, msgSupplier.get());
         lr.setSourceClassName(sourceClass);
         lr.setSourceMethodName(sourceMethod);
         lr.setThrown(thrown);
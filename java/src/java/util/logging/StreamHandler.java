@@ -230,6 +230,19 @@ public class StreamHandler extends Handler {
     }
 
 
+    /*
+     * Publish a batch of records and flush once. Used by AsyncHandler
+     * so that a batch is written under a single acquisition of the
+     * handler lock.
+     */
+    synchronized void publishBatch(LogRecord[] records, int count) {
+        for (int i = 0; i < count; i++) {
+            publish(records[i]);
+        }
+        flush();
+    }
+
+
     /**
      * Check if this <tt>Handler</tt> would actually log a given <tt>LogRecord</tt>.
      * <p>
@@ -249,6 +262,23 @@ public class StreamHandler extends Handler {
         return super.isLoggable(record);
     }
 
+    // Only the handlers of this package are known to write a record
+    // out and forget about it, and only with the Formatters of this
+    // package and no Filter.
+    @Override
+    boolean releasesRecords() {
+        Class<?> c = getClass();
+        if (c != StreamHandler.class && c != ConsoleHandler.class &&
+            c != FileHandler.class && c != SocketHandler.class) {
+            return false;
+        }
+        if (getFilter() != null) {
+            return false;
+        }
+        Class<?> f = getFormatter().getClass();
+        return f == SimpleFormatter.class || f == XMLFormatter.class;
+    }
+
     /**
      * Flush any buffered messages.
      */
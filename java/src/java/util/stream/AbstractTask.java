@@ -27,6 +27,7 @@ package java.util.stream;
 import java.util.Spliterator;
 import java.util.concurrent.CountedCompleter;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 /**
  * Abstract base class for most fork-join tasks used to implement stream ops.
@@ -175,13 +176,30 @@ abstract class AbstractTask<P_IN, P_OUT, R,
      */
     protected abstract R doLeaf();
 
+    /**
+     * Returns the target factor of leaf tasks for the pool of the current
+     * thread, which is the pool a pipeline bound to a pool is evaluated in,
+     * or {@link #LEAF_TARGET} if the current thread is not a pool worker.
+     *
+     * @return the target factor of leaf tasks
+     */
+    static int getLeafTarget() {
+        Thread t = Thread.currentThread();
+        if (t instanceof ForkJoinWorkerThread) {
+            return ((ForkJoinWorkerThread) t).getPool().getParallelism() << 2;
+        }
+        else {
+            return LEAF_TARGET;
+        }
+    }
+
     /**
      * Returns a suggested target leaf size based on the initial size estimate.
      *
      * @return suggested target leaf size
      */
     public static long suggestTargetSize(long sizeEstimate) {
-        long est = sizeEstimate / LEAF_TARGET;
+        long est = sizeEstimate / getLeafTarget();
         return est > 0L ? est : 1L;
     }
 
@@ -29,8 +29,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Spliterator;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 
@@ -116,6 +118,45 @@ public interface BaseStream<T, S extends BaseStream<T, S>>
      */
     S parallel();
 
+    /**
+     * Returns an equivalent stream that is parallel, and whose parallel
+     * evaluation runs on the given pool.  May return itself, either because
+     * the stream was already parallel on that pool, or because the
+     * underlying stream state was modified to be parallel on that pool.
+     *
+     * <p>A parallel stream otherwise forks its tasks to the
+     * {@link ForkJoinPool#commonPool() common pool}, unless its terminal
+     * operation is invoked from within another pool, and splits its source
+     * for the parallelism of the common pool.  A stream bound to a pool runs
+     * its terminal operation, and the tasks it forks, in that pool, and
+     * splits its source for the {@link ForkJoinPool#getParallelism()
+     * parallelism} of that pool.  This isolates the stream from other users
+     * of the common pool, such as other parallel streams and the default
+     * asynchronous methods of {@code CompletableFuture}, and the task and
+     * steal counts of the pool then describe the work of the streams bound
+     * to it.  The calling thread waits for the terminal operation to
+     * complete.
+     *
+     * <p>Invoking {@link #parallel()} or {@link #sequential()} afterwards
+     * removes the binding.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * @implSpec
+     * The default implementation checks that {@code pool} is not
+     * {@code null}, and returns the result of {@link #parallel()}, so its
+     * parallel evaluation is not bound to the pool.
+     *
+     * @param pool the pool to evaluate the stream in
+     * @return a parallel stream
+     * @throws NullPointerException if {@code pool} is {@code null}
+     */
+    default S parallel(ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return parallel();
+    }
+
     /**
      * Returns an equivalent stream that is
      * <a href="package-summary.html#Ordering">unordered</a>.  May return
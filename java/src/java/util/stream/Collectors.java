@@ -35,9 +35,15 @@ import java.util.DoubleSummaryStatistics;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IntIntMap;
+import java.util.IntObjMap;
+import java.util.IntSet;
 import java.util.IntSummaryStatistics;
 import java.util.Iterator;
 import java.util.List;
+import java.util.LongLongMap;
+import java.util.LongObjMap;
+import java.util.LongSet;
 import java.util.LongSummaryStatistics;
 import java.util.Map;
 import java.util.Objects;
@@ -253,6 +259,66 @@ public final class Collectors {
                                    CH_UNORDERED_ID);
     }
 
+    /**
+     * Returns a {@code Collector} that accumulates the results of applying
+     * the provided mapping function to the input elements into a new
+     * {@code IntSet}, which holds them without boxing.
+     *
+     * <p>This is an {@link Collector.Characteristics#UNORDERED unordered}
+     * Collector.
+     *
+     * @param <T> the type of the input elements
+     * @param mapper a function extracting the {@code int} to be collected
+     * @return a {@code Collector} which collects the mapped input elements
+     * into an {@code IntSet}
+     */
+    public static <T>
+    Collector<T, ?, IntSet> toIntSet(ToIntFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return new CollectorImpl<T, IntSet, IntSet>(
+                IntSet::new,
+                (set, element) -> set.add(mapper.applyAsInt(element)),
+                (left, right) -> {
+                    if (left.size() < right.size()) {
+                        right.addAll(left);
+                        return right;
+                    }
+                    left.addAll(right);
+                    return left;
+                },
+                CH_UNORDERED_ID);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates the results of applying
+     * the provided mapping function to the input elements into a new
+     * {@code LongSet}, which holds them without boxing.
+     *
+     * <p>This is an {@link Collector.Characteristics#UNORDERED unordered}
+     * Collector.
+     *
+     * @param <T> the type of the input elements
+     * @param mapper a function extracting the {@code long} to be collected
+     * @return a {@code Collector} which collects the mapped input elements
+     * into a {@code LongSet}
+     */
+    public static <T>
+    Collector<T, ?, LongSet> toLongSet(ToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return new CollectorImpl<T, LongSet, LongSet>(
+                LongSet::new,
+                (set, element) -> set.add(mapper.applyAsLong(element)),
+                (left, right) -> {
+                    if (left.size() < right.size()) {
+                        right.addAll(left);
+                        return right;
+                    }
+                    left.addAll(right);
+                    return left;
+                },
+                CH_UNORDERED_ID);
+    }
+
     /**
      * Returns a {@code Collector} that concatenates the input elements into a
      * {@code String}, in encounter order.
@@ -1474,6 +1540,196 @@ public final class Collectors {
         return new CollectorImpl<>(mapSupplier, accumulator, mapMerger(mergeFunction), CH_CONCURRENT_ID);
     }
 
+    /**
+     * Returns a {@code Collector} that accumulates elements into an
+     * {@code IntIntMap} whose keys and values are the result of applying the
+     * provided mapping functions to the input elements.  The map holds its
+     * keys and values without boxing.
+     *
+     * <p>If the mapped keys contains duplicates, an
+     * {@code IllegalStateException} is thrown when the collection operation
+     * is performed.
+     *
+     * @param <T> the type of the input elements
+     * @param keyMapper a mapping function to produce keys
+     * @param valueMapper a mapping function to produce values
+     * @return a {@code Collector} which collects elements into an
+     * {@code IntIntMap} whose keys and values are the result of applying mapping
+     * functions to the input elements
+     *
+     * @see #toMap(Function, Function)
+     */
+    public static <T>
+    Collector<T, ?, IntIntMap> toIntIntMap(ToIntFunction<? super T> keyMapper,
+                                           ToIntFunction<? super T> valueMapper) {
+        Objects.requireNonNull(keyMapper);
+        Objects.requireNonNull(valueMapper);
+        return new CollectorImpl<T, IntIntMap, IntIntMap>(
+                IntIntMap::new,
+                (map, element) -> putUnique(map, keyMapper.applyAsInt(element),
+                                            valueMapper.applyAsInt(element)),
+                (left, right) -> {
+                    if (left.size() < right.size()) {
+                        left.forEach((k, v) -> putUnique(right, k, v));
+                        return right;
+                    }
+                    right.forEach((k, v) -> putUnique(left, k, v));
+                    return left;
+                },
+                CH_ID);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates elements into an
+     * {@code IntObjMap} whose keys and values are the result of applying the
+     * provided mapping functions to the input elements.  The map holds its
+     * keys without boxing.
+     *
+     * <p>If the mapped keys contains duplicates, an
+     * {@code IllegalStateException} is thrown when the collection operation
+     * is performed.
+     *
+     * @param <T> the type of the input elements
+     * @param <U> the output type of the value mapping function
+     * @param keyMapper a mapping function to produce keys
+     * @param valueMapper a mapping function to produce values
+     * @return a {@code Collector} which collects elements into an
+     * {@code IntObjMap} whose keys and values are the result of applying mapping
+     * functions to the input elements
+     *
+     * @see #toMap(Function, Function)
+     */
+    public static <T, U>
+    Collector<T, ?, IntObjMap<U>> toIntObjMap(ToIntFunction<? super T> keyMapper,
+                                              Function<? super T, ? extends U> valueMapper) {
+        Objects.requireNonNull(keyMapper);
+        Objects.requireNonNull(valueMapper);
+        return new CollectorImpl<T, IntObjMap<U>, IntObjMap<U>>(
+                IntObjMap<U>::new,
+                (map, element) -> putUnique(map, keyMapper.applyAsInt(element),
+                                            valueMapper.apply(element)),
+                (left, right) -> {
+                    if (left.size() < right.size()) {
+                        left.forEach((k, v) -> putUnique(right, k, v));
+                        return right;
+                    }
+                    right.forEach((k, v) -> putUnique(left, k, v));
+                    return left;
+                },
+                CH_ID);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates elements into a
+     * {@code LongLongMap} whose keys and values are the result of applying the
+     * provided mapping functions to the input elements.  The map holds its
+     * keys and values without boxing.
+     *
+     * <p>If the mapped keys contains duplicates, an
+     * {@code IllegalStateException} is thrown when the collection operation
+     * is performed.
+     *
+     * @param <T> the type of the input elements
+     * @param keyMapper a mapping function to produce keys
+     * @param valueMapper a mapping function to produce values
+     * @return a {@code Collector} which collects elements into a
+     * {@code LongLongMap} whose keys and values are the result of applying mapping
+     * functions to the input elements
+     *
+     * @see #toMap(Function, Function)
+     */
+    public static <T>
+    Collector<T, ?, LongLongMap> toLongLongMap(ToLongFunction<? super T> keyMapper,
+                                               ToLongFunction<? super T> valueMapper) {
+        Objects.requireNonNull(keyMapper);
+        Objects.requireNonNull(valueMapper);
+        return new CollectorImpl<T, LongLongMap, LongLongMap>(
+                LongLongMap::new,
+                (map, element) -> putUnique(map, keyMapper.applyAsLong(element),
+                                            valueMapper.applyAsLong(element)),
+                (left, right) -> {
+                    if (left.size() < right.size()) {
+                        left.forEach((k, v) -> putUnique(right, k, v));
+                        return right;
+                    }
+                    right.forEach((k, v) -> putUnique(left, k, v));
+                    return left;
+                },
+                CH_ID);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates elements into a
+     * {@code LongObjMap} whose keys and values are the result of applying the
+     * provided mapping functions to the input elements.  The map holds its
+     * keys without boxing.
+     *
+     * <p>If the mapped keys contains duplicates, an
+     * {@code IllegalStateException} is thrown when the collection operation
+     * is performed.
+     *
+     * @param <T> the type of the input elements
+     * @param <U> the output type of the value mapping function
+     * @param keyMapper a mapping function to produce keys
+     * @param valueMapper a mapping function to produce values
+     * @return a {@code Collector} which collects elements into a
+     * {@code LongObjMap} whose keys and values are the result of applying mapping
+     * functions to the input elements
+     *
+     * @see #toMap(Function, Function)
+     */
+    public static <T, U>
+    Collector<T, ?, LongObjMap<U>> toLongObjMap(ToLongFunction<? super T> keyMapper,
+                                                Function<? super T, ? extends U> valueMapper) {
+        Objects.requireNonNull(keyMapper);
+        Objects.requireNonNull(valueMapper);
+        return new CollectorImpl<T, LongObjMap<U>, LongObjMap<U>>(
+                LongObjMap<U>::new,
+                (map, element) -> putUnique(map, keyMapper.applyAsLong(element),
+                                            valueMapper.apply(element)),
+                (left, right) -> {
+                    if (left.size() < right.size()) {
+                        left.forEach((k, v) -> putUnique(right, k, v));
+                        return right;
+                    }
+                    right.forEach((k, v) -> putUnique(left, k, v));
+                    return left;
+                },
+                CH_ID);
+    }
+
+    /**
+     * Maps the key to the value in the map, or throws
+     * {@code IllegalStateException} if the key is already mapped.
+     */
+    private static void putUnique(IntIntMap map, int key, int value) {
+        int size = map.size();
+        map.put(key, value);
+        if (map.size() == size)
+            throw new IllegalStateException(String.format("Duplicate key %d", key));
+    }
+
+    private static <U> void putUnique(IntObjMap<U> map, int key, U value) {
+        int size = map.size();
+        map.put(key, value);
+        if (map.size() == size)
+            throw new IllegalStateException(String.format("Duplicate key %d", key));
+    }
+
+    private static void putUnique(LongLongMap map, long key, long value) {
+        int size = map.size();
+        map.put(key, value);
+        if (map.size() == size)
+            throw new IllegalStateException(String.format("Duplicate key %d", key));
+    }
+
+    private static <U> void putUnique(LongObjMap<U> map, long key, U value) {
+        int size = map.size();
+        map.put(key, value);
+        if (map.size() == size)
+            throw new IllegalStateException(String.format("Duplicate key %d", key));
+    }
+
     /**
      * Returns a {@code Collector} which applies an {@code int}-producing
      * mapping function to each input element, and returns summary statistics
@@ -336,7 +336,9 @@ abstract class DoublePipeline<E_IN>
     public final DoubleStream limit(long maxSize) {
         if (maxSize < 0)
             throw new IllegalArgumentException(Long.toString(maxSize));
-        return SliceOps.makeDouble(this, (long) 0, maxSize);
+        DoubleStream result = SliceOps.makeDouble(this, (long) 0, maxSize);
+        SortedOps.fuseLimit(this, 0, maxSize);
+        return result;
     }
 
     @Override
@@ -372,7 +372,9 @@ abstract class IntPipeline<E_IN>
     public final IntStream limit(long maxSize) {
         if (maxSize < 0)
             throw new IllegalArgumentException(Long.toString(maxSize));
-        return SliceOps.makeInt(this, 0, maxSize);
+        IntStream result = SliceOps.makeInt(this, 0, maxSize);
+        SortedOps.fuseLimit(this, 0, maxSize);
+        return result;
     }
 
     @Override
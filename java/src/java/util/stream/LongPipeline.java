@@ -353,7 +353,9 @@ abstract class LongPipeline<E_IN>
     public final LongStream limit(long maxSize) {
         if (maxSize < 0)
             throw new IllegalArgumentException(Long.toString(maxSize));
-        return SliceOps.makeLong(this, 0, maxSize);
+        LongStream result = SliceOps.makeLong(this, 0, maxSize);
+        SortedOps.fuseLimit(this, 0, maxSize);
+        return result;
     }
 
     @Override
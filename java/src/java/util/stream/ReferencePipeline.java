@@ -398,7 +398,9 @@ abstract class ReferencePipeline<P_IN, P_OUT>
     public final Stream<P_OUT> limit(long maxSize) {
         if (maxSize < 0)
             throw new IllegalArgumentException(Long.toString(maxSize));
-        return SliceOps.makeRef(this, 0, maxSize);
+        Stream<P_OUT> result = SliceOps.makeRef(this, 0, maxSize);
+        SortedOps.fuseLimit(this, 0, maxSize);
+        return result;
     }
 
     @Override
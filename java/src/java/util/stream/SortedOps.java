@@ -93,10 +93,56 @@ final class SortedOps {
         return new OfDouble(upstream);
     }
 
+    /**
+     * Bounds a "sorted" operation by a "slice" operation appended directly
+     * after it.  If {@code upstream} is a "sorted" operation, and the slice
+     * has a limit, only the {@code skip + limit} least elements can reach
+     * the output of the slice, so the sort retains no more than those
+     * instead of buffering and sorting all of the elements.
+     *
+     * <p>This is called once the slice operation has been appended to, and
+     * so linked to, {@code upstream}, which is then no longer shared with
+     * another pipeline, and before the pipeline is evaluated.
+     *
+     * @param upstream the stream the slice operation is appended to
+     * @param skip the number of elements to skip
+     * @param limit the maximum size of the slice, or -1 if no limit
+     */
+    static void fuseLimit(AbstractPipeline<?, ?, ?> upstream, long skip, long limit) {
+        if (limit < 0 || skip > MAX_TOP_K - limit)
+            return;
+        int k = (int) (skip + limit);
+        if (upstream instanceof OfRef)
+            ((OfRef<?>) upstream).topK = k;
+        else if (upstream instanceof OfInt)
+            ((OfInt) upstream).topK = k;
+        else if (upstream instanceof OfLong)
+            ((OfLong) upstream).topK = k;
+        else if (upstream instanceof OfDouble)
+            ((OfDouble) upstream).topK = k;
+    }
+
+    /**
+     * The greatest number of elements a bounded sort retains, such that
+     * its buffer of twice that many elements can be allocated.
+     */
+    private static final long MAX_TOP_K = Nodes.MAX_ARRAY_SIZE / 2;
+
+    /**
+     * The initial capacity of the buffer of a bounded sort.
+     */
+    private static final int INITIAL_TOP_K_CAPACITY = 64;
+
     /**
      * Specialized subtype for sorting reference streams
      */
     private static final class OfRef<T> extends ReferencePipeline.StatefulOp<T, T> {
+        /**
+         * The number of least elements to retain, or -1 if all of the
+         * elements are sorted
+         */
+        private int topK = -1;
+
         /**
          * Comparator used for sorting
          */
@@ -137,6 +183,8 @@ final class SortedOps {
             // also naturally sorted then this is a no-op
             if (StreamOpFlag.SORTED.isKnown(flags) && isNaturalSort)
                 return sink;
+            else if (topK >= 0)
+                return new RefTopKSink<>(sink, comparator, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedRefSortingSink<>(sink, comparator);
             else
@@ -152,6 +200,15 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags()) && isNaturalSort) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                // Retain the least elements of each leaf, and merge the
+                // buffers of the leaves in encounter order
+                RefTopKBuffer<T> b = ReduceOps.<T, RefTopKBuffer<T>>makeRef(
+                        () -> new RefTopKBuffer<>(comparator, topK),
+                        RefTopKBuffer::accept,
+                        RefTopKBuffer::combine).evaluateParallel(helper, spliterator);
+                return Nodes.node(b.sortedArray(generator));
+            }
             else {
                 // @@@ Weak two-pass parallel implementation; parallel collect, parallel sort
                 T[] flattenedData = helper.evaluate(spliterator, true, generator).asArray(generator);
@@ -165,6 +222,12 @@ final class SortedOps {
      * Specialized subtype for sorting int streams.
      */
     private static final class OfInt extends IntPipeline.StatefulOp<Integer> {
+        /**
+         * The number of least elements to retain, or -1 if all of the
+         * elements are sorted
+         */
+        private int topK = -1;
+
         OfInt(AbstractPipeline<?, Integer, ?> upstream) {
             super(upstream, StreamShape.INT_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -176,6 +239,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (topK >= 0)
+                return new IntTopKSink(sink, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedIntSortingSink(sink);
             else
@@ -189,6 +254,13 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                IntTopKBuffer b = ReduceOps.makeInt(
+                        () -> new IntTopKBuffer(topK),
+                        IntTopKBuffer::accept,
+                        IntTopKBuffer::combine).evaluateParallel(helper, spliterator);
+                return Nodes.node(b.sortedArray());
+            }
             else {
                 Node.OfInt n = (Node.OfInt) helper.evaluate(spliterator, true, generator);
 
@@ -204,6 +276,12 @@ final class SortedOps {
      * Specialized subtype for sorting long streams.
      */
     private static final class OfLong extends LongPipeline.StatefulOp<Long> {
+        /**
+         * The number of least elements to retain, or -1 if all of the
+         * elements are sorted
+         */
+        private int topK = -1;
+
         OfLong(AbstractPipeline<?, Long, ?> upstream) {
             super(upstream, StreamShape.LONG_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -215,6 +293,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (topK >= 0)
+                return new LongTopKSink(sink, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedLongSortingSink(sink);
             else
@@ -228,6 +308,13 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                LongTopKBuffer b = ReduceOps.makeLong(
+                        () -> new LongTopKBuffer(topK),
+                        LongTopKBuffer::accept,
+                        LongTopKBuffer::combine).evaluateParallel(helper, spliterator);
+                return Nodes.node(b.sortedArray());
+            }
             else {
                 Node.OfLong n = (Node.OfLong) helper.evaluate(spliterator, true, generator);
 
@@ -243,6 +330,12 @@ final class SortedOps {
      * Specialized subtype for sorting double streams.
      */
     private static final class OfDouble extends DoublePipeline.StatefulOp<Double> {
+        /**
+         * The number of least elements to retain, or -1 if all of the
+         * elements are sorted
+         */
+        private int topK = -1;
+
         OfDouble(AbstractPipeline<?, Double, ?> upstream) {
             super(upstream, StreamShape.DOUBLE_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -254,6 +347,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (topK >= 0)
+                return new DoubleTopKSink(sink, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedDoubleSortingSink(sink);
             else
@@ -267,6 +362,13 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                DoubleTopKBuffer b = ReduceOps.makeDouble(
+                        () -> new DoubleTopKBuffer(topK),
+                        DoubleTopKBuffer::accept,
+                        DoubleTopKBuffer::combine).evaluateParallel(helper, spliterator);
+                return Nodes.node(b.sortedArray());
+            }
             else {
                 Node.OfDouble n = (Node.OfDouble) helper.evaluate(spliterator, true, generator);
 
@@ -698,4 +800,426 @@ final class SortedOps {
             b.accept(t);
         }
     }
+
+    /**
+     * A buffer retaining the least {@code k} reference elements it accepts,
+     * as ordered by a comparator.
+     *
+     * <p>
+     * Note: documentation below applies to reference and all primitive
+     * buffers.
+     * <p>
+     * Elements are appended to an array of up to {@code 2 * k} elements.
+     * When the array is full it is sorted and truncated to its first
+     * {@code k} elements, the greatest of which then bounds the elements
+     * that are appended from there on.  Equal elements stay in the order
+     * they were accepted in, since the sort is stable, so when elements are
+     * accepted in encounter order the retained elements sort as they would
+     * have in a full sort.  The buffer of a later part of the stream is
+     * merged into the buffer of an earlier part by accepting its elements
+     * in array order.
+     */
+    private static final class RefTopKBuffer<T> {
+        private final Comparator<? super T> comparator;
+        private final int k;
+        private final int capacity;
+        private T[] array;
+        private int count;
+        // the k-th least element, once the array has been truncated
+        private T bound;
+        private boolean bounded;
+
+        @SuppressWarnings("unchecked")
+        RefTopKBuffer(Comparator<? super T> comparator, int k) {
+            this.comparator = comparator;
+            this.k = k;
+            this.capacity = 2 * k;
+            this.array = (T[]) new Object[Math.min(capacity, INITIAL_TOP_K_CAPACITY)];
+        }
+
+        void accept(T t) {
+            if (k == 0 || (bounded && comparator.compare(t, bound) >= 0))
+                return;
+            if (count == array.length) {
+                if (count < capacity) {
+                    array = Arrays.copyOf(array, (int) Math.min(capacity, 2L * count));
+                }
+                else {
+                    truncate();
+                    if (comparator.compare(t, bound) >= 0)
+                        return;
+                }
+            }
+            array[count++] = t;
+        }
+
+        RefTopKBuffer<T> combine(RefTopKBuffer<T> other) {
+            for (int i = 0; i < other.count; i++)
+                accept(other.array[i]);
+            return this;
+        }
+
+        private void truncate() {
+            Arrays.sort(array, 0, count, comparator);
+            Arrays.fill(array, k, count, null);
+            count = k;
+            bound = array[k - 1];
+            bounded = true;
+        }
+
+        /**
+         * Sorts the retained elements, and returns the number of them,
+         * which are the first elements of {@link #array}.
+         */
+        int sort() {
+            Arrays.sort(array, 0, count, comparator);
+            if (count > k)
+                count = k;
+            return count;
+        }
+
+        T[] sortedArray(IntFunction<T[]> generator) {
+            int n = sort();
+            T[] a = generator.apply(n);
+            System.arraycopy(array, 0, a, 0, n);
+            return a;
+        }
+    }
+
+    /**
+     * A buffer retaining the least {@code k} int elements it accepts.
+     */
+    private static final class IntTopKBuffer {
+        private final int k;
+        private final int capacity;
+        private int[] array;
+        private int count;
+        // the k-th least element, once the array has been truncated
+        private int bound;
+        private boolean bounded;
+
+        IntTopKBuffer(int k) {
+            this.k = k;
+            this.capacity = 2 * k;
+            this.array = new int[Math.min(capacity, INITIAL_TOP_K_CAPACITY)];
+        }
+
+        void accept(int t) {
+            if (k == 0 || (bounded && t >= bound))
+                return;
+            if (count == array.length) {
+                if (count < capacity) {
+                    array = Arrays.copyOf(array, (int) Math.min(capacity, 2L * count));
+                }
+                else {
+                    truncate();
+                    if (t >= bound)
+                        return;
+                }
+            }
+            array[count++] = t;
+        }
+
+        IntTopKBuffer combine(IntTopKBuffer other) {
+            for (int i = 0; i < other.count; i++)
+                accept(other.array[i]);
+            return this;
+        }
+
+        private void truncate() {
+            Arrays.sort(array, 0, count);
+            count = k;
+            bound = array[k - 1];
+            bounded = true;
+        }
+
+        int sort() {
+            Arrays.sort(array, 0, count);
+            if (count > k)
+                count = k;
+            return count;
+        }
+
+        int[] sortedArray() {
+            return Arrays.copyOf(array, sort());
+        }
+    }
+
+    /**
+     * A buffer retaining the least {@code k} long elements it accepts.
+     */
+    private static final class LongTopKBuffer {
+        private final int k;
+        private final int capacity;
+        private long[] array;
+        private int count;
+        // the k-th least element, once the array has been truncated
+        private long bound;
+        private boolean bounded;
+
+        LongTopKBuffer(int k) {
+            this.k = k;
+            this.capacity = 2 * k;
+            this.array = new long[Math.min(capacity, INITIAL_TOP_K_CAPACITY)];
+        }
+
+        void accept(long t) {
+            if (k == 0 || (bounded && t >= bound))
+                return;
+            if (count == array.length) {
+                if (count < capacity) {
+                    array = Arrays.copyOf(array, (int) Math.min(capacity, 2L * count));
+                }
+                else {
+                    truncate();
+                    if (t >= bound)
+                        return;
+                }
+            }
+            array[count++] = t;
+        }
+
+        LongTopKBuffer combine(LongTopKBuffer other) {
+            for (int i = 0; i < other.count; i++)
+                accept(other.array[i]);
+            return this;
+        }
+
+        private void truncate() {
+            Arrays.sort(array, 0, count);
+            count = k;
+            bound = array[k - 1];
+            bounded = true;
+        }
+
+        int sort() {
+            Arrays.sort(array, 0, count);
+            if (count > k)
+                count = k;
+            return count;
+        }
+
+        long[] sortedArray() {
+            return Arrays.copyOf(array, sort());
+        }
+    }
+
+    /**
+     * A buffer retaining the least {@code k} double elements it accepts.
+     */
+    private static final class DoubleTopKBuffer {
+        private final int k;
+        private final int capacity;
+        private double[] array;
+        private int count;
+        // the k-th least element, once the array has been truncated
+        private double bound;
+        private boolean bounded;
+
+        DoubleTopKBuffer(int k) {
+            this.k = k;
+            this.capacity = 2 * k;
+            this.array = new double[Math.min(capacity, INITIAL_TOP_K_CAPACITY)];
+        }
+
+        void accept(double t) {
+            if (k == 0 || (bounded && Double.compare(t, bound) >= 0))
+                return;
+            if (count == array.length) {
+                if (count < capacity) {
+                    array = Arrays.copyOf(array, (int) Math.min(capacity, 2L * count));
+                }
+                else {
+                    truncate();
+                    if (Double.compare(t, bound) >= 0)
+                        return;
+                }
+            }
+            array[count++] = t;
+        }
+
+        DoubleTopKBuffer combine(DoubleTopKBuffer other) {
+            for (int i = 0; i < other.count; i++)
+                accept(other.array[i]);
+            return this;
+        }
+
+        private void truncate() {
+            Arrays.sort(array, 0, count);
+            count = k;
+            bound = array[k - 1];
+            bounded = true;
+        }
+
+        int sort() {
+            Arrays.sort(array, 0, count);
+            if (count > k)
+                count = k;
+            return count;
+        }
+
+        double[] sortedArray() {
+            return Arrays.copyOf(array, sort());
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing a bounded sort on reference streams.
+     */
+    private static final class RefTopKSink<T> extends AbstractRefSortingSink<T> {
+        private final int k;
+        private RefTopKBuffer<T> buffer;
+
+        RefTopKSink(Sink<? super T> sink, Comparator<? super T> comparator, int k) {
+            super(sink, comparator);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            buffer = new RefTopKBuffer<>(comparator, k);
+        }
+
+        @Override
+        public void end() {
+            int n = buffer.sort();
+            T[] array = buffer.array;
+            downstream.begin(n);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < n; i++)
+                    downstream.accept(array[i]);
+            }
+            else {
+                for (int i = 0; i < n && !downstream.cancellationRequested(); i++)
+                    downstream.accept(array[i]);
+            }
+            downstream.end();
+            buffer = null;
+        }
+
+        @Override
+        public void accept(T t) {
+            buffer.accept(t);
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing a bounded sort on int streams.
+     */
+    private static final class IntTopKSink extends AbstractIntSortingSink {
+        private final int k;
+        private IntTopKBuffer buffer;
+
+        IntTopKSink(Sink<? super Integer> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            buffer = new IntTopKBuffer(k);
+        }
+
+        @Override
+        public void end() {
+            int n = buffer.sort();
+            int[] array = buffer.array;
+            downstream.begin(n);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < n; i++)
+                    downstream.accept(array[i]);
+            }
+            else {
+                for (int i = 0; i < n && !downstream.cancellationRequested(); i++)
+                    downstream.accept(array[i]);
+            }
+            downstream.end();
+            buffer = null;
+        }
+
+        @Override
+        public void accept(int t) {
+            buffer.accept(t);
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing a bounded sort on long streams.
+     */
+    private static final class LongTopKSink extends AbstractLongSortingSink {
+        private final int k;
+        private LongTopKBuffer buffer;
+
+        LongTopKSink(Sink<? super Long> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            buffer = new LongTopKBuffer(k);
+        }
+
+        @Override
+        public void end() {
+            int n = buffer.sort();
+            long[] array = buffer.array;
+            downstream.begin(n);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < n; i++)
+                    downstream.accept(array[i]);
+            }
+            else {
+                for (int i = 0; i < n && !downstream.cancellationRequested(); i++)
+                    downstream.accept(array[i]);
+            }
+            downstream.end();
+            buffer = null;
+        }
+
+        @Override
+        public void accept(long t) {
+            buffer.accept(t);
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing a bounded sort on double streams.
+     */
+    private static final class DoubleTopKSink extends AbstractDoubleSortingSink {
+        private final int k;
+        private DoubleTopKBuffer buffer;
+
+        DoubleTopKSink(Sink<? super Double> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            buffer = new DoubleTopKBuffer(k);
+        }
+
+        @Override
+        public void end() {
+            int n = buffer.sort();
+            double[] array = buffer.array;
+            downstream.begin(n);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < n; i++)
+                    downstream.accept(array[i]);
+            }
+            else {
+                for (int i = 0; i < n && !downstream.cancellationRequested(); i++)
+                    downstream.accept(array[i]);
+            }
+            downstream.end();
+            buffer = null;
+        }
+
+        @Override
+        public void accept(double t) {
+            buffer.accept(t);
+        }
+    }
 }
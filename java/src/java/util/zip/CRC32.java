@@ -131,6 +131,66 @@ class CRC32 implements Checksum {
         return (long)crc & 0xffffffffL;
     }
 
+    /*
+     * Returns the CRC-32 of the concatenation of two byte sequences given
+     * the CRC-32 crc1 of the first one, and the CRC-32 crc2 and the length
+     * len2 of the second one. This is zlib's crc32_combine: the effect of
+     * appending len2 zero bytes is applied to crc1 by repeatedly squaring
+     * the GF(2) operator matrix for one zero bit.
+     */
+    static long combine(long crc1, long crc2, long len2) {
+        if (len2 <= 0) {
+            return crc1;
+        }
+        long[] even = new long[32];     // even-power-of-two zeros operator
+        long[] odd = new long[32];      // odd-power-of-two zeros operator
+
+        // operator for one zero bit in odd
+        odd[0] = 0xedb88320L;           // CRC-32 polynomial
+        long row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        gf2MatrixSquare(even, odd);     // two zero bits
+        gf2MatrixSquare(odd, even);     // four zero bits
+
+        // apply len2 zero bytes to crc1, the first square puts the
+        // operator for one zero byte, eight zero bits, in even
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((len2 & 1) != 0) {
+                crc1 = gf2MatrixTimes(even, crc1);
+            }
+            len2 >>= 1;
+            if (len2 == 0) {
+                break;
+            }
+            gf2MatrixSquare(odd, even);
+            if ((len2 & 1) != 0) {
+                crc1 = gf2MatrixTimes(odd, crc1);
+            }
+            len2 >>= 1;
+        } while (len2 != 0);
+        return crc1 ^ crc2;
+    }
+
+    private static long gf2MatrixTimes(long[] mat, long vec) {
+        long sum = 0;
+        for (int i = 0; vec != 0; i++, vec >>>= 1) {
+            if ((vec & 1) != 0) {
+                sum ^= mat[i];
+            }
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(long[] square, long[] mat) {
+        for (int n = 0; n < 32; n++) {
+            square[n] = gf2MatrixTimes(mat, mat[n]);
+        }
+    }
+
     private native static int update(int crc, int b);
     private native static int updateBytes(int crc, byte[] b, int off, int len);
 
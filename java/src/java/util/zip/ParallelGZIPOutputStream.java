@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class implements a stream filter for writing compressed data in
+ * the GZIP file format, compressing on the threads of a
+ * {@link ForkJoinPool} rather than on the writing thread.
+ *
+ * <p> The uncompressed data is split into blocks of a fixed size which
+ * are compressed independently. Each block is primed with the last 32K
+ * of the preceding block as its preset dictionary, so that back
+ * references may still reach across block boundaries, and all but the
+ * last block are terminated with a {@link Deflater#SYNC_FLUSH sync flush}
+ * so that they end on a byte boundary. The compressed blocks are written
+ * in order as a single GZIP member whose CRC-32 is combined from the
+ * CRC-32 of every block. The result can be read by {@link GZIPInputStream}
+ * or any other GZIP decoder.
+ *
+ * <p> The output is not byte for byte identical to the output of a
+ * {@link GZIPOutputStream} at the same compression level, and is usually
+ * slightly larger. At most twice the parallelism of the pool blocks are
+ * pending at any time, after which writes wait for the oldest block to
+ * be compressed.
+ *
+ * @see GZIPOutputStream
+ */
+public
+class ParallelGZIPOutputStream extends FilterOutputStream {
+    /*
+     * GZIP header magic number.
+     */
+    private final static int GZIP_MAGIC = 0x8b1f;
+
+    /*
+     * Trailer size in bytes.
+     */
+    private final static int TRAILER_SIZE = 8;
+
+    /*
+     * Size of the DEFLATE window, and so of the useful preset dictionary.
+     */
+    private final static int DICT_SIZE = 32 * 1024;
+
+    /*
+     * Default uncompressed block size.
+     */
+    private final static int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int level;
+    private final int blockSize;
+    private final int maxPending;
+
+    // compressed blocks not yet written, in stream order
+    private final ArrayDeque<Block> pending = new ArrayDeque<>();
+
+    // idle deflaters, shared by the blocks of this stream
+    private final ConcurrentLinkedQueue<Deflater> deflaters =
+        new ConcurrentLinkedQueue<>();
+
+    private byte[] buf;         // the block being filled
+    private int count;          // number of bytes in buf
+    private byte[] dict;        // the preceding block, or null
+    private int dictLen;        // number of bytes in dict
+
+    private long crc;           // CRC-32 of the blocks written so far
+    private long totalIn;       // number of uncompressed bytes submitted
+
+    private boolean finished = false;
+    private boolean closed = false;
+
+    /**
+     * Creates a new output stream with the default compression level
+     * and block size that compresses on the
+     * {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param out the output stream
+     * @exception IOException If an I/O error has occurred.
+     */
+    public ParallelGZIPOutputStream(OutputStream out) throws IOException {
+        this(out, Deflater.DEFAULT_COMPRESSION, DEFAULT_BLOCK_SIZE,
+             ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new output stream with the specified compression level,
+     * block size and pool.
+     *
+     * @param out the output stream
+     * @param level the compression level (0-9), or
+     *        {@link Deflater#DEFAULT_COMPRESSION}
+     * @param blockSize the number of uncompressed bytes in each block
+     * @param pool the pool the blocks are compressed on
+     * @exception IOException If an I/O error has occurred.
+     * @exception IllegalArgumentException if the compression level is
+     *            invalid, or if {@code blockSize <= 0}
+     * @exception NullPointerException if {@code out} or {@code pool} is
+     *            {@code null}
+     */
+    public ParallelGZIPOutputStream(OutputStream out, int level,
+                                    int blockSize, ForkJoinPool pool)
+        throws IOException
+    {
+        super(out);
+        if (out == null || pool == null) {
+            throw new NullPointerException();
+        }
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("invalid compression level");
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize <= 0");
+        }
+        this.pool = pool;
+        this.level = level;
+        this.blockSize = blockSize;
+        this.maxPending = 2 * pool.getParallelism();
+        this.buf = new byte[blockSize];
+        writeHeader();
+    }
+
+    /**
+     * Writes a byte to the compressed output stream. This method will
+     * block until the byte can be written.
+     * @param b the byte to be written
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void write(int b) throws IOException {
+        ensureOpen();
+        if (finished) {
+            throw new IOException("write beyond end of stream");
+        }
+        buf[count++] = (byte)b;
+        if (count == blockSize) {
+            submit(false);
+        }
+    }
+
+    /**
+     * Writes an array of bytes to the compressed output stream. This
+     * method will block until all the bytes are buffered or handed to
+     * the pool.
+     * @param b the data to be written
+     * @param off the start offset of the data
+     * @param len the length of the data
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void write(byte[] b, int off, int len)
+        throws IOException
+    {
+        ensureOpen();
+        if (finished) {
+            throw new IOException("write beyond end of stream");
+        }
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            int n = Math.min(len, blockSize - count);
+            System.arraycopy(b, off, buf, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            if (count == blockSize) {
+                submit(false);
+            }
+        }
+    }
+
+    /**
+     * Flushes the compressed output stream. The buffered data is
+     * compressed with a {@link Deflater#SYNC_FLUSH sync flush}, and all
+     * pending blocks are written to the output stream before it is
+     * flushed.
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        if (!finished) {
+            if (count > 0) {
+                submit(false);
+            }
+            while (!pending.isEmpty()) {
+                writeBlock(pending.poll());
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Finishes writing compressed data to the output stream without closing
+     * the underlying stream. Use this method when applying multiple filters
+     * in succession to the same output stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void finish() throws IOException {
+        ensureOpen();
+        if (!finished) {
+            finished = true;
+            submit(true);
+            while (!pending.isEmpty()) {
+                writeBlock(pending.poll());
+            }
+            byte[] trailer = new byte[TRAILER_SIZE];
+            writeInt((int)crc, trailer, 0);         // CRC-32 of uncompr. data
+            writeInt((int)totalIn, trailer, 4);     // Number of uncompr. bytes
+            out.write(trailer);
+        }
+    }
+
+    /**
+     * Writes remaining compressed data to the output stream and closes the
+     * underlying stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                closed = true;
+                Deflater def;
+                while ((def = deflaters.poll()) != null) {
+                    def.end();
+                }
+                out.close();
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /*
+     * Hands the buffered data to the pool as the next block, and writes
+     * the oldest blocks if too many are pending.
+     */
+    private void submit(boolean last) throws IOException {
+        Block blk = new Block(buf, count, dict, dictLen, last);
+        totalIn += count;
+        dict = buf;
+        dictLen = count;
+        if (!last) {
+            buf = new byte[blockSize];
+            count = 0;
+        }
+        pending.add(blk);
+        pool.execute(blk);
+        while (pending.size() > maxPending) {
+            writeBlock(pending.poll());
+        }
+    }
+
+    /*
+     * Waits for the block to be compressed and writes it.
+     */
+    private void writeBlock(Block blk) throws IOException {
+        blk.join();
+        crc = CRC32.combine(crc, blk.crc, blk.len);
+        out.write(blk.out, 0, blk.outLen);
+    }
+
+    /*
+     * Compresses one block on the pool.
+     */
+    private final class Block extends RecursiveAction {
+        private static final long serialVersionUID = -2413367244536420575L;
+
+        final byte[] in;
+        final int len;
+        final byte[] dict;
+        final int dictLen;
+        final boolean last;
+
+        // results, published by join()
+        long crc;
+        byte[] out;
+        int outLen;
+
+        Block(byte[] in, int len, byte[] dict, int dictLen, boolean last) {
+            this.in = in;
+            this.len = len;
+            this.dict = dict;
+            this.dictLen = dictLen;
+            this.last = last;
+        }
+
+        protected void compute() {
+            CRC32 c = new CRC32();
+            c.update(in, 0, len);
+            crc = c.getValue();
+
+            Deflater def = deflaters.poll();
+            if (def == null) {
+                def = new Deflater(level, true);
+            }
+            try {
+                if (dict != null) {
+                    int n = Math.min(dictLen, DICT_SIZE);
+                    def.setDictionary(dict, dictLen - n, n);
+                }
+                def.setInput(in, 0, len);
+                // incompressible data grows by 5 bytes per stored block
+                byte[] b = new byte[len + (len >> 8) + 64];
+                int n = 0;
+                if (last) {
+                    def.finish();
+                    while (!def.finished()) {
+                        if (n == b.length) {
+                            b = Arrays.copyOf(b, b.length * 2);
+                        }
+                        n += def.deflate(b, n, b.length - n);
+                    }
+                } else {
+                    // done once the flush leaves room in the buffer
+                    do {
+                        if (n == b.length) {
+                            b = Arrays.copyOf(b, b.length * 2);
+                        }
+                        n += def.deflate(b, n, b.length - n,
+                                         Deflater.SYNC_FLUSH);
+                    } while (n == b.length);
+                }
+                out = b;
+                outLen = n;
+            } finally {
+                def.reset();
+                deflaters.offer(def);
+            }
+        }
+    }
+
+    /*
+     * Writes GZIP member header.
+     */
+    private void writeHeader() throws IOException {
+        out.write(new byte[] {
+                      (byte) GZIP_MAGIC,        // Magic number (short)
+                      (byte)(GZIP_MAGIC >> 8),  // Magic number (short)
+                      Deflater.DEFLATED,        // Compression method (CM)
+                      0,                        // Flags (FLG)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Extra flags (XFLG)
+                      0                         // Operating system (OS)
+                  });
+    }
+
+    /*
+     * Writes integer in Intel byte order to a byte array, starting at a
+     * given offset.
+     */
+    private void writeInt(int i, byte[] buf, int offset) {
+        buf[offset] = (byte)(i & 0xff);
+        buf[offset + 1] = (byte)((i >> 8) & 0xff);
+        buf[offset + 2] = (byte)((i >> 16) & 0xff);
+        buf[offset + 3] = (byte)((i >> 24) & 0xff);
+    }
+}
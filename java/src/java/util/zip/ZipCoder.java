@@ -124,15 +124,27 @@ final class ZipCoder {
         return isUTF8;
     }
 
+    /*
+     * Returns true if the conversions of this coder go through the
+     * stateless array coders only, so that it can be shared by threads.
+     */
+    boolean isStateless() {
+        return stateless;
+    }
+
     private Charset cs;
     private CharsetDecoder dec;
     private CharsetEncoder enc;
     private boolean isUTF8;
     private ZipCoder utf8;
+    private final boolean stateless;
 
     private ZipCoder(Charset cs) {
         this.cs = cs;
         this.isUTF8 = cs.name().equals(StandardCharsets.UTF_8.name());
+        this.stateless = isUTF8 &&
+                         decoder() instanceof ArrayDecoder &&
+                         encoder() instanceof ArrayEncoder;
     }
 
     static ZipCoder get(Charset charset) {
@@ -30,10 +30,14 @@ import java.io.InputStream;
 import java.io.IOException;
 import java.io.EOFException;
 import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -58,7 +62,7 @@ import static java.util.zip.ZipConstants64.*;
  */
 public
 class ZipFile implements ZipConstants, Closeable {
-    private long jzfile;  // address of jzfile data
+    private final Source zsrc;     // the opened zip file
     private final String name;     // zip file name
     private final int total;       // total number of entries
     private final boolean locsig;  // if zip file starts with LOCSIG (usually true)
@@ -81,13 +85,6 @@ class ZipFile implements ZipConstants, Closeable {
      */
     public static final int OPEN_DELETE = 0x4;
 
-    static {
-        /* Zip library is loaded from System.initializeSystemClass */
-        initIDs();
-    }
-
-    private static native void initIDs();
-
     private static final boolean usemmap;
 
     private static final boolean ensuretrailingslash;
@@ -222,12 +219,12 @@ class ZipFile implements ZipConstants, Closeable {
             throw new NullPointerException("charset is null");
         this.zc = ZipCoder.get(charset);
         long t0 = System.nanoTime();
-        jzfile = open(name, mode, file.lastModified(), usemmap);
+        this.zsrc = Source.get(file, (mode & OPEN_DELETE) != 0);
         sun.misc.PerfCounter.getZipFileOpenTime().addElapsedTimeFrom(t0);
         sun.misc.PerfCounter.getZipFileCount().increment();
         this.name = name;
-        this.total = getTotal(jzfile);
-        this.locsig = startsWithLOC(jzfile);
+        this.total = zsrc.total;
+        this.locsig = zsrc.startsWithLoc;
     }
 
     /**
@@ -289,13 +286,11 @@ class ZipFile implements ZipConstants, Closeable {
      * Since 1.7
      */
     public String getComment() {
-        synchronized (this) {
-            ensureOpen();
-            byte[] bcomm = getCommentBytes(jzfile);
-            if (bcomm == null)
-                return null;
-            return zc.toString(bcomm, bcomm.length);
-        }
+        ensureOpen();
+        byte[] bcomm = zsrc.comment;
+        if (bcomm == null)
+            return null;
+        return toString(bcomm, false);
     }
 
     /**
@@ -310,34 +305,23 @@ class ZipFile implements ZipConstants, Closeable {
         if (name == null) {
             throw new NullPointerException("name");
         }
-        long jzentry = 0;
-        synchronized (this) {
-            ensureOpen();
-            jzentry = getEntry(jzfile, zc.getBytes(name), true);
-            if (jzentry != 0) {
-                // If no entry is found for the specified 'name' and
-                // the 'name' does not end with a forward slash '/',
-                // the implementation tries to find the entry with a
-                // slash '/' appended to the end of the 'name', before
-                // returning null. When such entry is found, the name
-                // that actually is found (with a slash '/' attached)
-                // is used
-                // (disabled if jdk.util.zip.ensureTrailingSlash=false)
-                ZipEntry ze = ensuretrailingslash ? getZipEntry(null, jzentry)
-                                                  : getZipEntry(name, jzentry);
-                freeEntry(jzfile, jzentry);
-                return ze;
-            }
+        ensureOpen();
+        int pos = zsrc.getEntryPos(getBytes(name, false), true);
+        if (pos != -1) {
+            // If no entry is found for the specified 'name' and
+            // the 'name' does not end with a forward slash '/',
+            // the implementation tries to find the entry with a
+            // slash '/' appended to the end of the 'name', before
+            // returning null. When such entry is found, the name
+            // that actually is found (with a slash '/' attached)
+            // is used
+            // (disabled if jdk.util.zip.ensureTrailingSlash=false)
+            return ensuretrailingslash ? getZipEntry(null, pos)
+                                       : getZipEntry(name, pos);
         }
         return null;
     }
 
-    private static native long getEntry(long jzfile, byte[] name,
-                                        boolean addSlash);
-
-    // freeEntry releases the C jzentry struct.
-    private static native void freeEntry(long jzfile, long jzentry);
-
     // the outstanding inputstreams that need to be closed,
     // mapped to the inflater objects they use.
     private final Map<InputStream, Inflater> streams = new WeakHashMap<>();
@@ -360,41 +344,35 @@ class ZipFile implements ZipConstants, Closeable {
         if (entry == null) {
             throw new NullPointerException("entry");
         }
-        long jzentry = 0;
-        ZipFileInputStream in = null;
-        synchronized (this) {
-            ensureOpen();
-            if (!zc.isUTF8() && (entry.flag & EFS) != 0) {
-                jzentry = getEntry(jzfile, zc.getBytesUTF8(entry.name), false);
-            } else {
-                jzentry = getEntry(jzfile, zc.getBytes(entry.name), false);
-            }
-            if (jzentry == 0) {
-                return null;
-            }
-            in = new ZipFileInputStream(jzentry);
+        ensureOpen();
+        int pos = zsrc.getEntryPos(
+            getBytes(entry.name, !zc.isUTF8() && (entry.flag & EFS) != 0),
+            false);
+        if (pos == -1) {
+            return null;
+        }
+        ZipFileInputStream in = new ZipFileInputStream(zsrc, pos);
 
-            switch (getEntryMethod(jzentry)) {
-            case STORED:
-                synchronized (streams) {
-                    streams.put(in, null);
-                }
-                return in;
-            case DEFLATED:
-                // MORE: Compute good size for inflater stream:
-                long size = getEntrySize(jzentry) + 2; // Inflater likes a bit of slack
-                if (size > 65536) size = 8192;
-                if (size <= 0) size = 4096;
-                Inflater inf = getInflater();
-                InputStream is =
-                    new ZipFileInflaterInputStream(in, inf, (int)size);
-                synchronized (streams) {
-                    streams.put(is, inf);
-                }
-                return is;
-            default:
-                throw new ZipException("invalid compression method");
+        switch (zsrc.CENHOW(pos)) {
+        case STORED:
+            synchronized (streams) {
+                streams.put(in, null);
             }
+            return in;
+        case DEFLATED:
+            // MORE: Compute good size for inflater stream:
+            long size = in.size() + 2; // Inflater likes a bit of slack
+            if (size > 65536) size = 8192;
+            if (size <= 0) size = 4096;
+            Inflater inf = getInflater();
+            InputStream is =
+                new ZipFileInflaterInputStream(in, inf, (int)size);
+            synchronized (streams) {
+                streams.put(is, inf);
+            }
+            return is;
+        default:
+            throw new ZipException("invalid compression method");
         }
     }
 
@@ -454,35 +432,47 @@ class ZipFile implements ZipConstants, Closeable {
     }
 
     /*
-     * Gets an inflater from the list of available inflaters or allocates
+     * Gets an inflater from the cache of the current thread or allocates
      * a new one.
      */
-    private Inflater getInflater() {
+    private static Inflater getInflater() {
+        ArrayDeque<Inflater> cache = inflaterCache.get();
         Inflater inf;
-        synchronized (inflaterCache) {
-            while (null != (inf = inflaterCache.poll())) {
-                if (false == inf.ended()) {
-                    return inf;
-                }
+        while (null != (inf = cache.poll())) {
+            if (false == inf.ended()) {
+                return inf;
             }
         }
         return new Inflater(true);
     }
 
     /*
-     * Releases the specified inflater to the list of available inflaters.
+     * Releases the specified inflater to the cache of the current thread.
      */
-    private void releaseInflater(Inflater inf) {
+    private static void releaseInflater(Inflater inf) {
         if (false == inf.ended()) {
-            inf.reset();
-            synchronized (inflaterCache) {
-                inflaterCache.add(inf);
+            ArrayDeque<Inflater> cache = inflaterCache.get();
+            if (cache.size() < MAX_CACHED_INFLATERS) {
+                inf.reset();
+                cache.add(inf);
+            } else {
+                inf.end();
             }
         }
     }
 
-    // List of available Inflater objects for decompression
-    private Deque<Inflater> inflaterCache = new ArrayDeque<>();
+    // Available Inflater objects for decompression.  They are cached per
+    // thread, shared by all zip files, so that many threads reading entries
+    // at the same time do not contend on one cache.  A stream is almost
+    // always opened and closed by the same thread.
+    private static final int MAX_CACHED_INFLATERS = 2;
+    private static final ThreadLocal<ArrayDeque<Inflater>> inflaterCache =
+        new ThreadLocal<ArrayDeque<Inflater>>() {
+            @Override
+            protected ArrayDeque<Inflater> initialValue() {
+                return new ArrayDeque<>(MAX_CACHED_INFLATERS);
+            }
+        };
 
     /**
      * Returns the path name of the ZIP file.
@@ -504,10 +494,8 @@ class ZipFile implements ZipConstants, Closeable {
         }
 
         public boolean hasNext() {
-            synchronized (ZipFile.this) {
-                ensureOpen();
-                return i < total;
-            }
+            ensureOpen();
+            return i < total;
         }
 
         public ZipEntry nextElement() {
@@ -515,31 +503,11 @@ class ZipFile implements ZipConstants, Closeable {
         }
 
         public ZipEntry next() {
-            synchronized (ZipFile.this) {
-                ensureOpen();
-                if (i >= total) {
-                    throw new NoSuchElementException();
-                }
-                long jzentry = getNextEntry(jzfile, i++);
-                if (jzentry == 0) {
-                    String message;
-                    if (closeRequested) {
-                        message = "ZipFile concurrently closed";
-                    } else {
-                        message = getZipMessage(ZipFile.this.jzfile);
-                    }
-                    throw new ZipError("jzentry == 0" +
-                                       ",\n jzfile = " + ZipFile.this.jzfile +
-                                       ",\n total = " + ZipFile.this.total +
-                                       ",\n name = " + ZipFile.this.name +
-                                       ",\n i = " + i +
-                                       ",\n message = " + message
-                        );
-                }
-                ZipEntry ze = getZipEntry(null, jzentry);
-                freeEntry(jzfile, jzentry);
-                return ze;
+            ensureOpen();
+            if (i >= total) {
+                throw new NoSuchElementException();
             }
+            return getZipEntry(null, zsrc.getEntryPosAt(i++));
         }
     }
 
@@ -568,42 +536,64 @@ class ZipFile implements ZipConstants, Closeable {
                         Spliterator.IMMUTABLE | Spliterator.NONNULL), false);
     }
 
-    private ZipEntry getZipEntry(String name, long jzentry) {
+    /*
+     * ZipCoder caches its CharsetEncoder and CharsetDecoder, so unless
+     * it only uses the stateless UTF-8 array coders the conversions of
+     * concurrent lookups are serialized on it.
+     */
+    private byte[] getBytes(String s, boolean utf8) {
+        if (zc.isStateless()) {
+            return zc.getBytes(s);
+        }
+        synchronized (zc) {
+            return utf8 ? zc.getBytesUTF8(s) : zc.getBytes(s);
+        }
+    }
+
+    private String toString(byte[] b, boolean utf8) {
+        if (zc.isStateless()) {
+            return zc.toString(b, b.length);
+        }
+        synchronized (zc) {
+            return utf8 ? zc.toStringUTF8(b, b.length)
+                        : zc.toString(b, b.length);
+        }
+    }
+
+    /*
+     * Creates a ZipEntry from the central directory header at pos.
+     */
+    private ZipEntry getZipEntry(String name, int pos) {
+        Source src = zsrc;
         ZipEntry e = new ZipEntry();
-        e.flag = getEntryFlag(jzentry);  // get the flag first
+        e.flag = src.CENFLG(pos);  // get the flag first
         if (name != null) {
             e.name = name;
         } else {
-            byte[] bname = getEntryBytes(jzentry, JZENTRY_NAME);
-            if (bname == null) {
-                e.name = "";             // length 0 empty name
-            } else if (!zc.isUTF8() && (e.flag & EFS) != 0) {
-                e.name = zc.toStringUTF8(bname, bname.length);
-            } else {
-                e.name = zc.toString(bname, bname.length);
-            }
+            byte[] bname = src.getBytes(pos + CENHDR, src.CENNAM(pos));
+            e.name = toString(bname, !zc.isUTF8() && (e.flag & EFS) != 0);
+        }
+        e.xdostime = src.CENTIM(pos);
+        e.crc = src.CENCRC(pos);
+        e.size = src.entrySize(pos);
+        e.csize = src.entryCSize(pos);
+        e.method = src.CENHOW(pos);
+        int elen = src.CENEXT(pos);
+        if (elen != 0) {
+            e.setExtra0(src.getBytes(pos + CENHDR + src.CENNAM(pos), elen),
+                        false);
         }
-        e.xdostime = getEntryTime(jzentry);
-        e.crc = getEntryCrc(jzentry);
-        e.size = getEntrySize(jzentry);
-        e.csize = getEntryCSize(jzentry);
-        e.method = getEntryMethod(jzentry);
-        e.setExtra0(getEntryBytes(jzentry, JZENTRY_EXTRA), false);
-        byte[] bcomm = getEntryBytes(jzentry, JZENTRY_COMMENT);
-        if (bcomm == null) {
+        int clen = src.CENCOM(pos);
+        if (clen == 0) {
             e.comment = null;
         } else {
-            if (!zc.isUTF8() && (e.flag & EFS) != 0) {
-                e.comment = zc.toStringUTF8(bcomm, bcomm.length);
-            } else {
-                e.comment = zc.toString(bcomm, bcomm.length);
-            }
+            byte[] bcomm = src.getBytes(
+                pos + CENHDR + src.CENNAM(pos) + elen, clen);
+            e.comment = toString(bcomm, !zc.isUTF8() && (e.flag & EFS) != 0);
         }
         return e;
     }
 
-    private static native long getNextEntry(long jzfile, int i);
-
     /**
      * Returns the number of entries in the ZIP file.
      * @return the number of entries in the ZIP file
@@ -643,20 +633,10 @@ class ZipFile implements ZipConstants, Closeable {
                 }
             }
 
-            // Release cached inflaters
-            Inflater inf;
-            synchronized (inflaterCache) {
-                while (null != (inf = inflaterCache.poll())) {
-                    inf.end();
-                }
-            }
-
-            if (jzfile != 0) {
-                // Close the zip file
-                long zf = this.jzfile;
-                jzfile = 0;
-
-                close(zf);
+            if (zsrc != null) {
+                // Close the zip file, or drop our reference if it is
+                // shared with other ZipFile objects
+                Source.release(zsrc);
             }
         }
     }
@@ -679,14 +659,12 @@ class ZipFile implements ZipConstants, Closeable {
         close();
     }
 
-    private static native void close(long jzfile);
-
     private void ensureOpen() {
         if (closeRequested) {
             throw new IllegalStateException("zip file closed");
         }
 
-        if (jzfile == 0) {
+        if (zsrc == null) {
             throw new IllegalStateException("The object is not initialized.");
         }
     }
@@ -700,45 +678,55 @@ class ZipFile implements ZipConstants, Closeable {
     /*
      * Inner class implementing the input stream used to read a
      * (possibly compressed) zip file entry.
+     *
+     * Reads are positional reads on the shared file and take no lock, so
+     * any number of threads may read different entries at the same time.
      */
    private class ZipFileInputStream extends InputStream {
         private volatile boolean zfisCloseRequested = false;
-        protected long jzentry; // address of jzentry data
-        private   long pos;     // current position within entry data
+        private final Source src;
+        private final int cenpos; // position of the CEN header
+        private   long pos;     // current position within the file, or -1
         protected long rem;     // number of remaining bytes within entry
         protected long size;    // uncompressed size of this entry
 
-        ZipFileInputStream(long jzentry) {
-            pos = 0;
-            rem = getEntryCSize(jzentry);
-            size = getEntrySize(jzentry);
-            this.jzentry = jzentry;
+        ZipFileInputStream(Source src, int cenpos) {
+            this.src = src;
+            this.cenpos = cenpos;
+            pos = -1;
+            rem = src.entryCSize(cenpos);
+            size = src.entrySize(cenpos);
+        }
+
+        // Finds the start of the entry data from its LOC header,
+        // which is only read once the data is needed
+        private void initDataOffset() throws IOException {
+            if (pos == -1) {
+                pos = src.getDataOffset(cenpos);
+            }
         }
 
         public int read(byte b[], int off, int len) throws IOException {
-            synchronized (ZipFile.this) {
-                long rem = this.rem;
-                long pos = this.pos;
-                if (rem == 0) {
-                    return -1;
-                }
-                if (len <= 0) {
-                    return 0;
-                }
-                if (len > rem) {
-                    len = (int) rem;
-                }
+            long rem = this.rem;
+            if (rem == 0) {
+                return -1;
+            }
+            if (len <= 0) {
+                return 0;
+            }
+            if (len > rem) {
+                len = (int) rem;
+            }
 
-                // Check if ZipFile open
-                ensureOpenOrZipException();
-                len = ZipFile.read(ZipFile.this.jzfile, jzentry, pos, b,
-                                   off, len);
-                if (len > 0) {
-                    this.pos = (pos + len);
-                    this.rem = (rem - len);
-                }
+            // Check if ZipFile open
+            ensureOpenOrZipException();
+            initDataOffset();
+            len = src.readAt(b, off, len, pos);
+            if (len > 0) {
+                this.pos += len;
+                this.rem = (rem - len);
             }
-            if (rem == 0) {
+            if (this.rem == 0) {
                 close();
             }
             return len;
@@ -753,9 +741,12 @@ class ZipFile implements ZipConstants, Closeable {
             }
         }
 
-        public long skip(long n) {
+        public long skip(long n) throws IOException {
             if (n > rem)
                 n = rem;
+            if (n <= 0)
+                return 0;
+            initDataOffset();
             pos += n;
             rem -= n;
             if (rem == 0) {
@@ -778,12 +769,6 @@ class ZipFile implements ZipConstants, Closeable {
             zfisCloseRequested = true;
 
             rem = 0;
-            synchronized (ZipFile.this) {
-                if (jzentry != 0 && ZipFile.this.jzfile != 0) {
-                    freeEntry(ZipFile.this.jzfile, jzentry);
-                    jzentry = 0;
-                }
-            }
             synchronized (streams) {
                 streams.remove(this);
             }
@@ -800,6 +785,9 @@ class ZipFile implements ZipConstants, Closeable {
                 public boolean startsWithLocHeader(ZipFile zip) {
                     return zip.startsWithLocHeader();
                 }
+                public String[] getMetaInfEntryNames(ZipFile zip) {
+                    return zip.getMetaInfEntryNames();
+                }
              }
         );
     }
@@ -812,26 +800,509 @@ class ZipFile implements ZipConstants, Closeable {
         return locsig;
     }
 
-    private static native long open(String name, int mode, long lastModified,
-                                    boolean usemmap) throws IOException;
-    private static native int getTotal(long jzfile);
-    private static native boolean startsWithLOC(long jzfile);
-    private static native int read(long jzfile, long jzentry,
-                                   long pos, byte[] b, int off, int len);
-
-    // access to the native zentry object
-    private static native long getEntryTime(long jzentry);
-    private static native long getEntryCrc(long jzentry);
-    private static native long getEntryCSize(long jzentry);
-    private static native long getEntrySize(long jzentry);
-    private static native int getEntryMethod(long jzentry);
-    private static native int getEntryFlag(long jzentry);
-    private static native byte[] getCommentBytes(long jzfile);
-
-    private static final int JZENTRY_NAME = 0;
-    private static final int JZENTRY_EXTRA = 1;
-    private static final int JZENTRY_COMMENT = 2;
-    private static native byte[] getEntryBytes(long jzentry, int type);
-
-    private static native String getZipMessage(long jzfile);
+    /*
+     * Returns the names of the entries in the META-INF directory, or null
+     * if there are none.  Used by JarFile.
+     */
+    private String[] getMetaInfEntryNames() {
+        ensureOpen();
+        int[] metanames = zsrc.metanames;
+        if (metanames.length == 0) {
+            return null;
+        }
+        String[] names = new String[metanames.length];
+        for (int i = 0; i < metanames.length; i++) {
+            int pos = metanames[i];
+            byte[] bname = zsrc.getBytes(pos + CENHDR, zsrc.CENNAM(pos));
+            names[i] = toString(bname,
+                                !zc.isUTF8() && (zsrc.CENFLG(pos) & EFS) != 0);
+        }
+        return names;
+    }
+
+    /*
+     * The opened zip file: its central directory, an index of the entry
+     * names and the file used to read entry data.
+     *
+     * The central directory is memory mapped unless mapping is disabled
+     * with sun.zip.disableMemoryMapping, in which case it is read onto the
+     * heap.  Entry names are indexed in an open addressing hash table of
+     * positions into the central directory, built once when the file is
+     * opened; lookups and reads take no locks.
+     *
+     * A Source is shared by the ZipFile objects that open the same,
+     * unmodified file, and closed when the last of them is closed.
+     */
+    private static final class Source {
+        private final Key key;          // null if not shared
+        private int refs = 1;           // guarded by files
+
+        private final RandomAccessFile zfile;
+        private final FileChannel ch;
+        private final ByteBuffer cen;   // the central directory
+        private final long locpos;      // position of the first LOC header
+        final byte[] comment;           // zip file comment, or null
+        final int total;                // number of entries
+        final boolean startsWithLoc;    // if the file starts with LOCSIG
+
+        private int[] entries;          // CEN positions, in CEN order
+        private final int[] hashes;     // hash of each entry name
+        private final int[] table;      // entry index + 1, or 0 if free
+        private final int tableMask;
+        final int[] metanames;          // CEN positions of META-INF/ entries
+
+        private static final HashMap<Key, Source> files = new HashMap<>();
+
+        // Identifies a zip file by its path and modification time, so that
+        // a file modified since it was opened is opened anew.
+        private static final class Key {
+            final String path;
+            final long lastModified;
+
+            Key(String path, long lastModified) {
+                this.path = path;
+                this.lastModified = lastModified;
+            }
+
+            public int hashCode() {
+                return path.hashCode() * 31 + Long.hashCode(lastModified);
+            }
+
+            public boolean equals(Object obj) {
+                if (!(obj instanceof Key))
+                    return false;
+                Key other = (Key) obj;
+                return path.equals(other.path)
+                    && lastModified == other.lastModified;
+            }
+        }
+
+        static Source get(File file, boolean toDelete) throws IOException {
+            if (toDelete) {
+                return new Source(null, file, true);
+            }
+            Key key = new Key(file.getPath(), file.lastModified());
+            Source src;
+            synchronized (files) {
+                src = files.get(key);
+                if (src != null) {
+                    src.refs++;
+                    return src;
+                }
+            }
+            src = new Source(key, file, false);
+            Source other;
+            synchronized (files) {
+                other = files.get(key);
+                if (other == null) {
+                    files.put(key, src);
+                    return src;
+                }
+                // lost the race, use the file already opened
+                other.refs++;
+            }
+            src.close();
+            return other;
+        }
+
+        static void release(Source src) throws IOException {
+            synchronized (files) {
+                if (--src.refs > 0) {
+                    return;
+                }
+                if (src.key != null) {
+                    files.remove(src.key);
+                }
+            }
+            src.close();
+        }
+
+        private Source(Key key, File file, boolean toDelete) throws IOException {
+            this.key = key;
+            this.zfile = new RandomAccessFile(file, "r");
+            if (toDelete) {
+                // The file stays readable through the open descriptor
+                if (!file.delete()) {
+                    file.deleteOnExit();
+                }
+            }
+            try {
+                this.ch = zfile.getChannel();
+                // The channel is shared by all readers, an interrupted
+                // reader must not close it.
+                ((sun.nio.ch.FileChannelImpl) ch).setUninterruptible();
+
+                long len = ch.size();
+                if (len == 0) {
+                    zerror("zip file is empty");
+                }
+                byte[] buf = new byte[(int) Math.min(len, END_MAXLEN)];
+                long endbuf = len - buf.length;
+                readFullyAt(buf, 0, buf.length, endbuf);
+                int end = findEND(buf, endbuf, len);
+                if (end < 0) {
+                    zerror("zip END header not found");
+                }
+                long endpos = endbuf + end;
+                long cenlen = ZipUtils.get32(buf, end + ENDSIZ);
+                long cenoff = ZipUtils.get32(buf, end + ENDOFF);
+                int comlen = ZipUtils.get16(buf, end + ENDCOM);
+                if (comlen > 0 && end + ENDHDR + comlen <= buf.length) {
+                    comment = Arrays.copyOfRange(buf, end + ENDHDR,
+                                                 end + ENDHDR + comlen);
+                } else {
+                    comment = null;
+                }
+
+                // ZIP64 end of central directory record
+                if (endpos >= ZIP64_LOCHDR) {
+                    byte[] loc = new byte[ZIP64_LOCHDR];
+                    if (readFullyAt(loc, 0, ZIP64_LOCHDR, endpos - ZIP64_LOCHDR) == ZIP64_LOCHDR &&
+                        ZipUtils.get32(loc, 0) == ZIP64_LOCSIG) {
+                        long end64pos = ZipUtils.get64(loc, ZIP64_LOCOFF);
+                        byte[] end64 = new byte[ZIP64_ENDHDR];
+                        if (end64pos >= 0 && end64pos < endpos &&
+                            readFullyAt(end64, 0, ZIP64_ENDHDR, end64pos) == ZIP64_ENDHDR &&
+                            ZipUtils.get32(end64, 0) == ZIP64_ENDSIG) {
+                            cenlen = ZipUtils.get64(end64, ZIP64_ENDSIZ);
+                            cenoff = ZipUtils.get64(end64, ZIP64_ENDOFF);
+                            endpos = end64pos;
+                        }
+                    }
+                }
+
+                if (cenlen > endpos) {
+                    zerror("invalid END header (bad central directory size)");
+                }
+                if (cenlen > Integer.MAX_VALUE) {
+                    zerror("invalid END header (central directory size too large)");
+                }
+                long cenpos = endpos - cenlen;
+                locpos = cenpos - cenoff;
+                if (locpos < 0) {
+                    zerror("invalid END header (bad central directory offset)");
+                }
+
+                if (usemmap && cenlen > 0) {
+                    cen = ch.map(FileChannel.MapMode.READ_ONLY, cenpos, cenlen);
+                } else {
+                    byte[] b = new byte[(int) cenlen];
+                    if (readFullyAt(b, 0, b.length, cenpos) != b.length) {
+                        zerror("read CEN tables failed");
+                    }
+                    cen = ByteBuffer.wrap(b);
+                }
+                cen.order(ByteOrder.LITTLE_ENDIAN);
+
+                byte[] sig = new byte[4];
+                startsWithLoc = readFullyAt(sig, 0, 4, 0) == 4 &&
+                                ZipUtils.get32(sig, 0) == LOCSIG;
+
+                // Index the entries.  The END header only has a 16-bit
+                // entry count, so the entries are counted instead.
+                int estimate = ZipUtils.get16(buf, end + ENDTOT);
+                entries = new int[Math.max(estimate, 16)];
+                int n = 0;
+                int nmeta = 0;
+                int[] meta = new int[4];
+                int pos = 0;
+                int limit = (int) cenlen;
+                while (pos + CENHDR <= limit) {
+                    if (CENSIG(pos) != CENSIG) {
+                        zerror("invalid CEN header (bad signature)");
+                    }
+                    int method = CENHOW(pos);
+                    int nlen   = CENNAM(pos);
+                    int elen   = CENEXT(pos);
+                    int clen   = CENCOM(pos);
+                    if ((CENFLG(pos) & 1) != 0) {
+                        zerror("invalid CEN header (encrypted entry)");
+                    }
+                    if (method != STORED && method != DEFLATED) {
+                        zerror("invalid CEN header (bad compression method: " + method + ")");
+                    }
+                    if (pos + CENHDR + nlen > limit) {
+                        zerror("invalid CEN header (bad header size)");
+                    }
+                    if (n == entries.length) {
+                        entries = Arrays.copyOf(entries, n << 1);
+                    }
+                    entries[n++] = pos;
+                    if (isMetaName(pos + CENHDR, nlen)) {
+                        if (nmeta == meta.length) {
+                            meta = Arrays.copyOf(meta, nmeta << 1);
+                        }
+                        meta[nmeta++] = pos;
+                    }
+                    pos += CENHDR + nlen + elen + clen;
+                }
+                if (pos != limit) {
+                    zerror("invalid CEN header (bad header size)");
+                }
+                total = n;
+                metanames = Arrays.copyOf(meta, nmeta);
+
+                int tsize = 16;
+                while (tsize < n * 2) {
+                    tsize <<= 1;
+                }
+                table = new int[tsize];
+                tableMask = tsize - 1;
+                hashes = new int[n];
+                for (int i = 0; i < n; i++) {
+                    int epos = entries[i];
+                    int nlen = CENNAM(epos);
+                    int h = hash(epos + CENHDR, nlen, 0);
+                    hashes[i] = h;
+                    int slot = h & tableMask;
+                    while (true) {
+                        int j = table[slot] - 1;
+                        if (j < 0) {
+                            table[slot] = i + 1;
+                            break;
+                        }
+                        if (hashes[j] == h && nameEquals(entries[j], epos + CENHDR, nlen)) {
+                            // a later entry of the same name wins
+                            table[slot] = i + 1;
+                            break;
+                        }
+                        slot = (slot + 1) & tableMask;
+                    }
+                }
+            } catch (IOException | RuntimeException x) {
+                try {
+                    zfile.close();
+                } catch (IOException y) {
+                    x.addSuppressed(y);
+                }
+                throw x;
+            }
+        }
+
+        private void close() throws IOException {
+            // A mapped central directory is unmapped once it is no longer
+            // reachable; other threads may still be looking up entries.
+            zfile.close();
+        }
+
+        private static final int END_MAXLEN = 0xFFFF + ENDHDR;
+
+        /*
+         * Searches buf, which holds the last bytes of the file, backwards
+         * for the END header.  Returns its offset in buf, or -1.
+         */
+        private int findEND(byte[] buf, long bufpos, long ziplen) throws IOException {
+            byte[] sbuf = new byte[4];
+            for (int i = buf.length - ENDHDR; i >= 0; i--) {
+                if (buf[i]   == (byte)'P'    &&
+                    buf[i+1] == (byte)'K'    &&
+                    buf[i+2] == (byte)'\005' &&
+                    buf[i+3] == (byte)'\006') {
+                    int comlen = ZipUtils.get16(buf, i + ENDCOM);
+                    if (bufpos + i + ENDHDR + comlen != ziplen) {
+                        // The END header is not at the end of the file,
+                        // only accept it if it points at a CEN header
+                        // and a LOC header.
+                        long cenlen = ZipUtils.get32(buf, i + ENDSIZ);
+                        long cenoff = ZipUtils.get32(buf, i + ENDOFF);
+                        long cenpos = bufpos + i - cenlen;
+                        long lpos = cenpos - cenoff;
+                        if (cenpos < 0 || lpos < 0 ||
+                            readFullyAt(sbuf, 0, 4, cenpos) != 4 ||
+                            ZipUtils.get32(sbuf, 0) != CENSIG ||
+                            readFullyAt(sbuf, 0, 4, lpos) != 4 ||
+                            ZipUtils.get32(sbuf, 0) != LOCSIG) {
+                            continue;
+                        }
+                    }
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /*
+         * Returns the CEN position of the entry with the given name, or -1.
+         * If addSlash is true and no entry is found for a name that does
+         * not end with '/', the name with '/' appended is looked up too.
+         */
+        int getEntryPos(byte[] name, boolean addSlash) {
+            int h = 0;
+            for (byte b : name) {
+                h = 31 * h + b;
+            }
+            int pos = lookup(name, h, false);
+            if (pos == -1 && addSlash && name.length > 0 &&
+                name[name.length - 1] != '/') {
+                pos = lookup(name, 31 * h + '/', true);
+            }
+            return pos;
+        }
+
+        private int lookup(byte[] name, int h, boolean slash) {
+            int nlen = name.length + (slash ? 1 : 0);
+            int slot = h & tableMask;
+            while (true) {
+                int j = table[slot] - 1;
+                if (j < 0) {
+                    return -1;
+                }
+                if (hashes[j] == h) {
+                    int pos = entries[j];
+                    if (CENNAM(pos) == nlen && nameEquals(pos, name, slash)) {
+                        return pos;
+                    }
+                }
+                slot = (slot + 1) & tableMask;
+            }
+        }
+
+        private boolean nameEquals(int pos, byte[] name, boolean slash) {
+            int off = pos + CENHDR;
+            for (int i = 0; i < name.length; i++) {
+                if (cen.get(off + i) != name[i]) {
+                    return false;
+                }
+            }
+            return !slash || cen.get(off + name.length) == '/';
+        }
+
+        private boolean nameEquals(int pos, int off, int nlen) {
+            if (CENNAM(pos) != nlen) {
+                return false;
+            }
+            int noff = pos + CENHDR;
+            for (int i = 0; i < nlen; i++) {
+                if (cen.get(noff + i) != cen.get(off + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int hash(int off, int len, int h) {
+            for (int i = 0; i < len; i++) {
+                h = 31 * h + cen.get(off + i);
+            }
+            return h;
+        }
+
+        // "META-INF/", compared ignoring the case of ASCII letters
+        private boolean isMetaName(int off, int len) {
+            if (len < 9) {
+                return false;
+            }
+            for (int i = 0; i < 9; i++) {
+                int c = cen.get(off + i);
+                if (c >= 'a' && c <= 'z') {
+                    c -= 'a' - 'A';
+                }
+                if (c != "META-INF/".charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int getEntryPosAt(int i) {
+            return entries[i];
+        }
+
+        byte[] getBytes(int off, int len) {
+            byte[] b = new byte[len];
+            for (int i = 0; i < len; i++) {
+                b[i] = cen.get(off + i);
+            }
+            return b;
+        }
+
+        // central directory header fields
+        long CENSIG(int pos) { return cen.getInt(pos) & 0xffffffffL; }
+        int  CENFLG(int pos) { return cen.getShort(pos + ZipConstants.CENFLG) & 0xffff; }
+        int  CENHOW(int pos) { return cen.getShort(pos + ZipConstants.CENHOW) & 0xffff; }
+        long CENTIM(int pos) { return cen.getInt(pos + ZipConstants.CENTIM) & 0xffffffffL; }
+        long CENCRC(int pos) { return cen.getInt(pos + ZipConstants.CENCRC) & 0xffffffffL; }
+        long CENSIZ(int pos) { return cen.getInt(pos + ZipConstants.CENSIZ) & 0xffffffffL; }
+        long CENLEN(int pos) { return cen.getInt(pos + ZipConstants.CENLEN) & 0xffffffffL; }
+        int  CENNAM(int pos) { return cen.getShort(pos + ZipConstants.CENNAM) & 0xffff; }
+        int  CENEXT(int pos) { return cen.getShort(pos + ZipConstants.CENEXT) & 0xffff; }
+        int  CENCOM(int pos) { return cen.getShort(pos + ZipConstants.CENCOM) & 0xffff; }
+        long CENOFF(int pos) { return cen.getInt(pos + ZipConstants.CENOFF) & 0xffffffffL; }
+
+        long entrySize(int pos) {
+            return zip64Value(pos, CENLEN(pos), 0);
+        }
+
+        long entryCSize(int pos) {
+            return zip64Value(pos, CENSIZ(pos), 1);
+        }
+
+        /*
+         * Returns value, or if it is ZIP64_MAGICVAL the corresponding
+         * field of the ZIP64 extra field.  The extra field only holds the
+         * uncompressed size (0), compressed size (1) and LOC offset (2)
+         * whose header values are ZIP64_MAGICVAL, in that order.
+         */
+        private long zip64Value(int pos, long value, int field) {
+            if (value != ZIP64_MAGICVAL) {
+                return value;
+            }
+            int off = 0;
+            if (field > 0 && CENLEN(pos) == ZIP64_MAGICVAL) off += 8;
+            if (field > 1 && CENSIZ(pos) == ZIP64_MAGICVAL) off += 8;
+            int extra = pos + CENHDR + CENNAM(pos);
+            int end = extra + CENEXT(pos);
+            while (extra + 4 <= end) {
+                int tag = cen.getShort(extra) & 0xffff;
+                int sz = cen.getShort(extra + 2) & 0xffff;
+                extra += 4;
+                if (tag == ZIP64_EXTID) {
+                    if (off + 8 <= sz && extra + off + 8 <= end) {
+                        return cen.getLong(extra + off);
+                    }
+                    break;
+                }
+                extra += sz;
+            }
+            return value;
+        }
+
+        /*
+         * Returns the position of the data of the entry at pos, after its
+         * LOC header.
+         */
+        long getDataOffset(int pos) throws IOException {
+            long off = locpos + zip64Value(pos, CENOFF(pos), 2);
+            byte[] loc = new byte[LOCHDR];
+            if (readFullyAt(loc, 0, LOCHDR, off) != LOCHDR) {
+                throw new ZipException("ZipFile error reading zip file");
+            }
+            if (ZipUtils.get32(loc, 0) != LOCSIG) {
+                throw new ZipException("ZipFile invalid LOC header (bad signature)");
+            }
+            return off + LOCHDR + ZipUtils.get16(loc, LOCNAM)
+                       + ZipUtils.get16(loc, LOCEXT);
+        }
+
+        int readAt(byte[] b, int off, int len, long pos) throws IOException {
+            return ch.read(ByteBuffer.wrap(b, off, len), pos);
+        }
+
+        private int readFullyAt(byte[] b, int off, int len, long pos) throws IOException {
+            ByteBuffer bb = ByteBuffer.wrap(b, off, len);
+            int n = 0;
+            while (bb.hasRemaining()) {
+                int r = ch.read(bb, pos + n);
+                if (r < 0) {
+                    break;
+                }
+                n += r;
+            }
+            return n;
+        }
+
+        private static void zerror(String msg) throws ZipException {
+            throw new ZipException(msg);
+        }
+    }
 }
@@ -25,7 +25,7 @@
 
 package sun.management;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.lang.management.PlatformManagedObject;
 
@@ -40,7 +40,11 @@ public final class ExtendedPlatformComponent {
      * platform MBeanServer, or an empty list if there are no such MXBeans.
      */
     public static List<? extends PlatformManagedObject> getMXBeans() {
-        return Collections.emptyList();
+        List<PlatformManagedObject> list = new ArrayList<>();
+        list.add(sun.net.www.http.HttpClient.getKeepAliveCacheMXBean());
+        list.add(sun.misc.SharedSecrets.getJavaNetAccess().getInetAddressCacheMXBean());
+        list.add(sun.util.concurrent.TaskStatistics.getMXBean());
+        return list;
     }
 
     /**
@@ -49,6 +53,11 @@ public final class ExtendedPlatformComponent {
      */
     public static <T extends PlatformManagedObject>
             T getMXBean(Class<T> mxbeanInterface) {
+        for (PlatformManagedObject o : getMXBeans()) {
+            if (mxbeanInterface.isInstance(o)) {
+                return mxbeanInterface.cast(o);
+            }
+        }
         return null;
     }
 }
@@ -27,6 +27,7 @@ package sun.misc;
 
 import java.net.URLClassLoader;
 import java.net.InetAddress;
+import sun.net.InetAddressCacheMXBean;
 
 public interface JavaNetAccess {
     /**
@@ -39,4 +40,9 @@ public interface JavaNetAccess {
      * the given InetAddress object.
      */
     String getOriginalHostName(InetAddress ia);
+
+    /**
+     * Return the management interface of the InetAddress host name cache.
+     */
+    InetAddressCacheMXBean getInetAddressCacheMXBean();
 }
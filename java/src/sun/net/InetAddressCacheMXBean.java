@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net;
+
+import java.lang.management.PlatformManagedObject;
+
+/**
+ * The management interface for the host name cache of
+ * {@link java.net.InetAddress}.
+ *
+ * <p>The {@code ObjectName} for uniquely identifying the MXBean within
+ * an MBeanServer is {@code java.net:type=InetAddressCache}.
+ */
+public interface InetAddressCacheMXBean extends PlatformManagedObject {
+
+    /**
+     * Returns the number of entries in the cache of successful lookups.
+     */
+    public int getCacheSize();
+
+    /**
+     * Returns the number of entries in the cache of failed lookups.
+     */
+    public int getNegativeCacheSize();
+
+    /**
+     * Returns the number of host name resolutions answered by the cache.
+     */
+    public long getHitCount();
+
+    /**
+     * Returns the number of host name resolutions not answered by the cache.
+     */
+    public long getMissCount();
+
+    /**
+     * Returns the number of lookups made through the name services,
+     * background refreshes included.
+     */
+    public long getLookupCount();
+
+    /**
+     * Returns the number of name service lookups which failed.
+     */
+    public long getLookupFailureCount();
+
+    /**
+     * Returns the total time, in milliseconds, spent in name service lookups.
+     */
+    public long getTotalLookupTime();
+
+    /**
+     * Returns the number of background refreshes started before an
+     * entry expired.
+     */
+    public long getRefreshCount();
+
+    /**
+     * Returns the number of entries evicted because the cache was full.
+     */
+    public long getEvictionCount();
+}
@@ -27,6 +27,10 @@ package sun.net.httpserver;
 
 import java.io.*;
 import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import javax.net.ssl.*;
 import java.util.*;
 import java.util.logging.Logger;
@@ -269,6 +273,60 @@ class ExchangeImpl {
         server.logReply (rCode, req.requestLine(), null);
     }
 
+    /**
+     * Sends the response headers followed by count bytes of the given
+     * file, starting at position, as the response body. Unless a filter
+     * has replaced the response body stream, the bytes do not pass
+     * through the user level streams: plain connections use
+     * FileChannel.transferTo on the socket channel and https connections
+     * copy through a pooled direct buffer. The exchange must still be
+     * closed as usual.
+     */
+    public void sendFile (int rCode, FileChannel src, long position, long count)
+    throws IOException
+    {
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException ("negative position or count");
+        }
+        sendResponseHeaders (rCode, count == 0 ? -1 : count);
+        if (rspContentLen == 0) {
+            return; /* HEAD request, or no body allowed */
+        }
+        if (uos != uos_orig) {
+            /* a filter wrapped the body stream, so it must see the data */
+            byte[] b = new byte [8192];
+            ByteBuffer bb = ByteBuffer.wrap (b);
+            while (count > 0) {
+                bb.clear();
+                if (count < b.length) {
+                    bb.limit ((int)count);
+                }
+                int n = src.read (bb, position);
+                if (n < 0) {
+                    throw new EOFException ("unexpected end of file");
+                }
+                uos.write (b, 0, n);
+                position += n;
+                count -= n;
+            }
+        } else {
+            FixedLengthOutputStream o = (FixedLengthOutputStream)uos_orig.wrapped;
+            o.transferFrom (src, position, count);
+        }
+    }
+
+    /**
+     * Sends count bytes of the given file, starting at position.
+     * See {@link #sendFile(int,FileChannel,long,long)}
+     */
+    public void sendFile (int rCode, Path file, long position, long count)
+    throws IOException
+    {
+        try (FileChannel src = FileChannel.open (file, StandardOpenOption.READ)) {
+            sendFile (rCode, src, position, count);
+        }
+    }
+
     void write (Headers map, OutputStream os) throws IOException {
         Set<Map.Entry<String,List<String>>> entries = map.entrySet();
         for (Map.Entry<String,List<String>> entry : entries) {
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.httpserver;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * Implemented by the HttpExchange and HttpsExchange objects of the
+ * built-in server, so that handlers can send a file as the response
+ * body without copying it through the response body stream:
+ * <pre>
+ *     if (exchange instanceof FileExchange) {
+ *         ((FileExchange)exchange).sendFile (200, path, 0, size);
+ *     }
+ * </pre>
+ * Plain connections use FileChannel.transferTo on the socket channel,
+ * and https connections copy through a pooled direct buffer. If a filter
+ * has replaced the response body stream, the file is written to that
+ * stream instead. The exchange must still be closed as usual.
+ */
+public interface FileExchange {
+
+    /**
+     * Sends the response headers followed by count bytes of the given
+     * file, starting at position, as the response body.
+     *
+     * @param rCode the response code to send
+     * @param src the file to send from
+     * @param position the position in the file of the first byte to send
+     * @param count the number of bytes to send, also sent as the
+     *        Content-length
+     * @throws IllegalArgumentException if position or count is negative
+     * @throws IOException if the file ends before count bytes were sent,
+     *         or if an I/O error occurs
+     */
+    void sendFile (int rCode, FileChannel src, long position, long count)
+        throws IOException;
+
+    /**
+     * Opens the given file and sends count bytes of it, starting at
+     * position, as by {@link #sendFile(int,FileChannel,long,long)}.
+     */
+    void sendFile (int rCode, Path file, long position, long count)
+        throws IOException;
+}
@@ -27,6 +27,10 @@ package sun.net.httpserver;
 
 import java.io.*;
 import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.net.ssl.SSLEngineResult.Status;
 import com.sun.net.httpserver.*;
 import com.sun.net.httpserver.spi.*;
 
@@ -45,6 +49,11 @@ class FixedLengthOutputStream extends FilterOutputStream
     private boolean closed = false;
     ExchangeImpl t;
 
+    /* direct buffers used to feed file data to the SSLEngine */
+    private static final int POOL_BUF_SIZE = 64 * 1024;
+    private static final ConcurrentLinkedQueue<ByteBuffer> bufPool =
+        new ConcurrentLinkedQueue<ByteBuffer>();
+
     FixedLengthOutputStream (ExchangeImpl t, OutputStream src, long len) {
         super (src);
         this.t = t;
@@ -79,6 +88,99 @@ class FixedLengthOutputStream extends FilterOutputStream
         remaining -= len;
     }
 
+    /**
+     * writes count bytes of the file channel, starting at position,
+     * directly to the connection, bypassing the wrapped stream.
+     * Plain connections use FileChannel.transferTo. Https connections
+     * copy through a pooled direct buffer into the SSLEngine.
+     */
+    void transferFrom (FileChannel src, long position, long count)
+    throws IOException
+    {
+        if (closed) {
+            throw new IOException ("stream closed");
+        }
+        eof = (remaining == 0);
+        if (eof) {
+            throw new StreamClosedException();
+        }
+        if (count > remaining) {
+            throw new IOException ("too many bytes to write to stream");
+        }
+        HttpConnection c = t.getConnection();
+        if (c.sslStreams == null) {
+            SocketChannel chan = c.getChannel();
+            while (count > 0) {
+                long n = src.transferTo (position, count, chan);
+                if (n == 0) {
+                    /* no progress, so copy one buffer instead rather
+                     * than calling transferTo again */
+                    n = copy (src, position, count, chan);
+                }
+                position += n;
+                count -= n;
+                remaining -= n;
+            }
+            return;
+        }
+        ByteBuffer buf = bufPool.poll();
+        if (buf == null) {
+            buf = ByteBuffer.allocateDirect (POOL_BUF_SIZE);
+        }
+        try {
+            while (count > 0) {
+                buf.clear();
+                if (count < buf.capacity()) {
+                    buf.limit ((int)count);
+                }
+                int n = src.read (buf, position);
+                if (n < 0) {
+                    throw new EOFException ("unexpected end of file");
+                }
+                buf.flip();
+                SSLStreams.WrapperResult r = c.sslStreams.sendData (buf);
+                if (r.result.getStatus() == Status.CLOSED) {
+                    throw new IOException ("output stream is closed");
+                }
+                position += n;
+                count -= n;
+                remaining -= n;
+            }
+        } finally {
+            bufPool.offer (buf);
+        }
+    }
+
+    /* copies up to count bytes of src at position to chan through a
+     * pooled buffer, returns the number of bytes copied
+     */
+    private static int copy (FileChannel src, long position, long count,
+                             SocketChannel chan)
+    throws IOException
+    {
+        ByteBuffer buf = bufPool.poll();
+        if (buf == null) {
+            buf = ByteBuffer.allocateDirect (POOL_BUF_SIZE);
+        }
+        try {
+            buf.clear();
+            if (count < buf.capacity()) {
+                buf.limit ((int)count);
+            }
+            int n = src.read (buf, position);
+            if (n <= 0) {
+                throw new EOFException ("unexpected end of file");
+            }
+            buf.flip();
+            while (buf.hasRemaining()) {
+                chan.write (buf);
+            }
+            return n;
+        } finally {
+            bufPool.offer (buf);
+        }
+    }
+
     public void close () throws IOException {
         if (closed) {
             return;
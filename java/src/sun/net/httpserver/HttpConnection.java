@@ -53,6 +53,8 @@ class HttpConnection {
 
     SocketChannel chan;
     SelectionKey selectionKey;
+    /* the selector loop this connection is registered with */
+    ServerImpl.Dispatcher dispatcher;
     String protocol;
     long time;
     volatile long creationTime; // time this connection was created
@@ -35,7 +35,7 @@ import sun.net.www.MessageHeader;
 import com.sun.net.httpserver.*;
 import com.sun.net.httpserver.spi.*;
 
-class HttpsExchangeImpl extends HttpsExchange {
+class HttpsExchangeImpl extends HttpsExchange implements FileExchange {
 
     ExchangeImpl impl;
 
@@ -86,6 +86,18 @@ class HttpsExchangeImpl extends HttpsExchange {
         impl.sendResponseHeaders (rCode, contentLen);
     }
 
+    public void sendFile (int rCode, FileChannel src, long position, long count)
+    throws IOException
+    {
+        impl.sendFile (rCode, src, position, count);
+    }
+
+    public void sendFile (int rCode, java.nio.file.Path file, long position, long count)
+    throws IOException
+    {
+        impl.sendFile (rCode, file, position, count);
+    }
+
     public InetSocketAddress getRemoteAddress (){
         return impl.getRemoteAddress();
     }
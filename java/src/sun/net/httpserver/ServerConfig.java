@@ -46,6 +46,7 @@ class ServerConfig {
     private static final long DEFAULT_TIMER_MILLIS = 1000;
     private static final int  DEFAULT_MAX_REQ_HEADERS = 200;
     private static final long DEFAULT_DRAIN_AMOUNT = 64 * 1024;
+    private static final int  DEFAULT_DISPATCHERS = 1;
 
     private static int clockTick;
     private static long idleInterval;
@@ -59,6 +60,9 @@ class ServerConfig {
     private static long maxRspTime;
     private static long timerMillis;
     private static boolean debug;
+    // number of selector loops. If more than one, a separate
+    // thread accepts connections and spreads them over the loops
+    private static int dispatchers;
 
     // the value of the TCP_NODELAY socket-level option
     private static boolean noDelay;
@@ -96,6 +100,13 @@ class ServerConfig {
 
                     debug = Boolean.getBoolean("sun.net.httpserver.debug");
 
+                    dispatchers = Integer.getInteger(
+                            "sun.net.httpserver.dispatchers",
+                            DEFAULT_DISPATCHERS);
+                    if (dispatchers < 1) {
+                        dispatchers = DEFAULT_DISPATCHERS;
+                    }
+
                     noDelay = Boolean.getBoolean("sun.net.httpserver.nodelay");
 
                     return null;
@@ -177,6 +188,10 @@ class ServerConfig {
         return timerMillis;
     }
 
+    static int getDispatchers() {
+        return dispatchers;
+    }
+
     static boolean noDelay() {
         return noDelay;
     }
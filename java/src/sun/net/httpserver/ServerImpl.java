@@ -53,6 +53,11 @@ class ServerImpl implements TimeSource {
     private ServerSocketChannel schan;
     private Selector selector;
     private SelectionKey listenerKey;
+    /* the selector loops. When there is more than one, the listener
+     * is registered with a separate Acceptor's selector instead.
+     */
+    private Dispatcher[] dispatchers;
+    private Acceptor acceptor;
     private Set<HttpConnection> idleConnections;
     private Set<HttpConnection> allConnections;
     /* following two are used to keep track of the times
@@ -61,8 +66,6 @@ class ServerImpl implements TimeSource {
      */
     private Set<HttpConnection> reqConnections;
     private Set<HttpConnection> rspConnections;
-    private List<Event> events;
-    private Object lolock = new Object();
     private volatile boolean finished = false;
     private volatile boolean terminating = false;
     private boolean bound = false;
@@ -79,6 +82,7 @@ class ServerImpl implements TimeSource {
     final static long MAX_REQ_TIME=getTimeMillis(ServerConfig.getMaxReqTime());
     final static long MAX_RSP_TIME=getTimeMillis(ServerConfig.getMaxRspTime());
     final static boolean timer1Enabled = MAX_REQ_TIME != -1 || MAX_RSP_TIME != -1;
+    final static int DISPATCHERS = ServerConfig.getDispatchers();
 
     private Timer timer, timer1;
     private Logger logger;
@@ -103,7 +107,16 @@ class ServerImpl implements TimeSource {
         selector = Selector.open ();
         schan.configureBlocking (false);
         listenerKey = schan.register (selector, SelectionKey.OP_ACCEPT);
-        dispatcher = new Dispatcher();
+        dispatchers = new Dispatcher [DISPATCHERS];
+        if (DISPATCHERS == 1) {
+            /* single loop accepts and reads on the same selector */
+            dispatchers[0] = new Dispatcher (selector, listenerKey);
+        } else {
+            acceptor = new Acceptor();
+            for (int i=0; i<DISPATCHERS; i++) {
+                dispatchers[i] = new Dispatcher (Selector.open(), null);
+            }
+        }
         idleConnections = Collections.synchronizedSet (new HashSet<HttpConnection>());
         allConnections = Collections.synchronizedSet (new HashSet<HttpConnection>());
         reqConnections = Collections.synchronizedSet (new HashSet<HttpConnection>());
@@ -118,7 +131,7 @@ class ServerImpl implements TimeSource {
             logger.config ("MAX_REQ_TIME:  "+MAX_REQ_TIME);
             logger.config ("MAX_RSP_TIME:  "+MAX_RSP_TIME);
         }
-        events = new LinkedList<Event>();
+        logger.config ("HttpServer dispatchers: "+DISPATCHERS);
         logger.config ("HttpServer created "+protocol+" "+ addr);
     }
 
@@ -141,9 +154,15 @@ class ServerImpl implements TimeSource {
         if (executor == null) {
             executor = new DefaultExecutor();
         }
-        Thread t = new Thread (dispatcher);
         started = true;
-        t.start();
+        if (acceptor != null) {
+            new Thread (acceptor, "HTTP-Acceptor").start();
+            for (int i=0; i<dispatchers.length; i++) {
+                new Thread (dispatchers[i], "HTTP-Dispatcher-"+i).start();
+            }
+        } else {
+            new Thread (dispatchers[0]).start();
+        }
     }
 
     public void setExecutor (Executor executor) {
@@ -184,7 +203,7 @@ class ServerImpl implements TimeSource {
         }
         terminating = true;
         try { schan.close(); } catch (IOException e) {}
-        selector.wakeup();
+        wakeupAll();
         long latest = System.currentTimeMillis() + delay * 1000;
         while (System.currentTimeMillis() < latest) {
             delay();
@@ -193,7 +212,7 @@ class ServerImpl implements TimeSource {
             }
         }
         finished = true;
-        selector.wakeup();
+        wakeupAll();
         synchronized (allConnections) {
             for (HttpConnection c : allConnections) {
                 c.close();
@@ -207,7 +226,12 @@ class ServerImpl implements TimeSource {
         }
     }
 
-    Dispatcher dispatcher;
+    private void wakeupAll () {
+        selector.wakeup();
+        for (Dispatcher d : dispatchers) {
+            d.selector.wakeup();
+        }
+    }
 
     public synchronized HttpContextImpl createContext (String path, HttpHandler handler) {
         if (handler == null || path == null) {
@@ -256,21 +280,108 @@ class ServerImpl implements TimeSource {
                 });
     }
 
-    Selector getSelector () {
-        return selector;
+    /* events are handled by the loop which owns the connection */
+    void addEvent (Event r) {
+        r.exchange.getConnection().dispatcher.addEvent (r);
     }
 
-    void addEvent (Event r) {
-        synchronized (lolock) {
-            events.add (r);
-            selector.wakeup();
+    /* accepts a new connection and registers it with the given loop.
+     * Must be called from that loop's own thread.
+     */
+    private void accept (Dispatcher d) throws IOException {
+        SocketChannel chan = schan.accept();
+        if (chan == null) {
+            return; /* cancel something ? */
         }
+        d.register (chan);
     }
 
-    /* main server listener task */
+    /* dedicated listener task, only used when there is more
+     * than one Dispatcher. Accepted channels are handed to the
+     * dispatchers in turn, and registered by the receiving loop.
+     */
+
+    class Acceptor implements Runnable {
+
+        private int next = 0;
+
+        public void run() {
+            while (!finished && !terminating) {
+                try {
+                    selector.select(1000);
+                    Iterator<SelectionKey> iter = selector.selectedKeys().iterator();
+                    while (iter.hasNext()) {
+                        SelectionKey key = iter.next();
+                        iter.remove ();
+                        if (terminating || !key.isValid() || !key.isAcceptable()) {
+                            continue;
+                        }
+                        SocketChannel chan;
+                        while ((chan = schan.accept()) != null) {
+                            dispatchers[next].addConnection (chan);
+                            next = (next + 1) % dispatchers.length;
+                        }
+                    }
+                } catch (IOException e) {
+                    logger.log (Level.FINER, "Acceptor (1)", e);
+                } catch (Exception e) {
+                    logger.log (Level.FINER, "Acceptor (2)", e);
+                }
+            }
+            try {selector.close(); } catch (Exception e) {}
+        }
+    }
+
+    /* selector loop. Reads requests from the connections registered
+     * with it, and accepts new ones too when it owns the listenerKey.
+     */
 
     class Dispatcher implements Runnable {
 
+        final Selector selector;
+        /* null, unless this loop also accepts new connections */
+        final SelectionKey listenerKey;
+
+        private final Object lolock = new Object();
+        private List<Event> events = new LinkedList<Event>();
+        private List<SocketChannel> accepted = new LinkedList<SocketChannel>();
+
+        Dispatcher (Selector selector, SelectionKey listenerKey) {
+            this.selector = selector;
+            this.listenerKey = listenerKey;
+        }
+
+        void addEvent (Event r) {
+            synchronized (lolock) {
+                events.add (r);
+                selector.wakeup();
+            }
+        }
+
+        /* called by the Acceptor to hand over a new connection */
+        void addConnection (SocketChannel chan) {
+            synchronized (lolock) {
+                accepted.add (chan);
+                selector.wakeup();
+            }
+        }
+
+        void register (SocketChannel chan) throws IOException {
+            // Set TCP_NODELAY, if appropriate
+            if (ServerConfig.noDelay()) {
+                chan.socket().setTcpNoDelay(true);
+            }
+            chan.configureBlocking (false);
+            SelectionKey newkey = chan.register (selector, SelectionKey.OP_READ);
+            HttpConnection c = new HttpConnection ();
+            c.selectionKey = newkey;
+            c.dispatcher = this;
+            c.setChannel (chan);
+            newkey.attach (c);
+            requestStarted (c);
+            allConnections.add (c);
+        }
+
         private void handleEvent (Event r) {
             ExchangeImpl t = r.exchange;
             HttpConnection c = t.getConnection();
@@ -331,11 +442,16 @@ class ServerImpl implements TimeSource {
             while (!finished) {
                 try {
                     List<Event> list = null;
+                    List<SocketChannel> chans = null;
                     synchronized (lolock) {
                         if (events.size() > 0) {
                             list = events;
                             events = new LinkedList<Event>();
                         }
+                        if (accepted.size() > 0) {
+                            chans = accepted;
+                            accepted = new LinkedList<SocketChannel>();
+                        }
                     }
 
                     if (list != null) {
@@ -344,6 +460,16 @@ class ServerImpl implements TimeSource {
                         }
                     }
 
+                    if (chans != null) {
+                        for (SocketChannel chan : chans) {
+                            if (terminating) {
+                                try { chan.close(); } catch (IOException e) {}
+                            } else {
+                                register (chan);
+                            }
+                        }
+                    }
+
                     for (HttpConnection c : connsToRegister) {
                         reRegister(c);
                     }
@@ -361,24 +487,7 @@ class ServerImpl implements TimeSource {
                             if (terminating) {
                                 continue;
                             }
-                            SocketChannel chan = schan.accept();
-
-                            // Set TCP_NODELAY, if appropriate
-                            if (ServerConfig.noDelay()) {
-                                chan.socket().setTcpNoDelay(true);
-                            }
-
-                            if (chan == null) {
-                                continue; /* cancel something ? */
-                            }
-                            chan.configureBlocking (false);
-                            SelectionKey newkey = chan.register (selector, SelectionKey.OP_READ);
-                            HttpConnection c = new HttpConnection ();
-                            c.selectionKey = newkey;
-                            c.setChannel (chan);
-                            newkey.attach (c);
-                            requestStarted (c);
-                            allConnections.add (c);
+                            accept (this);
                         } else {
                             try {
                                 if (key.isReadable()) {
@@ -92,6 +92,13 @@ public class HttpClient extends NetworkClient {
     /* where we cache currently open, persistent connections */
     protected static KeepAliveCache kac = new KeepAliveCache();
 
+    /**
+     * Returns the management interface of the keep-alive cache.
+     */
+    public static KeepAliveCacheMXBean getKeepAliveCacheMXBean() {
+        return kac.getMXBean();
+    }
+
     private static boolean keepAliveProp = true;
 
     // retryPostProp is true by default so as to preserve behavior
@@ -28,17 +28,28 @@ package sun.net.www.http;
 import java.io.IOException;
 import java.io.NotSerializableException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.net.URL;
+import javax.management.ObjectName;
 
 /**
  * A class that implements a cache of idle Http connections for keep-alive
  *
+ * The cache is a concurrent map from destination (route) to a lock-free
+ * stack of idle connections, so lookups and returns for different routes,
+ * or for the same route, never block each other. A single cleaner thread
+ * expires idle connections and validates the survivors in the background.
+ *
  * @author Stephen R. Pietrowicz (NCSA)
  * @author Dave Brown
  */
 public class KeepAliveCache
-    extends HashMap<KeepAliveKey, ClientVector>
+    extends ConcurrentHashMap<KeepAliveKey, ClientVector>
     implements Runnable {
     private static final long serialVersionUID = -2937172892064557949L;
 
@@ -62,9 +73,34 @@ public class KeepAliveCache
             return result;
     }
 
+    /* number of idle connections per destination that are not closed
+     * merely because they reached LIFETIME. Such connections are kept
+     * as long as they pass validation, unless the server advertised its
+     * own keep-alive timeout. It can be set by "http.keepAlive.minIdle".
+     */
+    static final int MIN_IDLE = java.security.AccessController.doPrivileged(
+        new sun.security.action.GetIntegerAction("http.keepAlive.minIdle", 0))
+        .intValue();
+
+    /* whether the cleaner probes idle connections for server side closure.
+     * It can be disabled by setting "http.keepAlive.validate" to false.
+     */
+    static final boolean VALIDATE = !"false".equalsIgnoreCase(
+        java.security.AccessController.doPrivileged(
+            new sun.security.action.GetPropertyAction("http.keepAlive.validate")));
+
     static final int LIFETIME = 5000;
 
-    private Thread keepAliveTimer = null;
+    private volatile Thread keepAliveTimer = null;
+
+    /* statistics, see KeepAliveCacheMXBean */
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder overflows = new LongAdder();
+    final LongAdder expirations = new LongAdder();
+    final LongAdder validationFailures = new LongAdder();
+
+    private transient KeepAliveCacheMXBean mxbean;
 
     /**
      * Constructor
@@ -76,15 +112,57 @@ public class KeepAliveCache
      * @param url  The URL contains info about the host and port
      * @param http The HttpClient to be cached
      */
-    public synchronized void put(final URL url, Object obj, HttpClient http) {
-        boolean startThread = (keepAliveTimer == null);
-        if (!startThread) {
-            if (!keepAliveTimer.isAlive()) {
-                startThread = true;
+    public void put(final URL url, Object obj, HttpClient http) {
+        KeepAliveKey key = new KeepAliveKey(url, obj);
+        int keepAliveTimeout = http.getKeepAliveTimeout();
+        offer(key, new KeepAliveEntry(http, System.currentTimeMillis()),
+              keepAliveTimeout > 0? keepAliveTimeout*1000 : LIFETIME,
+              keepAliveTimeout > 0);
+        ensureCleaner();
+    }
+
+    /* add an entry to the vector for key, creating the vector if needed.
+     * The vector may be detached by removeVector() while the entry is
+     * being added to it. In that case the entry is taken back out and
+     * added to the current vector, unless removeVector() has already
+     * moved it there, so that a connection is never left in a vector
+     * which is no longer reachable from the cache.
+     */
+    private void offer(KeepAliveKey key, KeepAliveEntry e,
+                       int nap, boolean advertised) {
+        while (true) {
+            ClientVector v = super.get(key);
+            if (v == null) {
+                ClientVector nv = new ClientVector(nap, advertised);
+                v = putIfAbsent(key, nv);
+                if (v == null) {
+                    v = nv;
+                }
             }
+            if (!v.put(e)) {
+                overflows.increment();
+                return;
+            }
+            if (super.get(key) == v || !v.remove(e)) {
+                return;
+            }
+        }
+    }
+
+    /* start the cleaner, unless it is already running. The cleaner clears
+     * keepAliveTimer under the cache lock when it finds the cache empty,
+     * so an entry added concurrently is never left without a cleaner.
+     */
+    private void ensureCleaner() {
+        Thread t = keepAliveTimer;
+        if (t != null && t.isAlive()) {
+            return;
         }
-        if (startThread) {
-            clear();
+        synchronized (this) {
+            t = keepAliveTimer;
+            if (t != null && t.isAlive()) {
+                return;
+            }
             /* Unfortunately, we can't always believe the keep-alive timeout we got
              * back from the server.  If I'm connected through a Netscape proxy
              * to a server that sent me a keep-alive
@@ -103,62 +181,65 @@ public class KeepAliveCache
                         grp = parent;
                     }
 
-                    keepAliveTimer = new Thread(grp, cache, "Keep-Alive-Timer");
-                    keepAliveTimer.setDaemon(true);
-                    keepAliveTimer.setPriority(Thread.MAX_PRIORITY - 2);
+                    Thread timer = new Thread(grp, cache, "Keep-Alive-Timer");
+                    timer.setDaemon(true);
+                    timer.setPriority(Thread.MAX_PRIORITY - 2);
                     // Set the context class loader to null in order to avoid
                     // keeping a strong reference to an application classloader.
-                    keepAliveTimer.setContextClassLoader(null);
-                    keepAliveTimer.start();
+                    timer.setContextClassLoader(null);
+                    keepAliveTimer = timer;
+                    timer.start();
                     return null;
                 }
             });
         }
-
-        KeepAliveKey key = new KeepAliveKey(url, obj);
-        ClientVector v = super.get(key);
-
-        if (v == null) {
-            int keepAliveTimeout = http.getKeepAliveTimeout();
-            v = new ClientVector(keepAliveTimeout > 0?
-                                 keepAliveTimeout*1000 : LIFETIME);
-            v.put(http);
-            super.put(key, v);
-        } else {
-            v.put(http);
-        }
     }
 
     /* remove an obsolete HttpClient from its VectorCache */
-    public synchronized void remove (HttpClient h, Object obj) {
+    public void remove (HttpClient h, Object obj) {
         KeepAliveKey key = new KeepAliveKey(h.url, obj);
         ClientVector v = super.get(key);
         if (v != null) {
             v.remove(h);
-            if (v.empty()) {
-                removeVector(key);
+            if (v.isEmpty()) {
+                removeVector(key, v);
             }
         }
     }
 
-    /* called by a clientVector thread when all its connections have timed out
-     * and that vector of connections should be removed.
+    /* called when all the connections of a vector have timed out
+     * and that vector of connections should be removed. Any
+     * connection returned to the vector in the meantime is moved
+     * to a fresh vector for the same key.
      */
-    synchronized void removeVector(KeepAliveKey k) {
-        super.remove(k);
+    void removeVector(KeepAliveKey k, ClientVector v) {
+        if (super.remove(k, v)) {
+            drain(k, v);
+        }
+    }
+
+    /* moves the connections of a detached vector to the current one */
+    private void drain(KeepAliveKey k, ClientVector v) {
+        KeepAliveEntry e;
+        while ((e = v.poll()) != null) {
+            offer(k, e, v.nap, v.advertised);
+        }
     }
 
     /**
      * Check to see if this URL has a cached HttpClient
      */
-    public synchronized HttpClient get(URL url, Object obj) {
+    public HttpClient get(URL url, Object obj) {
 
         KeepAliveKey key = new KeepAliveKey(url, obj);
         ClientVector v = super.get(key);
-        if (v == null) { // nothing in cache yet
-            return null;
+        HttpClient hc = (v == null) ? null : v.get(this);
+        if (hc == null) {
+            misses.increment();
+        } else {
+            hits.increment();
         }
-        return v.get();
+        return hc;
     }
 
     /* Sleeps for an alloted timeout, then checks for timed out connections.
@@ -167,55 +248,84 @@ public class KeepAliveCache
      */
     @Override
     public void run() {
-        do {
+        while (true) {
             try {
                 Thread.sleep(LIFETIME);
             } catch (InterruptedException e) {}
-            synchronized (this) {
-                /* Remove all unused HttpClients.  Starting from the
-                 * bottom of the stack (the least-recently used first).
-                 * REMIND: It'd be nice to not remove *all* connections
-                 * that aren't presently in use.  One could have been added
-                 * a second ago that's still perfectly valid, and we're
-                 * needlessly axing it.  But it's not clear how to do this
-                 * cleanly, and doing it right may be more trouble than it's
-                 * worth.
-                 */
-
-                long currentTime = System.currentTimeMillis();
-
-                ArrayList<KeepAliveKey> keysToRemove
-                    = new ArrayList<KeepAliveKey>();
-
-                for (KeepAliveKey key : keySet()) {
-                    ClientVector v = get(key);
-                    synchronized (v) {
-                        int i;
-
-                        for (i = 0; i < v.size(); i++) {
-                            KeepAliveEntry e = v.elementAt(i);
-                            if ((currentTime - e.idleStartTime) > v.nap) {
-                                HttpClient h = e.hc;
-                                h.closeServer();
-                            } else {
-                                break;
-                            }
-                        }
-                        v.subList(0, i).clear();
-
-                        if (v.size() == 0) {
-                            keysToRemove.add(key);
-                        }
-                    }
+
+            long currentTime = System.currentTimeMillis();
+
+            ArrayList<Map.Entry<KeepAliveKey, ClientVector>> emptied
+                = new ArrayList<Map.Entry<KeepAliveKey, ClientVector>>();
+
+            for (Map.Entry<KeepAliveKey, ClientVector> me : entrySet()) {
+                ClientVector v = me.getValue();
+                v.clean(this, currentTime);
+                if (v.isEmpty()) {
+                    emptied.add(me);
+                } else if (super.get(me.getKey()) != v) {
+                    // detached by remove() while its entries were probed
+                    drain(me.getKey(), v);
                 }
+            }
+
+            for (Map.Entry<KeepAliveKey, ClientVector> me : emptied) {
+                removeVector(me.getKey(), me.getValue());
+            }
 
-                for (KeepAliveKey key : keysToRemove) {
-                    removeVector(key);
+            synchronized (this) {
+                if (isEmpty()) {
+                    keepAliveTimer = null;
+                    return;
                 }
             }
-        } while (size() > 0);
+        }
+    }
 
-        return;
+    /**
+     * Returns the management interface of this cache.
+     */
+    public synchronized KeepAliveCacheMXBean getMXBean() {
+        if (mxbean == null) {
+            mxbean = new KeepAliveCacheMXBean() {
+                public int getRouteCount() {
+                    return size();
+                }
+                public int getIdleConnectionCount() {
+                    int n = 0;
+                    for (ClientVector v : values()) {
+                        n += v.size();
+                    }
+                    return n;
+                }
+                public int getMaxIdlePerRoute() {
+                    return getMaxConnections();
+                }
+                public int getMinIdlePerRoute() {
+                    return MIN_IDLE;
+                }
+                public long getHitCount() {
+                    return hits.sum();
+                }
+                public long getMissCount() {
+                    return misses.sum();
+                }
+                public long getOverflowCount() {
+                    return overflows.sum();
+                }
+                public long getExpiredCount() {
+                    return expirations.sum();
+                }
+                public long getValidationFailureCount() {
+                    return validationFailures.sum();
+                }
+                public ObjectName getObjectName() {
+                    return sun.management.Util.newObjectName(
+                        "sun.net.www.http:type=KeepAliveCache");
+                }
+            };
+        }
+        return mxbean;
     }
 
     /*
@@ -232,66 +342,139 @@ public class KeepAliveCache
     }
 }
 
-/* FILO order for recycling HttpClients, should run in a thread
- * to time them out.  If > maxConns are in use, block.
+/* FILO order for recycling HttpClients. The head of the deque is the
+ * most recently returned connection. The size is tracked separately
+ * so that the per destination limit can be enforced without locking.
  */
 
 
-class ClientVector extends java.util.Stack<KeepAliveEntry> {
-    private static final long serialVersionUID = -8680532108106489459L;
+class ClientVector {
 
     // sleep time in milliseconds, before cache clear
-    int nap;
+    final int nap;
 
+    // true if nap was advertised by the server
+    final boolean advertised;
 
+    private final ConcurrentLinkedDeque<KeepAliveEntry> entries =
+        new ConcurrentLinkedDeque<KeepAliveEntry>();
+    private final AtomicInteger count = new AtomicInteger();
 
-    ClientVector (int nap) {
+    ClientVector (int nap, boolean advertised) {
         this.nap = nap;
+        this.advertised = advertised;
     }
 
-    synchronized HttpClient get() {
-        if (empty()) {
-            return null;
-        } else {
-            // Loop until we find a connection that has not timed out
-            HttpClient hc = null;
-            long currentTime = System.currentTimeMillis();
-            do {
-                KeepAliveEntry e = pop();
-                if ((currentTime - e.idleStartTime) > nap) {
-                    e.hc.closeServer();
-                } else {
-                    hc = e.hc;
-                }
-            } while ((hc== null) && (!empty()));
-            return hc;
+    int size() {
+        return count.get();
+    }
+
+    boolean isEmpty() {
+        return count.get() == 0;
+    }
+
+    /* removes the least recently returned entry, or returns null */
+    KeepAliveEntry poll() {
+        KeepAliveEntry e = entries.pollLast();
+        if (e != null) {
+            count.decrementAndGet();
         }
+        return e;
+    }
+
+    HttpClient get(KeepAliveCache cache) {
+        // Loop until we find a connection that has not timed out
+        long currentTime = System.currentTimeMillis();
+        KeepAliveEntry e;
+        while ((e = entries.pollFirst()) != null) {
+            count.decrementAndGet();
+            if ((currentTime - e.idleStartTime) > nap && !e.validated) {
+                e.hc.closeServer();
+                cache.expirations.increment();
+            } else {
+                return e.hc;
+            }
+        }
+        return null;
     }
 
     /* return a still valid, unused HttpClient */
-    synchronized void put(HttpClient h) {
-        if (size() >= KeepAliveCache.getMaxConnections()) {
-            h.closeServer(); // otherwise the connection remains in limbo
-        } else {
-            push(new KeepAliveEntry(h, System.currentTimeMillis()));
+    boolean put(KeepAliveEntry e) {
+        if (count.incrementAndGet() > KeepAliveCache.getMaxConnections()) {
+            count.decrementAndGet();
+            e.hc.closeServer(); // otherwise the connection remains in limbo
+            return false;
         }
+        entries.offerFirst(e);
+        return true;
     }
 
-    /*
-     * Do not serialize this class!
-     */
-    private void writeObject(java.io.ObjectOutputStream stream)
-    throws IOException {
-        throw new NotSerializableException();
+    void remove(HttpClient h) {
+        for (Iterator<KeepAliveEntry> i = entries.iterator(); i.hasNext(); ) {
+            KeepAliveEntry e = i.next();
+            if (e.hc == h && entries.removeFirstOccurrence(e)) {
+                count.decrementAndGet();
+                return;
+            }
+        }
     }
 
-    private void readObject(java.io.ObjectInputStream stream)
-    throws IOException, ClassNotFoundException {
-        throw new NotSerializableException();
+    /* removes the given entry, returns false if it was already taken */
+    boolean remove(KeepAliveEntry e) {
+        if (entries.removeFirstOccurrence(e)) {
+            count.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /* Called by the cleaner thread. Closes the connections which have
+     * been idle longer than nap, apart from the MIN_IDLE most recent ones
+     * when the server did not advertise a timeout. The remaining
+     * connections are taken out of the vector, probed, and returned
+     * at the tail so that callers never see a connection while it is
+     * being probed.
+     */
+    void clean(KeepAliveCache cache, long currentTime) {
+        ArrayList<KeepAliveEntry> probed = new ArrayList<KeepAliveEntry>();
+        int keep = advertised ? 0 : KeepAliveCache.MIN_IDLE;
+        int seen = 0;
+        for (Iterator<KeepAliveEntry> i = entries.iterator(); i.hasNext(); ) {
+            KeepAliveEntry e = i.next();
+            seen++;
+            boolean expired = (currentTime - e.idleStartTime) > nap;
+            if (!expired && !KeepAliveCache.VALIDATE) {
+                continue;
+            }
+            if (!entries.removeFirstOccurrence(e)) {
+                continue; // taken by a caller meanwhile
+            }
+            count.decrementAndGet();
+            if (expired && seen > keep) {
+                e.hc.closeServer();
+                cache.expirations.increment();
+            } else if (!e.hc.available()) {
+                e.hc.closeServer();
+                cache.validationFailures.increment();
+            } else {
+                e.validated = expired;
+                probed.add(e);
+            }
+        }
+        for (KeepAliveEntry e : probed) {
+            if (count.incrementAndGet() > KeepAliveCache.getMaxConnections()) {
+                count.decrementAndGet();
+                e.hc.closeServer();
+                cache.overflows.increment();
+            } else {
+                entries.offerLast(e);
+            }
+        }
     }
 }
 
 
+
 class KeepAliveKey {
     private String      protocol = null;
     private String      host = null;
@@ -339,6 +522,8 @@ class KeepAliveKey {
 class KeepAliveEntry {
     HttpClient hc;
     long idleStartTime;
+    // kept past its timeout by the cleaner after a successful probe
+    boolean validated;
 
     KeepAliveEntry(HttpClient hc, long idleStartTime) {
         this.hc = hc;
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.www.http;
+
+import java.lang.management.PlatformManagedObject;
+
+/**
+ * The management interface for the keep-alive connection cache shared
+ * by HttpURLConnection and HttpsURLConnection.
+ *
+ * <p>The {@code ObjectName} for uniquely identifying the MXBean within
+ * an MBeanServer is {@code sun.net.www.http:type=KeepAliveCache}.
+ */
+public interface KeepAliveCacheMXBean extends PlatformManagedObject {
+
+    /**
+     * Returns the number of destinations with idle connections.
+     */
+    public int getRouteCount();
+
+    /**
+     * Returns the number of idle connections over all destinations.
+     */
+    public int getIdleConnectionCount();
+
+    /**
+     * Returns the maximum number of idle connections kept per destination,
+     * as set by the {@code http.maxConnections} property.
+     */
+    public int getMaxIdlePerRoute();
+
+    /**
+     * Returns the number of idle connections per destination that are
+     * kept beyond their lifetime while they pass validation, as set by
+     * the {@code http.keepAlive.minIdle} property.
+     */
+    public int getMinIdlePerRoute();
+
+    /**
+     * Returns the number of lookups that found an idle connection.
+     */
+    public long getHitCount();
+
+    /**
+     * Returns the number of lookups that found no idle connection.
+     */
+    public long getMissCount();
+
+    /**
+     * Returns the number of connections closed because their destination
+     * already had the maximum number of idle connections.
+     */
+    public long getOverflowCount();
+
+    /**
+     * Returns the number of idle connections closed because they timed out.
+     */
+    public long getExpiredCount();
+
+    /**
+     * Returns the number of idle connections closed because the background
+     * validation found them closed by the server.
+     */
+    public long getValidationFailureCount();
+}
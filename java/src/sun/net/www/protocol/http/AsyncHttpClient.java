@@ -0,0 +1,852 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.net.www.protocol.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import sun.net.www.MessageHeader;
+import sun.util.logging.PlatformLogger;
+
+/**
+ * A non-blocking HTTP/1.1 client used by
+ * {@link HttpURLConnection#sendAsync(byte[])}.
+ *
+ * <p>All connections are driven by a single selector thread, so the number
+ * of requests in flight is not bounded by the number of threads. Idle
+ * connections are kept per destination and reused. When
+ * "http.async.pipelineDepth" is greater than one, GET and HEAD requests
+ * may also be pipelined on a connection which only carries such requests.
+ *
+ * <p>Host names are resolved in the common pool, never on the calling
+ * thread. Connect and read timeouts are enforced by the selector thread,
+ * which completes the future with a {@link SocketTimeoutException}.
+ *
+ * <p>Responses are completed on the selector thread. Dependent actions
+ * which block should therefore use the async variants of the
+ * CompletableFuture methods.
+ *
+ * <p>Only plain http without a proxy is supported.
+ */
+public final class AsyncHttpClient {
+
+    /* maximum number of connections per destination */
+    static final int MAX_CONNECTIONS = getInt("http.async.maxConnections", 16);
+
+    /* maximum number of requests outstanding on one connection */
+    static final int PIPELINE_DEPTH = getInt("http.async.pipelineDepth", 1);
+
+    /* time in milliseconds an idle connection is kept open */
+    static final int KEEP_ALIVE = getInt("http.async.keepAlive", 5000);
+
+    private static final int BUF_SIZE = 16 * 1024;
+
+    private static final PlatformLogger logger = HttpURLConnection.getHttpLogger();
+
+    private static AsyncHttpClient defaultClient;
+
+    private final Selector selector;
+    private final ConcurrentLinkedQueue<Exchange> pending =
+        new ConcurrentLinkedQueue<Exchange>();
+
+    /* confined to the selector thread */
+    private final HashMap<String, Route> routes = new HashMap<String, Route>();
+    private long lastExpiry;
+    private long nextTimeout = Long.MAX_VALUE;
+
+    private static int getInt(String name, int def) {
+        int v = AccessController.doPrivileged(
+            new sun.security.action.GetIntegerAction(name, def)).intValue();
+        return v > 0 ? v : def;
+    }
+
+    private AsyncHttpClient() throws IOException {
+        selector = Selector.open();
+        final Runnable loop = new Runnable() {
+            public void run() {
+                AsyncHttpClient.this.run();
+            }
+        };
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+            public Void run() {
+                // create the selector thread in the system threadgroup
+                ThreadGroup grp = Thread.currentThread().getThreadGroup();
+                ThreadGroup parent = null;
+                while ((parent = grp.getParent()) != null) {
+                    grp = parent;
+                }
+                Thread t = new Thread(grp, loop, "HTTP-Async-Selector");
+                t.setDaemon(true);
+                t.setContextClassLoader(null);
+                t.start();
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Returns the shared client, creating it on first use.
+     */
+    public static synchronized AsyncHttpClient getDefault() throws IOException {
+        if (defaultClient == null) {
+            defaultClient = new AsyncHttpClient();
+        }
+        return defaultClient;
+    }
+
+    /**
+     * Sends a request and returns a future for its response.
+     *
+     * @param method  the request method
+     * @param url     an http URL
+     * @param headers the request headers, may be null
+     * @param body    the request body, or null for none
+     */
+    public CompletableFuture<Response> send(String method, URL url,
+                                            MessageHeader headers, byte[] body) {
+        return send(method, url, headers, body, 0, 0);
+    }
+
+    /**
+     * Sends a request and returns a future for its response.
+     *
+     * @param method  the request method
+     * @param url     an http URL
+     * @param headers the request headers, may be null
+     * @param body    the request body, or null for none
+     * @param connectTimeout the connect timeout in milliseconds,
+     *                zero for none
+     * @param readTimeout the maximum time in milliseconds to wait for
+     *                response data, zero for none
+     */
+    public CompletableFuture<Response> send(String method, URL url,
+                                            MessageHeader headers, byte[] body,
+                                            int connectTimeout, int readTimeout) {
+        final CompletableFuture<Response> cf = new CompletableFuture<>();
+        if (!"http".equalsIgnoreCase(url.getProtocol())) {
+            cf.completeExceptionally(new IOException(
+                "unsupported protocol for async request: " + url.getProtocol()));
+            return cf;
+        }
+        String host = url.getHost();
+        int port = url.getPort() == -1 ? url.getDefaultPort() : url.getPort();
+        SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkConnect(host, port);
+        }
+        byte[] request = encode(method, url, port, headers, body);
+        final Exchange ex = new Exchange(method, host, port, request, cf,
+                                         connectTimeout, readTimeout);
+        ForkJoinPool.commonPool().execute(new Runnable() {
+            public void run() {
+                resolve(ex);
+            }
+        });
+        return cf;
+    }
+
+    /* looks up the address of ex off the caller's thread, then hands
+     * ex to the selector thread
+     */
+    private void resolve(final Exchange ex) {
+        InetAddress ia;
+        try {
+            ia = AccessController.doPrivileged(
+                new java.security.PrivilegedExceptionAction<InetAddress>() {
+                    public InetAddress run() throws IOException {
+                        return InetAddress.getByName(ex.host);
+                    }
+                });
+        } catch (java.security.PrivilegedActionException e) {
+            ex.cf.completeExceptionally(e.getException());
+            return;
+        }
+        ex.addr = new InetSocketAddress(ia, ex.port);
+        pending.add(ex);
+        selector.wakeup();
+    }
+
+    private static byte[] encode(String method, URL url, int port,
+                                 MessageHeader headers, byte[] body) {
+        StringBuilder sb = new StringBuilder(256);
+        String file = url.getFile();
+        if (file.isEmpty()) {
+            file = "/";
+        }
+        sb.append(method).append(' ').append(file).append(" HTTP/1.1\r\n");
+        MessageHeader h = headers == null ? new MessageHeader() : headers;
+        String hostHeader = url.getHost();
+        if (port != url.getDefaultPort()) {
+            hostHeader = hostHeader + ":" + port;
+        }
+        if (h.findValue("Host") == null) {
+            sb.append("Host: ").append(hostHeader).append("\r\n");
+        }
+        if (h.findValue("User-Agent") == null) {
+            sb.append("User-Agent: ").append(HttpURLConnection.userAgent).append("\r\n");
+        }
+        if (h.findValue("Accept") == null) {
+            sb.append("Accept: */*\r\n");
+        }
+        String k, v;
+        for (int i = 0; (v = h.getValue(i)) != null; i++) {
+            k = h.getKey(i);
+            if (k == null || k.equalsIgnoreCase("Content-Length")) {
+                continue;
+            }
+            sb.append(k).append(": ").append(v).append("\r\n");
+        }
+        if (body != null) {
+            sb.append("Content-Length: ").append(body.length).append("\r\n");
+        }
+        sb.append("\r\n");
+        byte[] head = sb.toString().getBytes(java.nio.charset.StandardCharsets.ISO_8859_1);
+        if (body == null || body.length == 0) {
+            return head;
+        }
+        byte[] b = new byte[head.length + body.length];
+        System.arraycopy(head, 0, b, 0, head.length);
+        System.arraycopy(body, 0, b, head.length, body.length);
+        return b;
+    }
+
+    /* selector loop */
+    private void run() {
+        while (true) {
+            try {
+                long wait = nextTimeout - System.currentTimeMillis();
+                selector.select(Math.max(1, Math.min(1000, wait)));
+                Exchange ex;
+                while ((ex = pending.poll()) != null) {
+                    dispatch(ex);
+                }
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    Conn c = (Conn) key.attachment();
+                    try {
+                        if (key.isConnectable()) {
+                            c.finishConnect();
+                        } else {
+                            if (key.isWritable()) {
+                                c.write();
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                c.read();
+                            }
+                        }
+                    } catch (IOException e) {
+                        c.failed(e);
+                    }
+                }
+                long now = System.currentTimeMillis();
+                if (now >= nextTimeout) {
+                    checkTimeouts(now);
+                }
+                if (now - lastExpiry >= 1000) {
+                    lastExpiry = now;
+                    expireIdle(now);
+                }
+            } catch (Exception e) {
+                // keep the loop alive, individual connections report errors
+                if (logger.isLoggable(PlatformLogger.Level.FINE)) {
+                    logger.fine("AsyncHttpClient selector loop: " + e);
+                }
+            }
+        }
+    }
+
+    private void dispatch(Exchange ex) {
+        Route r = routes.get(ex.routeKey);
+        if (r == null) {
+            r = new Route(ex.routeKey, ex.addr);
+            routes.put(ex.routeKey, r);
+        }
+        Conn c;
+        try {
+            c = r.connectionFor(ex);
+        } catch (IOException e) {
+            ex.cf.completeExceptionally(e);
+            return;
+        }
+        if (c != null) {
+            c.assign(ex);
+        } else {
+            r.waiting.add(ex);
+        }
+    }
+
+    /* notes a connection deadline, see Conn.deadline() */
+    void schedule(long deadline) {
+        if (deadline != 0 && deadline < nextTimeout) {
+            nextTimeout = deadline;
+        }
+    }
+
+    /* fails the connections whose deadline has passed */
+    private void checkTimeouts(long now) {
+        nextTimeout = Long.MAX_VALUE;
+        for (Route r : routes.values()) {
+            // copied, a failed connection may be replaced in r.conns
+            for (Conn c : new ArrayList<Conn>(r.conns)) {
+                long d = c.deadline();
+                if (d != 0 && d <= now) {
+                    c.timedOut();
+                } else {
+                    schedule(d);
+                }
+            }
+        }
+    }
+
+    private void expireIdle(long now) {
+        Iterator<Route> ri = routes.values().iterator();
+        while (ri.hasNext()) {
+            Route r = ri.next();
+            Iterator<Conn> ci = r.conns.iterator();
+            while (ci.hasNext()) {
+                Conn c = ci.next();
+                if (c.inflight.isEmpty() && now - c.lastUsed > KEEP_ALIVE) {
+                    ci.remove();
+                    c.close();
+                }
+            }
+            if (r.conns.isEmpty() && r.waiting.isEmpty()) {
+                ri.remove();
+            }
+        }
+    }
+
+    static boolean pipelinable(String method) {
+        return method.equals("GET") || method.equals("HEAD");
+    }
+
+    /**
+     * A complete response, body included.
+     */
+    public static final class Response {
+        private final int statusCode;
+        private final MessageHeader headers;
+        private final byte[] body;
+
+        Response(int statusCode, MessageHeader headers, byte[] body) {
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        /** Returns the status code */
+        public int statusCode() {
+            return statusCode;
+        }
+
+        /**
+         * Returns the response headers. The status line is stored
+         * under the null key, as for HttpURLConnection.
+         */
+        public MessageHeader headers() {
+            return headers;
+        }
+
+        /** Returns the response body, never null */
+        public byte[] body() {
+            return body;
+        }
+    }
+
+    /* one request and the future for its response */
+    static final class Exchange {
+        final String method;
+        final String host;
+        final int port;
+        final String routeKey;
+        final byte[] request;
+        final CompletableFuture<Response> cf;
+        final int connectTimeout;
+        final int readTimeout;
+        InetSocketAddress addr;  // set by resolve()
+        boolean retried;
+
+        Exchange(String method, String host, int port, byte[] request,
+                 CompletableFuture<Response> cf,
+                 int connectTimeout, int readTimeout) {
+            this.method = method;
+            this.host = host;
+            this.port = port;
+            this.routeKey = host + ":" + port;
+            this.request = request;
+            this.cf = cf;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+        }
+    }
+
+    /* the connections to one destination */
+    final class Route {
+        final String key;
+        final InetSocketAddress addr;
+        final List<Conn> conns = new ArrayList<Conn>();
+        final ArrayDeque<Exchange> waiting = new ArrayDeque<Exchange>();
+
+        Route(String key, InetSocketAddress addr) {
+            this.key = key;
+            this.addr = addr;
+        }
+
+        /* returns a connection which can take ex, or null */
+        Conn connectionFor(Exchange ex) throws IOException {
+            Conn best = null;
+            for (Conn c : conns) {
+                if (c.closing) {
+                    continue;
+                }
+                if (c.inflight.isEmpty()) {
+                    return c;
+                }
+                if (PIPELINE_DEPTH > 1 && c.pipelined
+                        && pipelinable(ex.method)
+                        && c.inflight.size() < PIPELINE_DEPTH
+                        && (best == null || c.inflight.size() < best.inflight.size())) {
+                    best = c;
+                }
+            }
+            if (conns.size() < MAX_CONNECTIONS) {
+                Conn c = new Conn(this, ex.connectTimeout);
+                conns.add(c);
+                return c;
+            }
+            return best;
+        }
+
+        void released(Conn c) {
+            Exchange ex;
+            while (!c.closing && c.inflight.isEmpty() && (ex = waiting.poll()) != null) {
+                c.assign(ex);
+            }
+        }
+
+        void removed(Conn c) {
+            conns.remove(c);
+            Exchange ex;
+            while ((ex = waiting.peek()) != null) {
+                Conn n;
+                try {
+                    n = connectionFor(ex);
+                } catch (IOException e) {
+                    waiting.poll();
+                    ex.cf.completeExceptionally(e);
+                    continue;
+                }
+                if (n == null) {
+                    break;
+                }
+                waiting.poll();
+                n.assign(ex);
+            }
+        }
+    }
+
+    /* response parser states */
+    private static final int HEADERS = 0;
+    private static final int FIXED = 1;
+    private static final int CHUNK_SIZE = 2;
+    private static final int CHUNK_DATA = 3;
+    private static final int CHUNK_END = 4;
+    private static final int TRAILER = 5;
+    private static final int UNTIL_EOF = 6;
+
+    /* one connection. Requests are answered in the order they were sent */
+    final class Conn {
+        final Route route;
+        final SocketChannel chan;
+        final SelectionKey key;
+        final int connectTimeout;
+        final long opened;
+        final ArrayDeque<Exchange> inflight = new ArrayDeque<Exchange>();
+        final ArrayDeque<ByteBuffer> out = new ArrayDeque<ByteBuffer>();
+        ByteBuffer in = ByteBuffer.allocate(BUF_SIZE);
+        boolean connected;
+        boolean closing;     // no new requests, close when inflight is done
+        boolean pipelined;   // true while only pipelinable requests are inflight
+        boolean received;    // true once the head exchange got response bytes
+        int served;          // number of responses received
+        long lastUsed;
+        long lastIO;         // last connect, write or read progress
+
+        /* state of the response being parsed */
+        int state = HEADERS;
+        long remaining;
+        int status;
+        MessageHeader headers;
+        ByteArrayOutputStream body;
+
+        Conn(Route route, int connectTimeout) throws IOException {
+            this.route = route;
+            this.connectTimeout = connectTimeout;
+            chan = SocketChannel.open();
+            chan.configureBlocking(false);
+            chan.socket().setTcpNoDelay(true);
+            if (chan.connect(route.addr)) {
+                connected = true;
+                key = chan.register(selector, SelectionKey.OP_READ, this);
+            } else {
+                key = chan.register(selector, SelectionKey.OP_CONNECT, this);
+            }
+            in.flip();
+            opened = lastUsed = lastIO = System.currentTimeMillis();
+        }
+
+        /* Returns the time at which this connection times out, or 0 for
+         * none. That is the connect timeout while connecting, and then
+         * the read timeout of the head exchange, counted from the last
+         * progress on the connection.
+         */
+        long deadline() {
+            if (!connected) {
+                return connectTimeout > 0 ? opened + connectTimeout : 0;
+            }
+            Exchange ex = inflight.peek();
+            if (ex == null || ex.readTimeout <= 0) {
+                return 0;
+            }
+            return lastIO + ex.readTimeout;
+        }
+
+        /* the deadline has passed. The exchanges that timed out are not
+         * retried, the others are handled as by failed().
+         */
+        void timedOut() {
+            SocketTimeoutException e;
+            if (!connected) {
+                e = new SocketTimeoutException("connect timed out");
+                for (Exchange ex : inflight) {
+                    ex.retried = true;
+                }
+            } else {
+                e = new SocketTimeoutException("Read timed out");
+                inflight.peek().retried = true;
+            }
+            failed(e);
+        }
+
+        void assign(Exchange ex) {
+            pipelined = (inflight.isEmpty() || pipelined) && pipelinable(ex.method);
+            if (inflight.isEmpty()) {
+                lastIO = System.currentTimeMillis();
+            }
+            inflight.add(ex);
+            out.add(ByteBuffer.wrap(ex.request));
+            lastUsed = System.currentTimeMillis();
+            schedule(deadline());
+            if (connected) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+
+        void finishConnect() throws IOException {
+            if (chan.finishConnect()) {
+                connected = true;
+                lastIO = System.currentTimeMillis();
+                schedule(deadline());
+                key.interestOps(out.isEmpty() ? SelectionKey.OP_READ
+                    : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+
+        void write() throws IOException {
+            ByteBuffer b;
+            while ((b = out.peek()) != null) {
+                if (chan.write(b) > 0) {
+                    lastIO = System.currentTimeMillis();
+                }
+                if (b.hasRemaining()) {
+                    return;
+                }
+                out.poll();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        }
+
+        void read() throws IOException {
+            in.compact();
+            if (!in.hasRemaining()) {
+                // a response header larger than the buffer
+                ByteBuffer nb = ByteBuffer.allocate(in.capacity() * 2);
+                in.flip();
+                nb.put(in);
+                in = nb;
+            }
+            int n = chan.read(in);
+            in.flip();
+            if (n < 0) {
+                eof();
+                return;
+            }
+            if (n > 0) {
+                lastIO = System.currentTimeMillis();
+                if (!inflight.isEmpty()) {
+                    received = true;
+                }
+            }
+            parse();
+        }
+
+        /* consumes as much of the input as possible */
+        private void parse() throws IOException {
+            while (!inflight.isEmpty()) {
+                switch (state) {
+                case HEADERS:
+                    if (!parseHeaders()) {
+                        return;
+                    }
+                    break;
+                case FIXED:
+                case CHUNK_DATA:
+                case UNTIL_EOF: {
+                    int len = in.remaining();
+                    if (state != UNTIL_EOF && len > remaining) {
+                        len = (int) remaining;
+                    }
+                    if (len == 0) {
+                        return;
+                    }
+                    body.write(in.array(), in.arrayOffset() + in.position(), len);
+                    in.position(in.position() + len);
+                    remaining -= len;
+                    if (state == FIXED && remaining == 0) {
+                        complete();
+                    } else if (state == CHUNK_DATA && remaining == 0) {
+                        state = CHUNK_END;
+                    }
+                    break;
+                }
+                case CHUNK_SIZE: {
+                    String line = readLine();
+                    if (line == null) {
+                        return;
+                    }
+                    int semi = line.indexOf(';');
+                    if (semi != -1) {
+                        line = line.substring(0, semi);
+                    }
+                    try {
+                        remaining = Long.parseLong(line.trim(), 16);
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Bad chunk size: " + line);
+                    }
+                    state = remaining == 0 ? TRAILER : CHUNK_DATA;
+                    break;
+                }
+                case CHUNK_END:
+                    if (readLine() == null) {
+                        return;
+                    }
+                    state = CHUNK_SIZE;
+                    break;
+                case TRAILER: {
+                    String line = readLine();
+                    if (line == null) {
+                        return;
+                    }
+                    if (line.isEmpty()) {
+                        complete();
+                    }
+                    break;
+                }
+                }
+            }
+            if (in.hasRemaining()) {
+                // bytes with no request outstanding
+                throw new IOException("unexpected data from server");
+            }
+        }
+
+        /* returns a CRLF terminated line without the CRLF, or null */
+        private String readLine() {
+            byte[] a = in.array();
+            int start = in.arrayOffset() + in.position();
+            int end = in.arrayOffset() + in.limit();
+            for (int i = start; i < end - 1; i++) {
+                if (a[i] == '\r' && a[i + 1] == '\n') {
+                    String s = new String(a, start, i - start,
+                                          java.nio.charset.StandardCharsets.ISO_8859_1);
+                    in.position(in.position() + (i - start) + 2);
+                    return s;
+                }
+            }
+            return null;
+        }
+
+        private boolean parseHeaders() throws IOException {
+            byte[] a = in.array();
+            int start = in.arrayOffset() + in.position();
+            int end = in.arrayOffset() + in.limit();
+            int hend = -1;
+            for (int i = start; i < end - 3; i++) {
+                if (a[i] == '\r' && a[i + 1] == '\n'
+                        && a[i + 2] == '\r' && a[i + 3] == '\n') {
+                    hend = i + 4;
+                    break;
+                }
+            }
+            if (hend == -1) {
+                return false;
+            }
+            headers = new MessageHeader(
+                new ByteArrayInputStream(a, start, hend - start));
+            in.position(in.position() + (hend - start));
+            String statusLine = headers.getValue(0);
+            status = -1;
+            if (statusLine != null && statusLine.startsWith("HTTP/1.")) {
+                int sp = statusLine.indexOf(' ');
+                if (sp != -1) {
+                    int sp2 = statusLine.indexOf(' ', sp + 1);
+                    try {
+                        status = Integer.parseInt(statusLine.substring(sp + 1,
+                            sp2 == -1 ? statusLine.length() : sp2).trim());
+                    } catch (NumberFormatException e) {
+                    }
+                }
+            }
+            if (status == -1) {
+                throw new IOException("Invalid Http response");
+            }
+            if (status >= 100 && status < 200) {
+                return true; // interim response, keep looking
+            }
+            String conn = headers.findValue("Connection");
+            if ((conn != null && conn.equalsIgnoreCase("close"))
+                    || statusLine.startsWith("HTTP/1.0")
+                       && (conn == null || !conn.equalsIgnoreCase("keep-alive"))) {
+                closing = true;
+            }
+            body = new ByteArrayOutputStream();
+            Exchange ex = inflight.peek();
+            String te = headers.findValue("Transfer-Encoding");
+            String cl = headers.findValue("Content-Length");
+            if (ex.method.equals("HEAD") || status == 204 || status == 304) {
+                complete();
+            } else if (te != null && te.equalsIgnoreCase("chunked")) {
+                state = CHUNK_SIZE;
+            } else if (cl != null) {
+                try {
+                    remaining = Long.parseLong(cl.trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Bad Content-Length: " + cl);
+                }
+                state = FIXED;
+                if (remaining == 0) {
+                    complete();
+                }
+            } else {
+                closing = true;
+                state = UNTIL_EOF;
+            }
+            return true;
+        }
+
+        /* the head exchange has its whole response */
+        private void complete() {
+            Exchange ex = inflight.poll();
+            Response r = new Response(status, headers, body.toByteArray());
+            state = HEADERS;
+            headers = null;
+            body = null;
+            received = false;
+            served++;
+            lastUsed = System.currentTimeMillis();
+            ex.cf.complete(r);
+            if (closing) {
+                // requests pipelined behind a closing response are retried
+                failed(new IOException("connection closed by server"));
+            } else if (inflight.isEmpty()) {
+                pipelined = false;
+                route.released(this);
+            }
+        }
+
+        private void eof() {
+            if (state == UNTIL_EOF && !inflight.isEmpty()) {
+                complete();
+            } else {
+                failed(new IOException("connection closed by server"));
+            }
+        }
+
+        /* Drops the connection. Outstanding requests which got no response
+         * bytes are retried once if they are idempotent, or if the
+         * connection had already served a request and so may just have
+         * been closed by the server while idle. The others fail.
+         */
+        void failed(IOException e) {
+            close();
+            boolean head = true;
+            Exchange ex;
+            while ((ex = inflight.poll()) != null) {
+                boolean retry = !ex.retried
+                    && !(head && received)
+                    && (pipelinable(ex.method) || served > 0);
+                if (retry) {
+                    ex.retried = true;
+                    pending.add(ex);
+                } else {
+                    ex.cf.completeExceptionally(e);
+                }
+                head = false;
+            }
+            selector.wakeup();
+            route.removed(this);
+        }
+
+        void close() {
+            closing = true;
+            key.cancel();
+            try {
+                chan.close();
+            } catch (IOException e) {
+            }
+        }
+    }
+}
@@ -65,6 +65,7 @@ import java.util.Iterator;
 import java.util.HashSet;
 import java.util.HashMap;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import sun.net.*;
 import sun.net.www.*;
 import sun.net.www.http.HttpClient;
@@ -3135,6 +3136,40 @@ public class HttpURLConnection extends java.net.HttpURLConnection {
         return userHeaders;
     }
 
+    /**
+     * Sends this request without blocking and returns a future for the
+     * complete response. The request method, the request properties and
+     * the given body are sent through the shared {@link AsyncHttpClient},
+     * and this connection is not used otherwise. Only plain http URLs
+     * without a proxy are supported. The {@linkplain #getConnectTimeout
+     * connect timeout} and {@linkplain #getReadTimeout read timeout} of this
+     * connection apply, and complete the future with a
+     * {@link java.net.SocketTimeoutException} when they expire.
+     *
+     * @param body the request body, or null for none
+     * @throws IllegalStateException if this connection is already connected
+     * @throws IOException if the async client cannot be started
+     */
+    public synchronized CompletableFuture<AsyncHttpClient.Response>
+        sendAsync(byte[] body) throws IOException
+    {
+        if (connected || connecting)
+            throw new IllegalStateException("Already connected");
+        if (body != null && method.equals("GET")) {
+            throw new ProtocolException("GET requests have no body");
+        }
+        MessageHeader h = new MessageHeader();
+        String k, v;
+        for (int i = 0; (v = requests.getValue(i)) != null; i++) {
+            k = requests.getKey(i);
+            if (k != null) {
+                h.add(k, v);
+            }
+        }
+        return AsyncHttpClient.getDefault().send(method, url, h, body,
+            getConnectTimeout(), getReadTimeout());
+    }
+
     /**
      * Adds a general request property specified by a
      * key-value pair.  This method will not overwrite
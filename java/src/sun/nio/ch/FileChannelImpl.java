@@ -29,6 +29,7 @@ import java.io.FileDescriptor;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
@@ -77,6 +78,10 @@ public class FileChannelImpl
     // Lock for operations involving position and size
     private final Object positionLock = new Object();
 
+    // Set when an interrupt of a thread blocked on this channel should
+    // not close the channel
+    private volatile boolean uninterruptible;
+
     private FileChannelImpl(FileDescriptor fd, String path, boolean readable,
                             boolean writable, boolean append, Object parent)
     {
@@ -110,6 +115,26 @@ public class FileChannelImpl
             throw new ClosedChannelException();
     }
 
+    /**
+     * Makes I/O operations on this channel uninterruptible.  Used for
+     * channels that are shared by several threads, such as the one of
+     * a zip file, where the interrupt of one reader must not close the
+     * channel for all of them.
+     */
+    public void setUninterruptible() {
+        uninterruptible = true;
+    }
+
+    private void beginBlocking() {
+        if (!uninterruptible)
+            begin();
+    }
+
+    private void endBlocking(boolean completed) throws AsynchronousCloseException {
+        if (!uninterruptible)
+            end(completed);
+    }
+
 
     // -- Standard channel operations --
 
@@ -151,7 +176,7 @@ public class FileChannelImpl
             int n = 0;
             int ti = -1;
             try {
-                begin();
+                beginBlocking();
                 ti = threads.add();
                 if (!isOpen())
                     return 0;
@@ -161,7 +186,7 @@ public class FileChannelImpl
                 return IOStatus.normalize(n);
             } finally {
                 threads.remove(ti);
-                end(n > 0);
+                endBlocking(n > 0);
                 assert IOStatus.check(n);
             }
         }
@@ -179,7 +204,7 @@ public class FileChannelImpl
             long n = 0;
             int ti = -1;
             try {
-                begin();
+                beginBlocking();
                 ti = threads.add();
                 if (!isOpen())
                     return 0;
@@ -189,7 +214,7 @@ public class FileChannelImpl
                 return IOStatus.normalize(n);
             } finally {
                 threads.remove(ti);
-                end(n > 0);
+                endBlocking(n > 0);
                 assert IOStatus.check(n);
             }
         }
@@ -203,7 +228,7 @@ public class FileChannelImpl
             int n = 0;
             int ti = -1;
             try {
-                begin();
+                beginBlocking();
                 ti = threads.add();
                 if (!isOpen())
                     return 0;
@@ -213,7 +238,7 @@ public class FileChannelImpl
                 return IOStatus.normalize(n);
             } finally {
                 threads.remove(ti);
-                end(n > 0);
+                endBlocking(n > 0);
                 assert IOStatus.check(n);
             }
         }
@@ -231,7 +256,7 @@ public class FileChannelImpl
             long n = 0;
             int ti = -1;
             try {
-                begin();
+                beginBlocking();
                 ti = threads.add();
                 if (!isOpen())
                     return 0;
@@ -241,7 +266,7 @@ public class FileChannelImpl
                 return IOStatus.normalize(n);
             } finally {
                 threads.remove(ti);
-                end(n > 0);
+                endBlocking(n > 0);
                 assert IOStatus.check(n);
             }
         }
@@ -255,7 +280,7 @@ public class FileChannelImpl
             long p = -1;
             int ti = -1;
             try {
-                begin();
+                beginBlocking();
                 ti = threads.add();
                 if (!isOpen())
                     return 0;
@@ -266,7 +291,7 @@ public class FileChannelImpl
                 return IOStatus.normalize(p);
             } finally {
                 threads.remove(ti);
-                end(p > -1);
+                endBlocking(p > -1);
                 assert IOStatus.check(p);
             }
         }
@@ -280,7 +305,7 @@ public class FileChannelImpl
             long p = -1;
             int ti = -1;
             try {
-                begin();
+                beginBlocking();
                 ti = threads.add();
                 if (!isOpen())
                     return null;
@@ -290,7 +315,7 @@ public class FileChannelImpl
                 return this;
             } finally {
                 threads.remove(ti);
-                end(p > -1);
+                endBlocking(p > -1);
                 assert IOStatus.check(p);
             }
         }
@@ -302,7 +327,7 @@ public class FileChannelImpl
             long s = -1;
             int ti = -1;
             try {
-                begin();
+                beginBlocking();
                 ti = threads.add();
                 if (!isOpen())
                     return -1;
@@ -312,7 +337,7 @@ public class FileChannelImpl
                 return IOStatus.normalize(s);
             } finally {
                 threads.remove(ti);
-                end(s > -1);
+                endBlocking(s > -1);
                 assert IOStatus.check(s);
             }
         }
@@ -330,7 +355,7 @@ public class FileChannelImpl
             int ti = -1;
             long rp = -1;
             try {
-                begin();
+                beginBlocking();
                 ti = threads.add();
                 if (!isOpen())
                     return null;
@@ -369,7 +394,7 @@ public class FileChannelImpl
                 return this;
             } finally {
                 threads.remove(ti);
-                end(rv > -1);
+                endBlocking(rv > -1);
                 assert IOStatus.check(rv);
             }
         }
@@ -380,7 +405,7 @@ public class FileChannelImpl
         int rv = -1;
         int ti = -1;
         try {
-            begin();
+            beginBlocking();
             ti = threads.add();
             if (!isOpen())
                 return;
@@ -389,7 +414,7 @@ public class FileChannelImpl
             } while ((rv == IOStatus.INTERRUPTED) && isOpen());
         } finally {
             threads.remove(ti);
-            end(rv > -1);
+            endBlocking(rv > -1);
             assert IOStatus.check(rv);
         }
     }
@@ -420,7 +445,7 @@ public class FileChannelImpl
         long n = -1;
         int ti = -1;
         try {
-            begin();
+            beginBlocking();
             ti = threads.add();
             if (!isOpen())
                 return -1;
@@ -442,7 +467,7 @@ public class FileChannelImpl
             return IOStatus.normalize(n);
         } finally {
             threads.remove(ti);
-            end (n > -1);
+            endBlocking(n > -1);
         }
     }
 
@@ -727,7 +752,7 @@ public class FileChannelImpl
         int n = 0;
         int ti = -1;
         try {
-            begin();
+            beginBlocking();
             ti = threads.add();
             if (!isOpen())
                 return -1;
@@ -737,7 +762,7 @@ public class FileChannelImpl
             return IOStatus.normalize(n);
         } finally {
             threads.remove(ti);
-            end(n > 0);
+            endBlocking(n > 0);
             assert IOStatus.check(n);
         }
     }
@@ -764,7 +789,7 @@ public class FileChannelImpl
         int n = 0;
         int ti = -1;
         try {
-            begin();
+            beginBlocking();
             ti = threads.add();
             if (!isOpen())
                 return -1;
@@ -774,7 +799,7 @@ public class FileChannelImpl
             return IOStatus.normalize(n);
         } finally {
             threads.remove(ti);
-            end(n > 0);
+            endBlocking(n > 0);
             assert IOStatus.check(n);
         }
     }
@@ -878,7 +903,7 @@ public class FileChannelImpl
         long addr = -1;
         int ti = -1;
         try {
-            begin();
+            beginBlocking();
             ti = threads.add();
             if (!isOpen())
                 return null;
@@ -967,7 +992,7 @@ public class FileChannelImpl
             }
         } finally {
             threads.remove(ti);
-            end(IOStatus.checkAll(addr));
+            endBlocking(IOStatus.checkAll(addr));
         }
     }
 
@@ -1063,7 +1088,7 @@ public class FileChannelImpl
         boolean completed = false;
         int ti = -1;
         try {
-            begin();
+            beginBlocking();
             ti = threads.add();
             if (!isOpen())
                 return null;
@@ -1086,7 +1111,7 @@ public class FileChannelImpl
                 flt.remove(fli);
             threads.remove(ti);
             try {
-                end(completed);
+                endBlocking(completed);
             } catch (ClosedByInterruptException e) {
                 throw new FileLockInterruptionException();
             }
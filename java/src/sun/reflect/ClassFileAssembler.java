@@ -359,6 +359,11 @@ class ClassFileAssembler implements ClassFileConstants {
         decStack();
     }
 
+    public void opc_aastore() {
+        emitByte(opc_aastore);
+        setStack(getStack() - 3);
+    }
+
     public void opc_astore_0() {
         emitByte(opc_astore_0);
         if (maxLocals < 1) maxLocals = 1;
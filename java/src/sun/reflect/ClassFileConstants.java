@@ -60,6 +60,7 @@ interface ClassFileConstants {
     public static final byte opc_astore_1      = (byte) 0x4c;
     public static final byte opc_astore_2      = (byte) 0x4d;
     public static final byte opc_astore_3      = (byte) 0x4e;
+    public static final byte opc_aastore       = (byte) 0x53;
 
     // Stack manipulation
     public static final byte opc_pop           = (byte) 0x57;
@@ -629,6 +629,38 @@ public class ReflectionFactory {
         }
     }
 
+    /**
+     * Returns an accessor that gets and sets the given serializable
+     * fields of instances of their declaring class with generated
+     * bytecodes, in place of field-by-field access through Unsafe.
+     * Values are marshalled exactly as by {@link ObjectStreamClass}.
+     *
+     * @param fields the fields, in serialization order; null for those
+     *        that have no local binding and are neither read nor set
+     * @param settable whether each field is to be set, as opposed to
+     *        being only read
+     * @param offsets the offset of the value of each primitive field in
+     *        the array of primitive values, or the index of the value
+     *        of each object field in the array of object values
+     * @return the accessor, or null if the fields cannot be handled by
+     *         generated code
+     */
+    public final SerialFieldAccessor newSerialFieldAccessor(Field[] fields,
+                                                            boolean[] settable,
+                                                            int[] offsets) {
+        checkInitted();
+        for (Field f : fields) {
+            if (f != null) {
+                if (ReflectUtil.isVMAnonymousClass(f.getDeclaringClass())) {
+                    return null;
+                }
+                return new SerialFieldAccessorGenerator().
+                    generateSerialFieldAccessor(fields, settable, offsets);
+            }
+        }
+        return null;
+    }
+
     //--------------------------------------------------------------------------
     //
     // Internals only below this point
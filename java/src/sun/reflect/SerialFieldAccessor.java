@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.reflect;
+
+/** This interface provides the declarations used by
+    java.io.ObjectStreamClass to get and set the serializable fields of
+    an object in batch. Implementations are generated per class by
+    SerialFieldAccessorGenerator; see
+    ReflectionFactory.newSerialFieldAccessor().
+
+    <P> Primitive values are marshalled into and out of byte arrays in
+    the big-endian format of java.io.Bits, at the offset of each field;
+    object values are stored into and taken from Object arrays, at the
+    index of each field. </P>
+*/
+
+public interface SerialFieldAccessor {
+    /** Fetches the primitive field values of obj into buf. */
+    public void getPrimFieldValues(Object obj, byte[] buf);
+
+    /** Sets the primitive fields of obj from the values in buf. */
+    public void setPrimFieldValues(Object obj, byte[] buf);
+
+    /** Fetches the object field values of obj into vals. */
+    public void getObjFieldValues(Object obj, Object[] vals);
+
+    /** Sets the object fields of obj from the values in vals, in field
+        order. Stops at the first value that is not an instance of the
+        type of its field, returning the index of that field, so that
+        the caller can report it; otherwise returns -1. */
+    public int setObjFieldValues(Object obj, Object[] vals);
+}
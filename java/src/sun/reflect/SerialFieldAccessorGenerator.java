@@ -0,0 +1,460 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package sun.reflect;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+
+/** Generator for sun.reflect.SerialFieldAccessor objects, which get
+    and set the serializable fields of instances of one class with
+    straight-line bytecodes: one getfield or putfield, and one call to
+    a static packing helper, per field. This replaces the per-field
+    type dispatch and Unsafe calls of the table-driven field reflector
+    in java.io.ObjectStreamClass, without changing the values read or
+    written. */
+
+class SerialFieldAccessorGenerator extends AccessorGenerator {
+
+    private static final short NUM_BASE_CPOOL_ENTRIES   = (short) 14;
+    // Unpack, pack and final field assignment helpers for each
+    // primitive type, plus final field assignment for objects
+    private static final short NUM_HELPER_CPOOL_ENTRIES = (short) 100;
+    // Four accessor methods plus constructor
+    private static final short NUM_METHODS              = (short) 5;
+
+    // Most fields handled; offsets, indices and code size must stay
+    // within the reach of sipush and of a method's code attribute
+    private static final int MAX_FIELDS = 1024;
+
+    // Helper names and descriptor codes, in helper index order; index
+    // 8 is used for object fields
+    private static final String[] PRIMITIVE_NAMES = {
+        "Boolean", "Byte", "Char", "Short", "Int", "Float", "Long", "Double"
+    };
+    private static final String PRIMITIVE_CODES = "ZBCSIFJD";
+    private static final int OBJECT_INDEX = 8;
+
+    private static volatile int serialFieldAccessorSymnum = 0;
+
+    private Field[]   fields;
+    private boolean[] settable;
+    private int[]     offsets;
+
+    // Constant pool indices of the Fieldref of each field, and of the
+    // Class of each object field whose values must be type checked
+    private short[] fieldRefs;
+    private short[] typeClasses;
+    // Constant pool indices of the helpers, by helper index
+    private final short[] unpackRefs = new short[8];
+    private final short[] packRefs   = new short[8];
+    private final short[] assignRefs = new short[9];
+
+    private short getPrimIdx;
+    private short setPrimIdx;
+    private short getObjIdx;
+    private short setObjIdx;
+
+    SerialFieldAccessorGenerator() {
+    }
+
+    /** Returns null if the fields cannot be handled by generated code.
+        "fields" holds null for fields that have no local binding,
+        which are neither read nor set; "settable" tells whether each
+        bound field is set; "offsets" holds the position of the value
+        of each field in the byte or Object array. All bound fields
+        must be instance fields of one class. This routine is not
+        thread-safe */
+    public SerialFieldAccessor
+    generateSerialFieldAccessor(Field[] fields,
+                                boolean[] settable,
+                                int[] offsets)
+    {
+        int nfields = fields.length;
+        if (nfields > MAX_FIELDS) {
+            return null;
+        }
+        Class<?> declaringClass = null;
+        int numBound = 0;
+        int numChecked = 0;
+        for (int i = 0; i < nfields; i++) {
+            Field f = fields[i];
+            if (f == null) {
+                continue;
+            }
+            if (declaringClass == null) {
+                declaringClass = f.getDeclaringClass();
+            } else if (f.getDeclaringClass() != declaringClass) {
+                return null;
+            }
+            int mods = f.getModifiers();
+            if (Modifier.isStatic(mods) ||
+                offsets[i] < 0 || offsets[i] > Short.MAX_VALUE) {
+                return null;
+            }
+            if (settable[i] && Modifier.isFinal(mods) &&
+                unsafe.objectFieldOffset(f) > Short.MAX_VALUE) {
+                return null;
+            }
+            numBound++;
+            if (settable[i] && needsTypeCheck(f.getType())) {
+                numChecked++;
+            }
+        }
+        if (declaringClass == null) {
+            return null;
+        }
+
+        ByteVector vec = ByteVectorFactory.create();
+        asm = new ClassFileAssembler(vec);
+        this.fields = fields;
+        this.settable = settable;
+        this.offsets = offsets;
+        fieldRefs = new short[nfields];
+        typeClasses = new short[nfields];
+
+        asm.emitMagicAndVersion();
+
+        // Constant pool entries:
+        // (+  = Shared entries provided by AccessorGenerator)
+        //     [UTF-8] [This class's name]
+        //     [CONSTANT_Class_info] for above
+        //     [UTF-8] "sun/reflect/SerialFieldAccessorImpl"
+        //     [CONSTANT_Class_info] for above
+        //     [UTF-8] [Target class's name]
+        //     [CONSTANT_Class_info] for above
+        //     [UTF-8] "getPrimFieldValues"
+        //     [UTF-8] "(Ljava/lang/Object;[B)V"
+        //     [UTF-8] "setPrimFieldValues"
+        //     [UTF-8] "(Ljava/lang/Object;[B)V"
+        //     [UTF-8] "getObjFieldValues"
+        //     [UTF-8] "(Ljava/lang/Object;[Ljava/lang/Object;)V"
+        //     [UTF-8] "setObjFieldValues"
+        //     [UTF-8] "(Ljava/lang/Object;[Ljava/lang/Object;)I"
+        // +   [UTF-8] "java/lang/Throwable"
+        // +   ... (common entries, see AccessorGenerator)
+        // +   [UTF-8] "Exceptions"
+        //     For each primitive type T, in the order of PRIMITIVE_NAMES,
+        //     and for unpacking, packing and final field assignment:
+        //     [UTF-8] "getT", "putT" or "setTField"
+        //     [UTF-8] "([BI)T", "([BIT)V" or "(Ljava/lang/Object;JT)V"
+        //     [CONSTANT_NameAndType_info] for above
+        //     [CONSTANT_Methodref_info] for above
+        //     [UTF-8] "setObjectField"
+        //     [UTF-8] "(Ljava/lang/Object;JLjava/lang/Object;)V"
+        //     [CONSTANT_NameAndType_info] for above
+        //     [CONSTANT_Methodref_info] for above
+        //     For each bound field:
+        //     [UTF-8] field name
+        //     [UTF-8] field type descriptor
+        //     [CONSTANT_NameAndType_info] for above
+        //     [CONSTANT_Fieldref_info] for above
+        //     For each set object field of a type other than Object:
+        //     [UTF-8] field type's name
+        //     [CONSTANT_Class_info] for above
+
+        short numCPEntries = NUM_BASE_CPOOL_ENTRIES + NUM_COMMON_CPOOL_ENTRIES +
+            NUM_HELPER_CPOOL_ENTRIES;
+        numCPEntries += (short) (4 * numBound + 2 * numChecked);
+
+        asm.emitShort(add(numCPEntries, S1));
+
+        final String generatedName = generateName();
+        asm.emitConstantPoolUTF8(generatedName);
+        asm.emitConstantPoolClass(asm.cpi());
+        thisClass = asm.cpi();
+        asm.emitConstantPoolUTF8("sun/reflect/SerialFieldAccessorImpl");
+        asm.emitConstantPoolClass(asm.cpi());
+        superClass = asm.cpi();
+        asm.emitConstantPoolUTF8(getClassName(declaringClass, false));
+        asm.emitConstantPoolClass(asm.cpi());
+        targetClass = asm.cpi();
+        asm.emitConstantPoolUTF8("getPrimFieldValues");
+        getPrimIdx = asm.cpi();
+        asm.emitConstantPoolUTF8("(Ljava/lang/Object;[B)V");
+        asm.emitConstantPoolUTF8("setPrimFieldValues");
+        setPrimIdx = asm.cpi();
+        asm.emitConstantPoolUTF8("(Ljava/lang/Object;[B)V");
+        asm.emitConstantPoolUTF8("getObjFieldValues");
+        getObjIdx = asm.cpi();
+        asm.emitConstantPoolUTF8("(Ljava/lang/Object;[Ljava/lang/Object;)V");
+        asm.emitConstantPoolUTF8("setObjFieldValues");
+        setObjIdx = asm.cpi();
+        asm.emitConstantPoolUTF8("(Ljava/lang/Object;[Ljava/lang/Object;)I");
+
+        // Entries common to FieldAccessor, MethodAccessor and ConstructorAccessor
+        emitCommonConstantPoolEntries();
+
+        // Helpers
+        for (int t = 0; t < PRIMITIVE_NAMES.length; t++) {
+            String name = PRIMITIVE_NAMES[t];
+            char code = PRIMITIVE_CODES.charAt(t);
+            unpackRefs[t] = emitHelperMethodref("get" + name, "([BI)" + code);
+            packRefs[t] = emitHelperMethodref("put" + name,
+                                              "([BI" + code + ")V");
+            assignRefs[t] = emitHelperMethodref("set" + name + "Field",
+                                                "(Ljava/lang/Object;J" +
+                                                code + ")V");
+        }
+        assignRefs[OBJECT_INDEX] =
+            emitHelperMethodref("setObjectField",
+                                "(Ljava/lang/Object;JLjava/lang/Object;)V");
+
+        // Fields
+        for (int i = 0; i < nfields; i++) {
+            Field f = fields[i];
+            if (f == null) {
+                continue;
+            }
+            asm.emitConstantPoolUTF8(f.getName());
+            asm.emitConstantPoolUTF8(getClassName(f.getType(), true));
+            asm.emitConstantPoolNameAndType(sub(asm.cpi(), S1), asm.cpi());
+            asm.emitConstantPoolFieldref(targetClass, asm.cpi());
+            fieldRefs[i] = asm.cpi();
+            if (settable[i] && needsTypeCheck(f.getType())) {
+                asm.emitConstantPoolUTF8(getClassName(f.getType(), false));
+                asm.emitConstantPoolClass(asm.cpi());
+                typeClasses[i] = asm.cpi();
+            }
+        }
+
+        if (asm.cpi() != numCPEntries) {
+            throw new InternalError("Adjust this code (cpi = " + asm.cpi() +
+                                    ", numCPEntries = " + numCPEntries + ")");
+        }
+
+        // Access flags
+        asm.emitShort(ACC_PUBLIC);
+
+        // This class
+        asm.emitShort(thisClass);
+
+        // Superclass
+        asm.emitShort(superClass);
+
+        // Interfaces count and interfaces
+        asm.emitShort(S0);
+
+        // Fields count and fields
+        asm.emitShort(S0);
+
+        // Methods count and methods
+        asm.emitShort(NUM_METHODS);
+
+        emitConstructor();
+        emitGetPrimFieldValues();
+        emitSetPrimFieldValues();
+        emitGetObjFieldValues();
+        emitSetObjFieldValues();
+
+        // Additional attributes (none)
+        asm.emitShort(S0);
+
+        // Load class
+        vec.trim();
+        final byte[] bytes = vec.getData();
+        final ClassLoader loader = declaringClass.getClassLoader();
+        return AccessController.doPrivileged(
+            new PrivilegedAction<SerialFieldAccessor>() {
+                public SerialFieldAccessor run() {
+                        try {
+                        return (SerialFieldAccessor)
+                        ClassDefiner.defineClass
+                                (generatedName,
+                                 bytes,
+                                 0,
+                                 bytes.length,
+                                 loader).newInstance();
+                        } catch (InstantiationException | IllegalAccessException e) {
+                            throw new InternalError(e);
+                        }
+                    }
+                });
+    }
+
+    private short emitHelperMethodref(String name, String descriptor) {
+        asm.emitConstantPoolUTF8(name);
+        asm.emitConstantPoolUTF8(descriptor);
+        asm.emitConstantPoolNameAndType(sub(asm.cpi(), S1), asm.cpi());
+        asm.emitConstantPoolMethodref(superClass, asm.cpi());
+        return asm.cpi();
+    }
+
+    /** Emits getPrimFieldValues(Object obj, byte[] buf): for each bound
+        primitive field, putT(buf, offset, ((Target) obj).field) */
+    private void emitGetPrimFieldValues() {
+        ClassFileAssembler cb = new ClassFileAssembler();
+        cb.setMaxLocals(3);
+        for (int i = 0; i < fields.length; i++) {
+            Field f = fields[i];
+            if (f == null || !f.getType().isPrimitive()) {
+                continue;
+            }
+            int t = helperIndex(f.getType());
+            int size = typeSizeInStackSlots(f.getType());
+            cb.opc_aload_2();
+            cb.opc_sipush((short) offsets[i]);
+            cb.opc_aload_1();
+            cb.opc_checkcast(targetClass);
+            cb.opc_getfield(fieldRefs[i], size);
+            cb.opc_invokestatic(packRefs[t], 2 + size, 0);
+        }
+        cb.opc_return();
+        emitMethod(getPrimIdx, 3, cb, null, null);
+    }
+
+    /** Emits setPrimFieldValues(Object obj, byte[] buf): for each set
+        primitive field, ((Target) obj).field = getT(buf, offset), or
+        setTField(obj, fieldOffset, getT(buf, offset)) if it is final */
+    private void emitSetPrimFieldValues() {
+        ClassFileAssembler cb = new ClassFileAssembler();
+        cb.setMaxLocals(3);
+        for (int i = 0; i < fields.length; i++) {
+            Field f = fields[i];
+            if (f == null || !settable[i] || !f.getType().isPrimitive()) {
+                continue;
+            }
+            int t = helperIndex(f.getType());
+            int size = typeSizeInStackSlots(f.getType());
+            boolean isFinal = Modifier.isFinal(f.getModifiers());
+            cb.opc_aload_1();
+            if (isFinal) {
+                emitFieldOffset(cb, f);
+            } else {
+                cb.opc_checkcast(targetClass);
+            }
+            cb.opc_aload_2();
+            cb.opc_sipush((short) offsets[i]);
+            cb.opc_invokestatic(unpackRefs[t], 2, size);
+            if (isFinal) {
+                cb.opc_invokestatic(assignRefs[t], 3 + size, 0);
+            } else {
+                cb.opc_putfield(fieldRefs[i], size);
+            }
+        }
+        cb.opc_return();
+        emitMethod(setPrimIdx, 3, cb, null, null);
+    }
+
+    /** Emits getObjFieldValues(Object obj, Object[] vals): for each
+        bound object field, vals[offset] = ((Target) obj).field */
+    private void emitGetObjFieldValues() {
+        ClassFileAssembler cb = new ClassFileAssembler();
+        cb.setMaxLocals(3);
+        for (int i = 0; i < fields.length; i++) {
+            Field f = fields[i];
+            if (f == null || f.getType().isPrimitive()) {
+                continue;
+            }
+            cb.opc_aload_2();
+            cb.opc_sipush((short) offsets[i]);
+            cb.opc_aload_1();
+            cb.opc_checkcast(targetClass);
+            cb.opc_getfield(fieldRefs[i], 1);
+            cb.opc_aastore();
+        }
+        cb.opc_return();
+        emitMethod(getObjIdx, 3, cb, null, null);
+    }
+
+    /** Emits setObjFieldValues(Object obj, Object[] vals): for each set
+        object field, in order, checks that val = vals[offset] is null
+        or an instance of the field's type, returning the index of the
+        field if not, and then does ((Target) obj).field = val, or
+        setObjectField(obj, fieldOffset, val) if it is final. Returns
+        -1 if all fields were set. */
+    private void emitSetObjFieldValues() {
+        ClassFileAssembler cb = new ClassFileAssembler();
+        cb.setMaxLocals(4);
+        Label[] mismatches = new Label[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            Field f = fields[i];
+            if (f == null || !settable[i] || f.getType().isPrimitive()) {
+                continue;
+            }
+            cb.opc_aload_2();
+            cb.opc_sipush((short) offsets[i]);
+            cb.opc_aaload();
+            cb.opc_astore_3();
+            if (typeClasses[i] != 0) {
+                Label ok = new Label();
+                mismatches[i] = new Label();
+                cb.opc_aload_3();
+                cb.opc_ifnull(ok);
+                cb.opc_aload_3();
+                cb.opc_instanceof(typeClasses[i]);
+                cb.opc_ifeq(mismatches[i]);
+                ok.bind();
+            }
+            cb.opc_aload_1();
+            if (Modifier.isFinal(f.getModifiers())) {
+                emitFieldOffset(cb, f);
+                cb.opc_aload_3();
+                cb.opc_invokestatic(assignRefs[OBJECT_INDEX], 4, 0);
+            } else {
+                cb.opc_checkcast(targetClass);
+                cb.opc_aload_3();
+                cb.opc_putfield(fieldRefs[i], 1);
+            }
+        }
+        cb.opc_sipush((short) -1);
+        cb.opc_ireturn();
+        for (int i = 0; i < fields.length; i++) {
+            if (mismatches[i] != null) {
+                mismatches[i].bind();
+                cb.opc_sipush((short) i);
+                cb.opc_ireturn();
+            }
+        }
+        emitMethod(setObjIdx, 3, cb, null, null);
+    }
+
+    /** Pushes the Unsafe offset of the given field as a long */
+    private static void emitFieldOffset(ClassFileAssembler cb, Field f) {
+        cb.opc_sipush((short) unsafe.objectFieldOffset(f));
+        cb.opc_i2l();
+        // i2l does not account for the wider result
+        cb.setStack(cb.getStack() + 1);
+    }
+
+    /** Values of type Object need no check before being assigned */
+    private static boolean needsTypeCheck(Class<?> type) {
+        return !type.isPrimitive() && type != Object.class;
+    }
+
+    private static int helperIndex(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return OBJECT_INDEX;
+        }
+        return PRIMITIVE_CODES.indexOf(getClassName(type, false).charAt(0));
+    }
+
+    private static synchronized String generateName() {
+        int num = ++serialFieldAccessorSymnum;
+        return "sun/reflect/GeneratedSerialFieldAccessor" + num;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package sun.util.concurrent;
+
+import javax.management.openmbean.CompositeData;
+
+/**
+ * A snapshot of the state and task statistics of an executor, as
+ * returned by {@link ExecutorStatisticsMXBean#getExecutors}.  Times are
+ * in nanoseconds; histograms count tasks per bucket, as bounded by
+ * {@link ExecutorStatisticsMXBean#getHistogramBucketBounds}.
+ */
+public class ExecutorInfo {
+    private final String name;
+    private final int poolSize;
+    private final int activeCount;
+    private final long queueSize;
+    private final long completedTaskCount;
+    private final long rejectedAfterShutdownCount;
+    private final long rejectedSaturatedCount;
+    private final long queueWaitCount;
+    private final long totalQueueWaitTime;
+    private final long[] queueWaitHistogram;
+    private final long runCount;
+    private final long totalRunTime;
+    private final long[] runTimeHistogram;
+
+    ExecutorInfo(String name, int poolSize, int activeCount, long queueSize,
+                 long completedTaskCount, long rejectedAfterShutdownCount,
+                 long rejectedSaturatedCount, long queueWaitCount,
+                 long totalQueueWaitTime, long[] queueWaitHistogram,
+                 long runCount, long totalRunTime, long[] runTimeHistogram) {
+        this.name = name;
+        this.poolSize = poolSize;
+        this.activeCount = activeCount;
+        this.queueSize = queueSize;
+        this.completedTaskCount = completedTaskCount;
+        this.rejectedAfterShutdownCount = rejectedAfterShutdownCount;
+        this.rejectedSaturatedCount = rejectedSaturatedCount;
+        this.queueWaitCount = queueWaitCount;
+        this.totalQueueWaitTime = totalQueueWaitTime;
+        this.queueWaitHistogram = queueWaitHistogram;
+        this.runCount = runCount;
+        this.totalRunTime = totalRunTime;
+        this.runTimeHistogram = runTimeHistogram;
+    }
+
+    /**
+     * Returns the class name and identity hash code of the executor, as
+     * in {@code Object.toString}.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of threads in the pool.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Returns the approximate number of threads running tasks.
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Returns the approximate number of queued tasks.
+     */
+    public long getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Returns the approximate number of tasks that have completed; for
+     * a {@code ForkJoinPool}, the number of tasks run from its queues
+     * since statistics were enabled, excluding the tasks they forked
+     * and joined.
+     */
+    public long getCompletedTaskCount() {
+        return completedTaskCount;
+    }
+
+    /**
+     * Returns the number of tasks rejected because the executor was
+     * shut down.
+     */
+    public long getRejectedAfterShutdownCount() {
+        return rejectedAfterShutdownCount;
+    }
+
+    /**
+     * Returns the number of tasks rejected because the executor had no
+     * thread or queue capacity left.
+     */
+    public long getRejectedSaturatedCount() {
+        return rejectedSaturatedCount;
+    }
+
+    /**
+     * Returns the number of tasks whose queue wait was recorded.
+     */
+    public long getQueueWaitCount() {
+        return queueWaitCount;
+    }
+
+    /**
+     * Returns the total time tasks waited between their submission, or
+     * for scheduled tasks the time they were due, and the start of their
+     * execution.
+     */
+    public long getTotalQueueWaitTime() {
+        return totalQueueWaitTime;
+    }
+
+    /**
+     * Returns the histogram of queue waits.
+     */
+    public long[] getQueueWaitHistogram() {
+        return queueWaitHistogram.clone();
+    }
+
+    /**
+     * Returns the number of task executions whose run time was recorded.
+     */
+    public long getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * Returns the total run time of tasks.
+     */
+    public long getTotalRunTime() {
+        return totalRunTime;
+    }
+
+    /**
+     * Returns the histogram of run times.
+     */
+    public long[] getRunTimeHistogram() {
+        return runTimeHistogram.clone();
+    }
+
+    /**
+     * Returns an {@code ExecutorInfo} object represented by the given
+     * {@code CompositeData}, whose items are named after the getters of
+     * this class.
+     *
+     * @param cd {@code CompositeData} representing an {@code ExecutorInfo}
+     * @return the {@code ExecutorInfo} represented by {@code cd}, or
+     *         {@code null} if {@code cd} is {@code null}
+     */
+    public static ExecutorInfo from(CompositeData cd) {
+        if (cd == null)
+            return null;
+        return new ExecutorInfo((String) cd.get("name"),
+                                (Integer) cd.get("poolSize"),
+                                (Integer) cd.get("activeCount"),
+                                (Long) cd.get("queueSize"),
+                                (Long) cd.get("completedTaskCount"),
+                                (Long) cd.get("rejectedAfterShutdownCount"),
+                                (Long) cd.get("rejectedSaturatedCount"),
+                                (Long) cd.get("queueWaitCount"),
+                                (Long) cd.get("totalQueueWaitTime"),
+                                (long[]) cd.get("queueWaitHistogram"),
+                                (Long) cd.get("runCount"),
+                                (Long) cd.get("totalRunTime"),
+                                (long[]) cd.get("runTimeHistogram"));
+    }
+}
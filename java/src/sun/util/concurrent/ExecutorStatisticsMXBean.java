@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package sun.util.concurrent;
+
+import java.lang.management.PlatformManagedObject;
+
+/**
+ * The management interface for the task statistics of the executors of
+ * {@code java.util.concurrent} that record them: instances of
+ * {@link java.util.concurrent.ThreadPoolExecutor},
+ * {@link java.util.concurrent.ScheduledThreadPoolExecutor} and
+ * {@link java.util.concurrent.ForkJoinPool} on which
+ * {@code setStatisticsEnabled(true)} was invoked, or all of them if the
+ * system property {@code java.util.concurrent.taskStatistics} is
+ * {@code true}.
+ *
+ * <p>The {@code ObjectName} for uniquely identifying the MXBean within
+ * an MBeanServer is {@code java.util.concurrent:type=Executors}.
+ */
+public interface ExecutorStatisticsMXBean extends PlatformManagedObject {
+
+    /**
+     * Returns the exclusive upper bounds, in nanoseconds, of the buckets
+     * of the histograms of {@link ExecutorInfo}; the last is
+     * {@code Long.MAX_VALUE}.
+     */
+    public long[] getHistogramBucketBounds();
+
+    /**
+     * Returns the statistics of each executor that records them.
+     */
+    public ExecutorInfo[] getExecutors();
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package sun.util.concurrent;
+
+import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+import sun.security.action.GetBooleanAction;
+
+/**
+ * Statistics of the tasks of an executor: histograms of the time tasks
+ * wait to start and of the time they run, and counts of rejected tasks
+ * by cause.  Each bucket is a {@link LongAdder}, so that workers
+ * recording concurrently do not contend.  Bucket 0 counts times below
+ * 1024 nanoseconds, bucket {@code k} times in
+ * [2<sup>9+k</sup>, 2<sup>10+k</sup>) nanoseconds, and the last bucket
+ * all times from about 17 seconds up.
+ *
+ * <p>Executors register their statistics while enabled, so that
+ * {@link #getMXBean} reports them; the registry holds executors weakly.
+ */
+public final class TaskStatistics {
+
+    /**
+     * Whether executors record statistics from their creation, as set
+     * by the system property {@code java.util.concurrent.taskStatistics}.
+     */
+    public static final boolean ENABLED_BY_DEFAULT =
+        AccessController.doPrivileged(
+            new GetBooleanAction("java.util.concurrent.taskStatistics"));
+
+    /** The number of buckets of the histograms */
+    public static final int BUCKETS = 26;
+
+    /** The log2 of the upper bound of bucket 0 */
+    private static final int FIRST_SHIFT = 10;
+
+    private final LongAdder[] waits = newBuckets();
+    private final LongAdder[] runs = newBuckets();
+    private final LongAdder totalWait = new LongAdder();
+    private final LongAdder totalRun = new LongAdder();
+    private final LongAdder rejectedAfterShutdown = new LongAdder();
+    private final LongAdder rejectedSaturated = new LongAdder();
+
+    private static LongAdder[] newBuckets() {
+        LongAdder[] buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            buckets[i] = new LongAdder();
+        return buckets;
+    }
+
+    /**
+     * Returns the bucket of a time in nanoseconds.
+     */
+    static int bucketOf(long nanos) {
+        int k = (64 - Long.numberOfLeadingZeros(nanos)) - FIRST_SHIFT;
+        return (nanos < (1L << FIRST_SHIFT)) ? 0 : Math.min(k, BUCKETS - 1);
+    }
+
+    /**
+     * Returns the exclusive upper bounds of the buckets, in nanoseconds.
+     */
+    public static long[] bucketBounds() {
+        long[] bounds = new long[BUCKETS];
+        for (int k = 0; k < BUCKETS - 1; k++)
+            bounds[k] = 1L << (FIRST_SHIFT + k);
+        bounds[BUCKETS - 1] = Long.MAX_VALUE;
+        return bounds;
+    }
+
+    /**
+     * Records the time a task waited to start, in nanoseconds.
+     */
+    public void recordQueueWait(long nanos) {
+        if (nanos < 0L)
+            nanos = 0L;
+        waits[bucketOf(nanos)].increment();
+        totalWait.add(nanos);
+    }
+
+    /**
+     * Records the time a task ran, in nanoseconds.
+     */
+    public void recordRunTime(long nanos) {
+        if (nanos < 0L)
+            nanos = 0L;
+        runs[bucketOf(nanos)].increment();
+        totalRun.add(nanos);
+    }
+
+    /**
+     * Records a rejected task.
+     *
+     * @param shutdown whether the task was rejected because the executor
+     *        was shut down, rather than saturated
+     */
+    public void recordRejection(boolean shutdown) {
+        (shutdown ? rejectedAfterShutdown : rejectedSaturated).increment();
+    }
+
+    private static long[] sums(LongAdder[] buckets) {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++)
+            counts[i] = buckets[i].sum();
+        return counts;
+    }
+
+    private static long total(long[] counts) {
+        long n = 0L;
+        for (long c : counts)
+            n += c;
+        return n;
+    }
+
+    /* ---------------- Registry -------------- */
+
+    private static final Map<Object,TaskStatistics> executors =
+        new WeakHashMap<>();
+
+    /**
+     * Registers the statistics of an executor, replacing any previous.
+     */
+    public static void register(Object executor, TaskStatistics stats) {
+        synchronized (executors) {
+            executors.put(executor, stats);
+        }
+    }
+
+    /**
+     * Unregisters the statistics of an executor.
+     */
+    public static void unregister(Object executor) {
+        synchronized (executors) {
+            executors.remove(executor);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the state and statistics of an executor.
+     */
+    static ExecutorInfo snapshot(Object executor, TaskStatistics s) {
+        int poolSize, activeCount;
+        long queueSize, completed;
+        long[] runs = sums(s.runs);
+        if (executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor tpe = (ThreadPoolExecutor) executor;
+            poolSize = tpe.getPoolSize();
+            activeCount = tpe.getActiveCount();
+            queueSize = tpe.getQueue().size();
+            completed = tpe.getCompletedTaskCount();
+        } else if (executor instanceof ForkJoinPool) {
+            ForkJoinPool fjp = (ForkJoinPool) executor;
+            poolSize = fjp.getPoolSize();
+            activeCount = fjp.getActiveThreadCount();
+            queueSize = fjp.getQueuedTaskCount() + fjp.getQueuedSubmissionCount();
+            completed = total(runs);
+        } else {
+            poolSize = activeCount = 0;
+            queueSize = 0L;
+            completed = total(runs);
+        }
+        long[] waits = sums(s.waits);
+        return new ExecutorInfo(
+            executor.getClass().getName() + "@" +
+            Integer.toHexString(System.identityHashCode(executor)),
+            poolSize, activeCount, queueSize, completed,
+            s.rejectedAfterShutdown.sum(), s.rejectedSaturated.sum(),
+            total(waits), s.totalWait.sum(), waits,
+            total(runs), s.totalRun.sum(), runs);
+    }
+
+    private static ExecutorStatisticsMXBean mxbean;
+
+    /**
+     * Returns the management interface of the statistics of executors.
+     */
+    public static synchronized ExecutorStatisticsMXBean getMXBean() {
+        if (mxbean == null) {
+            mxbean = new ExecutorStatisticsMXBean() {
+                public long[] getHistogramBucketBounds() {
+                    return bucketBounds();
+                }
+                public ExecutorInfo[] getExecutors() {
+                    List<Object> es = new ArrayList<>();
+                    List<TaskStatistics> ss = new ArrayList<>();
+                    synchronized (executors) {
+                        for (Map.Entry<Object,TaskStatistics> e
+                                 : executors.entrySet()) {
+                            Object executor = e.getKey();
+                            if (executor != null) {
+                                es.add(executor);
+                                ss.add(e.getValue());
+                            }
+                        }
+                    }
+                    ExecutorInfo[] infos = new ExecutorInfo[es.size()];
+                    for (int i = 0; i < infos.length; i++)
+                        infos[i] = snapshot(es.get(i), ss.get(i));
+                    return infos;
+                }
+                public ObjectName getObjectName() {
+                    return sun.management.Util.newObjectName(
+                        "java.util.concurrent:type=Executors");
+                }
+            };
+        }
+        return mxbean;
+    }
+}